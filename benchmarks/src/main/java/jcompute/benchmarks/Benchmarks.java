@@ -0,0 +1,82 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.benchmarks;
+
+import java.util.Optional;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import lombok.experimental.UtilityClass;
+
+import jcompute.opencl.ClDevice;
+
+/**
+ * Entry point of {@code benchmarks.jar}; accepts the usual JMH command line options.
+ * <p>
+ * Unless specified otherwise, results are written as JSON to {@value #DEFAULT_RESULT_FILE},
+ * such that runs can be compared (e.g. with {@code jmh.morethan.io}) to spot regressions.
+ * OpenCL benchmarks (simple name starting with {@code Cl}) are skipped, when no OpenCL device is found.
+ */
+@UtilityClass
+public class Benchmarks {
+
+    public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+    public static final String OPENCL_BENCHMARKS = "\\.Cl\\w*Benchmark\\.";
+
+    public static void main(final String[] args) throws Exception {
+        var commandLine = new CommandLineOptions(args);
+        if(commandLine.shouldHelp()
+                || commandLine.shouldList()
+                || commandLine.shouldListWithParams()
+                || commandLine.shouldListProfilers()
+                || commandLine.shouldListResultFormats()) {
+            // defer to JMH's own command line handling
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        var options = new OptionsBuilder().parent(commandLine);
+        if(!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if(!commandLine.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+        if(defaultDevice().isEmpty()) {
+            System.err.println("no OpenCL device found, skipping OpenCL benchmarks");
+            options.exclude(OPENCL_BENCHMARKS);
+        }
+        new Runner(options.build()).run();
+    }
+
+    /**
+     * The default OpenCL device, if any; empty also when no OpenCL runtime (binding) is available.
+     */
+    public static Optional<ClDevice> defaultDevice() {
+        try {
+            return Optional.ofNullable(ClDevice.getDefault());
+        } catch (Exception | LinkageError e) {
+            return Optional.empty();
+        }
+    }
+
+}
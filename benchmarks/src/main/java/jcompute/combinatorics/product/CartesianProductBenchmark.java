@@ -0,0 +1,87 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.combinatorics.product;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jcompute.combinatorics.product.CartesianProduct.Visiting;
+
+/**
+ * Visits all tuples of a {@link CartesianProduct} of given arity, spanning about {@code 2^20} tuples,
+ * in {@code forEach}, {@code stream} and {@code findAny} mode.
+ * <p>
+ * Arity 9 is served by {@link CartesianProductN}.
+ * The {@code findAny} predicate never matches, hence all tuples are visited.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartesianProductBenchmark {
+
+    @Param({"1", "2", "3", "4", "5", "6", "7", "8", "9"})
+    int arity;
+
+    @Param({"SEQUENTIAL", "PARALLEL", "BALANCED"})
+    Visiting visiting;
+
+    CartesianProduct product;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var dim = new int[arity];
+        Arrays.fill(dim, (int)Math.round(Math.pow(1 << 20, 1. / arity)));
+        product = CartesianProduct.create(dim);
+    }
+
+    @Benchmark
+    public void forEach(final Blackhole blackhole) {
+        product.forEach(visiting, blackhole::consume);
+    }
+
+    @Benchmark
+    public void stream(final Blackhole blackhole) {
+        product.stream(visiting).forEach(blackhole::consume);
+    }
+
+    /** {@code findAny} always runs in parallel, hence {@code visiting} does not apply. */
+    @Benchmark
+    public Optional<int[]> findAny() {
+        return product.findAny(v->v[0] < 0);
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.combinatorics.setcover;
+
+import java.lang.foreign.Arena;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jcompute.benchmarks.Benchmarks;
+import jcompute.core.mem.ByteArray;
+import jcompute.opencl.ClDevice;
+
+/**
+ * {@link SetCoverKernels.OpenCL64Bit} on the same synthetic problem as {@link SetCoverBenchmark},
+ * including context creation and program build.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClSetCoverBenchmark {
+
+    @Param({"64", "512"})
+    int kSetCount;
+
+    Arena arena;
+    ClDevice device;
+    SetCoverParams params;
+    ByteArray covered;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        device = Benchmarks.defaultDevice()
+                .orElseThrow(()->new IllegalStateException("no OpenCL device found"));
+        arena = Arena.ofShared();
+        params = SetCoverBenchmark.params(arena, kSetCount);
+        covered = ByteArray.of(arena, params.shape());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        arena.close();
+    }
+
+    @Benchmark
+    public ByteArray openCL64Bit() {
+        new SetCoverKernels.OpenCL64Bit(device, params, covered).run();
+        return covered;
+    }
+
+}
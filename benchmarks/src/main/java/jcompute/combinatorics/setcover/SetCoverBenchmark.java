@@ -0,0 +1,105 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.combinatorics.setcover;
+
+import java.lang.foreign.Arena;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jcompute.core.mem.ByteArray;
+import jcompute.core.mem.LongArray;
+import jcompute.core.shape.Shape;
+
+/**
+ * {@link SetCoverKernels.Java64Bit} on a synthetic problem:
+ * all {@code m}-subsets of {@code v} points checked against {@code kSetCount} random {@code k}-subsets.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SetCoverBenchmark {
+
+    static final int V = 20;
+    static final int M = 7;
+    static final int K = 6;
+    static final int T = 4;
+
+    @Param({"64", "512"})
+    int kSetCount;
+
+    Arena arena;
+    SetCoverParams params;
+    ByteArray covered;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        arena = Arena.ofShared();
+        params = params(arena, kSetCount);
+        covered = ByteArray.of(arena, params.shape());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        arena.close();
+    }
+
+    @Benchmark
+    public ByteArray java64Bit() {
+        new SetCoverKernels.Java64Bit(params, covered).run();
+        return covered;
+    }
+
+    // -- HELPER
+
+    /**
+     * Synthetic (reproducible) problem, shared with the OpenCL variant.
+     */
+    static SetCoverParams params(final Arena arena, final int kSetCount) {
+        var random = new Random(42);
+        var kSets = LongArray.of(arena, Shape.of(kSetCount))
+                .fill(gid->randomSubset(random, V, K));
+        return new SetCoverParams(arena, V, M, T, kSets);
+    }
+
+    private static long randomSubset(final Random random, final int v, final int k) {
+        long subset = 0L;
+        while(Long.bitCount(subset) < k) {
+            subset |= 1L << random.nextInt(v);
+        }
+        return subset;
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.ValueLayout;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import lombok.SneakyThrows;
+
+import jcompute.core.mem.LongArray;
+import jcompute.core.shape.Shape;
+import jcompute.core.util.primitive.ValueExternalizer;
+
+/**
+ * Compression and decompression of a {@link LongArray} payload for each {@link Compressor} codec.
+ * <p>
+ * The payload is a random walk with small steps, which favors {@link IntegerCodec}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressorBenchmark {
+
+    @Param({"passThrough", "gzip", "bzip2", "lzma", "integerCodec", "integerCodec+gzip"})
+    String codec;
+
+    @Param({"262144"})
+    int count;
+
+    Arena arena;
+    LongArray array;
+    Compressor compressor;
+    ValueExternalizer externalizer;
+    byte[] compressed;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        arena = Arena.ofShared();
+        var random = new Random(42);
+        var walk = new long[] {0L};
+        array = LongArray.of(arena, Shape.of(count))
+                .fill(gid->walk[0] += random.nextInt(-64, 64));
+        compressor = switch (codec) {
+            case "passThrough" -> Compressor.passThrough();
+            case "gzip" -> Compressor.gzip();
+            case "bzip2" -> Compressor.bzip2();
+            case "lzma" -> Compressor.lzma();
+            case "integerCodec" -> IntegerCodec.longs();
+            case "integerCodec+gzip" -> new IntegerCodec(Long.BYTES, Compressor.gzip());
+            default -> throw new IllegalArgumentException("Unexpected value: " + codec);
+        };
+        externalizer = ValueExternalizer.nativeOrder(ValueLayout.JAVA_LONG);
+        compressed = compress();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        arena.close();
+    }
+
+    @Benchmark
+    @SneakyThrows
+    public byte[] compress() {
+        var bos = new ByteArrayOutputStream(count * Long.BYTES);
+        try(var out = compressor.out(bos)) {
+            externalizer.write(array.memorySegment(), out);
+        }
+        return bos.toByteArray();
+    }
+
+    @Benchmark
+    @SneakyThrows
+    public LongArray decompress() {
+        try(var in = compressor.in(new ByteArrayInputStream(compressed))) {
+            externalizer.read(in, array.memorySegment());
+        }
+        return array;
+    }
+
+}
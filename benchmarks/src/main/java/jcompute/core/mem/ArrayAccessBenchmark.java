@@ -0,0 +1,146 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.mem;
+
+import java.lang.foreign.Arena;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jcompute.core.shape.Shape;
+import jcompute.core.util.Parallelism;
+
+/**
+ * {@link LongArray} fill, get and put versus plain {@code long[]} heap arrays.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class ArrayAccessBenchmark {
+
+    @Param({"1024", "1048576"})
+    int size;
+
+    @Param({"SEQUENTIAL", "PARALLEL"})
+    Parallelism parallelism;
+
+    Arena arena;
+    LongArray array;
+    long[] heap;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        arena = Arena.ofShared();
+        array = LongArray.of(arena, Shape.of(size)).fill(gid->gid);
+        heap = new long[size];
+        Arrays.setAll(heap, i->i);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        arena.close();
+    }
+
+    // -- FILL
+
+    @Benchmark
+    public LongArray fillConstant() {
+        return array.fill(parallelism, 0x0102_0304_0506_0708L);
+    }
+
+    @Benchmark
+    public long[] fillConstantHeap() {
+        Arrays.fill(heap, 0x0102_0304_0506_0708L);
+        return heap;
+    }
+
+    @Benchmark
+    public LongArray fillFunction() {
+        return array.fill(parallelism, gid->gid * 31);
+    }
+
+    @Benchmark
+    public long[] fillFunctionHeap() {
+        if(parallelism.isParallel()) {
+            Arrays.parallelSetAll(heap, i->i * 31L);
+        } else {
+            Arrays.setAll(heap, i->i * 31L);
+        }
+        return heap;
+    }
+
+    // -- GET
+
+    @Benchmark
+    public long get() {
+        long sum = 0L;
+        final long n = size;
+        for(long gid = 0L; gid<n; ++gid) {
+            sum += array.get(gid);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long getHeap() {
+        long sum = 0L;
+        final int n = size;
+        for(int i = 0; i<n; ++i) {
+            sum += heap[i];
+        }
+        return sum;
+    }
+
+    // -- PUT
+
+    @Benchmark
+    public LongArray put() {
+        final long n = size;
+        for(long gid = 0L; gid<n; ++gid) {
+            array.put(gid, gid);
+        }
+        return array;
+    }
+
+    @Benchmark
+    public long[] putHeap() {
+        final int n = size;
+        for(int i = 0; i<n; ++i) {
+            heap[i] = i;
+        }
+        return heap;
+    }
+
+}
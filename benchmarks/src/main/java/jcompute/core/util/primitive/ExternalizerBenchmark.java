@@ -0,0 +1,108 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.util.primitive;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jcompute.core.util.primitive.LongUtils.LongExternalizer;
+
+/**
+ * Stream throughput of {@link ValueExternalizer} (either byte order) and the legacy {@link LongExternalizer},
+ * for a payload of {@code count} longs. Operations per second times {@code count * 8} gives bytes per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExternalizerBenchmark {
+
+    @Param({"1048576"})
+    int count;
+
+    @Param({"BIG_ENDIAN", "LITTLE_ENDIAN"})
+    String byteOrder;
+
+    Arena arena;
+    MemorySegment segment;
+    ValueExternalizer externalizer;
+    LongExternalizer legacyExternalizer;
+    ByteArrayInputStream in;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        arena = Arena.ofShared();
+        segment = arena.allocate(ValueLayout.JAVA_LONG, count);
+        for(long i = 0; i<count; ++i) {
+            segment.setAtIndex(ValueLayout.JAVA_LONG, i, i * 0x9E37_79B9_7F4A_7C15L);
+        }
+        externalizer = ValueExternalizer.of(ValueLayout.JAVA_LONG, switch (byteOrder) {
+            case "BIG_ENDIAN" -> ByteOrder.BIG_ENDIAN;
+            case "LITTLE_ENDIAN" -> ByteOrder.LITTLE_ENDIAN;
+            default -> throw new IllegalArgumentException("Unexpected value: " + byteOrder);
+        });
+        legacyExternalizer = new LongExternalizer(1024);
+        in = new ByteArrayInputStream(segment.toArray(ValueLayout.JAVA_BYTE));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        arena.close();
+    }
+
+    @Benchmark
+    public void write() {
+        externalizer.write(segment, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public MemorySegment read() {
+        in.reset();
+        externalizer.read(in, segment);
+        return segment;
+    }
+
+    /** Baseline: buffered big-endian transfer, as used before {@link ValueExternalizer}. */
+    @Benchmark
+    public void writeLegacy() {
+        legacyExternalizer.writeSegment(segment, OutputStream.nullOutputStream());
+    }
+
+}
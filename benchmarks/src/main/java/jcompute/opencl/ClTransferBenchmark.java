@@ -0,0 +1,88 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.opencl;
+
+import java.lang.foreign.Arena;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jcompute.benchmarks.Benchmarks;
+import jcompute.core.mem.LongArray;
+import jcompute.core.shape.Shape;
+
+/**
+ * Blocking host to device and device to host transfers of a {@link LongArray} of given size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClTransferBenchmark {
+
+    @Param({"1024", "1048576", "16777216"})
+    int size;
+
+    Arena arena;
+    ClContext context;
+    ClCommandQueue queue;
+    ClMem mem;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var device = Benchmarks.defaultDevice()
+                .orElseThrow(()->new IllegalStateException("no OpenCL device found"));
+        arena = Arena.ofShared();
+        var array = LongArray.of(arena, Shape.of(size)).fill(gid->gid);
+        context = device.createContext();
+        queue = context.createQueue();
+        mem = context.createMemoryReadWrite(array);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        arena.close();
+    }
+
+    @Benchmark
+    public ClCommandQueue write() {
+        return queue.enqueueWriteBuffer(mem);
+    }
+
+    @Benchmark
+    public ClCommandQueue read() {
+        return queue.enqueueReadBuffer(mem);
+    }
+
+}
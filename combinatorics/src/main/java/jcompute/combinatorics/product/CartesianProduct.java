@@ -19,11 +19,15 @@
 package jcompute.combinatorics.product;
 
 import java.math.BigInteger;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.function.IntFunction;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import jcompute.core.job.JobControl;
 import jcompute.core.util.function.MultiIntConsumer;
 import jcompute.core.util.function.MultiIntPredicate;
 import jcompute.core.util.function.PrefixedMultiIntConsumer;
@@ -41,9 +45,6 @@ import jcompute.core.util.function.PrefixedMultiIntConsumer;
 /// ```
 ///Caveats / Future Work:
 ///- no `Stream<int[]>` creation
-///- no branch pruning support
-///- no computation cancellation support
-///- no progress indication callback support
 ///- `CartesianProductN` (n>8) is slow
 public interface CartesianProduct {
 
@@ -54,11 +55,28 @@ public interface CartesianProduct {
                 return IntStream.range(0, upperExclusive);
             }
         },
+        /**
+         * Parallel over the first index, hence uses no more than {@code n0} cores.
+         */
         PARALLEL{
             @Override
             IntStream range(final int upperExclusive) {
                 return IntStream.range(0, upperExclusive).parallel();
             }
+        },
+        /**
+         * With {@link CartesianProduct#forEach(Visiting, JobControl, MultiIntConsumer)},
+         * splits the ranks (positions in sequential order) of all tuples into balanced chunks,
+         * that are visited in parallel with work-stealing, regardless of the index ranges.
+         * The tuple array passed to the consumer is reused within a chunk, hence must not be retained.
+         * <p>
+         * Other operations fall back to {@link #PARALLEL}.
+         */
+        BALANCED{
+            @Override
+            IntStream range(final int upperExclusive) {
+                return IntStream.range(0, upperExclusive).parallel();
+            }
         };
         abstract IntStream range(int upperExclusive);
     }
@@ -75,11 +93,34 @@ public interface CartesianProduct {
      * Reports the index ranges to the consumer. (single call)
      */
     void reportIndexRanges(MultiIntConsumer intConsumer);
+    /**
+     * Number of distinct tuples in this space, capped at {@link Long#MAX_VALUE}.
+     * Fixed arity products compute it without {@link BigInteger} arithmetic.
+     */
+    default long saturatedCardinality() {
+        return MixedRadix.saturated(cardinality());
+    }
+    /**
+     * Index ranges of this space, as reported by {@link #reportIndexRanges(MultiIntConsumer)}, as new array.
+     */
+    default int[] indexRanges() {
+        var dim = new int[indexCount()];
+        reportIndexRanges(ranges->System.arraycopy(ranges, 0, dim, 0, ranges.length));
+        return dim;
+    }
 
     /**
      * Visits all distinct tuples.
      */
-    void forEach(Visiting visiting, MultiIntConsumer intConsumer);
+    default void forEach(final Visiting visiting, final MultiIntConsumer intConsumer) {
+        forEach(visiting, JobControl.none(), intConsumer);
+    }
+    /**
+     * Visits all distinct tuples, checking for cancellation before and reporting progress after each slice,
+     * that is the sub-space of fixed first index. Progress is reported in units of tuples visited.
+     * @throws CancellationException if cancelled, while some tuples may have been visited already
+     */
+    void forEach(Visiting visiting, JobControl control, MultiIntConsumer intConsumer);
     default void forEachSequential(final MultiIntConsumer intConsumer) {
         forEach(Visiting.SEQUENTIAL, intConsumer);
     }
@@ -87,6 +128,24 @@ public interface CartesianProduct {
         forEach(Visiting.PARALLEL, intConsumer);
     }
 
+    /**
+     * Visits all distinct tuples, except those sharing a prefix, that given prefixFilter rejects;
+     * hence rejecting a prefix skips its entire subtree.
+     * <p>
+     * The filter is called with proper prefixes {@code (i)}, {@code (i, j)}, ... of up to {@code indexCount() - 1} indices,
+     * each before its subtree is entered. It must be thread-safe for {@link Visiting#PARALLEL}
+     * and must not retain the prefix array.
+     */
+    default void forEachPruned(final Visiting visiting, final MultiIntPredicate prefixFilter, final MultiIntConsumer intConsumer) {
+        forEachPruned(visiting, JobControl.none(), prefixFilter, intConsumer);
+    }
+    /**
+     * Pruned visit as with {@link #forEachPruned(Visiting, MultiIntPredicate, MultiIntConsumer)},
+     * handling cancellation and progress as with {@link #forEach(Visiting, JobControl, MultiIntConsumer)},
+     * where skipped tuples count as visited.
+     */
+    void forEachPruned(Visiting visiting, JobControl control, MultiIntPredicate prefixFilter, MultiIntConsumer intConsumer);
+
     /**
      * Streams all distinct tuples.
      */
@@ -98,6 +157,23 @@ public interface CartesianProduct {
         return stream(Visiting.PARALLEL);
     }
 
+    /**
+     * Streams all distinct tuples without allocating an {@code int[]} per tuple,
+     * by splitting the rank range {@code [0, cardinality)} into halves, each updating its own cursor in place.
+     * Hence a streamed element is only valid until the next element of the same split is produced:
+     * it must not be retained or collected, but may be copied (e.g. via {@code int[]::clone}).
+     * <p>
+     * The stream is sequential for {@link Visiting#SEQUENTIAL}, otherwise parallel.
+     * @throws ArithmeticException if the {@link #cardinality()} does not fit into a {@code long}
+     */
+    default Stream<int[]> streamCursor(final Visiting visiting) {
+        final int[] dim = indexRanges();
+        final long total = dim.length==0
+            ? 0L
+            : cardinality().longValueExact();
+        return StreamSupport.stream(new CursorSpliterator(dim, 0L, total), visiting!=Visiting.SEQUENTIAL);
+    }
+
     /**
      * Creates a collector for each possible integer of the first dimension, then streams them after they passed given prefixedIntConsumer.
      */
@@ -110,6 +186,112 @@ public interface CartesianProduct {
      */
     Optional<int[]> findAny(MultiIntPredicate intPredicate);
 
+    // -- Ranking
+
+    /**
+     * Position of given tuple in {@link Visiting#SEQUENTIAL} order, zero based.
+     * @throws IllegalArgumentException if the tuple length does not match {@link #indexCount()}
+     * @throws IndexOutOfBoundsException if any index is out of its range
+     */
+    default BigInteger rank(final int... v) {
+        final int[] dim = indexRanges();
+        MixedRadix.checkTuple(dim, v);
+        return MixedRadix.fitsLong(dim)
+            ? BigInteger.valueOf(MixedRadix.rank(dim, v))
+            : MixedRadix.rankAsBigInteger(dim, v);
+    }
+
+    /**
+     * Position of given tuple in {@link Visiting#SEQUENTIAL} order, zero based.
+     * @throws ArithmeticException if the rank does not fit into a {@code long}
+     * @see #rank(int...)
+     */
+    default long rankAsLongValueExact(final int... v) {
+        final int[] dim = indexRanges();
+        MixedRadix.checkTuple(dim, v);
+        return MixedRadix.fitsLong(dim)
+            ? MixedRadix.rank(dim, v)
+            : MixedRadix.rankAsBigInteger(dim, v).longValueExact();
+    }
+
+    /**
+     * Writes the tuple at given position in {@link Visiting#SEQUENTIAL} order into {@code into}.
+     * @return into
+     * @throws IndexOutOfBoundsException if the rank is not within {@code [0, cardinality)}
+     */
+    default int[] unrank(final long rank, final int[] into) {
+        Objects.checkIndex(rank, saturatedCardinality());
+        final int[] dim = indexRanges();
+        checkLength(into);
+        MixedRadix.unrank(dim, rank, into);
+        return into;
+    }
+
+    /**
+     * Writes the tuple at given position in {@link Visiting#SEQUENTIAL} order into {@code into}.
+     * @return into
+     * @throws IndexOutOfBoundsException if the rank is not within {@code [0, cardinality)}
+     */
+    default int[] unrank(final BigInteger rank, final int[] into) {
+        if(rank.signum()<0
+                || rank.compareTo(cardinality())>=0) {
+            throw new IndexOutOfBoundsException(String.format(
+                    "rank %s out of bounds for cardinality %s", rank, cardinality()));
+        }
+        final int[] dim = indexRanges();
+        checkLength(into);
+        MixedRadix.unrank(dim, rank, into);
+        return into;
+    }
+
+    /**
+     * Visits the tuples from {@code fromRank} (inclusive) to {@code toRank} (exclusive) in {@link Visiting#SEQUENTIAL} order,
+     * unranking only the first, then counting up incrementally.
+     * The tuple array passed to the consumer is reused, hence must not be retained.
+     * @throws IndexOutOfBoundsException if the range is not within {@code [0, cardinality]}
+     */
+    default void forEachInRange(final long fromRank, final long toRank, final MultiIntConsumer intConsumer) {
+        Objects.checkFromToIndex(fromRank, toRank, saturatedCardinality());
+        if(fromRank==toRank) return;
+        final int[] dim = indexRanges();
+        var v = new int[dim.length];
+        MixedRadix.unrank(dim, fromRank, v);
+        MixedRadix.visit(dim, v, toRank - fromRank, intConsumer);
+    }
+
+    /**
+     * Visits the tuples from {@code fromRank} (inclusive) to {@code toRank} (exclusive) in {@link Visiting#SEQUENTIAL} order.
+     * @see #forEachInRange(long, long, MultiIntConsumer)
+     */
+    default void forEachInRange(final BigInteger fromRank, final BigInteger toRank, final MultiIntConsumer intConsumer) {
+        if(fromRank.signum()<0
+                || fromRank.compareTo(toRank)>0
+                || toRank.compareTo(cardinality())>0) {
+            throw new IndexOutOfBoundsException(String.format(
+                    "range [%s, %s) out of bounds for cardinality %s", fromRank, toRank, cardinality()));
+        }
+        if(toRank.bitLength()<Long.SIZE) {
+            forEachInRange(fromRank.longValue(), toRank.longValue(), intConsumer);
+            return;
+        }
+        final int[] dim = indexRanges();
+        var v = new int[dim.length];
+        MixedRadix.unrank(dim, fromRank, v);
+        var remaining = toRank.subtract(fromRank);
+        while(remaining.signum()>0) {
+            final long count = MixedRadix.saturated(remaining);
+            MixedRadix.visit(dim, v, count, intConsumer);
+            remaining = remaining.subtract(BigInteger.valueOf(count));
+        }
+    }
+
+    private void checkLength(final int[] into) {
+        if(into.length!=indexCount()) {
+            throw new IllegalArgumentException(String.format(
+                    "tuple length mismatch: %d != %d", into.length, indexCount()));
+        }
+    }
+
     // -- Factory
 
     public static CartesianProduct create(final int... dim) {
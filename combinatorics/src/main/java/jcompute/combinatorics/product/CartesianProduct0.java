@@ -23,6 +23,7 @@ import java.util.Optional;
 import java.util.function.IntFunction;
 import java.util.stream.Stream;
 
+import jcompute.core.job.JobControl;
 import jcompute.core.util.function.MultiIntConsumer;
 import jcompute.core.util.function.MultiIntPredicate;
 import jcompute.core.util.function.PrefixedMultiIntConsumer;
@@ -31,6 +32,8 @@ public record CartesianProduct0() implements CartesianProduct {
 
     @Override public int indexCount() { return 0; }
     @Override public BigInteger cardinality() { return BigInteger.ZERO; }
+    @Override public long saturatedCardinality() { return 0L; }
+    @Override public int[] indexRanges() { return new int[0]; }
 
     @Override
     public void reportIndexRanges(final MultiIntConsumer intConsumer) {
@@ -38,7 +41,13 @@ public record CartesianProduct0() implements CartesianProduct {
     }
 
     @Override
-    public void forEach(final Visiting visiting, final MultiIntConsumer intConsumer) {
+    public void forEach(final Visiting visiting, final JobControl control, final MultiIntConsumer intConsumer) {
+        // no-op
+    }
+
+    @Override
+    public void forEachPruned(final Visiting visiting, final JobControl control,
+            final MultiIntPredicate prefixFilter, final MultiIntConsumer intConsumer) {
         // no-op
     }
 
@@ -20,10 +20,13 @@ package jcompute.combinatorics.product;
 
 import java.math.BigInteger;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
 import java.util.function.IntFunction;
 import java.util.stream.Gatherer;
 import java.util.stream.Stream;
 
+import jcompute.core.job.JobControl;
 import jcompute.core.util.function.MultiIntConsumer;
 import jcompute.core.util.function.MultiIntPredicate;
 import jcompute.core.util.function.PrefixedMultiIntConsumer;
@@ -37,14 +40,72 @@ public record CartesianProduct1(int n0) implements CartesianProduct {
     public void reportIndexRanges(final MultiIntConsumer intConsumer) {
         intConsumer.accept(n0);
     }
+    @Override public long saturatedCardinality() { return MixedRadix.tupleCount(n0); }
+    @Override public int[] indexRanges() { return new int[] {n0}; }
+
+    /**
+     * Slices are single tuples, hence cancellation and progress are handled per block of (at most) this many indices instead.
+     * Blocks are smaller for parallel visiting if needed, such that all cores get work.
+     */
+    static final int BLOCK_SIZE = 1 << 12;
 
     @Override
-    public void forEach(final Visiting visiting, final MultiIntConsumer intConsumer) {
-        visiting.range(n0).forEach(i->{
-            intConsumer.accept(i);
+    public void forEach(final Visiting visiting, final JobControl control, final MultiIntConsumer intConsumer) {
+        forEachTuple(visiting, control, i->intConsumer.accept(i));
+    }
+
+    /**
+     * Visits all distinct tuples, without allocating per tuple.
+     */
+    public void forEachTuple(final Visiting visiting, final IntConsumer intConsumer) {
+        forEachTuple(visiting, JobControl.none(), intConsumer);
+    }
+
+    /**
+     * Visits all distinct tuples, without allocating per tuple.
+     * @see CartesianProduct#forEach(Visiting, JobControl, MultiIntConsumer)
+     */
+    public void forEachTuple(final Visiting visiting, final JobControl control, final IntConsumer intConsumer) {
+        if(visiting==Visiting.BALANCED) {
+            MixedRadix.forEachBalanced(this, control, v->intConsumer.accept(v[0]));
+            return;
+        }
+        final long t0 = System.nanoTime();
+        visitBlocks(visiting, control, intConsumer);
+        _Metrics.visited(t0, saturatedCardinality());
+    }
+
+    private void visitBlocks(final Visiting visiting, final JobControl control, final IntConsumer intConsumer) {
+        final int blockSize = blockSize(visiting);
+        final int blockCount = (int)((n0 + (long)blockSize - 1) / blockSize);
+        visiting.range(blockCount).forEach(block->{
+            control.checkpoint();
+            final int from = block * blockSize;
+            final int to = (int)Math.min(n0, (long)from + blockSize);
+            for(int i=from; i<to; ++i){
+                intConsumer.accept(i);
+            }
+            control.advance(to - from);
         });
     }
 
+    private int blockSize(final Visiting visiting) {
+        if(visiting==Visiting.SEQUENTIAL) return BLOCK_SIZE;
+        final long blocks = (long)ForkJoinPool.getCommonPoolParallelism() * MixedRadix.CHUNKS_PER_THREAD;
+        return (int)Math.max(1L, Math.min(BLOCK_SIZE, n0 / blocks));
+    }
+
+    /**
+     * Single indices have no proper prefix, hence nothing to prune.
+     */
+    @Override
+    public void forEachPruned(final Visiting visiting, final JobControl control,
+            final MultiIntPredicate prefixFilter, final MultiIntConsumer intConsumer) {
+        final long t0 = System.nanoTime();
+        visitBlocks(visiting, control, i->intConsumer.accept(i));
+        _Metrics.VISIT.recordSince(t0);
+    }
+
     @Override
     public Stream<int[]> stream(final Visiting visiting) {
         return visiting.range(n0)
@@ -25,6 +25,8 @@ import java.util.function.IntFunction;
 import java.util.stream.Gatherer;
 import java.util.stream.Stream;
 
+import jcompute.core.job.JobControl;
+import jcompute.core.util.function.BiIntConsumer;
 import jcompute.core.util.function.MultiIntConsumer;
 import jcompute.core.util.function.MultiIntPredicate;
 import jcompute.core.util.function.PrefixedMultiIntConsumer;
@@ -36,6 +38,8 @@ public record CartesianProduct2(int n0, int n1) implements CartesianProduct {
         return BigInteger.valueOf(n0)
             .multiply(BigInteger.valueOf(n1));
     }
+    @Override public long saturatedCardinality() { return MixedRadix.tupleCount(n0, n1); }
+    @Override public int[] indexRanges() { return new int[] {n0, n1}; }
 
     @Override
     public void reportIndexRanges(final MultiIntConsumer intConsumer) {
@@ -43,12 +47,57 @@ public record CartesianProduct2(int n0, int n1) implements CartesianProduct {
     }
 
     @Override
-    public void forEach(final Visiting visiting, final MultiIntConsumer intConsumer) {
+    public void forEach(final Visiting visiting, final JobControl control, final MultiIntConsumer intConsumer) {
+        forEachTuple(visiting, control, (i, j)->intConsumer.accept(i, j));
+    }
+
+    /**
+     * Visits all distinct tuples, without allocating per tuple.
+     */
+    public void forEachTuple(final Visiting visiting, final BiIntConsumer intConsumer) {
+        forEachTuple(visiting, JobControl.none(), intConsumer);
+    }
+
+    /**
+     * Visits all distinct tuples, without allocating per tuple.
+     * @see CartesianProduct#forEach(Visiting, JobControl, MultiIntConsumer)
+     */
+    public void forEachTuple(final Visiting visiting, final JobControl control, final BiIntConsumer intConsumer) {
+        if(visiting==Visiting.BALANCED) {
+            MixedRadix.forEachBalanced(this, control, v->intConsumer.accept(v[0], v[1]));
+            return;
+        }
+        final long t0 = System.nanoTime();
+        final long sliceSize = MixedRadix.tupleCount(n1);
         visiting.range(n0).forEach(i->{
+            control.checkpoint();
+            final long s0 = System.nanoTime();
             for(int j=0; j<n1; ++j){
                 intConsumer.accept(i, j);
             }
+            _Metrics.SLICE.recordSince(s0);
+            control.advance(sliceSize);
+        });
+        _Metrics.visited(t0, saturatedCardinality());
+    }
+
+    @Override
+    public void forEachPruned(final Visiting visiting, final JobControl control,
+            final MultiIntPredicate prefixFilter, final MultiIntConsumer intConsumer) {
+        final long t0 = System.nanoTime();
+        final long sliceSize = MixedRadix.tupleCount(n1);
+        visiting.range(n0).forEach(i->{
+            control.checkpoint();
+            final long s0 = System.nanoTime();
+            if(prefixFilter.test(i)) {
+                for(int j=0; j<n1; ++j){
+                    intConsumer.accept(i, j);
+                }
+            }
+            _Metrics.SLICE.recordSince(s0);
+            control.advance(sliceSize);
         });
+        _Metrics.VISIT.recordSince(t0);
     }
 
     @Override
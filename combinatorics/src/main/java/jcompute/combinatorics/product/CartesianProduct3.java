@@ -25,9 +25,11 @@ import java.util.function.IntFunction;
 import java.util.stream.Gatherer;
 import java.util.stream.Stream;
 
+import jcompute.core.job.JobControl;
 import jcompute.core.util.function.MultiIntConsumer;
 import jcompute.core.util.function.MultiIntPredicate;
 import jcompute.core.util.function.PrefixedMultiIntConsumer;
+import jcompute.core.util.function.TriIntConsumer;
 
 public record CartesianProduct3(int n0, int n1, int n2) implements CartesianProduct {
 
@@ -37,6 +39,8 @@ public record CartesianProduct3(int n0, int n1, int n2) implements CartesianProd
             .multiply(BigInteger.valueOf(n1))
             .multiply(BigInteger.valueOf(n2));
     }
+    @Override public long saturatedCardinality() { return MixedRadix.tupleCount(n0, n1, n2); }
+    @Override public int[] indexRanges() { return new int[] {n0, n1, n2}; }
 
     @Override
     public void reportIndexRanges(final MultiIntConsumer intConsumer) {
@@ -44,14 +48,62 @@ public record CartesianProduct3(int n0, int n1, int n2) implements CartesianProd
     }
 
     @Override
-    public void forEach(final Visiting visiting, final MultiIntConsumer intConsumer) {
+    public void forEach(final Visiting visiting, final JobControl control, final MultiIntConsumer intConsumer) {
+        forEachTuple(visiting, control, (i, j, k)->intConsumer.accept(i, j, k));
+    }
+
+    /**
+     * Visits all distinct tuples, without allocating per tuple.
+     */
+    public void forEachTuple(final Visiting visiting, final TriIntConsumer intConsumer) {
+        forEachTuple(visiting, JobControl.none(), intConsumer);
+    }
+
+    /**
+     * Visits all distinct tuples, without allocating per tuple.
+     * @see CartesianProduct#forEach(Visiting, JobControl, MultiIntConsumer)
+     */
+    public void forEachTuple(final Visiting visiting, final JobControl control, final TriIntConsumer intConsumer) {
+        if(visiting==Visiting.BALANCED) {
+            MixedRadix.forEachBalanced(this, control, v->intConsumer.accept(v[0], v[1], v[2]));
+            return;
+        }
+        final long t0 = System.nanoTime();
+        final long sliceSize = MixedRadix.tupleCount(n1, n2);
         visiting.range(n0).forEach(i->{
+            control.checkpoint();
+            final long s0 = System.nanoTime();
             for(int j=0; j<n1; ++j){
                 for(int k=0; k<n2; ++k){
                     intConsumer.accept(i, j, k);
                 }
             }
+            _Metrics.SLICE.recordSince(s0);
+            control.advance(sliceSize);
+        });
+        _Metrics.visited(t0, saturatedCardinality());
+    }
+
+    @Override
+    public void forEachPruned(final Visiting visiting, final JobControl control,
+            final MultiIntPredicate prefixFilter, final MultiIntConsumer intConsumer) {
+        final long t0 = System.nanoTime();
+        final long sliceSize = MixedRadix.tupleCount(n1, n2);
+        visiting.range(n0).forEach(i->{
+            control.checkpoint();
+            final long s0 = System.nanoTime();
+            if(prefixFilter.test(i)) {
+                for(int j=0; j<n1; ++j){
+                    if(!prefixFilter.test(i, j)) continue;
+                    for(int k=0; k<n2; ++k){
+                        intConsumer.accept(i, j, k);
+                    }
+                }
+            }
+            _Metrics.SLICE.recordSince(s0);
+            control.advance(sliceSize);
         });
+        _Metrics.VISIT.recordSince(t0);
     }
 
     @Override
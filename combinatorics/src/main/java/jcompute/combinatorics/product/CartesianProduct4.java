@@ -25,9 +25,11 @@ import java.util.function.IntFunction;
 import java.util.stream.Gatherer;
 import java.util.stream.Stream;
 
+import jcompute.core.job.JobControl;
 import jcompute.core.util.function.MultiIntConsumer;
 import jcompute.core.util.function.MultiIntPredicate;
 import jcompute.core.util.function.PrefixedMultiIntConsumer;
+import jcompute.core.util.function.QuadIntConsumer;
 
 public record CartesianProduct4(int n0, int n1, int n2, int n3) implements CartesianProduct {
 
@@ -38,6 +40,8 @@ public record CartesianProduct4(int n0, int n1, int n2, int n3) implements Carte
             .multiply(BigInteger.valueOf(n2))
             .multiply(BigInteger.valueOf(n3));
     }
+    @Override public long saturatedCardinality() { return MixedRadix.tupleCount(n0, n1, n2, n3); }
+    @Override public int[] indexRanges() { return new int[] {n0, n1, n2, n3}; }
 
     @Override
     public void reportIndexRanges(final MultiIntConsumer intConsumer) {
@@ -45,8 +49,31 @@ public record CartesianProduct4(int n0, int n1, int n2, int n3) implements Carte
     }
 
     @Override
-    public void forEach(final Visiting visiting, final MultiIntConsumer intConsumer) {
+    public void forEach(final Visiting visiting, final JobControl control, final MultiIntConsumer intConsumer) {
+        forEachTuple(visiting, control, (i, j, k, l)->intConsumer.accept(i, j, k, l));
+    }
+
+    /**
+     * Visits all distinct tuples, without allocating per tuple.
+     */
+    public void forEachTuple(final Visiting visiting, final QuadIntConsumer intConsumer) {
+        forEachTuple(visiting, JobControl.none(), intConsumer);
+    }
+
+    /**
+     * Visits all distinct tuples, without allocating per tuple.
+     * @see CartesianProduct#forEach(Visiting, JobControl, MultiIntConsumer)
+     */
+    public void forEachTuple(final Visiting visiting, final JobControl control, final QuadIntConsumer intConsumer) {
+        if(visiting==Visiting.BALANCED) {
+            MixedRadix.forEachBalanced(this, control, v->intConsumer.accept(v[0], v[1], v[2], v[3]));
+            return;
+        }
+        final long t0 = System.nanoTime();
+        final long sliceSize = MixedRadix.tupleCount(n1, n2, n3);
         visiting.range(n0).forEach(i->{
+            control.checkpoint();
+            final long s0 = System.nanoTime();
             for(int j=0; j<n1; ++j){
                 for(int k=0; k<n2; ++k){
                     for(int l=0; l<n3; ++l){
@@ -54,7 +81,35 @@ public record CartesianProduct4(int n0, int n1, int n2, int n3) implements Carte
                     }
                 }
             }
+            _Metrics.SLICE.recordSince(s0);
+            control.advance(sliceSize);
+        });
+        _Metrics.visited(t0, saturatedCardinality());
+    }
+
+    @Override
+    public void forEachPruned(final Visiting visiting, final JobControl control,
+            final MultiIntPredicate prefixFilter, final MultiIntConsumer intConsumer) {
+        final long t0 = System.nanoTime();
+        final long sliceSize = MixedRadix.tupleCount(n1, n2, n3);
+        visiting.range(n0).forEach(i->{
+            control.checkpoint();
+            final long s0 = System.nanoTime();
+            if(prefixFilter.test(i)) {
+                for(int j=0; j<n1; ++j){
+                    if(!prefixFilter.test(i, j)) continue;
+                    for(int k=0; k<n2; ++k){
+                        if(!prefixFilter.test(i, j, k)) continue;
+                        for(int l=0; l<n3; ++l){
+                            intConsumer.accept(i, j, k, l);
+                        }
+                    }
+                }
+            }
+            _Metrics.SLICE.recordSince(s0);
+            control.advance(sliceSize);
         });
+        _Metrics.VISIT.recordSince(t0);
     }
 
     @Override
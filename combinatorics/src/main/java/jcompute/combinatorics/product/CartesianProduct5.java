@@ -25,8 +25,10 @@ import java.util.function.IntFunction;
 import java.util.stream.Gatherer;
 import java.util.stream.Stream;
 
+import jcompute.core.job.JobControl;
 import jcompute.core.util.function.MultiIntConsumer;
 import jcompute.core.util.function.MultiIntPredicate;
+import jcompute.core.util.function.PentaIntConsumer;
 import jcompute.core.util.function.PrefixedMultiIntConsumer;
 
 public record CartesianProduct5(int n0, int n1, int n2, int n3, int n4) implements CartesianProduct {
@@ -39,6 +41,8 @@ public record CartesianProduct5(int n0, int n1, int n2, int n3, int n4) implemen
             .multiply(BigInteger.valueOf(n3))
             .multiply(BigInteger.valueOf(n4));
     }
+    @Override public long saturatedCardinality() { return MixedRadix.tupleCount(n0, n1, n2, n3, n4); }
+    @Override public int[] indexRanges() { return new int[] {n0, n1, n2, n3, n4}; }
 
     @Override
     public void reportIndexRanges(final MultiIntConsumer intConsumer) {
@@ -46,8 +50,31 @@ public record CartesianProduct5(int n0, int n1, int n2, int n3, int n4) implemen
     }
 
     @Override
-    public void forEach(final Visiting visiting, final MultiIntConsumer intConsumer) {
+    public void forEach(final Visiting visiting, final JobControl control, final MultiIntConsumer intConsumer) {
+        forEachTuple(visiting, control, (i, j, k, l, m)->intConsumer.accept(i, j, k, l, m));
+    }
+
+    /**
+     * Visits all distinct tuples, without allocating per tuple.
+     */
+    public void forEachTuple(final Visiting visiting, final PentaIntConsumer intConsumer) {
+        forEachTuple(visiting, JobControl.none(), intConsumer);
+    }
+
+    /**
+     * Visits all distinct tuples, without allocating per tuple.
+     * @see CartesianProduct#forEach(Visiting, JobControl, MultiIntConsumer)
+     */
+    public void forEachTuple(final Visiting visiting, final JobControl control, final PentaIntConsumer intConsumer) {
+        if(visiting==Visiting.BALANCED) {
+            MixedRadix.forEachBalanced(this, control, v->intConsumer.accept(v[0], v[1], v[2], v[3], v[4]));
+            return;
+        }
+        final long t0 = System.nanoTime();
+        final long sliceSize = MixedRadix.tupleCount(n1, n2, n3, n4);
         visiting.range(n0).forEach(i->{
+            control.checkpoint();
+            final long s0 = System.nanoTime();
             for(int j=0; j<n1; ++j){
                 for(int k=0; k<n2; ++k){
                     for(int l=0; l<n3; ++l){
@@ -57,7 +84,38 @@ public record CartesianProduct5(int n0, int n1, int n2, int n3, int n4) implemen
                     }
                 }
             }
+            _Metrics.SLICE.recordSince(s0);
+            control.advance(sliceSize);
+        });
+        _Metrics.visited(t0, saturatedCardinality());
+    }
+
+    @Override
+    public void forEachPruned(final Visiting visiting, final JobControl control,
+            final MultiIntPredicate prefixFilter, final MultiIntConsumer intConsumer) {
+        final long t0 = System.nanoTime();
+        final long sliceSize = MixedRadix.tupleCount(n1, n2, n3, n4);
+        visiting.range(n0).forEach(i->{
+            control.checkpoint();
+            final long s0 = System.nanoTime();
+            if(prefixFilter.test(i)) {
+                for(int j=0; j<n1; ++j){
+                    if(!prefixFilter.test(i, j)) continue;
+                    for(int k=0; k<n2; ++k){
+                        if(!prefixFilter.test(i, j, k)) continue;
+                        for(int l=0; l<n3; ++l){
+                            if(!prefixFilter.test(i, j, k, l)) continue;
+                            for(int m=0; m<n4; ++m){
+                                intConsumer.accept(i, j, k, l, m);
+                            }
+                        }
+                    }
+                }
+            }
+            _Metrics.SLICE.recordSince(s0);
+            control.advance(sliceSize);
         });
+        _Metrics.VISIT.recordSince(t0);
     }
 
     @Override
@@ -25,6 +25,8 @@ import java.util.function.IntFunction;
 import java.util.stream.Gatherer;
 import java.util.stream.Stream;
 
+import jcompute.core.job.JobControl;
+import jcompute.core.util.function.HeptaIntConsumer;
 import jcompute.core.util.function.MultiIntConsumer;
 import jcompute.core.util.function.MultiIntPredicate;
 import jcompute.core.util.function.PrefixedMultiIntConsumer;
@@ -41,6 +43,8 @@ public record CartesianProduct7(int n0, int n1, int n2, int n3, int n4, int n5,
             .multiply(BigInteger.valueOf(n5))
             .multiply(BigInteger.valueOf(n6));
     }
+    @Override public long saturatedCardinality() { return MixedRadix.tupleCount(n0, n1, n2, n3, n4, n5, n6); }
+    @Override public int[] indexRanges() { return new int[] {n0, n1, n2, n3, n4, n5, n6}; }
 
     @Override
     public void reportIndexRanges(final MultiIntConsumer intConsumer) {
@@ -48,8 +52,31 @@ public record CartesianProduct7(int n0, int n1, int n2, int n3, int n4, int n5,
     }
 
     @Override
-    public void forEach(final Visiting visiting, final MultiIntConsumer intConsumer) {
+    public void forEach(final Visiting visiting, final JobControl control, final MultiIntConsumer intConsumer) {
+        forEachTuple(visiting, control, (i, j, k, l, m, n, o)->intConsumer.accept(i, j, k, l, m, n, o));
+    }
+
+    /**
+     * Visits all distinct tuples, without allocating per tuple.
+     */
+    public void forEachTuple(final Visiting visiting, final HeptaIntConsumer intConsumer) {
+        forEachTuple(visiting, JobControl.none(), intConsumer);
+    }
+
+    /**
+     * Visits all distinct tuples, without allocating per tuple.
+     * @see CartesianProduct#forEach(Visiting, JobControl, MultiIntConsumer)
+     */
+    public void forEachTuple(final Visiting visiting, final JobControl control, final HeptaIntConsumer intConsumer) {
+        if(visiting==Visiting.BALANCED) {
+            MixedRadix.forEachBalanced(this, control, v->intConsumer.accept(v[0], v[1], v[2], v[3], v[4], v[5], v[6]));
+            return;
+        }
+        final long t0 = System.nanoTime();
+        final long sliceSize = MixedRadix.tupleCount(n1, n2, n3, n4, n5, n6);
         visiting.range(n0).forEach(i->{
+            control.checkpoint();
+            final long s0 = System.nanoTime();
             for(int j=0; j<n1; ++j){
                 for(int k=0; k<n2; ++k){
                     for(int l=0; l<n3; ++l){
@@ -63,7 +90,44 @@ public record CartesianProduct7(int n0, int n1, int n2, int n3, int n4, int n5,
                     }
                 }
             }
+            _Metrics.SLICE.recordSince(s0);
+            control.advance(sliceSize);
+        });
+        _Metrics.visited(t0, saturatedCardinality());
+    }
+
+    @Override
+    public void forEachPruned(final Visiting visiting, final JobControl control,
+            final MultiIntPredicate prefixFilter, final MultiIntConsumer intConsumer) {
+        final long t0 = System.nanoTime();
+        final long sliceSize = MixedRadix.tupleCount(n1, n2, n3, n4, n5, n6);
+        visiting.range(n0).forEach(i->{
+            control.checkpoint();
+            final long s0 = System.nanoTime();
+            if(prefixFilter.test(i)) {
+                for(int j=0; j<n1; ++j){
+                    if(!prefixFilter.test(i, j)) continue;
+                    for(int k=0; k<n2; ++k){
+                        if(!prefixFilter.test(i, j, k)) continue;
+                        for(int l=0; l<n3; ++l){
+                            if(!prefixFilter.test(i, j, k, l)) continue;
+                            for(int m=0; m<n4; ++m){
+                                if(!prefixFilter.test(i, j, k, l, m)) continue;
+                                for(int n=0; n<n5; ++n){
+                                    if(!prefixFilter.test(i, j, k, l, m, n)) continue;
+                                    for(int o=0; o<n6; ++o){
+                                        intConsumer.accept(i, j, k, l, m, n, o);
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            _Metrics.SLICE.recordSince(s0);
+            control.advance(sliceSize);
         });
+        _Metrics.VISIT.recordSince(t0);
     }
 
     @Override
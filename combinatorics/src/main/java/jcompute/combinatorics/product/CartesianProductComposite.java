@@ -23,6 +23,7 @@ import java.util.Optional;
 import java.util.function.IntFunction;
 import java.util.stream.Stream;
 
+import jcompute.core.job.JobControl;
 import jcompute.core.util.function.MultiIntConsumer;
 import jcompute.core.util.function.MultiIntPredicate;
 import jcompute.core.util.function.PrefixedMultiIntConsumer;
@@ -45,14 +46,22 @@ record CartesianProductComposite(CartesianProduct a, CartesianProduct b) impleme
     }
 
     @Override
-    public void forEach(final Visiting visiting, final MultiIntConsumer intConsumer) {
+    public void forEach(final Visiting visiting, final JobControl control, final MultiIntConsumer intConsumer) {
+        if(visiting==Visiting.BALANCED) {
+            MixedRadix.forEachBalanced(this, control, intConsumer);
+            return;
+        }
+        // a's slices include b's full enumeration, hence checked per tuple of a
+        final long bSize = b.saturatedCardinality();
         a.forEach(visiting, va->{
+            control.checkpoint();
             var v = new int[indexCount()];
             System.arraycopy(va, 0, v, 0, va.length);
             b.forEach(Visiting.SEQUENTIAL, vb->{
                 System.arraycopy(vb, 0, v, va.length, vb.length); // this hurts performance
                 intConsumer.accept(v);
             });
+            control.advance(bSize);
         });
     }
 
@@ -67,6 +76,32 @@ record CartesianProductComposite(CartesianProduct a, CartesianProduct b) impleme
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void forEachPruned(final Visiting visiting, final JobControl control,
+            final MultiIntPredicate prefixFilter, final MultiIntConsumer intConsumer) {
+        final long bSize = b.saturatedCardinality();
+        // a's proper prefixes are proper prefixes of this, as are a's tuples (followed by b's proper prefixes)
+        a.forEachPruned(visiting, prefixFilter, va->{
+            control.checkpoint();
+            if(prefixFilter.test(va)) {
+                var v = new int[indexCount()];
+                System.arraycopy(va, 0, v, 0, va.length);
+                b.forEachPruned(Visiting.SEQUENTIAL,
+                    pb->{
+                        var prefix = new int[va.length + pb.length];
+                        System.arraycopy(va, 0, prefix, 0, va.length);
+                        System.arraycopy(pb, 0, prefix, va.length, pb.length);
+                        return prefixFilter.test(prefix);
+                    },
+                    vb->{
+                        System.arraycopy(vb, 0, v, va.length, vb.length);
+                        intConsumer.accept(v);
+                    });
+            }
+            control.advance(bSize);
+        });
+    }
+
     @Override
     public Stream<int[]> stream(final Visiting visiting) {
         throw new UnsupportedOperationException();
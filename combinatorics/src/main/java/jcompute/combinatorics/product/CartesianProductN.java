@@ -19,6 +19,7 @@
 package jcompute.combinatorics.product;
 
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -30,6 +31,7 @@ import java.util.stream.Gatherer.Integrator;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import jcompute.core.job.JobControl;
 import jcompute.core.util.function.MultiIntConsumer;
 import jcompute.core.util.function.MultiIntPredicate;
 import jcompute.core.util.function.PrefixedMultiIntConsumer;
@@ -42,6 +44,8 @@ public record CartesianProductN(int ...dim) implements CartesianProduct {
             .mapToObj(BigInteger::valueOf)
             .reduce(BigInteger.ONE, BigInteger::multiply);
     }
+    @Override public long saturatedCardinality() { return MixedRadix.tupleCount(dim); }
+    @Override public int[] indexRanges() { return dim.clone(); }
 
     @Override
     public void reportIndexRanges(final MultiIntConsumer intConsumer) {
@@ -49,12 +53,38 @@ public record CartesianProductN(int ...dim) implements CartesianProduct {
     }
 
     @Override
-    public void forEach(final Visiting visiting, final MultiIntConsumer intConsumer) {
+    public void forEach(final Visiting visiting, final JobControl control, final MultiIntConsumer intConsumer) {
+        if(visiting==Visiting.BALANCED) {
+            MixedRadix.forEachBalanced(this, control, intConsumer);
+            return;
+        }
+        final long t0 = System.nanoTime();
+        final long sliceSize = MixedRadix.tupleCount(Arrays.copyOfRange(dim, 1, dim.length));
         visiting.range(dim[0]).forEach(i->{
+            control.checkpoint();
+            final long s0 = System.nanoTime();
             var v = new int[dim.length];
             v[0] = i;
             new RecursiveVisitor(dim, v, intConsumer).recur(1);
+            _Metrics.SLICE.recordSince(s0);
+            control.advance(sliceSize);
+        });
+        _Metrics.visited(t0, saturatedCardinality());
+    }
+
+    @Override
+    public void forEachPruned(final Visiting visiting, final JobControl control,
+            final MultiIntPredicate prefixFilter, final MultiIntConsumer intConsumer) {
+        final long t0 = System.nanoTime();
+        final long sliceSize = MixedRadix.tupleCount(Arrays.copyOfRange(dim, 1, dim.length));
+        visiting.range(dim[0]).forEach(i->{
+            control.checkpoint();
+            final long s0 = System.nanoTime();
+            new RecursivePruningVisitor(dim, prefixFilter, intConsumer).visitSlice(i);
+            _Metrics.SLICE.recordSince(s0);
+            control.advance(sliceSize);
         });
+        _Metrics.VISIT.recordSince(t0);
     }
 
     @Override
@@ -108,18 +138,18 @@ public record CartesianProductN(int ...dim) implements CartesianProduct {
     private record RecursiveVisitor(int[] dim, int[] v, MultiIntConsumer intConsumer) {
         void recur(final int dimIndex){
             if(dimIndex == v.length-4) {
-                final int lRange = dim[dimIndex-3];
+                final int lRange = dim[dimIndex];
                 for(int l=0; l<lRange; ++l){
-                    v[dimIndex-3] = l;
-                    final int kRange = dim[dimIndex-2];
+                    v[dimIndex] = l;
+                    final int kRange = dim[dimIndex+1];
                     for(int k=0; k<kRange; ++k){
-                        v[dimIndex-2] = k;
-                        final int jRange = dim[dimIndex-1];
+                        v[dimIndex+1] = k;
+                        final int jRange = dim[dimIndex+2];
                         for(int j=0; j<jRange; ++j){
-                            v[dimIndex-1] = j;
-                            final int iRange = dim[dimIndex];
+                            v[dimIndex+2] = j;
+                            final int iRange = dim[dimIndex+3];
                             for(int i=0; i<iRange; ++i){
-                                v[dimIndex] = i;
+                                v[dimIndex+3] = i;
                                 intConsumer.accept(v);
                             }
                         }
@@ -127,6 +157,10 @@ public record CartesianProductN(int ...dim) implements CartesianProduct {
                 }
                 return;
             }
+            if(dimIndex == v.length) {
+                intConsumer.accept(v);
+                return;
+            }
             for(int i=0; i<dim[dimIndex]; ++i){
                 v[dimIndex] = i;
                 recur(dimIndex + 1);
@@ -134,6 +168,54 @@ public record CartesianProductN(int ...dim) implements CartesianProduct {
         }
     }
 
+    /**
+     * Prefixes are passed to the filter via reused per-length buffers, hence must not be retained.
+     */
+    private record RecursivePruningVisitor(int[] dim, int[] v, int[][] prefixes,
+            MultiIntPredicate prefixFilter, MultiIntConsumer intConsumer) {
+        RecursivePruningVisitor(final int[] dim, final MultiIntPredicate prefixFilter, final MultiIntConsumer intConsumer) {
+            this(dim, new int[dim.length], prefixBuffers(dim.length), prefixFilter, intConsumer);
+        }
+        void visitSlice(final int i) {
+            v[0] = i;
+            if(v.length==1) {
+                intConsumer.accept(v);
+                return;
+            }
+            if(accepts(1)) {
+                recur(1);
+            }
+        }
+        void recur(final int dimIndex){
+            final int range = dim[dimIndex];
+            if(dimIndex == v.length-1) {
+                for(int i=0; i<range; ++i){
+                    v[dimIndex] = i;
+                    intConsumer.accept(v);
+                }
+                return;
+            }
+            for(int i=0; i<range; ++i){
+                v[dimIndex] = i;
+                if(accepts(dimIndex + 1)) {
+                    recur(dimIndex + 1);
+                }
+            }
+        }
+        private boolean accepts(final int prefixLength) {
+            var prefix = prefixes[prefixLength];
+            System.arraycopy(v, 0, prefix, 0, prefixLength);
+            return prefixFilter.test(prefix);
+        }
+        private static int[][] prefixBuffers(final int indexCount) {
+            var prefixes = new int[indexCount][];
+            for(int length=1; length<indexCount; ++length){
+                prefixes[length] = new int[length];
+            }
+            return prefixes;
+        }
+    }
+
     private record RecursiveCollector<T>(int[] dim, int[] v, T t, PrefixedMultiIntConsumer<T> prefixedIntConsumer) {
         void recur(final int dimIndex){
             if(dimIndex == v.length) {
@@ -166,18 +248,18 @@ public record CartesianProductN(int ...dim) implements CartesianProduct {
     private record RecursiveWhile(int[] dim, int[] v, MultiIntPredicate condition, AtomicBoolean stop) {
         void recur(final int dimIndex){
             if(dimIndex == v.length-4) {
-                final int lRange = dim[dimIndex-3];
+                final int lRange = dim[dimIndex];
                 for(int l=0; l<lRange; ++l){
-                    v[dimIndex-3] = l;
-                    final int kRange = dim[dimIndex-2];
+                    v[dimIndex] = l;
+                    final int kRange = dim[dimIndex+1];
                     for(int k=0; k<kRange; ++k){
-                        v[dimIndex-2] = k;
-                        final int jRange = dim[dimIndex-1];
+                        v[dimIndex+1] = k;
+                        final int jRange = dim[dimIndex+2];
                         for(int j=0; j<jRange; ++j){
-                            v[dimIndex-1] = j;
-                            final int iRange = dim[dimIndex];
+                            v[dimIndex+2] = j;
+                            final int iRange = dim[dimIndex+3];
                             for(int i=0; i<iRange; ++i){
-                                v[dimIndex] = i;
+                                v[dimIndex+3] = i;
                                 if(!condition.test(v)) {
                                     stop.set(true);
                                     return;
@@ -188,6 +270,12 @@ public record CartesianProductN(int ...dim) implements CartesianProduct {
                 }
                 return;
             }
+            if(dimIndex == v.length) {
+                if(!condition.test(v)) {
+                    stop.set(true);
+                }
+                return;
+            }
             for(int i=0; i<dim[dimIndex]; ++i){
                 v[dimIndex] = i;
                 recur(dimIndex + 1);
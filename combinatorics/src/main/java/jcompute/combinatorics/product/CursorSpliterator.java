@@ -0,0 +1,84 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.combinatorics.product;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Splits the rank range {@code [from, to)} of a {@link CartesianProduct} in halves, where each split owns a single
+ * cursor (tuple array) that is updated in place for each element, rather than allocating an {@code int[]} per tuple.
+ * @see MixedRadix
+ */
+final class CursorSpliterator implements Spliterator<int[]> {
+
+    private final int[] dim;
+    private final int[] cursor;
+    private long from;
+    private final long to;
+
+    CursorSpliterator(final int[] dim, final long from, final long to) {
+        this.dim = dim;
+        this.cursor = new int[dim.length];
+        this.from = from;
+        this.to = to;
+        if(from<to) {
+            MixedRadix.unrank(dim, from, cursor);
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super int[]> action) {
+        if(from>=to) return false;
+        action.accept(cursor);
+        ++from;
+        MixedRadix.carry(dim, cursor, dim.length - 1);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super int[]> action) {
+        if(from>=to) return;
+        final long count = to - from;
+        from = to;
+        MixedRadix.visit(dim, cursor, count, action::accept);
+    }
+
+    @Override
+    public Spliterator<int[]> trySplit() {
+        final long mid = (from + to) >>> 1;
+        if(mid - from < MixedRadix.MIN_CHUNK_SIZE) return null;
+        // ORDERED: the prefix goes to the new split, this one continues at mid
+        var prefix = new CursorSpliterator(dim, from, mid);
+        from = mid;
+        MixedRadix.unrank(dim, mid, cursor);
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return to - from;
+    }
+
+    @Override
+    public int characteristics() {
+        return SIZED | SUBSIZED | ORDERED | NONNULL;
+    }
+
+}
@@ -0,0 +1,263 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.combinatorics.product;
+
+import java.math.BigInteger;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+import lombok.experimental.UtilityClass;
+
+import jcompute.core.job.JobControl;
+import jcompute.core.util.function.MultiIntConsumer;
+
+/**
+ * Tuples of a {@link CartesianProduct} as digits of a mixed-radix number, the last index being the least significant,
+ * such that the (zero based) rank of a tuple equals its position in {@link CartesianProduct.Visiting#SEQUENTIAL} order.
+ * <p>
+ * Basis for {@link CartesianProduct.Visiting#BALANCED}, which splits the rank range {@code [0, cardinality)}
+ * into balanced chunks, each unranking its first tuple and then counting up incrementally.
+ */
+@UtilityClass
+class MixedRadix {
+
+    /**
+     * Chunks per worker thread, such that work-stealing can compensate for uneven consumer costs.
+     */
+    final int CHUNKS_PER_THREAD = 16;
+    /**
+     * Minimum number of tuples per chunk.
+     */
+    final long MIN_CHUNK_SIZE = 1L << 12;
+    /**
+     * Tuples visited between two {@link JobControl} checks.
+     */
+    final long CONTROL_STEP = 1L << 16;
+
+    private final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+    /**
+     * Whether the product of given index ranges fits into a {@code long}, hence all ranks do.
+     */
+    boolean fitsLong(final int[] dim) {
+        long cardinality = 1L;
+        for(int range : dim) {
+            if(range==0) return true;
+            if(cardinality > Long.MAX_VALUE / range) return false;
+            cardinality *= range;
+        }
+        return true;
+    }
+
+    /**
+     * Number of tuples spanned by given index ranges, capped at {@link Long#MAX_VALUE};
+     * given the ranges after the first, that is the number of tuples per slice.
+     */
+    long tupleCount(final int... dim) {
+        for(int range : dim) {
+            if(range<=0) return 0L;
+        }
+        long count = 1L;
+        for(int range : dim) {
+            if(count > Long.MAX_VALUE / range) return Long.MAX_VALUE;
+            count *= range;
+        }
+        return count;
+    }
+
+    /**
+     * Given tuple count, capped at {@link Long#MAX_VALUE}.
+     */
+    long saturated(final BigInteger tupleCount) {
+        return tupleCount.min(LONG_MAX).longValue();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the tuple length does not match the index count
+     * @throws IndexOutOfBoundsException if any index is out of its range
+     */
+    void checkTuple(final int[] dim, final int[] v) {
+        if(v.length!=dim.length) {
+            throw new IllegalArgumentException(String.format(
+                    "tuple length mismatch: %d != %d", v.length, dim.length));
+        }
+        for(int d = 0; d<dim.length; ++d) {
+            Objects.checkIndex(v[d], dim[d]);
+        }
+    }
+
+    // -- RANK
+
+    /**
+     * Rank of given tuple, provided all ranks fit into a {@code long}.
+     */
+    long rank(final int[] dim, final int[] v) {
+        long rank = 0L;
+        for(int d = 0; d<dim.length; ++d) {
+            rank = rank * dim[d] + v[d];
+        }
+        return rank;
+    }
+
+    /**
+     * Rank of given tuple.
+     */
+    BigInteger rankAsBigInteger(final int[] dim, final int[] v) {
+        var rank = BigInteger.ZERO;
+        for(int d = 0; d<dim.length; ++d) {
+            rank = rank.multiply(BigInteger.valueOf(dim[d])).add(BigInteger.valueOf(v[d]));
+        }
+        return rank;
+    }
+
+    // -- UNRANK
+
+    /**
+     * Writes the tuple of given rank into {@code v}.
+     */
+    void unrank(final int[] dim, long rank, final int[] v) {
+        for(int d = dim.length - 1; d>=0; --d) {
+            v[d] = (int)(rank % dim[d]);
+            rank /= dim[d];
+        }
+    }
+
+    /**
+     * Writes the tuple of given rank into {@code v}, using the {@code long} path if the rank fits.
+     */
+    void unrank(final int[] dim, BigInteger rank, final int[] v) {
+        if(rank.bitLength()<Long.SIZE) {
+            unrank(dim, rank.longValue(), v);
+            return;
+        }
+        for(int d = dim.length - 1; d>=0; --d) {
+            var qr = rank.divideAndRemainder(BigInteger.valueOf(dim[d]));
+            v[d] = qr[1].intValueExact();
+            rank = qr[0];
+        }
+    }
+
+    // -- ITERATE
+
+    /**
+     * Visits {@code count} consecutive tuples, starting with the one held by {@code v},
+     * which is reused (hence updated in place) for each visit; on return holds the successor of the last tuple visited
+     * (all zeros after the last tuple of the product).
+     */
+    void visit(final int[] dim, final int[] v, long count, final MultiIntConsumer intConsumer) {
+        final int last = dim.length - 1;
+        final int lastRange = dim[last];
+        while(count>0) {
+            // tight loop over the least significant index
+            final int run = (int)Math.min(count, lastRange - v[last]);
+            for(int x=0; x<run; ++x) {
+                intConsumer.accept(v);
+                ++v[last];
+            }
+            count -= run;
+            if(v[last]==lastRange) {
+                v[last] = 0;
+                carry(dim, v, last - 1);
+            }
+        }
+    }
+
+    /**
+     * Increments the more significant indices, starting at {@code d}; returns {@code false} on overflow.
+     */
+    boolean carry(final int[] dim, final int[] v, int d) {
+        for(; d>=0; --d) {
+            if(++v[d]<dim[d]) return true;
+            v[d] = 0;
+        }
+        return false;
+    }
+
+    // -- BALANCED
+
+    /**
+     * Visits all tuples of given product, split into balanced chunks of consecutive ranks,
+     * that are processed in parallel on the common {@link ForkJoinPool}.
+     */
+    void forEachBalanced(final CartesianProduct product, final JobControl control, final MultiIntConsumer intConsumer) {
+        final int[] dim = product.indexRanges();
+        final BigInteger cardinality = product.cardinality();
+        // empty products have no tuple to unrank
+        if(dim.length==0
+                || cardinality.signum()==0) return;
+        final long t0 = System.nanoTime();
+        if(cardinality.compareTo(LONG_MAX)<=0) {
+            final long total = cardinality.longValue();
+            final long chunkCount = chunkCount(total);
+            LongStream.range(0, chunkCount).parallel().forEach(chunk->{
+                final long from = chunkStart(total, chunkCount, chunk);
+                final long to = chunkStart(total, chunkCount, chunk + 1);
+                var v = new int[dim.length];
+                unrank(dim, from, v);
+                visitChunk(dim, v, to - from, control, intConsumer);
+            });
+        } else {
+            // chunk boundaries beyond long, while each chunk is still visited in long sized steps
+            final long chunkCount = (long)ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_THREAD;
+            final BigInteger chunks = BigInteger.valueOf(chunkCount);
+            LongStream.range(0, chunkCount).parallel().forEach(chunk->{
+                var from = cardinality.multiply(BigInteger.valueOf(chunk)).divide(chunks);
+                var to = cardinality.multiply(BigInteger.valueOf(chunk + 1)).divide(chunks);
+                var v = new int[dim.length];
+                unrank(dim, from, v);
+                var remaining = to.subtract(from);
+                while(remaining.signum()>0) {
+                    final long length = remaining.min(LONG_MAX).longValue();
+                    visitChunk(dim, v, length, control, intConsumer);
+                    remaining = remaining.subtract(BigInteger.valueOf(length));
+                }
+            });
+        }
+        _Metrics.visited(t0, saturated(cardinality));
+    }
+
+    // -- HELPER
+
+    private long chunkCount(final long total) {
+        final long maxChunks = (long)ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_THREAD;
+        return Math.max(1L, Math.min(maxChunks, total / MIN_CHUNK_SIZE));
+    }
+
+    /**
+     * First rank of given chunk, where chunk sizes differ by at most one.
+     */
+    private long chunkStart(final long total, final long chunkCount, final long chunk) {
+        return chunk * (total / chunkCount) + Math.min(chunk, total % chunkCount);
+    }
+
+    void visitChunk(final int[] dim, final int[] v, long length,
+            final JobControl control, final MultiIntConsumer intConsumer) {
+        final long s0 = System.nanoTime();
+        while(length>0) {
+            control.checkpoint();
+            final long step = Math.min(length, CONTROL_STEP);
+            visit(dim, v, step, intConsumer);
+            control.advance(step);
+            length -= step;
+        }
+        _Metrics.SLICE.recordSince(s0);
+    }
+
+}
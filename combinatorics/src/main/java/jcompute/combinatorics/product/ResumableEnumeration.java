@@ -0,0 +1,301 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.combinatorics.product;
+
+import java.lang.foreign.Arena;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.LongStream;
+
+import jcompute.core.io.ArrayFile;
+import jcompute.core.job.JobControl;
+import jcompute.core.mem.LongArray;
+import jcompute.core.shape.Shape;
+import jcompute.core.util.function.MultiIntConsumer;
+import jcompute.core.util.function.PrefixedMultiIntConsumer;
+
+/**
+ * Enumerates a {@link CartesianProduct} in fixed chunks of consecutive ranks, persisting which chunks completed
+ * (and for {@link #streamCollectors} a summary per chunk) to a checkpoint file, such that an enumeration
+ * interrupted by cancellation or a crash continues with only the outstanding chunks when reopened.
+ * <p>
+ * The checkpoint is a jcompute array file of longs (see {@link ArrayFile}), memory mapped for the lifetime
+ * of this enumeration; its pages are forced to the storage device at most once per given interval and on {@link #close()}.
+ * Chunks completed after the last force may be lost on a machine crash (but not on a JVM crash), and are then visited again.
+ * <p>
+ * Example:
+ * <pre>
+ * try(var enumeration = ResumableEnumeration.open(product, Path.of("sweep.checkpoint"))) {
+ *     long hits = enumeration.streamCollectors(JobControl.none(),
+ *             chunk-&gt;new LongAdder(),
+ *             (counter, v)-&gt;{ if(isHit(v)) counter.increment(); },
+ *             LongAdder::sum)
+ *         .sum();
+ * }
+ * </pre>
+ */
+public final class ResumableEnumeration implements AutoCloseable {
+
+    public static final long DEFAULT_CHUNK_SIZE = 1L << 24;
+    public static final Duration DEFAULT_FORCE_INTERVAL = Duration.ofSeconds(30);
+
+    private static final long PENDING = 0L;
+    private static final long DONE = 1L;
+
+    private final int[] dim;
+    private final long cardinality;
+    private final long chunkSize;
+    private final long chunkCount;
+    /**
+     * (cardinality, chunkSize, indexCount, index ranges...), zero padded to whole rows.
+     */
+    private final long[] header;
+    private final long headerRows;
+    private final long forceIntervalNanos;
+    private final Arena arena;
+    /**
+     * Per chunk: (state, summary), following the {@link #header} rows.
+     */
+    private final LongArray checkpoint;
+    private final AtomicLong lastForce = new AtomicLong(System.nanoTime());
+
+    private ResumableEnumeration(final CartesianProduct product, final Path file,
+            final long chunkSize, final Duration forceInterval) {
+        if(chunkSize<=0) {
+            throw new IllegalArgumentException(String.format("chunk size must be positive: %d", chunkSize));
+        }
+        this.dim = product.indexRanges();
+        this.cardinality = dim.length==0
+            ? 0L
+            : product.cardinality().longValueExact();
+        this.chunkSize = chunkSize;
+        this.chunkCount = (cardinality + chunkSize - 1) / chunkSize;
+        this.header = header(dim, cardinality, chunkSize);
+        this.headerRows = header.length / 2;
+        this.forceIntervalNanos = forceInterval.toNanos();
+        this.arena = Arena.ofShared();
+        try {
+            this.checkpoint = Files.exists(file)
+                ? resume(file)
+                : create(file);
+        } catch (RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an enumeration of given product with {@link #DEFAULT_CHUNK_SIZE} and {@link #DEFAULT_FORCE_INTERVAL},
+     * resuming from given checkpoint file if it exists, otherwise creating it.
+     * @see #open(CartesianProduct, Path, long, Duration)
+     */
+    public static ResumableEnumeration open(final CartesianProduct product, final Path file) {
+        return open(product, file, DEFAULT_CHUNK_SIZE, DEFAULT_FORCE_INTERVAL);
+    }
+
+    /**
+     * Opens an enumeration of given product, resuming from given checkpoint file if it exists, otherwise creating it.
+     * @param chunkSize number of tuples per chunk, the unit of persisted completion; must match on resume
+     * @param forceInterval minimum time between two forces of the checkpoint to the storage device
+     * @throws ArithmeticException if the {@link CartesianProduct#cardinality()} does not fit into a {@code long}
+     * @throws IllegalArgumentException if an existing checkpoint was written for a different product or chunk size
+     */
+    public static ResumableEnumeration open(final CartesianProduct product, final Path file,
+            final long chunkSize, final Duration forceInterval) {
+        return new ResumableEnumeration(product, file, chunkSize, forceInterval);
+    }
+
+    public long chunkCount() {
+        return chunkCount;
+    }
+
+    public long pendingChunkCount() {
+        return pendingChunks().count();
+    }
+
+    public boolean isComplete() {
+        return pendingChunks().findAny().isEmpty();
+    }
+
+    /**
+     * Number of tuples within outstanding chunks.
+     */
+    public long pendingTupleCount() {
+        return pendingChunks().map(this::chunkLength).sum();
+    }
+
+    /**
+     * Visits all tuples of outstanding chunks, chunks in parallel, marking each chunk done after its last tuple.
+     * A chunk interrupted by cancellation or a crash is visited again from its start, hence tuples are visited at least once.
+     * The tuple array passed to the consumer is reused within a chunk, hence must not be retained.
+     * <p>
+     * Checks for cancellation and reports progress as with {@link CartesianProduct#forEach(CartesianProduct.Visiting, JobControl, MultiIntConsumer)},
+     * where progress only accounts for tuples visited by this call.
+     * @throws CancellationException if cancelled, while chunks completed so far stay persisted
+     */
+    public void forEach(final JobControl control, final MultiIntConsumer intConsumer) {
+        forEachPendingChunk(chunk->{
+            visit(chunk, control, intConsumer);
+            markDone(chunk, 0L);
+        });
+    }
+
+    /**
+     * Resumable counterpart of {@link CartesianProduct#streamCollectors}: creates a collector per outstanding chunk,
+     * visits the chunk's tuples in parallel with other chunks, then persists the collector's summary along with the chunk's completion.
+     * <p>
+     * Returns the summaries of all chunks in chunk order, those of previous runs included.
+     * Since chunk boundaries are fixed by the checkpoint, any reduction over these is deterministic,
+     * regardless of how often the enumeration was interrupted or how chunks were scheduled.
+     * @throws CancellationException if cancelled, while chunks completed so far stay persisted
+     */
+    public <T> LongStream streamCollectors(
+            final JobControl control,
+            final LongFunction<T> collectorFactory,
+            final PrefixedMultiIntConsumer<T> prefixedIntConsumer,
+            final ToLongFunction<T> summary) {
+        forEachPendingChunk(chunk->{
+            final T collector = collectorFactory.apply(chunk);
+            visit(chunk, control, v->prefixedIntConsumer.accept(collector, v));
+            markDone(chunk, summary.applyAsLong(collector));
+        });
+        // copied, such that the stream stays valid after close
+        var summaries = new long[Math.toIntExact(chunkCount)];
+        Arrays.setAll(summaries, chunk->checkpoint.get(cell(chunk, 1)));
+        return LongStream.of(summaries);
+    }
+
+    /**
+     * Forces the checkpoint to the storage device now.
+     */
+    public void force() {
+        checkpoint.memorySegment().force();
+        lastForce.set(System.nanoTime());
+    }
+
+    /**
+     * Forces the checkpoint, then unmaps it.
+     */
+    @Override
+    public void close() {
+        if(!arena.scope().isAlive()) return;
+        force();
+        arena.close();
+    }
+
+    // -- HELPER
+
+    private LongArray create(final Path file) {
+        var array = LongArray.mapNew(arena, file, Shape.of(headerRows + chunkCount, 2));
+        for(int i=0; i<header.length; ++i) {
+            array.put(i, header[i]);
+        }
+        array.memorySegment().force();
+        return array;
+    }
+
+    private LongArray resume(final Path file) {
+        var array = LongArray.map(arena, file);
+        var actual = new long[(int)Math.min(header.length, array.shape().totalSize())];
+        for(int i=0; i<actual.length; ++i) {
+            actual[i] = array.get(i);
+        }
+        if(!Arrays.equals(header, actual)
+                || !Shape.of(headerRows + chunkCount, 2).equals(array.shape())) {
+            throw new IllegalArgumentException(String.format(
+                    "checkpoint mismatch: %s was written for (cardinality, chunkSize, indexCount, index ranges...) %s, "
+                    + "expected %s",
+                    file, Arrays.toString(actual), Arrays.toString(header)));
+        }
+        return array;
+    }
+
+    private LongStream pendingChunks() {
+        return LongStream.range(0, chunkCount)
+            .filter(chunk->checkpoint.get(cell(chunk, 0))==PENDING);
+    }
+
+    /**
+     * Processes outstanding chunks in parallel. On failure (e.g. cancellation) remaining chunks are skipped,
+     * yet the first failure is only rethrown once no chunk is processed anymore, such that the checkpoint may be closed.
+     */
+    private void forEachPendingChunk(final LongConsumer chunkProcessor) {
+        var failure = new AtomicReference<Throwable>();
+        pendingChunks().parallel().forEach(chunk->{
+            if(failure.get()!=null) return;
+            try {
+                chunkProcessor.accept(chunk);
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+            }
+        });
+        // only unchecked throwables are caught above
+        if(failure.get() instanceof RuntimeException e) throw e;
+        if(failure.get() instanceof Error e) throw e;
+    }
+
+    private long chunkLength(final long chunk) {
+        return Math.min(chunkSize, cardinality - chunk * chunkSize);
+    }
+
+    private void visit(final long chunk, final JobControl control, final MultiIntConsumer intConsumer) {
+        var v = new int[dim.length];
+        MixedRadix.unrank(dim, chunk * chunkSize, v);
+        MixedRadix.visitChunk(dim, v, chunkLength(chunk), control, intConsumer);
+    }
+
+    private void markDone(final long chunk, final long summary) {
+        // summary first, such that a chunk marked done always has its summary;
+        // the fence keeps the stores to the mapped segment from being reordered
+        checkpoint.put(cell(chunk, 1), summary);
+        VarHandle.storeStoreFence();
+        checkpoint.put(cell(chunk, 0), DONE);
+        final long last = lastForce.get();
+        final long now = System.nanoTime();
+        if(now - last >= forceIntervalNanos
+                && lastForce.compareAndSet(last, now)) {
+            checkpoint.memorySegment().force();
+        }
+    }
+
+    private long cell(final long chunk, final int column) {
+        return (headerRows + chunk) * 2 + column;
+    }
+
+    private static long[] header(final int[] dim, final long cardinality, final long chunkSize) {
+        var header = new long[2 * Math.ceilDiv(3 + dim.length, 2)];
+        header[0] = cardinality;
+        header[1] = chunkSize;
+        header[2] = dim.length;
+        for(int i=0; i<dim.length; ++i) {
+            header[3 + i] = dim[i];
+        }
+        return header;
+    }
+
+}
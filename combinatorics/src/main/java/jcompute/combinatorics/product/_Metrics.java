@@ -0,0 +1,48 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.combinatorics.product;
+
+import lombok.experimental.UtilityClass;
+
+import jcompute.core.timing.Metrics;
+
+/**
+ * Instrumentation of {@link CartesianProduct#forEach}.
+ * <p>
+ * Slices are the sub-spaces of fixed first index (or chunks of consecutive ranks, when visiting balanced),
+ * the units of work for parallel visiting,
+ * hence their latency distribution reveals load imbalance.
+ * Composites count visits of their constituents as well.
+ */
+@UtilityClass
+class _Metrics {
+
+    final Metrics.Timer VISIT = Metrics.global().timer("combinatorics.product.forEach");
+    final Metrics.Timer SLICE = Metrics.global().timer("combinatorics.product.slice");
+    final Metrics.Counter TUPLES = Metrics.global().counter("combinatorics.product.tuples");
+
+    /**
+     * Records a completed visit of all tuples.
+     */
+    void visited(final long startNanos, final long tupleCount) {
+        VISIT.recordSince(startNanos);
+        TUPLES.add(tupleCount);
+    }
+
+}
@@ -18,11 +18,15 @@
  */
 package jcompute.combinatorics.setcover;
 
+import java.util.concurrent.CancellationException;
+
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.UtilityClass;
 
+import jcompute.core.job.JobControl;
 import jcompute.core.mem.ByteArray;
 import jcompute.core.mem.LongArray;
+import jcompute.core.util.Parallelism;
 import jcompute.opencl.ClDevice;
 
 @UtilityClass
@@ -37,12 +41,24 @@ public class SetCoverKernels {
         final ByteArray covered;
 
         public void run() {
-            params.shape().stream()
-            .parallel()
-            .forEach(gid->{
-                covered.put(gid, covers(params.pSets().get(gid), params.t(), params.kSets())
-                        ? (byte)1
-                        : 0);
+            run(JobControl.none());
+        }
+
+        /**
+         * Checks for cancellation before and reports progress after each range of global indices,
+         * in units of {@code pSets} checked.
+         * @throws CancellationException if cancelled
+         */
+        public void run(final JobControl control) {
+            params.shape().forEachRange(Parallelism.PARALLEL, (offset, length)->{
+                control.checkpoint();
+                final long end = offset + length;
+                for(long gid = offset; gid<end; ++gid) {
+                    covered.put(gid, covers(params.pSets().get(gid), params.t(), params.kSets())
+                            ? (byte)1
+                            : 0);
+                }
+                control.advance(length);
             });
         }
 
@@ -94,6 +110,15 @@ public class SetCoverKernels {
         """;
 
         public void run() {
+            run(JobControl.none());
+        }
+
+        /**
+         * Checks for cancellation before enqueueing the kernel and reports all {@code pSets} as done,
+         * once the result was read back.
+         * @throws CancellationException if cancelled
+         */
+        public void run(final JobControl control) {
             try (var context = device.createContext()) {
 
                 var queue = context.createQueue();
@@ -114,9 +139,11 @@ public class SetCoverKernels {
                 queue.enqueueWriteBuffer(memA);
                 queue.enqueueWriteBuffer(memB);
 
+                control.checkpoint();
                 queue.enqueueNDRangeKernel(kernel, params.shape());
 
                 queue.enqueueReadBuffer(memC);
+                control.advance(params.shape().totalSize());
             }
         }
     }
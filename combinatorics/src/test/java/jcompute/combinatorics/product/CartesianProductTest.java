@@ -0,0 +1,351 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.combinatorics.product;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import jcompute.combinatorics.product.CartesianProduct.Visiting;
+
+class CartesianProductTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10})
+    void forEachVisitsAllDistinctTuples(final int arity) {
+        var product = CartesianProduct.create(dim(arity));
+        for(var visiting : Visiting.values()) {
+            var tuples = ConcurrentHashMap.<String>newKeySet();
+            var count = new LongAdder();
+            product.forEach(visiting, v->{
+                tuples.add(Arrays.toString(v));
+                count.increment();
+            });
+            assertEquals(product.cardinality().longValueExact(), count.sum());
+            assertEquals(count.sum(), tuples.size());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Visiting.class)
+    void pruningSkipsRejectedSubtrees(final Visiting visiting) {
+        for(int arity = 1; arity<=10; ++arity) {
+            var product = CartesianProduct.create(dim(arity));
+
+            // expected: non-decreasing tuples, found by brute force
+            var expected = ConcurrentHashMap.<String>newKeySet();
+            product.forEach(visiting, v->{
+                if(isNonDecreasing(v)) {
+                    expected.add(Arrays.toString(v));
+                }
+            });
+
+            var actual = ConcurrentHashMap.<String>newKeySet();
+            var visits = new LongAdder();
+            product.forEachPruned(visiting,
+                prefix->{
+                    assertTrue(prefix.length>0 && prefix.length<product.indexCount());
+                    return isNonDecreasing(prefix);
+                },
+                v->{
+                    // full tuples are not subject to the prefix filter
+                    visits.increment();
+                    if(isNonDecreasing(v)) {
+                        actual.add(Arrays.toString(v));
+                    }
+                });
+
+            assertEquals(expected, actual, "arity " + arity);
+            if(arity>2) {
+                // all tuples having v[0]>v[1] are skipped
+                assertTrue(visits.sum() < product.cardinality().longValueExact());
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Visiting.class)
+    void pruningRecordsNoTupleCount(final Visiting visiting) {
+        for(int arity=1; arity<=9; ++arity) {
+            var product = CartesianProduct.create(dim(arity));
+            final long tuplesBefore = _Metrics.TUPLES.sum();
+            product.forEachPruned(visiting, prefix->true, v->{});
+            assertEquals(tuplesBefore, _Metrics.TUPLES.sum(), "arity " + arity);
+        }
+    }
+
+    @Test
+    void balancedVisitingSplitsBeyondFirstIndex() {
+        var product = CartesianProduct.create(2, 1000, 1000);
+        final long slicesBefore = _Metrics.SLICE.snapshot().count();
+        var sum = new LongAdder();
+        var count = new LongAdder();
+        product.forEach(Visiting.BALANCED, v->{
+            sum.add(v[0] + v[1] + v[2]);
+            count.increment();
+        });
+        assertEquals(2_000_000L, count.sum());
+        assertEquals(1_000_000L + 2L * 2 * 1000 * 999 / 2 * 1000, sum.sum());
+        // more units of work than the first index range provides
+        assertTrue(_Metrics.SLICE.snapshot().count() - slicesBefore > 2);
+        // empty products visit nothing
+        new CartesianProduct3(2, 0, 3).forEach(Visiting.BALANCED, v->{ throw new AssertionError("unexpected visit"); });
+    }
+
+    @Test
+    void parallelVisitingForksForSmallFirstIndexRange() {
+        assumeTrue(ForkJoinPool.getCommonPoolParallelism()>1);
+        var threads = ConcurrentHashMap.<Thread>newKeySet();
+        CartesianProduct.create(200).forEach(Visiting.PARALLEL, v->{
+            threads.add(Thread.currentThread());
+            LockSupport.parkNanos(1_000_000L);
+        });
+        assertTrue(threads.size()>1, ()->"threads " + threads.size());
+    }
+
+    @ParameterizedTest
+    @EnumSource(Visiting.class)
+    void emptyProductsVisitNothing(final Visiting visiting) {
+        var products = new CartesianProduct[] {
+            new CartesianProduct1(0),
+            new CartesianProduct2(0, 5),
+            new CartesianProduct3(0, 5, 5),
+            new CartesianProduct8(0, 2, 2, 2, 2, 2, 2, 2),
+            new CartesianProductN(0, 2, 2, 2, 2, 2, 2, 2, 2)};
+        for(var product : products) {
+            product.forEach(visiting, v->{ throw new AssertionError("unexpected visit"); });
+            product.forEachPruned(visiting, prefix->true, v->{ throw new AssertionError("unexpected visit"); });
+        }
+    }
+
+    @Test
+    void unrankMatchesSequentialOrder() {
+        var product = CartesianProduct.create(3, 4, 5, 6);
+        var dim = product.indexRanges();
+        var rank = new long[] {0L};
+        var v = new int[dim.length];
+        var w = new int[dim.length];
+        product.forEach(Visiting.SEQUENTIAL, tuple->{
+            MixedRadix.unrank(dim, rank[0], v);
+            MixedRadix.unrank(dim, BigInteger.valueOf(rank[0]), w);
+            assertArrayEquals(tuple, v);
+            assertArrayEquals(tuple, w);
+            ++rank[0];
+        });
+        assertEquals(3 * 4 * 5 * 6, rank[0]);
+
+        // incremental visit from an arbitrary rank, across carries
+        var visited = new ArrayList<String>();
+        MixedRadix.unrank(dim, 17, v);
+        MixedRadix.visit(dim, v, 200, tuple->visited.add(Arrays.toString(tuple)));
+        for(int i=0; i<200; ++i) {
+            MixedRadix.unrank(dim, 17 + i, w);
+            assertEquals(Arrays.toString(w), visited.get(i));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10})
+    void rankAndUnrank(final int arity) {
+        var product = CartesianProduct.create(dim(arity));
+        final long cardinality = product.cardinality().longValueExact();
+        assertEquals(cardinality, product.saturatedCardinality());
+        assertArrayEquals(dim(arity), product.indexRanges());
+        var rank = new long[] {0L};
+        var into = new int[arity];
+        product.forEach(Visiting.SEQUENTIAL, v->{
+            assertEquals(rank[0], product.rankAsLongValueExact(v));
+            assertEquals(BigInteger.valueOf(rank[0]), product.rank(v));
+            assertArrayEquals(v, product.unrank(rank[0], into));
+            ++rank[0];
+        });
+        assertEquals(cardinality, rank[0]);
+
+        assertThrows(IndexOutOfBoundsException.class, ()->product.unrank(cardinality, into));
+        assertThrows(IllegalArgumentException.class, ()->product.unrank(0L, new int[arity + 1]));
+    }
+
+    @Test
+    void saturatedCardinality() {
+        assertEquals(Long.MAX_VALUE, CartesianProduct.create(1 << 30, 1 << 30, 1 << 30).saturatedCardinality());
+        assertEquals(Long.MAX_VALUE, new CartesianProductN(1 << 30, 1 << 30, 1 << 30, 2, 2, 2, 2, 2, 2).saturatedCardinality());
+        assertEquals(0L, CartesianProduct.create().saturatedCardinality());
+        assertEquals(0L, new CartesianProduct3(0, 5, 5).saturatedCardinality());
+    }
+
+    @Test
+    void forEachInRange() {
+        var product = CartesianProduct.create(7, 3, 5, 2);
+        var all = new ArrayList<String>();
+        product.forEach(Visiting.SEQUENTIAL, v->all.add(Arrays.toString(v)));
+
+        var range = new ArrayList<String>();
+        product.forEachInRange(13L, 177L, v->range.add(Arrays.toString(v)));
+        assertEquals(all.subList(13, 177), range);
+
+        range.clear();
+        product.forEachInRange(BigInteger.valueOf(200), product.cardinality(), v->range.add(Arrays.toString(v)));
+        assertEquals(all.subList(200, all.size()), range);
+
+        assertThrows(IndexOutOfBoundsException.class, ()->product.forEachInRange(0L, 211L, v->{}));
+    }
+
+    @Test
+    void rankingBeyondLong() {
+        // 100^12 = 10^24 tuples
+        var dim = new int[12];
+        Arrays.fill(dim, 100);
+        var product = CartesianProduct.create(dim);
+        var last = product.cardinality().subtract(BigInteger.ONE);
+
+        var tuple = product.unrank(last, new int[12]);
+        assertArrayEquals(IntStream.generate(()->99).limit(12).toArray(), tuple);
+        assertEquals(last, product.rank(tuple));
+        assertThrows(ArithmeticException.class, ()->product.rankAsLongValueExact(tuple));
+
+        // random sampling, round trip
+        var random = new Random(1234);
+        for(int i=0; i<100; ++i) {
+            var rank = new BigInteger(product.cardinality().bitLength(), random).mod(product.cardinality());
+            assertEquals(rank, product.rank(product.unrank(rank, new int[12])));
+        }
+
+        // the last 150 tuples, crossing many carries
+        var count = new LongAdder();
+        var expected = new int[12];
+        product.forEachInRange(last.subtract(BigInteger.valueOf(149)), product.cardinality(), v->{
+            product.unrank(last.subtract(BigInteger.valueOf(149 - count.intValue())), expected);
+            assertArrayEquals(expected, v);
+            count.increment();
+        });
+        assertEquals(150L, count.sum());
+    }
+
+    @ParameterizedTest
+    @EnumSource(Visiting.class)
+    void specializedConsumersAgreeWithMultiIntConsumer(final Visiting visiting) {
+        for(int arity=1; arity<=8; ++arity) {
+            var product = CartesianProduct.create(dim(arity));
+            var expected = new LongAdder();
+            product.forEach(visiting, v->expected.add(weightedSum(v)));
+            var actual = new LongAdder();
+            switch (product) {
+                case CartesianProduct1 p -> p.forEachTuple(visiting, i->actual.add(weightedSum(i)));
+                case CartesianProduct2 p -> p.forEachTuple(visiting, (i, j)->actual.add(weightedSum(i, j)));
+                case CartesianProduct3 p -> p.forEachTuple(visiting, (i, j, k)->actual.add(weightedSum(i, j, k)));
+                case CartesianProduct4 p -> p.forEachTuple(visiting, (i, j, k, l)->actual.add(weightedSum(i, j, k, l)));
+                case CartesianProduct5 p -> p.forEachTuple(visiting, (i, j, k, l, m)->actual.add(weightedSum(i, j, k, l, m)));
+                case CartesianProduct6 p -> p.forEachTuple(visiting, (i, j, k, l, m, n)->
+                    actual.add(weightedSum(i, j, k, l, m, n)));
+                case CartesianProduct7 p -> p.forEachTuple(visiting, (i, j, k, l, m, n, o)->
+                    actual.add(weightedSum(i, j, k, l, m, n, o)));
+                case CartesianProduct8 p -> p.forEachTuple(visiting, (i, j, k, l, m, n, o, q)->
+                    actual.add(weightedSum(i, j, k, l, m, n, o, q)));
+                default -> throw new AssertionError("unexpected: " + product.getClass());
+            }
+            assertEquals(expected.sum(), actual.sum(), "arity " + arity);
+        }
+    }
+
+    @Test
+    void arityOneAcceptsImplicitlyTypedLambda() {
+        var product = new CartesianProduct1(3);
+        var count = new LongAdder();
+        product.forEach(Visiting.SEQUENTIAL, v->count.add(v.length));
+        assertEquals(3L, count.sum());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 4, 5, 9})
+    void streamCursor(final int arity) {
+        var product = CartesianProduct.create(dim(arity));
+
+        // sequential: same order as forEach, when copied
+        var expected = new ArrayList<int[]>();
+        product.forEach(Visiting.SEQUENTIAL, v->expected.add(v.clone()));
+        var actual = product.streamCursor(Visiting.SEQUENTIAL)
+            .map(int[]::clone)
+            .toList();
+        assertEquals(expected.size(), actual.size());
+        for(int i=0; i<expected.size(); ++i) {
+            assertArrayEquals(expected.get(i), actual.get(i));
+        }
+
+        // parallel: elements consumed in place
+        final long expectedSum = expected.stream().mapToLong(CartesianProductTest::weightedSum).sum();
+        for(var visiting : new Visiting[] {Visiting.PARALLEL, Visiting.BALANCED}) {
+            assertEquals(expected.size(), product.streamCursor(visiting).count());
+            assertEquals(expectedSum, product.streamCursor(visiting).mapToLong(CartesianProductTest::weightedSum).sum());
+        }
+    }
+
+    @Test
+    void streamCursorSplitsBeyondFirstIndex() {
+        var product = CartesianProduct.create(2, 300, 300);
+        var tuples = ConcurrentHashMap.<String>newKeySet();
+        product.streamCursor(Visiting.PARALLEL)
+            .forEach(v->tuples.add(Arrays.toString(v)));
+        assertEquals(product.cardinality().longValueExact(), tuples.size());
+        assertEquals(0L, CartesianProduct.create(3, 0).streamCursor(Visiting.PARALLEL).count());
+        assertThrows(ArithmeticException.class, ()->CartesianProduct.create(IntStream.generate(()->100).limit(12).toArray())
+            .streamCursor(Visiting.SEQUENTIAL));
+    }
+
+    // -- HELPER
+
+    static long weightedSum(final int... v) {
+        long sum = 0L;
+        for(int i=0; i<v.length; ++i) {
+            sum = 31 * sum + v[i];
+        }
+        return sum;
+    }
+
+    private static int[] dim(final int arity) {
+        // keep cardinality small for higher arities
+        return IntStream.range(0, arity)
+            .map(i->arity<=4 ? 5 + i : 3)
+            .toArray();
+    }
+
+    private static boolean isNonDecreasing(final int[] v) {
+        for(int i=1; i<v.length; ++i) {
+            if(v[i-1]>v[i]) return false;
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.combinatorics.product;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jcompute.core.job.CancellationToken;
+import jcompute.core.job.JobControl;
+
+class ResumableEnumerationTest {
+
+    private static final long CHUNK_SIZE = 1000;
+
+    @TempDir Path tempDir;
+
+    @Test
+    void resumesOutstandingChunksOnly() {
+        var product = CartesianProduct.create(20, 30, 40);
+        var file = tempDir.resolve("sweep.checkpoint");
+        final long expected = expectedSum(product);
+
+        // first run, cancelled after some tuples
+        var cancellation = CancellationToken.create();
+        var visited = new LongAdder();
+        try(var enumeration = open(product, file)) {
+            assertEquals(24L, enumeration.chunkCount());
+            assertThrows(CancellationException.class, ()->enumeration.streamCollectors(JobControl.of(cancellation),
+                    chunk->new LongAdder(),
+                    (sum, v)->{
+                        sum.add(CartesianProductTest.weightedSum(v));
+                        visited.increment();
+                        if(visited.sum()==5000) {
+                            cancellation.cancel();
+                        }
+                        // also interrupts chunks in flight, as a crash would
+                        cancellation.throwIfCancelled();
+                    },
+                    LongAdder::sum));
+        }
+
+        // second run, resumed from the checkpoint
+        try(var enumeration = open(product, file)) {
+            final long pending = enumeration.pendingChunkCount();
+            assertTrue(pending>0 && pending<=24, ()->"pending " + pending);
+            assertFalse(enumeration.isComplete());
+            final long pendingTuples = enumeration.pendingTupleCount();
+            var resumed = new LongAdder();
+            final long actual = enumeration.streamCollectors(JobControl.none(),
+                    chunk->new LongAdder(),
+                    (sum, v)->{
+                        sum.add(CartesianProductTest.weightedSum(v));
+                        resumed.increment();
+                    },
+                    LongAdder::sum)
+                .sum();
+            assertEquals(expected, actual);
+            assertEquals(pendingTuples, resumed.sum());
+            assertTrue(enumeration.isComplete());
+        }
+
+        // third run, nothing left to do
+        try(var enumeration = open(product, file)) {
+            assertEquals(0L, enumeration.pendingTupleCount());
+            enumeration.forEach(JobControl.none(), v->{ throw new AssertionError("unexpected visit"); });
+        }
+    }
+
+    @Test
+    void forEachVisitsAllTuples() {
+        var product = CartesianProduct.create(7, 11, 13, 17);
+        var count = new LongAdder();
+        try(var enumeration = open(product, tempDir.resolve("forEach.checkpoint"))) {
+            enumeration.forEach(JobControl.none(), v->count.increment());
+            assertTrue(enumeration.isComplete());
+        }
+        assertEquals(product.cardinality().longValueExact(), count.sum());
+    }
+
+    @Test
+    void rejectsCheckpointOfOtherProduct() {
+        var file = tempDir.resolve("other.checkpoint");
+        open(CartesianProduct.create(20, 30, 40), file).close();
+        // same cardinality, different index ranges
+        assertThrows(IllegalArgumentException.class, ()->open(CartesianProduct.create(40, 30, 20), file));
+        // same cardinality, different index count
+        assertThrows(IllegalArgumentException.class, ()->open(CartesianProduct.create(20 * 30, 40), file));
+        // different chunk size
+        assertThrows(IllegalArgumentException.class, ()->
+            ResumableEnumeration.open(CartesianProduct.create(20, 30, 40), file, CHUNK_SIZE + 1, Duration.ZERO));
+    }
+
+    // -- HELPER
+
+    private static ResumableEnumeration open(final CartesianProduct product, final Path file) {
+        return ResumableEnumeration.open(product, file, CHUNK_SIZE, Duration.ZERO);
+    }
+
+    private static long expectedSum(final CartesianProduct product) {
+        var sum = new LongAdder();
+        product.forEach(CartesianProduct.Visiting.PARALLEL, v->sum.add(CartesianProductTest.weightedSum(v)));
+        return sum.sum();
+    }
+
+}
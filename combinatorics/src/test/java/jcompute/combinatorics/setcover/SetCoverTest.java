@@ -31,6 +31,8 @@ import lombok.SneakyThrows;
 import jcompute.core.io.Compressor;
 import jcompute.core.mem.ByteArray;
 import jcompute.core.mem.LongArray;
+import jcompute.core.ops.ArrayOps;
+import jcompute.core.ops.Comparison;
 import jcompute.core.timing.Timing;
 import jcompute.opencl.ClDevice;
 
@@ -102,9 +104,14 @@ class SetCoverTest {
 
     private void validate() {
         //assert all ones
-        setCoverParams.shape().forEach(gid->{
-            assertEquals((byte)1, outputMem.get(gid), ()->"at gid="+gid);
-        });
+        var size = setCoverParams.shape().totalSize();
+        var ones = ArrayOps.count(outputMem, Comparison.EQ, (byte)1);
+        if(ones!=size) {
+            // locate the first mismatch
+            setCoverParams.shape().forEach(gid->{
+                assertEquals((byte)1, outputMem.get(gid), ()->"at gid="+gid);
+            });
+        }
     }
 
 }
@@ -0,0 +1,198 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.CRC32C;
+
+import lombok.SneakyThrows;
+import lombok.experimental.UtilityClass;
+
+import jcompute.core.io.ArrayHeader.ChecksumType;
+import jcompute.core.mem.JComputeArray;
+
+/**
+ * Reads and writes {@link JComputeArray}s in the jcompute array file format (see {@link ArrayHeader}).
+ * <p>
+ * Payloads in native byte order are transferred in bulk between the array's {@link MemorySegment}
+ * and the channel, without intermediate copies. Payloads in foreign byte order are converted
+ * through a bounded buffer (slower).
+ */
+@UtilityClass
+public class ArrayChannels {
+
+    /**
+     * Max bytes per single channel transfer.
+     */
+    final int TRANSFER_BYTES = 1 << 30;
+    /**
+     * Conversion buffer size (foreign byte order only).
+     */
+    final int CONVERSION_BYTES = 1 << 16;
+
+    /**
+     * Writes header (with CRC32C checksum) and payload in native byte order.
+     */
+    public void write(final JComputeArray array, final WritableByteChannel out) {
+        write(array, out, ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Writes header (with CRC32C checksum) and payload in given byte order.
+     */
+    @SneakyThrows
+    public void write(final JComputeArray array, final WritableByteChannel out, final ByteOrder byteOrder) {
+        final MemorySegment payload = array.memorySegment()
+                .asSlice(0L, array.shape().totalSize() * array.bytesPerElement());
+        final boolean isConverting = needsConversion(array.valueLayout(), byteOrder);
+
+        final long checksum;
+        if(isConverting) {
+            final CRC32C crc = new CRC32C();
+            forEachConverted(payload, array.valueLayout(), byteOrder, crc::update);
+            checksum = crc.getValue();
+        } else {
+            checksum = ArrayDigests.crc32c(payload);
+        }
+
+        var headerSegment = MemorySegment.ofArray(new byte[ArrayHeader.SIZE]);
+        ArrayHeader.of(array.valueLayout(), array.shape(), byteOrder, ChecksumType.CRC32C, checksum)
+            .write(headerSegment);
+        writeFully(headerSegment.asByteBuffer(), out);
+
+        if(isConverting) {
+            forEachConverted(payload, array.valueLayout(), byteOrder, buffer->writeFully(buffer, out));
+        } else {
+            forEachSlice(payload, buffer->writeFully(buffer, out));
+        }
+    }
+
+    /**
+     * Reads the header, leaving the channel positioned at the start of the payload.
+     */
+    @SneakyThrows
+    public ArrayHeader readHeader(final ReadableByteChannel in) {
+        var headerBytes = new byte[ArrayHeader.SIZE];
+        readFully(ByteBuffer.wrap(headerBytes), in);
+        return ArrayHeader.read(MemorySegment.ofArray(headerBytes));
+    }
+
+    /**
+     * Reads the payload as described by given header into given segment,
+     * verifies its checksum (if any) and converts it to native byte order (if required).
+     */
+    @SneakyThrows
+    public void readPayload(final ArrayHeader header, final ReadableByteChannel in, final MemorySegment segment) {
+        final MemorySegment payload = segment.asSlice(0L, header.payloadSize());
+        forEachSlice(payload, buffer->readFully(buffer, in));
+        verifyPayload(header, payload);
+    }
+
+    /**
+     * Verifies the checksum (if any) of a payload, that was read as is,
+     * then converts it to native byte order (if required).
+     */
+    @SneakyThrows
+    void verifyPayload(final ArrayHeader header, final MemorySegment payload) {
+        if(header.checksumType()==ChecksumType.CRC32C) {
+            final long checksum = ArrayDigests.crc32c(payload);
+            if(checksum!=header.checksum()) {
+                throw new IOException(String.format(
+                        "payload checksum mismatch: expected %x, but found %x", header.checksum(), checksum));
+            }
+        }
+
+        final ValueLayout valueLayout = header.valueLayout();
+        if(needsConversion(valueLayout, header.byteOrder())) {
+            // swaps bytes element-wise in place
+            MemorySegment.copy(
+                    payload, valueLayout.withOrder(header.byteOrder()), 0L,
+                    payload, valueLayout, 0L,
+                    header.shape().totalSize());
+        }
+    }
+
+    // -- HELPER
+
+    @FunctionalInterface
+    private static interface BufferConsumer {
+        void accept(ByteBuffer buffer) throws IOException;
+    }
+
+    private boolean needsConversion(final ValueLayout valueLayout, final ByteOrder byteOrder) {
+        return valueLayout.byteSize()>1
+                && !ByteOrder.nativeOrder().equals(byteOrder);
+    }
+
+    /**
+     * Reports the segment as byte buffers of at most {@link #TRANSFER_BYTES} each.
+     */
+    @SneakyThrows
+    private void forEachSlice(final MemorySegment segment, final BufferConsumer onBuffer) {
+        final long size = segment.byteSize();
+        for(long offset = 0L; offset<size; offset+=TRANSFER_BYTES) {
+            onBuffer.accept(segment.asSlice(offset, Math.min(TRANSFER_BYTES, size - offset)).asByteBuffer());
+        }
+    }
+
+    /**
+     * Reports the segment converted to given byte order as byte buffers of at most {@link #CONVERSION_BYTES} each.
+     */
+    @SneakyThrows
+    private void forEachConverted(
+            final MemorySegment segment,
+            final ValueLayout valueLayout,
+            final ByteOrder byteOrder,
+            final BufferConsumer onBuffer) {
+        final long elementBytes = valueLayout.byteSize();
+        final long elementCount = segment.byteSize() / elementBytes;
+        final long elementsPerBuffer = CONVERSION_BYTES / elementBytes;
+        final ValueLayout targetLayout = valueLayout.withOrder(byteOrder);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(CONVERSION_BYTES);
+        final MemorySegment bufferSegment = MemorySegment.ofBuffer(buffer);
+        for(long gid = 0L; gid<elementCount; gid+=elementsPerBuffer) {
+            final long n = Math.min(elementsPerBuffer, elementCount - gid);
+            MemorySegment.copy(segment, valueLayout, gid * elementBytes, bufferSegment, targetLayout, 0L, n);
+            onBuffer.accept(buffer.clear().limit((int)(n * elementBytes)));
+        }
+    }
+
+    private void writeFully(final ByteBuffer buffer, final WritableByteChannel out) throws IOException {
+        while(buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private void readFully(final ByteBuffer buffer, final ReadableByteChannel in) throws IOException {
+        while(buffer.hasRemaining()) {
+            if(in.read(buffer)==-1) {
+                throw new EOFException(String.format(
+                        "unexpected end of stream, %d bytes missing", buffer.remaining()));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,248 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.io;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.zip.CRC32C;
+
+import lombok.SneakyThrows;
+import lombok.experimental.UtilityClass;
+
+import jcompute.core.mem.JComputeArray;
+import jcompute.core.shape.Shape;
+import jcompute.core.util.Parallelism;
+
+/**
+ * Digests of {@link JComputeArray}s, such that (multi-GB) arrays can be compared across processes or nodes
+ * by exchanging a digest instead of the data.
+ * <p>
+ * The payload is split into blocks of {@link #BLOCK_BYTES}, which are digested independently (in parallel
+ * for {@link Parallelism#PARALLEL}), then combined with element type and shape into a single digest.
+ * Results hence do not depend on the parallelism. Thread-confined payloads are always digested sequentially.
+ * Payload bytes are digested as stored in memory, that is in native byte order.
+ */
+@UtilityClass
+public class ArrayDigests {
+
+    /**
+     * Digest block size in bytes.
+     */
+    public final int BLOCK_BYTES = 1 << 20;
+
+    /**
+     * Staging buffer size, as digests cannot consume buffers of (closeable) shared arenas directly.
+     */
+    final int STAGING_BYTES = 1 << 16;
+
+    /**
+     * Never started, hence owns no confined memory: segments it may access are accessible by any thread.
+     */
+    private final Thread NON_OWNER = Thread.ofPlatform().unstarted(()->{});
+
+    // XXH64 primes
+    private final long P1 = 0x9E3779B185EBCA87L;
+    private final long P2 = 0xC2B2AE3D27D4EB4FL;
+    private final long P3 = 0x165667B19E3779F9L;
+    private final long P4 = 0x85EBCA77C2B2AE63L;
+    private final long P5 = 0x27D4EB2F165667C5L;
+
+    private final ValueLayout.OfLong LONG_LE = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private final ValueLayout.OfInt INT_LE = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * Fast, non-cryptographic 64-bit hash of element type, shape and payload,
+     * combined from per-block XXH64 hashes.
+     */
+    public long hash(final JComputeArray array, final Parallelism parallelism) {
+        final MemorySegment payload = payload(array);
+        final long[] blockHashes = parallelism(payload, parallelism)
+                .range(blockCount(payload))
+                .map(block->xxh64(block(payload, block), block))
+                .toArray();
+        long hash = mix(ArrayHeader.elementType(array.valueLayout()));
+        for(long v : shapeComponents(array.shape())) {
+            hash = mix(hash ^ v);
+        }
+        for(long blockHash : blockHashes) {
+            hash = mix(hash ^ blockHash);
+        }
+        return hash;
+    }
+
+    /**
+     * SHA-256 hash tree of element type, shape and payload, as lower case hex string.
+     * The root digest covers the {@link ArrayHeader} (without checksum) and the SHA-256 digests
+     * of all payload blocks.
+     */
+    public String fingerprint(final JComputeArray array, final Parallelism parallelism) {
+        final MemorySegment payload = payload(array);
+        final byte[][] blockDigests = parallelism(payload, parallelism)
+                .range(blockCount(payload))
+                .mapToObj(block->sha256(block(payload, block)))
+                .toArray(byte[][]::new);
+        final MessageDigest root = sha256();
+        // element type, byte order and shape
+        final byte[] header = new byte[ArrayHeader.SIZE];
+        ArrayHeader.of(array.valueLayout(), array.shape()).write(MemorySegment.ofArray(header));
+        root.update(header);
+        for(byte[] digest : blockDigests) {
+            root.update(digest);
+        }
+        return HexFormat.of().formatHex(root.digest());
+    }
+
+    /**
+     * CRC32C checksum of given segment's bytes.
+     */
+    public long crc32c(final MemorySegment segment) {
+        final CRC32C crc = new CRC32C();
+        forEachStaged(segment, crc::update);
+        return crc.getValue();
+    }
+
+    /**
+     * XXH64 hash of given segment's bytes with given seed.
+     */
+    public long xxh64(final MemorySegment segment, final long seed) {
+        final long size = segment.byteSize();
+        long offset = 0L;
+        long h;
+        if(size>=32) {
+            long v1 = seed + P1 + P2;
+            long v2 = seed + P2;
+            long v3 = seed;
+            long v4 = seed - P1;
+            for(; offset<=size - 32; offset+=32) {
+                v1 = xxhRound(v1, segment.get(LONG_LE, offset));
+                v2 = xxhRound(v2, segment.get(LONG_LE, offset + 8));
+                v3 = xxhRound(v3, segment.get(LONG_LE, offset + 16));
+                v4 = xxhRound(v4, segment.get(LONG_LE, offset + 24));
+            }
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = xxhMerge(h, v1);
+            h = xxhMerge(h, v2);
+            h = xxhMerge(h, v3);
+            h = xxhMerge(h, v4);
+        } else {
+            h = seed + P5;
+        }
+        h += size;
+        for(; offset + 8<=size; offset+=8) {
+            h ^= xxhRound(0L, segment.get(LONG_LE, offset));
+            h = Long.rotateLeft(h, 27) * P1 + P4;
+        }
+        if(offset + 4<=size) {
+            h ^= Integer.toUnsignedLong(segment.get(INT_LE, offset)) * P1;
+            h = Long.rotateLeft(h, 23) * P2 + P3;
+            offset+=4;
+        }
+        for(; offset<size; offset++) {
+            h ^= Byte.toUnsignedLong(segment.get(ValueLayout.JAVA_BYTE, offset)) * P5;
+            h = Long.rotateLeft(h, 11) * P1;
+        }
+        h ^= h >>> 33;
+        h *= P2;
+        h ^= h >>> 29;
+        h *= P3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    // -- HELPER
+
+    @FunctionalInterface
+    private static interface StagingConsumer {
+        void accept(byte[] buffer, int offset, int length);
+    }
+
+    private MemorySegment payload(final JComputeArray array) {
+        return array.memorySegment().asSlice(0L, array.shape().totalSize() * array.bytesPerElement());
+    }
+
+    private long blockCount(final MemorySegment payload) {
+        return Math.ceilDiv(payload.byteSize(), BLOCK_BYTES);
+    }
+
+    private MemorySegment block(final MemorySegment payload, final long block) {
+        final long offset = block * BLOCK_BYTES;
+        return payload.asSlice(offset, Math.min(BLOCK_BYTES, payload.byteSize() - offset));
+    }
+
+    /**
+     * Single block payloads are not worth forking, and thread-confined payloads
+     * (e.g. allocated from {@link java.lang.foreign.Arena#ofConfined()}) cannot be read by worker threads.
+     */
+    private Parallelism parallelism(final MemorySegment payload, final Parallelism parallelism) {
+        return payload.byteSize() > BLOCK_BYTES
+                && payload.isAccessibleBy(NON_OWNER)
+                ? parallelism
+                : Parallelism.SEQUENTIAL;
+    }
+
+    private long[] shapeComponents(final Shape shape) {
+        return new long[] {shape.dimensionCount(), shape.sizeX(), shape.sizeY(), shape.sizeZ()};
+    }
+
+    private long xxhRound(final long acc, final long input) {
+        return Long.rotateLeft(acc + input * P2, 31) * P1;
+    }
+
+    private long xxhMerge(final long acc, final long v) {
+        return (acc ^ xxhRound(0L, v)) * P1 + P4;
+    }
+
+    /**
+     * MurmurHash3 64-bit finalizer.
+     */
+    private long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private byte[] sha256(final MemorySegment segment) {
+        final MessageDigest digest = sha256();
+        forEachStaged(segment, digest::update);
+        return digest.digest();
+    }
+
+    @SneakyThrows
+    private MessageDigest sha256() {
+        return MessageDigest.getInstance("SHA-256");
+    }
+
+    private void forEachStaged(final MemorySegment segment, final StagingConsumer onStaged) {
+        final byte[] buffer = new byte[(int)Math.min(STAGING_BYTES, segment.byteSize())];
+        final MemorySegment bufferSegment = MemorySegment.ofArray(buffer);
+        final long size = segment.byteSize();
+        for(long offset = 0L; offset<size; offset+=STAGING_BYTES) {
+            final int n = (int)Math.min(STAGING_BYTES, size - offset);
+            MemorySegment.copy(segment, offset, bufferSegment, 0L, n);
+            onStaged.accept(buffer, 0, n);
+        }
+    }
+
+}
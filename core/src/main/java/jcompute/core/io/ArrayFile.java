@@ -0,0 +1,109 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.io;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import lombok.SneakyThrows;
+
+import jcompute.core.shape.Shape;
+
+/**
+ * A jcompute array file, memory mapped via {@link FileChannel#map(MapMode, long, long, Arena)}.
+ * <p>
+ * The payload segment is backed by the file's pages directly, hence loading is instant
+ * and data stays in the OS page cache across JVM restarts.
+ * The mapping lives as long as the {@link Arena} it was mapped with.
+ *
+ * @see ArrayHeader
+ */
+public record ArrayFile(
+        ArrayHeader header,
+        MemorySegment payload) {
+
+    /**
+     * Maps an existing jcompute array file, requiring its payload to be stored in native byte order.
+     * @param mode {@link MapMode#READ_ONLY}, {@link MapMode#READ_WRITE}
+     *      or {@link MapMode#PRIVATE} (copy-on-write)
+     */
+    @SneakyThrows
+    public static ArrayFile map(final Arena arena, final Path file, final MapMode mode) {
+        var openOptions = MapMode.READ_WRITE.equals(mode)
+                ? new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE}
+                : new StandardOpenOption[] {StandardOpenOption.READ};
+        try(var channel = FileChannel.open(file, openOptions)) {
+            final long fileSize = channel.size();
+            if(fileSize<ArrayHeader.SIZE) {
+                throw new IOException(String.format("file %s is too small to be a jcompute array file", file));
+            }
+            var segment = channel.map(mode, 0L, fileSize, arena);
+            var header = ArrayHeader.read(segment);
+            if(!header.isNativeByteOrder()) {
+                throw new IOException(String.format(
+                        "file %s stores its payload in %s byte order, cannot map to native byte order",
+                        file, header.byteOrder()));
+            }
+            if(ArrayHeader.SIZE + header.payloadSize() > fileSize) {
+                throw new IOException(String.format(
+                        "file %s is truncated, expected %d payload bytes", file, header.payloadSize()));
+            }
+            return new ArrayFile(header, segment.asSlice(ArrayHeader.SIZE, header.payloadSize()));
+        }
+    }
+
+    /**
+     * Creates (or overwrites) given file with a zero initialized payload of given value layout and shape,
+     * then maps it {@link MapMode#READ_WRITE}.
+     */
+    @SneakyThrows
+    public static ArrayFile create(final Arena arena, final Path file, final ValueLayout valueLayout, final Shape shape) {
+        var header = ArrayHeader.of(valueLayout, shape);
+        try(var channel = FileChannel.open(file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // mapping beyond the end of file grows the file
+            var segment = channel.map(MapMode.READ_WRITE, 0L, ArrayHeader.SIZE + header.payloadSize(), arena);
+            header.write(segment);
+            return new ArrayFile(header, segment.asSlice(ArrayHeader.SIZE, header.payloadSize()));
+        }
+    }
+
+    /**
+     * Throws if this file does not hold an array of given value layout.
+     * @return this
+     */
+    public ArrayFile assertElementType(final ValueLayout valueLayout) {
+        header.assertElementType(valueLayout);
+        return this;
+    }
+
+    public Shape shape() {
+        return header.shape();
+    }
+
+}
@@ -0,0 +1,186 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.io;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+import lombok.SneakyThrows;
+
+import jcompute.core.shape.Shape;
+
+/**
+ * Fixed size header of a jcompute array file, followed by the array's payload at offset {@link #SIZE}.
+ * <pre>
+ * offset  size  field
+ *      0     4  magic 'JCAF'
+ *      4     1  format version
+ *      5     1  element type (JVM type descriptor of the value layout's carrier, e.g. 'J' for long)
+ *      6     1  byte order of the payload (0 = big endian, 1 = little endian)
+ *      7     1  dimension count
+ *      8    24  sizeX, sizeY, sizeZ
+ *     32     1  checksum type (0 = none, 1 = CRC32C)
+ *     33     7  reserved (zero)
+ *     40     8  checksum of the payload bytes (as stored)
+ *     48    16  reserved (zero)
+ * </pre>
+ * Header fields are stored in big endian byte order.
+ */
+public record ArrayHeader(
+        char elementType,
+        ByteOrder byteOrder,
+        Shape shape,
+        ChecksumType checksumType,
+        long checksum) {
+
+    public enum ChecksumType {
+        NONE,
+        CRC32C;
+    }
+
+    /**
+     * Header size in bytes, which is also the (cache line aligned) payload offset.
+     */
+    public static final int SIZE = 64;
+
+    static final int MAGIC = 0x4A43_4146; // 'JCAF'
+    static final int VERSION = 1;
+
+    private static final ValueLayout.OfInt INT_BE = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfLong LONG_BE = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+    /**
+     * Header for an array of given value layout and shape, with the payload stored in native byte order
+     * and no checksum.
+     */
+    public static ArrayHeader of(final ValueLayout valueLayout, final Shape shape) {
+        return of(valueLayout, shape, ByteOrder.nativeOrder(), ChecksumType.NONE, 0L);
+    }
+
+    public static ArrayHeader of(
+            final ValueLayout valueLayout,
+            final Shape shape,
+            final ByteOrder byteOrder,
+            final ChecksumType checksumType,
+            final long checksum) {
+        return new ArrayHeader(elementType(valueLayout), byteOrder, shape, checksumType, checksum);
+    }
+
+    public static char elementType(final ValueLayout valueLayout) {
+        return valueLayout.carrier().descriptorString().charAt(0);
+    }
+
+    /**
+     * The (native byte order) value layout corresponding to {@link #elementType()}.
+     */
+    public ValueLayout valueLayout() {
+        return switch (elementType) {
+            case 'B' -> ValueLayout.JAVA_BYTE;
+            case 'S' -> ValueLayout.JAVA_SHORT;
+            case 'I' -> ValueLayout.JAVA_INT;
+            case 'J' -> ValueLayout.JAVA_LONG;
+            case 'F' -> ValueLayout.JAVA_FLOAT;
+            case 'D' -> ValueLayout.JAVA_DOUBLE;
+            default -> throw new IllegalArgumentException("Unexpected value: " + elementType);
+        };
+    }
+
+    /**
+     * Payload size in bytes.
+     */
+    public long payloadSize() {
+        return Math.multiplyExact(shape.totalSize(), valueLayout().byteSize());
+    }
+
+    public boolean isNativeByteOrder() {
+        return ByteOrder.nativeOrder().equals(byteOrder);
+    }
+
+    /**
+     * Throws if this header does not describe an array of given value layout.
+     * @return this
+     */
+    public ArrayHeader assertElementType(final ValueLayout valueLayout) {
+        if(elementType!=elementType(valueLayout)) {
+            throw new IllegalArgumentException(String.format(
+                    "element type mismatch: expected '%s', but found '%s'", elementType(valueLayout), elementType));
+        }
+        return this;
+    }
+
+    // -- IO
+
+    /**
+     * Writes this header into the first {@link #SIZE} bytes of given segment.
+     */
+    public void write(final MemorySegment segment) {
+        var header = segment.asSlice(0, SIZE);
+        header.fill((byte)0);
+        header.set(INT_BE, 0, MAGIC);
+        header.set(ValueLayout.JAVA_BYTE, 4, (byte)VERSION);
+        header.set(ValueLayout.JAVA_BYTE, 5, (byte)elementType);
+        header.set(ValueLayout.JAVA_BYTE, 6, (byte)(ByteOrder.LITTLE_ENDIAN.equals(byteOrder) ? 1 : 0));
+        header.set(ValueLayout.JAVA_BYTE, 7, (byte)shape.dimensionCount());
+        header.set(LONG_BE, 8, shape.sizeX());
+        header.set(LONG_BE, 16, shape.sizeY());
+        header.set(LONG_BE, 24, shape.sizeZ());
+        header.set(ValueLayout.JAVA_BYTE, 32, (byte)checksumType.ordinal());
+        header.set(LONG_BE, 40, checksum);
+    }
+
+    /**
+     * Reads the header from the first {@link #SIZE} bytes of given segment.
+     */
+    @SneakyThrows
+    public static ArrayHeader read(final MemorySegment segment) {
+        if(segment.byteSize()<SIZE
+                || segment.get(INT_BE, 0)!=MAGIC) {
+            throw new IOException("not a jcompute array file (magic number mismatch)");
+        }
+        final int version = segment.get(ValueLayout.JAVA_BYTE, 4);
+        if(version!=VERSION) {
+            throw new IOException(String.format("unsupported jcompute array file version %d", version));
+        }
+        final char elementType = (char)segment.get(ValueLayout.JAVA_BYTE, 5);
+        final ByteOrder byteOrder = segment.get(ValueLayout.JAVA_BYTE, 6)==1
+                ? ByteOrder.LITTLE_ENDIAN
+                : ByteOrder.BIG_ENDIAN;
+        final int dimensionCount = segment.get(ValueLayout.JAVA_BYTE, 7);
+        final long sizeX = segment.get(LONG_BE, 8);
+        final long sizeY = segment.get(LONG_BE, 16);
+        final long sizeZ = segment.get(LONG_BE, 24);
+        final int checksumType = segment.get(ValueLayout.JAVA_BYTE, 32);
+        if(checksumType<0
+                || checksumType>=ChecksumType.values().length) {
+            throw new IOException("Unexpected checksum type: " + checksumType);
+        }
+        final Shape shape = switch (dimensionCount) {
+            case 0 -> Shape.empty();
+            case 1 -> Shape.of(sizeX);
+            case 2 -> Shape.of(sizeX, sizeY);
+            case 3 -> Shape.of(sizeX, sizeY, sizeZ);
+            default -> throw new IOException("Unexpected dimension count: " + dimensionCount);
+        };
+        return new ArrayHeader(elementType, byteOrder, shape,
+                ChecksumType.values()[checksumType], segment.get(LONG_BE, 40));
+    }
+
+}
@@ -0,0 +1,356 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.Channels;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import lombok.SneakyThrows;
+
+import jcompute.core.io.ArrayHeader.ChecksumType;
+import jcompute.core.mem.JComputeArray;
+import jcompute.core.shape.Shape;
+
+/**
+ * Loads and saves {@link JComputeArray}s asynchronously, such that e.g. checkpoints of many arrays
+ * can be written or read concurrently, while the caller continues computing.
+ * <p>
+ * Uncompressed files use the jcompute array file format (see {@link ArrayHeader}) with the payload in native
+ * byte order, transferred via {@link AsynchronousFileChannel} as positional requests of at most
+ * {@code requestBytes} each, with up to {@code maxOutstanding} requests in flight per file.
+ * <p>
+ * Compressed files hold the same format, passed through a {@link Compressor}. Each such file is
+ * (de-)compressed on its own virtual thread; for parallelism within a single array, see {@link BlockCompressedFile}.
+ * <p>
+ * Arrays must not be modified (written) or accessed (read) until their future completes;
+ * arrays allocated for reading require an {@link Arena} that is accessible from any thread
+ * (e.g. {@link Arena#ofShared()}).
+ */
+public final class AsyncArrayIO implements AutoCloseable {
+
+    public static final int DEFAULT_REQUEST_BYTES = 1 << 22;
+    public static final int DEFAULT_MAX_OUTSTANDING = 8;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final int requestBytes;
+    private final int maxOutstanding;
+
+    private AsyncArrayIO(final int requestBytes, final int maxOutstanding) {
+        if(requestBytes<1) {
+            throw new IllegalArgumentException(String.format("invalid request size %d", requestBytes));
+        }
+        if(maxOutstanding<1) {
+            throw new IllegalArgumentException(String.format("invalid max outstanding requests %d", maxOutstanding));
+        }
+        this.requestBytes = requestBytes;
+        this.maxOutstanding = maxOutstanding;
+    }
+
+    public static AsyncArrayIO create() {
+        return new AsyncArrayIO(DEFAULT_REQUEST_BYTES, DEFAULT_MAX_OUTSTANDING);
+    }
+
+    public static AsyncArrayIO of(final int requestBytes, final int maxOutstanding) {
+        return new AsyncArrayIO(requestBytes, maxOutstanding);
+    }
+
+    // -- UNCOMPRESSED
+
+    /**
+     * Writes given array to given file (created or overwritten), with a CRC32C checksum.
+     * @return future of the written array
+     */
+    public <T extends JComputeArray> CompletableFuture<T> write(final T array, final Path file) {
+        return CompletableFuture
+            .supplyAsync(()->header(array), executor)
+            .thenCompose(header->withChannel(file,
+                    Set.of(StandardOpenOption.CREATE,
+                            StandardOpenOption.TRUNCATE_EXISTING,
+                            StandardOpenOption.WRITE),
+                    channel->CompletableFuture.allOf(
+                            transfer(channel, header, 0L, true),
+                            transfer(channel, payload(array), ArrayHeader.SIZE, true))))
+            .thenApply(_->array);
+    }
+
+    /**
+     * Reads given file into a new array, allocated with given arena.
+     * @param factory creates the array from shape and memory segment, e.g. {@code LongArray::new}
+     * @return future of the read array
+     */
+    public <T extends JComputeArray> CompletableFuture<T> read(
+            final Path file,
+            final Arena arena,
+            final BiFunction<Shape, MemorySegment, T> factory) {
+        return read(file, header->factory.apply(header.shape(), arena.allocate(header.payloadSize(), 64L)));
+    }
+
+    /**
+     * Reads given file into given array, which must agree with the file on element type and total size.
+     * @return future of given array
+     */
+    public <T extends JComputeArray> CompletableFuture<T> readInto(final Path file, final T array) {
+        return read(file, _->array);
+    }
+
+    // -- COMPRESSED
+
+    /**
+     * Writes given array to given file (created or overwritten), passed through given compressor.
+     * @return future of the written array
+     */
+    public <T extends JComputeArray> CompletableFuture<T> write(final T array, final Path file, final Compressor compressor) {
+        return CompletableFuture.supplyAsync(()->writeCompressed(array, file, compressor), executor);
+    }
+
+    /**
+     * Reads given compressed file into a new array, allocated with given arena.
+     * @param factory creates the array from shape and memory segment, e.g. {@code LongArray::new}
+     * @return future of the read array
+     */
+    public <T extends JComputeArray> CompletableFuture<T> read(
+            final Path file,
+            final Compressor compressor,
+            final Arena arena,
+            final BiFunction<Shape, MemorySegment, T> factory) {
+        return CompletableFuture.supplyAsync(()->readCompressed(file, compressor,
+                header->factory.apply(header.shape(), arena.allocate(header.payloadSize(), 64L))), executor);
+    }
+
+    /**
+     * Reads given compressed file into given array, which must agree with the file on element type and total size.
+     * @return future of given array
+     */
+    public <T extends JComputeArray> CompletableFuture<T> readInto(final Path file, final Compressor compressor, final T array) {
+        return CompletableFuture.supplyAsync(()->readCompressed(file, compressor, _->array), executor);
+    }
+
+    /**
+     * Waits for all pending (de-)compression tasks to complete.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    // -- HELPER
+
+    private MemorySegment header(final JComputeArray array) {
+        var headerSegment = MemorySegment.ofArray(new byte[ArrayHeader.SIZE]);
+        ArrayHeader.of(array.valueLayout(), array.shape(), ByteOrder.nativeOrder(),
+                ChecksumType.CRC32C, ArrayDigests.crc32c(payload(array)))
+            .write(headerSegment);
+        return headerSegment;
+    }
+
+    private static MemorySegment payload(final JComputeArray array) {
+        return array.memorySegment().asSlice(0L, array.shape().totalSize() * array.bytesPerElement());
+    }
+
+    private static <T extends JComputeArray> T validate(final ArrayHeader header, final T array) {
+        header.assertElementType(array.valueLayout());
+        array.shape().assertSameTotalSize(header.shape());
+        return array;
+    }
+
+    private <T extends JComputeArray> CompletableFuture<T> read(
+            final Path file,
+            final Function<ArrayHeader, T> arrayForHeader) {
+        var headerSegment = MemorySegment.ofArray(new byte[ArrayHeader.SIZE]);
+        return withChannel(file, Set.of(StandardOpenOption.READ), channel->
+            transfer(channel, headerSegment, 0L, false)
+                .thenApply(_->ArrayHeader.read(headerSegment))
+                .thenCompose(header->{
+                    var array = validate(header, arrayForHeader.apply(header));
+                    var payload = payload(array);
+                    return transfer(channel, payload, ArrayHeader.SIZE, false)
+                        .thenApplyAsync(_->{
+                            ArrayChannels.verifyPayload(header, payload);
+                            return array;
+                        }, executor);
+                }));
+    }
+
+    @SneakyThrows
+    private <T extends JComputeArray> T writeCompressed(final T array, final Path file, final Compressor compressor) {
+        try(var out = compressor.out(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            ArrayChannels.write(array, Channels.newChannel(out));
+        }
+        return array;
+    }
+
+    @SneakyThrows
+    private <T extends JComputeArray> T readCompressed(
+            final Path file,
+            final Compressor compressor,
+            final Function<ArrayHeader, T> arrayForHeader) {
+        try(var in = Channels.newChannel(compressor.in(new BufferedInputStream(Files.newInputStream(file))))) {
+            var header = ArrayChannels.readHeader(in);
+            var array = validate(header, arrayForHeader.apply(header));
+            ArrayChannels.readPayload(header, in, array.memorySegment());
+            return array;
+        }
+    }
+
+    /**
+     * Opens given file, runs given I/O and closes the channel once it completes.
+     */
+    private <R> CompletableFuture<R> withChannel(
+            final Path file,
+            final Set<? extends OpenOption> openOptions,
+            final Function<AsynchronousFileChannel, CompletableFuture<R>> io) {
+        final AsynchronousFileChannel channel;
+        try {
+            channel = AsynchronousFileChannel.open(file, openOptions, executor);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<R> result;
+        try {
+            result = io.apply(channel);
+        } catch (Exception e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.whenComplete((_, _)->close(channel));
+    }
+
+    @SneakyThrows
+    private static void close(final AsynchronousFileChannel channel) {
+        channel.close();
+    }
+
+    /**
+     * Transfers given segment from or to given file position, as a sequence of requests
+     * of which at most {@link #maxOutstanding} are in flight.
+     */
+    private CompletableFuture<Void> transfer(
+            final AsynchronousFileChannel channel,
+            final MemorySegment segment,
+            final long position,
+            final boolean isWrite) {
+        var transfer = new Transfer(channel, segment, position, isWrite);
+        transfer.start();
+        return transfer.done;
+    }
+
+    private record Request(ByteBuffer buffer, long position) {}
+
+    private final class Transfer implements CompletionHandler<Integer, Request> {
+
+        final AsynchronousFileChannel channel;
+        final MemorySegment segment;
+        final long position;
+        final boolean isWrite;
+        final long requestCount;
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicInteger pending;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Transfer(final AsynchronousFileChannel channel, final MemorySegment segment,
+                final long position, final boolean isWrite) {
+            this.channel = channel;
+            this.segment = segment;
+            this.position = position;
+            this.isWrite = isWrite;
+            this.requestCount = (segment.byteSize() + requestBytes - 1) / requestBytes;
+            if(requestCount>Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(String.format(
+                        "too many requests %d, consider a larger request size", requestCount));
+            }
+            this.pending = new AtomicInteger((int)requestCount);
+        }
+
+        void start() {
+            if(requestCount==0) {
+                done.complete(null);
+                return;
+            }
+            for (int i = 0; i < Math.min(maxOutstanding, requestCount); i++) {
+                startNext();
+            }
+        }
+
+        void startNext() {
+            final int index = next.getAndIncrement();
+            if(index>=requestCount) return;
+            final long offset = (long)index * requestBytes;
+            final long length = Math.min(requestBytes, segment.byteSize() - offset);
+            issue(new Request(segment.asSlice(offset, length).asByteBuffer(), position + offset));
+        }
+
+        void issue(final Request request) {
+            // resumes partial transfers at the buffer's current position
+            final long filePosition = request.position() + request.buffer().position();
+            try {
+                if(isWrite) {
+                    channel.write(request.buffer(), filePosition, request, this);
+                } else {
+                    channel.read(request.buffer(), filePosition, request, this);
+                }
+            } catch (Exception e) {
+                failed(e, request);
+            }
+        }
+
+        @Override
+        public void completed(final Integer count, final Request request) {
+            if(done.isDone()) return;
+            if(count<0) {
+                failed(new EOFException(String.format(
+                        "unexpected end of file, %d bytes missing", request.buffer().remaining())), request);
+                return;
+            }
+            if(request.buffer().hasRemaining()) {
+                issue(request);
+                return;
+            }
+            if(pending.decrementAndGet()==0) {
+                done.complete(null);
+            } else {
+                startNext();
+            }
+        }
+
+        @Override
+        public void failed(final Throwable e, final Request request) {
+            done.completeExceptionally(e);
+        }
+
+    }
+
+}
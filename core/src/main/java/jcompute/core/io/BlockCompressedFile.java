@@ -0,0 +1,365 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+import lombok.SneakyThrows;
+
+import jcompute.core.mem.JComputeArray;
+import jcompute.core.shape.Shape;
+import jcompute.core.util.Parallelism;
+import jcompute.core.util.primitive.ByteUtils;
+
+/**
+ * Container for a {@link JComputeArray}, that is split into blocks of fixed element count,
+ * each compressed independently via a {@link Compressor}. A block index allows blocks
+ * to be compressed and decompressed in parallel and ranges of elements to be read
+ * without decoding the whole file.
+ * <pre>
+ * offset  size  field
+ *      0     4  magic 'JCBC'
+ *      4     1  format version
+ *      5     3  reserved (zero)
+ *      8     8  elements per block
+ *     16     8  block count
+ *     24    40  reserved (zero)
+ *     64    64  array header (see {@link ArrayHeader}), payload size refers to the uncompressed array
+ *    128  24*n  block index: n times (file offset, compressed size, CRC32C) of each block
+ *      .     .  compressed blocks
+ * </pre>
+ * Header fields are stored in big endian byte order. Blocks hold the payload in native byte order.
+ * Block checksums refer to the uncompressed block bytes and are verified whenever a block is decompressed.
+ * The {@link Compressor} is not recorded, hence must be provided on reading.
+ */
+public final class BlockCompressedFile implements AutoCloseable {
+
+    /**
+     * Default (uncompressed) block size in bytes.
+     */
+    public static final int DEFAULT_BLOCK_BYTES = 1 << 22;
+
+    static final int MAGIC = 0x4A43_4243; // 'JCBC'
+    static final int VERSION = 2;
+    static final int PREAMBLE_SIZE = 64;
+    static final int INDEX_OFFSET = PREAMBLE_SIZE + ArrayHeader.SIZE;
+    static final int INDEX_ENTRY_SIZE = 24;
+
+    private static final ValueLayout.OfInt INT_BE = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfLong LONG_BE = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+    private final FileChannel channel;
+    private final Compressor compressor;
+    private final ArrayHeader header;
+    private final long blockElements;
+    private final long[] blockOffsets;
+    private final long[] blockSizes;
+    private final long[] blockChecksums;
+
+    private BlockCompressedFile(final FileChannel channel, final Compressor compressor, final ArrayHeader header,
+            final long blockElements, final long[] blockOffsets, final long[] blockSizes, final long[] blockChecksums) {
+        this.channel = channel;
+        this.compressor = compressor;
+        this.header = header;
+        this.blockElements = blockElements;
+        this.blockOffsets = blockOffsets;
+        this.blockSizes = blockSizes;
+        this.blockChecksums = blockChecksums;
+    }
+
+    // -- WRITE
+
+    /**
+     * Creates (or overwrites) given file, compressing blocks of {@link #DEFAULT_BLOCK_BYTES}.
+     */
+    public static void write(final JComputeArray array, final Path file, final Compressor compressor,
+            final Parallelism parallelism) {
+        write(array, file, compressor, DEFAULT_BLOCK_BYTES / array.bytesPerElement(), parallelism);
+    }
+
+    /**
+     * Creates (or overwrites) given file, compressing blocks of {@code blockElements} elements,
+     * in parallel for {@link Parallelism#PARALLEL}.
+     * Blocks are compressed in waves of (about) the common pool's parallelism, such that memory
+     * for compressed blocks, held before writing, stays bounded.
+     */
+    @SneakyThrows
+    public static void write(final JComputeArray array, final Path file, final Compressor compressor,
+            final long blockElements, final Parallelism parallelism) {
+        if(blockElements<1) {
+            throw new IllegalArgumentException(String.format("invalid block size %d", blockElements));
+        }
+        final long elementCount = array.shape().totalSize();
+        final long blockCount = Math.ceilDiv(elementCount, blockElements);
+        final long blockBytes = blockElements * array.bytesPerElement();
+        final long payloadSize = elementCount * array.bytesPerElement();
+        final MemorySegment payload = array.memorySegment();
+
+        final int waveSize = parallelism.isParallel()
+                ? 2 * ForkJoinPool.getCommonPoolParallelism()
+                : 1;
+
+        final var index = MemorySegment.ofArray(new byte[Math.toIntExact(INDEX_ENTRY_SIZE * blockCount)]);
+
+        try(var channel = FileChannel.open(file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+
+            long position = INDEX_OFFSET + index.byteSize();
+            final byte[][] compressedBlocks = new byte[waveSize][];
+            final long[] blockChecksums = new long[waveSize];
+            for(long firstBlock = 0L; firstBlock<blockCount; firstBlock+=waveSize) {
+                final long wave = Math.min(waveSize, blockCount - firstBlock);
+                final long waveOffset = firstBlock;
+                parallelism.range(wave).forEach(i->{
+                    final long offset = (waveOffset + i) * blockBytes;
+                    final var block = payload.asSlice(offset, Math.min(blockBytes, payloadSize - offset));
+                    blockChecksums[(int)i] = ArrayDigests.crc32c(block);
+                    compressedBlocks[(int)i] = compress(compressor, block);
+                });
+                for (int i = 0; i < wave; i++) {
+                    final long block = firstBlock + i;
+                    index.set(LONG_BE, INDEX_ENTRY_SIZE * block, position);
+                    index.set(LONG_BE, INDEX_ENTRY_SIZE * block + 8, compressedBlocks[i].length);
+                    index.set(LONG_BE, INDEX_ENTRY_SIZE * block + 16, blockChecksums[i]);
+                    position+=writeFully(channel, ByteBuffer.wrap(compressedBlocks[i]), position);
+                    compressedBlocks[i] = null;
+                }
+            }
+
+            var preamble = MemorySegment.ofArray(new byte[INDEX_OFFSET]);
+            preamble.set(INT_BE, 0, MAGIC);
+            preamble.set(ValueLayout.JAVA_BYTE, 4, (byte)VERSION);
+            preamble.set(LONG_BE, 8, blockElements);
+            preamble.set(LONG_BE, 16, blockCount);
+            ArrayHeader.of(array.valueLayout(), array.shape())
+                .write(preamble.asSlice(PREAMBLE_SIZE));
+            writeFully(channel, preamble.asByteBuffer(), 0L);
+            writeFully(channel, index.asByteBuffer(), INDEX_OFFSET);
+        }
+    }
+
+    // -- READ
+
+    /**
+     * Opens given file for reading, requiring its payload to be stored in native byte order.
+     * Blocks are decompressed with given {@link Compressor}, which must match the one used on writing.
+     */
+    @SneakyThrows
+    public static BlockCompressedFile open(final Path file, final Compressor compressor) {
+        var channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            var preamble = MemorySegment.ofArray(new byte[INDEX_OFFSET]);
+            readFully(channel, preamble.asByteBuffer(), 0L);
+            if(preamble.get(INT_BE, 0)!=MAGIC) {
+                throw new IOException(String.format("file %s is not a block compressed jcompute array file", file));
+            }
+            final int version = preamble.get(ValueLayout.JAVA_BYTE, 4);
+            if(version!=VERSION) {
+                throw new IOException(String.format("unsupported block compressed file version %d", version));
+            }
+            final long blockElements = preamble.get(LONG_BE, 8);
+            final long blockCount = preamble.get(LONG_BE, 16);
+            var header = ArrayHeader.read(preamble.asSlice(PREAMBLE_SIZE));
+            if(!header.isNativeByteOrder()) {
+                throw new IOException(String.format(
+                        "file %s stores its payload in %s byte order, cannot read into native byte order",
+                        file, header.byteOrder()));
+            }
+            if(blockElements<1
+                    || blockCount!=Math.ceilDiv(header.shape().totalSize(), blockElements)) {
+                throw new IOException(String.format(
+                        "file %s has an inconsistent block index (%d blocks of %d elements)",
+                        file, blockCount, blockElements));
+            }
+            var index = MemorySegment.ofArray(new byte[Math.toIntExact(INDEX_ENTRY_SIZE * blockCount)]);
+            readFully(channel, index.asByteBuffer(), INDEX_OFFSET);
+            var blockOffsets = new long[(int)blockCount];
+            var blockSizes = new long[(int)blockCount];
+            var blockChecksums = new long[(int)blockCount];
+            for (int block = 0; block < blockCount; block++) {
+                blockOffsets[block] = index.get(LONG_BE, (long)INDEX_ENTRY_SIZE * block);
+                blockSizes[block] = index.get(LONG_BE, (long)INDEX_ENTRY_SIZE * block + 8);
+                blockChecksums[block] = index.get(LONG_BE, (long)INDEX_ENTRY_SIZE * block + 16);
+            }
+            return new BlockCompressedFile(channel, compressor, header, blockElements,
+                    blockOffsets, blockSizes, blockChecksums);
+        } catch (Throwable e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public ArrayHeader header() {
+        return header;
+    }
+
+    public Shape shape() {
+        return header.shape();
+    }
+
+    public long blockElements() {
+        return blockElements;
+    }
+
+    public int blockCount() {
+        return blockOffsets.length;
+    }
+
+    /**
+     * Decompresses all blocks straight into given array's memory segment,
+     * in parallel for {@link Parallelism#PARALLEL}.
+     * @param array must match this file's element type and total size
+     * @return array
+     */
+    public <T extends JComputeArray> T readInto(final T array, final Parallelism parallelism) {
+        header.assertElementType(array.valueLayout());
+        header.shape().assertSameTotalSize(array.shape());
+        final MemorySegment target = array.memorySegment();
+        final long blockBytes = blockBytes();
+        parallelism.range(blockCount()).forEach(block->
+            decompressBlock((int)block, target.asSlice(block * blockBytes, blockSize((int)block))));
+        return array;
+    }
+
+    /**
+     * Reads {@code length} elements starting at global index {@code gid} into given segment,
+     * decompressing only the blocks covering that range.
+     * @return target
+     */
+    public MemorySegment readRange(final long gid, final long length, final MemorySegment target) {
+        final long elementCount = header.shape().totalSize();
+        Objects.checkFromIndexSize(gid, length, elementCount);
+        if(length==0) return target;
+        final long elementBytes = header.valueLayout().byteSize();
+        final long blockBytes = blockBytes();
+        final int firstBlock = (int)(gid / blockElements);
+        final int lastBlock = (int)((gid + length - 1) / blockElements);
+        MemorySegment buffer = null;
+        for (int block = firstBlock; block <= lastBlock; block++) {
+            final long blockStart = block * blockElements;
+            final long from = Math.max(gid, blockStart);
+            final long to = Math.min(gid + length, blockStart + blockElements);
+            if(from==blockStart
+                    && to - from == blockSize(block) / elementBytes) {
+                // whole block, decompress straight into target
+                decompressBlock(block, target.asSlice((from - gid) * elementBytes, blockSize(block)));
+                continue;
+            }
+            if(buffer==null) {
+                buffer = MemorySegment.ofArray(new byte[Math.toIntExact(blockBytes)]);
+            }
+            decompressBlock(block, buffer.asSlice(0L, blockSize(block)));
+            MemorySegment.copy(buffer, (from - blockStart) * elementBytes,
+                    target, (from - gid) * elementBytes, (to - from) * elementBytes);
+        }
+        return target;
+    }
+
+    @Override
+    @SneakyThrows
+    public void close() {
+        channel.close();
+    }
+
+    // -- HELPER
+
+    private long blockBytes() {
+        return blockElements * header.valueLayout().byteSize();
+    }
+
+    /**
+     * Uncompressed size of given block in bytes (the last block may be partial).
+     */
+    private long blockSize(final int block) {
+        final long blockBytes = blockBytes();
+        return Math.min(blockBytes, header.payloadSize() - block * blockBytes);
+    }
+
+    /**
+     * Decompresses given block into given target, then verifies the block's checksum.
+     */
+    @SneakyThrows
+    private void decompressBlock(final int block, final MemorySegment target) {
+        decompress(block, target);
+        final long checksum = ArrayDigests.crc32c(target);
+        if(checksum!=blockChecksums[block]) {
+            throw new IOException(String.format(
+                    "block %d checksum mismatch: expected %x, but found %x", block, blockChecksums[block], checksum));
+        }
+    }
+
+    @SneakyThrows
+    private void decompress(final int block, final MemorySegment target) {
+        var compressed = new byte[Math.toIntExact(blockSizes[block])];
+        readFully(channel, ByteBuffer.wrap(compressed), blockOffsets[block]);
+        var in = compressor.in(new ByteArrayInputStream(compressed));
+        if(target.isNative()) {
+            ByteUtils.readIntoBuffer(target.byteSize(), in, target.asByteBuffer());
+            return;
+        }
+        // heap segments other than byte[] cannot be viewed as ByteBuffer
+        var bytes = new byte[Math.toIntExact(target.byteSize())];
+        ByteUtils.readIntoBuffer(bytes.length, in, ByteBuffer.wrap(bytes));
+        MemorySegment.copy(MemorySegment.ofArray(bytes), 0L, target, 0L, bytes.length);
+    }
+
+    private static byte[] compress(final Compressor compressor, final MemorySegment block) {
+        var bos = new ByteArrayOutputStream();
+        // closes the compressor's stream, which flushes any trailing bytes
+        ByteUtils.writeToBuffer(block.asByteBuffer(), compressor.out(bos));
+        return bos.toByteArray();
+    }
+
+    private static long writeFully(final FileChannel channel, final ByteBuffer buffer, final long position)
+            throws IOException {
+        long written = 0L;
+        while(buffer.hasRemaining()) {
+            written+=channel.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position)
+            throws IOException {
+        long read = 0L;
+        while(buffer.hasRemaining()) {
+            final int n = channel.read(buffer, position + read);
+            if(n==-1) {
+                throw new EOFException(String.format(
+                        "unexpected end of file, %d bytes missing", buffer.remaining()));
+            }
+            read+=n;
+        }
+    }
+
+}
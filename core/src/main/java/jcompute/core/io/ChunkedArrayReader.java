@@ -0,0 +1,252 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.BiFunction;
+
+import lombok.SneakyThrows;
+
+import jcompute.core.mem.ByteArray;
+import jcompute.core.mem.DoubleArray;
+import jcompute.core.mem.FloatArray;
+import jcompute.core.mem.IntArray;
+import jcompute.core.mem.JComputeArray;
+import jcompute.core.mem.LongArray;
+import jcompute.core.mem.ShortArray;
+import jcompute.core.shape.Shape;
+
+/**
+ * Reads an array, as written by e.g. {@link LongArray#write(java.io.OutputStream)}, incrementally as a sequence
+ * of chunks, without materializing the whole array.
+ * <p>
+ * Chunks are read ahead on a background thread into a ring of reusable buffers, such that processing overlaps
+ * with I/O (and decompression). When all buffers are filled, reading pauses until the consumer hands one back
+ * (back-pressure), hence memory stays bounded by {@code ringSize} chunks.
+ * <p>
+ * For 2D and 3D arrays chunks span whole rows or planes (see {@link Shape#slice(long, long)}),
+ * so chunk shapes are consistent with the array's shape.
+ */
+public final class ChunkedArrayReader<T extends JComputeArray> implements AutoCloseable {
+
+    @FunctionalInterface
+    public static interface ChunkConsumer<T> {
+        /**
+         * @param offset global index of the chunk's first element
+         * @param chunk only valid during this call, as its buffer is reused afterwards
+         */
+        void accept(long offset, T chunk);
+    }
+
+    public static final long DEFAULT_CHUNK_BYTES = 1L << 22;
+    public static final int DEFAULT_RING_SIZE = 4;
+
+    private record Chunk<T>(long offset, T array, MemorySegment buffer) {
+        static <T> Chunk<T> end() {
+            return new Chunk<>(-1L, null, null);
+        }
+        boolean isEnd() {
+            return array==null;
+        }
+    }
+
+    private final Shape shape;
+    private final ReadableByteChannel payload;
+    private final int bytesPerElement;
+    private final BiFunction<Shape, MemorySegment, T> factory;
+    private final long chunkRows;
+    private final Arena arena = Arena.ofShared();
+    private final BlockingQueue<MemorySegment> free;
+    private final BlockingQueue<Chunk<T>> filled;
+    private volatile Throwable failure;
+    private Thread producer;
+
+    private ChunkedArrayReader(
+            final Shape shape,
+            final ReadableByteChannel payload,
+            final int bytesPerElement,
+            final BiFunction<Shape, MemorySegment, T> factory,
+            final long chunkElements,
+            final int ringSize) {
+        if(chunkElements<1) {
+            throw new IllegalArgumentException(String.format("invalid chunk size %d", chunkElements));
+        }
+        if(ringSize<1) {
+            throw new IllegalArgumentException(String.format("invalid ring size %d", ringSize));
+        }
+        this.shape = shape;
+        this.payload = payload;
+        this.bytesPerElement = bytesPerElement;
+        this.factory = factory;
+        this.chunkRows = Math.max(1L, Math.min(shape.sizeX(), chunkElements / Math.max(1L, shape.strideX())));
+        this.free = new ArrayBlockingQueue<>(ringSize);
+        this.filled = new ArrayBlockingQueue<>(ringSize + 1);
+        final long bufferBytes = chunkRows * shape.strideX() * bytesPerElement;
+        for (int i = 0; i < ringSize; i++) {
+            free.add(arena.allocate(bufferBytes, 64L));
+        }
+    }
+
+    // -- FACTORIES
+
+    public static ChunkedArrayReader<ByteArray> bytes(final InputStream in, final long chunkElements, final int ringSize) {
+        return of(in, 1, ByteArray::new, chunkElements, ringSize);
+    }
+
+    public static ChunkedArrayReader<ShortArray> shorts(final InputStream in, final long chunkElements, final int ringSize) {
+        return of(in, 2, ShortArray::new, chunkElements, ringSize);
+    }
+
+    public static ChunkedArrayReader<IntArray> ints(final InputStream in, final long chunkElements, final int ringSize) {
+        return of(in, 4, IntArray::new, chunkElements, ringSize);
+    }
+
+    public static ChunkedArrayReader<LongArray> longs(final InputStream in) {
+        return longs(in, DEFAULT_CHUNK_BYTES / 8, DEFAULT_RING_SIZE);
+    }
+
+    public static ChunkedArrayReader<LongArray> longs(final InputStream in, final long chunkElements, final int ringSize) {
+        return of(in, 8, LongArray::new, chunkElements, ringSize);
+    }
+
+    public static ChunkedArrayReader<FloatArray> floats(final InputStream in, final long chunkElements, final int ringSize) {
+        return of(in, 4, FloatArray::new, chunkElements, ringSize);
+    }
+
+    public static ChunkedArrayReader<DoubleArray> doubles(final InputStream in, final long chunkElements, final int ringSize) {
+        return of(in, 8, DoubleArray::new, chunkElements, ringSize);
+    }
+
+    /**
+     * Reads the {@link Shape} from given stream, leaving the payload to be read in chunks.
+     * @param factory creates a chunk view from shape and memory segment, e.g. {@code LongArray::new}
+     */
+    public static <T extends JComputeArray> ChunkedArrayReader<T> of(
+            final InputStream in,
+            final int bytesPerElement,
+            final BiFunction<Shape, MemorySegment, T> factory,
+            final long chunkElements,
+            final int ringSize) {
+        var shape = Shape.read(in);
+        return new ChunkedArrayReader<>(shape, Channels.newChannel(in), bytesPerElement, factory,
+                chunkElements, ringSize);
+    }
+
+    /**
+     * Reads the {@link Shape} from given channel, leaving the payload to be read in chunks.
+     */
+    public static <T extends JComputeArray> ChunkedArrayReader<T> of(
+            final ReadableByteChannel in,
+            final int bytesPerElement,
+            final BiFunction<Shape, MemorySegment, T> factory,
+            final long chunkElements,
+            final int ringSize) {
+        // reads byte by byte, hence does not consume any payload
+        var shape = Shape.read(Channels.newInputStream(in));
+        return new ChunkedArrayReader<>(shape, in, bytesPerElement, factory, chunkElements, ringSize);
+    }
+
+    /**
+     * Shape of the whole array.
+     */
+    public Shape shape() {
+        return shape;
+    }
+
+    /**
+     * Reports all chunks in order, while subsequent chunks are read ahead on a background thread.
+     * Can only be called once.
+     */
+    @SneakyThrows
+    public void forEachChunk(final ChunkConsumer<? super T> onChunk) {
+        if(producer!=null) {
+            throw new IllegalStateException("chunks were already consumed");
+        }
+        producer = Thread.ofPlatform()
+                .name("jcompute-chunked-reader")
+                .daemon()
+                .start(this::produce);
+        while(true) {
+            var chunk = filled.take();
+            if(chunk.isEnd()) break;
+            onChunk.accept(chunk.offset(), chunk.array());
+            free.put(chunk.buffer());
+        }
+        if(failure!=null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Stops reading ahead and frees all buffers. Does not close the underlying stream or channel,
+     * unless interrupted while blocked reading from it (before all chunks were consumed).
+     */
+    @Override
+    @SneakyThrows
+    public void close() {
+        if(producer!=null) {
+            producer.interrupt();
+            producer.join();
+        }
+        arena.close();
+    }
+
+    // -- HELPER
+
+    private void produce() {
+        try {
+            final long sizeX = shape.totalSize()>0
+                    ? shape.sizeX()
+                    : 0L;
+            final long rowElements = shape.strideX();
+            for(long row = 0L; row<sizeX; row+=chunkRows) {
+                final var chunkShape = shape.slice(row, Math.min(chunkRows, sizeX - row));
+                final var buffer = free.take();
+                final var segment = buffer.asSlice(0L, chunkShape.totalSize() * bytesPerElement);
+                readFully(segment.asByteBuffer());
+                filled.put(new Chunk<>(row * rowElements, factory.apply(chunkShape, segment), buffer));
+            }
+        } catch (InterruptedException e) {
+            // closed by consumer
+            return;
+        } catch (Throwable e) {
+            failure = e;
+        }
+        filled.offer(Chunk.end());
+    }
+
+    private void readFully(final ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()) {
+            if(payload.read(buffer)==-1) {
+                throw new EOFException(String.format(
+                        "unexpected end of stream, %d bytes missing", buffer.remaining()));
+            }
+        }
+    }
+
+}
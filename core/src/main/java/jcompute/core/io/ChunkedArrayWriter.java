@@ -0,0 +1,133 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+import lombok.SneakyThrows;
+
+import jcompute.core.mem.JComputeArray;
+import jcompute.core.shape.Shape;
+
+/**
+ * Writes an array incrementally, chunk by chunk, in the same format as e.g.
+ * {@link jcompute.core.mem.LongArray#write(OutputStream)}, such that the whole array never has to be
+ * materialized. The result can be read back either at once or with a {@link ChunkedArrayReader}.
+ * <p>
+ * Chunks must be written in order; their element counts must add up to the array's total size.
+ */
+public final class ChunkedArrayWriter implements AutoCloseable {
+
+    private final Shape shape;
+    private final ValueLayout valueLayout;
+    private final WritableByteChannel out;
+    private long written;
+
+    private ChunkedArrayWriter(final Shape shape, final ValueLayout valueLayout, final WritableByteChannel out) {
+        this.shape = shape;
+        this.valueLayout = valueLayout;
+        this.out = out;
+    }
+
+    /**
+     * Writes the {@link Shape} to given stream, expecting subsequent chunks to hold elements of given value layout,
+     * e.g. {@link ValueLayout#JAVA_LONG} for {@link jcompute.core.mem.LongArray}s.
+     */
+    public static ChunkedArrayWriter of(final OutputStream out, final Shape shape, final ValueLayout valueLayout) {
+        shape.write(out);
+        return new ChunkedArrayWriter(shape, valueLayout, Channels.newChannel(out));
+    }
+
+    /**
+     * Writes the {@link Shape} to given channel, expecting subsequent chunks to hold elements of given value layout.
+     */
+    public static ChunkedArrayWriter of(final WritableByteChannel out, final Shape shape, final ValueLayout valueLayout) {
+        shape.write(Channels.newOutputStream(out));
+        return new ChunkedArrayWriter(shape, valueLayout, out);
+    }
+
+    /**
+     * Shape of the whole array.
+     */
+    public Shape shape() {
+        return shape;
+    }
+
+    /**
+     * Number of elements written so far.
+     */
+    public long written() {
+        return written;
+    }
+
+    /**
+     * Appends the chunk's elements, directly from its memory segment.
+     * @return this
+     */
+    @SneakyThrows
+    public ChunkedArrayWriter write(final JComputeArray chunk) {
+        // element types of same size (e.g. long and double) must not be mixed either
+        if(chunk.valueLayout().carrier()!=valueLayout.carrier()) {
+            throw new IllegalArgumentException(String.format(
+                    "element type mismatch: %s != %s", chunk.valueLayout().carrier(), valueLayout.carrier()));
+        }
+        final long size = chunk.shape().totalSize();
+        if(written + size > shape.totalSize()) {
+            throw new IllegalArgumentException(String.format(
+                    "chunk of size %d exceeds total size %d (%d elements already written)",
+                    size, shape.totalSize(), written));
+        }
+        var segment = chunk.memorySegment();
+        // ByteBuffer views are limited to 2GB
+        for(long offset = 0L; offset < segment.byteSize(); offset += Integer.MAX_VALUE) {
+            writeFully(segment
+                    .asSlice(offset, Math.min(Integer.MAX_VALUE, segment.byteSize() - offset))
+                    .asByteBuffer());
+        }
+        written += size;
+        return this;
+    }
+
+    /**
+     * Does not close the underlying stream or channel.
+     * @throws IOException if fewer elements were written than the shape requires
+     */
+    @Override
+    @SneakyThrows
+    public void close() {
+        if(written!=shape.totalSize()) {
+            throw new IOException(String.format(
+                    "incomplete array, %d of %d elements written", written, shape.totalSize()));
+        }
+    }
+
+    // -- HELPER
+
+    private void writeFully(final ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+}
@@ -0,0 +1,477 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.io;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+
+/**
+ * {@link Compressor} for streams of fixed width integers (native byte order), exploiting small deltas
+ * between consecutive values, as found e.g. with sorted bitmasks.
+ * <p>
+ * Values are encoded in frames of up to {@value #FRAME_SIZE}: each value is replaced by the delta to its predecessor,
+ * then the frame is bit-packed relative to its minimum delta (frame of reference), using just as many bits
+ * per value as the frame's range requires. The minimum itself is stored zig-zag encoded, such that small
+ * negative deltas take few bytes as well.
+ * Optionally the result is passed on to a general purpose {@link Compressor}, see {@link #then(Compressor)}.
+ * <p>
+ * The codec is lossless for any byte stream, but only effective if values start at stream offset zero,
+ * as with the blocks of a {@link BlockCompressedFile}. Trailing bytes, not forming a whole value, are stored as is.
+ * <pre>
+ * frame := n (1 byte, 1..128) width (1 byte, 0..64) reference (zig-zag, unsigned LEB128) packed (ceil(n*width/8) bytes)
+ * tail  := 0 (1 byte) count (1 byte) raw bytes
+ * </pre>
+ */
+public record IntegerCodec(
+        int bytesPerValue,
+        Compressor next) implements Compressor {
+
+    public static final int FRAME_SIZE = 128;
+
+    public IntegerCodec {
+        switch (bytesPerValue) {
+            case 2, 4, 8 -> {}
+            default -> throw new IllegalArgumentException("Unexpected value: " + bytesPerValue);
+        }
+    }
+
+    /**
+     * Codec for {@code long} values, e.g. the payload of a {@link jcompute.core.mem.LongArray}.
+     */
+    public static IntegerCodec longs() {
+        return new IntegerCodec(8, Compressor.passThrough());
+    }
+
+    /**
+     * Codec for {@code int} values, e.g. the payload of a {@link jcompute.core.mem.IntArray}.
+     */
+    public static IntegerCodec ints() {
+        return new IntegerCodec(4, Compressor.passThrough());
+    }
+
+    /**
+     * Codec for {@code short} values, e.g. the payload of a {@link jcompute.core.mem.ShortArray}.
+     */
+    public static IntegerCodec shorts() {
+        return new IntegerCodec(2, Compressor.passThrough());
+    }
+
+    /**
+     * Returns a codec, that additionally compresses the encoded frames with given general purpose {@link Compressor}.
+     */
+    public IntegerCodec then(final Compressor next) {
+        return new IntegerCodec(bytesPerValue, next);
+    }
+
+    @Override
+    public OutputStream out(final OutputStream os) {
+        return new EncodingOutputStream(bytesPerValue, next.out(os));
+    }
+
+    @Override
+    public InputStream in(final InputStream is) {
+        return new DecodingInputStream(bytesPerValue, next.in(is));
+    }
+
+    // -- ENCODER
+
+    static final class EncodingOutputStream extends FilterOutputStream {
+
+        private final int bytesPerValue;
+        private final Delta delta;
+        private final byte[] pending;
+        private final MemorySegment pendingSegment;
+        private final long[] values = new long[FRAME_SIZE];
+        private final long[] packed = new long[FRAME_SIZE + 1];
+        private final byte[] frame = new byte[2 + 10 + FRAME_SIZE * 8];
+        private int pendingBytes;
+        private long previous;
+        private boolean closed;
+
+        EncodingOutputStream(final int bytesPerValue, final OutputStream out) {
+            super(out);
+            this.bytesPerValue = bytesPerValue;
+            this.delta = Delta.of(bytesPerValue);
+            this.pending = new byte[FRAME_SIZE * bytesPerValue];
+            this.pendingSegment = MemorySegment.ofArray(pending);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            pending[pendingBytes++] = (byte)b;
+            if(pendingBytes==pending.length) {
+                encodeFrame(FRAME_SIZE);
+            }
+        }
+
+        @Override
+        public void write(final byte[] b, int off, int len) throws IOException {
+            while(len>0) {
+                final int n = Math.min(len, pending.length - pendingBytes);
+                System.arraycopy(b, off, pending, pendingBytes, n);
+                pendingBytes+=n;
+                off+=n;
+                len-=n;
+                if(pendingBytes==pending.length) {
+                    encodeFrame(FRAME_SIZE);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if(closed) return;
+            closed = true;
+            final int valueCount = pendingBytes / bytesPerValue;
+            if(valueCount>0) {
+                encodeFrame(valueCount);
+            }
+            if(pendingBytes>0) {
+                out.write(0);
+                out.write(pendingBytes);
+                out.write(pending, 0, pendingBytes);
+            }
+            super.close();
+        }
+
+        private void encodeFrame(final int n) throws IOException {
+            previous = delta.encode(pendingSegment, n, previous, values);
+
+            // frame of reference, the range (max - min) is unsigned
+            long min = values[0];
+            long max = values[0];
+            for (int i = 1; i < n; i++) {
+                min = Math.min(min, values[i]);
+                max = Math.max(max, values[i]);
+            }
+            final int width = 64 - Long.numberOfLeadingZeros(max - min);
+
+            int pos = 0;
+            frame[pos++] = (byte)n;
+            frame[pos++] = (byte)width;
+            pos = writeUnsignedLeb128(zigZag(min), frame, pos);
+            pos = pack(values, n, min, width, packed, frame, pos);
+            out.write(frame, 0, pos);
+
+            // keep trailing bytes not consumed by this frame
+            final int consumed = n * bytesPerValue;
+            pendingBytes-=consumed;
+            System.arraycopy(pending, consumed, pending, 0, pendingBytes);
+        }
+
+    }
+
+    // -- DECODER
+
+    static final class DecodingInputStream extends FilterInputStream {
+
+        private final int bytesPerValue;
+        private final Delta delta;
+        private final byte[] decoded;
+        private final MemorySegment decodedSegment;
+        private final long[] values = new long[FRAME_SIZE];
+        private final long[] packed = new long[FRAME_SIZE + 1];
+        private final byte[] frame = new byte[FRAME_SIZE * 8];
+        private int decodedBytes;
+        private int readPosition;
+        private long previous;
+
+        DecodingInputStream(final int bytesPerValue, final InputStream in) {
+            super(in);
+            this.bytesPerValue = bytesPerValue;
+            this.delta = Delta.of(bytesPerValue);
+            this.decoded = new byte[FRAME_SIZE * bytesPerValue];
+            this.decodedSegment = MemorySegment.ofArray(decoded);
+        }
+
+        @Override
+        public int read() throws IOException {
+            if(readPosition==decodedBytes
+                    && !decodeFrame()) {
+                return -1;
+            }
+            return decoded[readPosition++] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] b, int off, int len) throws IOException {
+            if(len==0) return 0;
+            int total = 0;
+            while(len>0) {
+                if(readPosition==decodedBytes
+                        && !decodeFrame()) {
+                    break;
+                }
+                final int n = Math.min(len, decodedBytes - readPosition);
+                System.arraycopy(decoded, readPosition, b, off, n);
+                readPosition+=n;
+                off+=n;
+                len-=n;
+                total+=n;
+            }
+            return total>0 ? total : -1;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            long skipped = 0L;
+            while(skipped<n && read()!=-1) {
+                skipped++;
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return decodedBytes - readPosition;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        /**
+         * @return whether a frame was decoded, {@code false} on end of stream
+         */
+        private boolean decodeFrame() throws IOException {
+            final int n = in.read();
+            if(n==-1) return false;
+            readPosition = 0;
+            if(n==0) {
+                // tail
+                decodedBytes = readByte(in);
+                readFully(in, decoded, decodedBytes);
+                return true;
+            }
+            final int width = readByte(in);
+            if(n>FRAME_SIZE
+                    || width>64) {
+                throw new IOException(String.format("corrupted frame (n=%d, width=%d)", n, width));
+            }
+            final long min = unZigZag(readUnsignedLeb128(in));
+            final int packedBytes = (n * width + 7) >>> 3;
+            readFully(in, frame, packedBytes);
+            unpack(frame, packedBytes, n, min, width, packed, values);
+
+            previous = delta.decode(values, n, previous, decodedSegment);
+            decodedBytes = n * bytesPerValue;
+            return true;
+        }
+
+    }
+
+    // -- DELTA
+
+    /**
+     * Delta transform of a frame, specialized per value width and chosen once per stream,
+     * such that the per-value loops access the frame with a fixed value layout.
+     */
+    enum Delta {
+        SHORTS {
+            @Override
+            long encode(final MemorySegment frame, final int n, final long previous, final long[] deltas) {
+                long prev = previous;
+                for (int i = 0; i < n; i++) {
+                    final long value = frame.getAtIndex(ValueLayout.JAVA_SHORT_UNALIGNED, i);
+                    deltas[i] = value - prev;
+                    prev = value;
+                }
+                return prev;
+            }
+            @Override
+            long decode(final long[] deltas, final int n, final long previous, final MemorySegment frame) {
+                long prev = previous;
+                for (int i = 0; i < n; i++) {
+                    prev+=deltas[i];
+                    frame.setAtIndex(ValueLayout.JAVA_SHORT_UNALIGNED, i, (short)prev);
+                }
+                return prev;
+            }
+        },
+        INTS {
+            @Override
+            long encode(final MemorySegment frame, final int n, final long previous, final long[] deltas) {
+                long prev = previous;
+                for (int i = 0; i < n; i++) {
+                    final long value = frame.getAtIndex(ValueLayout.JAVA_INT_UNALIGNED, i);
+                    deltas[i] = value - prev;
+                    prev = value;
+                }
+                return prev;
+            }
+            @Override
+            long decode(final long[] deltas, final int n, final long previous, final MemorySegment frame) {
+                long prev = previous;
+                for (int i = 0; i < n; i++) {
+                    prev+=deltas[i];
+                    frame.setAtIndex(ValueLayout.JAVA_INT_UNALIGNED, i, (int)prev);
+                }
+                return prev;
+            }
+        },
+        LONGS {
+            @Override
+            long encode(final MemorySegment frame, final int n, final long previous, final long[] deltas) {
+                long prev = previous;
+                for (int i = 0; i < n; i++) {
+                    final long value = frame.getAtIndex(ValueLayout.JAVA_LONG_UNALIGNED, i);
+                    deltas[i] = value - prev;
+                    prev = value;
+                }
+                return prev;
+            }
+            @Override
+            long decode(final long[] deltas, final int n, final long previous, final MemorySegment frame) {
+                long prev = previous;
+                for (int i = 0; i < n; i++) {
+                    prev+=deltas[i];
+                    frame.setAtIndex(ValueLayout.JAVA_LONG_UNALIGNED, i, prev);
+                }
+                return prev;
+            }
+        };
+
+        /**
+         * Writes the deltas of the first {@code n} values of given frame into {@code deltas}.
+         * @return the last value, that is the predecessor of the next frame's first value
+         */
+        abstract long encode(MemorySegment frame, int n, long previous, long[] deltas);
+        /**
+         * Writes the first {@code n} values, restored from given deltas, into given frame.
+         * @return the last value, that is the predecessor of the next frame's first value
+         */
+        abstract long decode(long[] deltas, int n, long previous, MemorySegment frame);
+
+        static Delta of(final int bytesPerValue) {
+            return switch (bytesPerValue) {
+                case 2 -> SHORTS;
+                case 4 -> INTS;
+                case 8 -> LONGS;
+                default -> throw new IllegalArgumentException("Unexpected value: " + bytesPerValue);
+            };
+        }
+    }
+
+    // -- HELPER
+
+    /**
+     * Packs {@code n} values minus {@code reference} using {@code width} bits each (little endian bit order)
+     * into {@code bytes} starting at {@code pos}.
+     * @return the position after the last byte written
+     */
+    static int pack(final long[] values, final int n, final long reference, final int width,
+            final long[] words, final byte[] bytes, final int pos) {
+        if(width==0) return pos;
+        final int wordCount = (n * width + 63) >>> 6;
+        Arrays.fill(words, 0, wordCount, 0L);
+        for (int i = 0; i < n; i++) {
+            final long v = values[i] - reference;
+            final int bitPos = i * width;
+            final int word = bitPos >>> 6;
+            final int shift = bitPos & 63;
+            words[word]|= v << shift;
+            if(shift + width > 64) {
+                words[word + 1]|= v >>> (64 - shift);
+            }
+        }
+        final int byteCount = (n * width + 7) >>> 3;
+        for (int i = 0; i < byteCount; i++) {
+            bytes[pos + i] = (byte)(words[i >>> 3] >>> ((i & 7) << 3));
+        }
+        return pos + byteCount;
+    }
+
+    /**
+     * Inverse of {@link #pack(long[], int, long, int, long[], byte[], int)}.
+     */
+    static void unpack(final byte[] bytes, final int byteCount, final int n, final long reference, final int width,
+            final long[] words, final long[] values) {
+        if(width==0) {
+            Arrays.fill(values, 0, n, reference);
+            return;
+        }
+        final int wordCount = (byteCount + 7) >>> 3;
+        Arrays.fill(words, 0, wordCount, 0L);
+        for (int i = 0; i < byteCount; i++) {
+            words[i >>> 3]|= (bytes[i] & 0xffL) << ((i & 7) << 3);
+        }
+        final long mask = width==64 ? -1L : (1L << width) - 1;
+        for (int i = 0; i < n; i++) {
+            final int bitPos = i * width;
+            final int word = bitPos >>> 6;
+            final int shift = bitPos & 63;
+            long v = words[word] >>> shift;
+            if(shift + width > 64) {
+                v|= words[word + 1] << (64 - shift);
+            }
+            values[i] = (v & mask) + reference;
+        }
+    }
+
+    static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(final long zigZag) {
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+
+    static int writeUnsignedLeb128(long value, final byte[] bytes, int pos) {
+        while((value & ~0x7fL)!=0) {
+            bytes[pos++] = (byte)((value & 0x7f) | 0x80);
+            value>>>=7;
+        }
+        bytes[pos++] = (byte)value;
+        return pos;
+    }
+
+    static long readUnsignedLeb128(final InputStream in) throws IOException {
+        long value = 0L;
+        for(int shift = 0; shift<64; shift+=7) {
+            final int b = readByte(in);
+            value|= (long)(b & 0x7f) << shift;
+            if((b & 0x80)==0) return value;
+        }
+        throw new IOException("malformed LEB128 value");
+    }
+
+    private static int readByte(final InputStream in) throws IOException {
+        final int b = in.read();
+        if(b==-1) throw new EOFException("unexpected end of stream within frame");
+        return b;
+    }
+
+    private static void readFully(final InputStream in, final byte[] bytes, final int len) throws IOException {
+        int off = 0;
+        while(off<len) {
+            final int n = in.read(bytes, off, len - off);
+            if(n==-1) throw new EOFException("unexpected end of stream within frame");
+            off+=n;
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.job;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Cooperative cancellation of long-running jobs.
+ * <p>
+ * Jobs poll {@link #throwIfCancelled()} at coarse granularity (e.g. once per slice or range of work),
+ * hence cancellation takes effect with some delay, but costs nothing on the hot path.
+ * A token may also carry a deadline, after which it counts as cancelled, to abort runaway jobs.
+ */
+public final class CancellationToken {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+    private static final CancellationToken NONE = new CancellationToken(NO_DEADLINE);
+
+    private final long deadlineNanos;
+    private volatile boolean cancelled;
+
+    private CancellationToken(final long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * A new token, that is cancelled only via {@link #cancel()}.
+     */
+    public static CancellationToken create() {
+        return new CancellationToken(NO_DEADLINE);
+    }
+
+    /**
+     * A new token, that is cancelled via {@link #cancel()} or once given timeout has elapsed (counting from now).
+     */
+    public static CancellationToken withTimeout(final Duration timeout) {
+        return new CancellationToken(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * The token that is never cancelled.
+     */
+    public static CancellationToken none() {
+        return NONE;
+    }
+
+    /**
+     * Requests cancellation; jobs observe it at their next check.
+     * @throws UnsupportedOperationException for {@link #none()}
+     */
+    public void cancel() {
+        if(this==NONE) {
+            throw new UnsupportedOperationException("the none() token cannot be cancelled");
+        }
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled
+            || (deadlineNanos!=NO_DEADLINE
+                && System.nanoTime() - deadlineNanos >= 0);
+    }
+
+    /**
+     * @throws CancellationException if cancelled or the deadline has passed
+     */
+    public void throwIfCancelled() {
+        if(isCancelled()) {
+            throw new CancellationException(cancelled
+                ? "job was cancelled"
+                : "job exceeded its deadline");
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.job;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Cancellation and progress reporting, as threaded through long-running enumerators and kernels.
+ * <p>
+ * Jobs call {@link #checkpoint()} before and {@link #advance(long)} after each coarse unit of work
+ * (e.g. a slice of a Cartesian product or a range of global indices), such that
+ * {@link #none()} costs no more than a volatile read per unit.
+ * The job defines what a unit of work is (e.g. tuples visited), as documented with the respective method.
+ */
+public record JobControl(
+        CancellationToken cancellation,
+        ProgressSink progress) {
+
+    private static final JobControl NONE = new JobControl(CancellationToken.none(), ProgressSink.none());
+
+    /**
+     * Neither cancellable nor reporting progress.
+     */
+    public static JobControl none() {
+        return NONE;
+    }
+
+    public static JobControl of(final CancellationToken cancellation) {
+        return new JobControl(cancellation, ProgressSink.none());
+    }
+
+    public static JobControl of(final ProgressSink progress) {
+        return new JobControl(CancellationToken.none(), progress);
+    }
+
+    /**
+     * @throws CancellationException if the job was cancelled or has exceeded its deadline
+     */
+    public void checkpoint() {
+        cancellation.throwIfCancelled();
+    }
+
+    /**
+     * Adds given units of completed work to the progress sink.
+     */
+    public void advance(final long units) {
+        progress.advance(units);
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.job;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Accumulates units of completed work, possibly from multiple threads,
+ * and reports {@link Progress} to a listener at most once per given interval.
+ * <p>
+ * The listener is called on whichever thread happens to cross the interval, hence must be thread-safe and fast.
+ */
+public final class ProgressSink {
+
+    /**
+     * Work done so far, out of {@code total} units (zero if unknown), after {@code elapsed} time.
+     */
+    public record Progress(long done, long total, Duration elapsed) {
+        /**
+         * Fraction of work done, in {@code [0, 1]}; {@code NaN} if the total is unknown.
+         */
+        public double fraction() {
+            return total>0
+                ? Math.min(1., (double)done / total)
+                : Double.NaN;
+        }
+        /**
+         * Estimated time remaining, extrapolating the average rate so far;
+         * empty if the total is unknown or no work was done yet.
+         */
+        public Optional<Duration> eta() {
+            if(total<=0
+                    || done<=0) return Optional.empty();
+            final double remaining = Math.max(0L, total - done);
+            return Optional.of(Duration.ofNanos((long)(elapsed.toNanos() * (remaining / done))));
+        }
+        @Override
+        public String toString() {
+            return String.format("%d/%d (%.1f%%) elapsed %s eta %s",
+                    done, total, 100. * fraction(), elapsed,
+                    eta().map(Duration::toString).orElse("?"));
+        }
+    }
+
+    private static final ProgressSink NONE = new ProgressSink(0L, Long.MAX_VALUE, _->{});
+
+    private final long total;
+    private final long intervalNanos;
+    private final Consumer<Progress> listener;
+    private final long startNanos = System.nanoTime();
+    private final LongAdder done = new LongAdder();
+    private final AtomicLong lastReportNanos;
+
+    private ProgressSink(final long total, final long intervalNanos, final Consumer<Progress> listener) {
+        this.total = total;
+        this.intervalNanos = intervalNanos;
+        this.listener = listener;
+        this.lastReportNanos = new AtomicLong(startNanos);
+    }
+
+    /**
+     * @param total units of work expected, zero if unknown
+     * @param interval minimum time between two reports
+     * @param listener receives (rate-limited) reports
+     */
+    public static ProgressSink of(final long total, final Duration interval, final Consumer<Progress> listener) {
+        if(total<0) throw new IllegalArgumentException("total must not be negative: " + total);
+        return new ProgressSink(total, interval.toNanos(), listener);
+    }
+
+    /**
+     * The sink that discards any progress.
+     */
+    public static ProgressSink none() {
+        return NONE;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    /**
+     * Adds given units of completed work and reports to the listener, if the interval since the last report has passed.
+     */
+    public void advance(final long units) {
+        if(this==NONE) return;
+        done.add(units);
+        final long now = System.nanoTime();
+        final long last = lastReportNanos.get();
+        if(now - last >= intervalNanos
+                && lastReportNanos.compareAndSet(last, now)) {
+            listener.accept(progress(now));
+        }
+    }
+
+    /**
+     * Reports to the listener regardless of the interval, e.g. once the job has finished.
+     */
+    public void report() {
+        if(this==NONE) return;
+        final long now = System.nanoTime();
+        lastReportNanos.set(now);
+        listener.accept(progress(now));
+    }
+
+    public Progress progress() {
+        return progress(System.nanoTime());
+    }
+
+    // -- HELPER
+
+    private Progress progress(final long nowNanos) {
+        return new Progress(done.sum(), total, Duration.ofNanos(nowNanos - startNanos));
+    }
+
+}
@@ -0,0 +1,220 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.mem;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+import jcompute.core.shape.Shape;
+
+/**
+ * Thread-safe pool of native memory blocks, handing out {@link JComputeArray}s of requested type and {@link Shape},
+ * that are backed by recycled blocks where possible.
+ * <p>
+ * Requested sizes are rounded up to size classes (4 per power of two, hence at most 25% overhead),
+ * so arrays of similar (not only equal) size share blocks.
+ * Unlike fresh allocations, arrays backed by a recycled block are <em>not</em> zero initialized.
+ * <p>
+ * Blocks are {@link #release(JComputeArray) released} back to the pool explicitly. If idle blocks would exceed
+ * the (soft) capacity, the released block is freed instead. Leased blocks are not limited by the capacity.
+ * <p>
+ * Closing the pool frees all blocks, including leased ones, which renders all arrays handed out inaccessible.
+ */
+public final class ArrayPool implements AutoCloseable {
+
+    /**
+     * Statistics snapshot.
+     * @param hits number of requests served from an idle block
+     * @param misses number of requests, that required a new block
+     * @param evictions number of released blocks freed, because the soft capacity would be exceeded
+     * @param idleBytes bytes currently held by idle blocks
+     * @param leasedBytes bytes currently held by leased blocks
+     */
+    public record Stats(long hits, long misses, long evictions, long idleBytes, long leasedBytes) {
+        public double hitRatio() {
+            final long requests = hits + misses;
+            return requests>0
+                    ? (double)hits / requests
+                    : 0.;
+        }
+    }
+
+    static final long MIN_BLOCK_BYTES = 1L << 12;
+    static final long BLOCK_ALIGNMENT = 64L;
+
+    private record Block(Arena arena, MemorySegment segment) {
+        static Block allocate(final long byteSize) {
+            var arena = Arena.ofShared();
+            return new Block(arena, arena.allocate(byteSize, BLOCK_ALIGNMENT));
+        }
+        long byteSize() {
+            return segment.byteSize();
+        }
+        void free() {
+            arena.close();
+        }
+    }
+
+    private final long softCapacity;
+    private final Map<Long, ConcurrentLinkedDeque<Block>> idleBySizeClass = new ConcurrentHashMap<>();
+    private final Map<Long, Block> leasedByAddress = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final AtomicLong idleBytes = new AtomicLong();
+    private final AtomicLong leasedBytes = new AtomicLong();
+
+    private ArrayPool(final long softCapacity) {
+        if(softCapacity<0) {
+            throw new IllegalArgumentException(String.format("invalid capacity %d", softCapacity));
+        }
+        this.softCapacity = softCapacity;
+    }
+
+    /**
+     * Pool, that retains any released block.
+     */
+    public static ArrayPool unbounded() {
+        return new ArrayPool(Long.MAX_VALUE);
+    }
+
+    /**
+     * Pool, that retains released blocks, as long as all idle blocks sum up to at most {@code softCapacity} bytes.
+     */
+    public static ArrayPool withSoftCapacity(final long softCapacity) {
+        return new ArrayPool(softCapacity);
+    }
+
+    // -- ACQUIRE
+
+    public ByteArray byteArray(final Shape shape) {
+        return acquire(shape, 1, ByteArray::new);
+    }
+
+    public ShortArray shortArray(final Shape shape) {
+        return acquire(shape, 2, ShortArray::new);
+    }
+
+    public IntArray intArray(final Shape shape) {
+        return acquire(shape, 4, IntArray::new);
+    }
+
+    public LongArray longArray(final Shape shape) {
+        return acquire(shape, 8, LongArray::new);
+    }
+
+    public FloatArray floatArray(final Shape shape) {
+        return acquire(shape, 4, FloatArray::new);
+    }
+
+    public DoubleArray doubleArray(final Shape shape) {
+        return acquire(shape, 8, DoubleArray::new);
+    }
+
+    // -- RELEASE
+
+    /**
+     * Returns the block backing given array to this pool. The array must not be used afterwards.
+     * @throws IllegalArgumentException if the array was not acquired from this pool or was already released
+     */
+    public void release(final JComputeArray array) {
+        var block = leasedByAddress.remove(array.memorySegment().address());
+        if(block==null) {
+            throw new IllegalArgumentException("array was not acquired from this pool or was already released");
+        }
+        leasedBytes.addAndGet(-block.byteSize());
+        if(idleBytes.addAndGet(block.byteSize())>softCapacity) {
+            idleBytes.addAndGet(-block.byteSize());
+            evictions.increment();
+            block.free();
+            return;
+        }
+        idleBySizeClass.computeIfAbsent(block.byteSize(), _->new ConcurrentLinkedDeque<>())
+            .push(block);
+    }
+
+    /**
+     * Frees all idle blocks.
+     */
+    public void trim() {
+        idleBySizeClass.values().forEach(idle->{
+            Block block;
+            while((block = idle.poll())!=null) {
+                idleBytes.addAndGet(-block.byteSize());
+                block.free();
+            }
+        });
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), idleBytes.get(), leasedBytes.get());
+    }
+
+    /**
+     * Frees all blocks, including leased ones.
+     */
+    @Override
+    public void close() {
+        trim();
+        leasedByAddress.values().forEach(Block::free);
+        leasedByAddress.clear();
+        leasedBytes.set(0L);
+    }
+
+    // -- HELPER
+
+    private <T extends JComputeArray> T acquire(
+            final Shape shape,
+            final int bytesPerElement,
+            final BiFunction<Shape, MemorySegment, T> factory) {
+        final long byteSize = Math.multiplyExact(shape.totalSize(), bytesPerElement);
+        final long sizeClass = sizeClass(byteSize);
+        var idle = idleBySizeClass.get(sizeClass);
+        var block = idle!=null
+                ? idle.poll()
+                : null;
+        if(block!=null) {
+            hits.increment();
+            idleBytes.addAndGet(-block.byteSize());
+        } else {
+            misses.increment();
+            block = Block.allocate(sizeClass);
+        }
+        leasedBytes.addAndGet(block.byteSize());
+        leasedByAddress.put(block.segment().address(), block);
+        return factory.apply(shape, block.segment().asSlice(0L, byteSize));
+    }
+
+    /**
+     * Rounds up to the next multiple of a quarter of the highest power of two not exceeding given size
+     * (or {@link #MIN_BLOCK_BYTES}, whichever is greater).
+     */
+    static long sizeClass(final long byteSize) {
+        if(byteSize<=MIN_BLOCK_BYTES) return MIN_BLOCK_BYTES;
+        final long step = Long.highestOneBit(byteSize) >>> 2;
+        return Math.multiplyExact(Math.ceilDiv(byteSize, step), step);
+    }
+
+}
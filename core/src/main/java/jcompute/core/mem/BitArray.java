@@ -0,0 +1,306 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.mem;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.LongBuffer;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import jcompute.core.ops.ArrayOps;
+import jcompute.core.shape.Shape;
+import jcompute.core.util.Parallelism;
+import jcompute.core.util.primitive.ByteUtils;
+
+/**
+ * Fixed size set of bits, backed by 64-bit words, where bit {@code i} is stored
+ * in word {@code i/64} at bit position {@code i%64}.
+ * <p>
+ * As a {@link JComputeArray} the elements are the words, hence {@link #shape()} is 1D of length
+ * {@link #wordCount()} and the value layout is {@code long}.
+ * Bits beyond {@link #bitSize()} within the last word are always zero.
+ * <p>
+ * Mutators are not thread-safe for concurrent writes to the same word.
+ */
+public record BitArray(
+        long bitSize,
+        MemorySegment memorySegment) implements JComputeArray {
+
+    static final int ADDRESS_BITS_PER_WORD = 6;
+    static final long WORD_MASK = 0xffff_ffff_ffff_ffffL;
+
+    /**
+     * Allocates a (zero initialized) bit array of given size.
+     */
+    public static BitArray of(final Arena arena, final long bitSize) {
+        var layout = MemoryLayout.sequenceLayout(wordCount(bitSize), ValueLayout.JAVA_LONG);
+        var memorySegment = arena.allocate(layout);
+        return new BitArray(bitSize, memorySegment);
+    }
+
+    public long wordCount() {
+        return wordCount(bitSize);
+    }
+
+    @Override
+    public Shape shape() {
+        return Shape.of(wordCount());
+    }
+
+    @Override
+    public ValueLayout valueLayout() {
+        return ValueLayout.JAVA_LONG;
+    }
+
+    @Override
+    public int bytesPerElement() {
+        return 8;
+    }
+
+    /**
+     * Returns the 64-bit word at given word index.
+     */
+    public long word(final long wordIndex) {
+        return memorySegment.getAtIndex(ValueLayout.JAVA_LONG, wordIndex);
+    }
+
+    /**
+     * Returns the bit at given index.
+     */
+    public boolean get(final long bitIndex) {
+        Objects.checkIndex(bitIndex, bitSize);
+        return (word(bitIndex >>> ADDRESS_BITS_PER_WORD) & (1L << bitIndex)) != 0;
+    }
+
+    /**
+     * Sets the bit at given index to {@code true}.
+     * @return this
+     */
+    public BitArray set(final long bitIndex) {
+        Objects.checkIndex(bitIndex, bitSize);
+        final long wordIndex = bitIndex >>> ADDRESS_BITS_PER_WORD;
+        putWord(wordIndex, word(wordIndex) | (1L << bitIndex));
+        return this;
+    }
+
+    /**
+     * Sets the bit at given index to given value.
+     * @return this
+     */
+    public BitArray set(final long bitIndex, final boolean value) {
+        return value
+                ? set(bitIndex)
+                : clear(bitIndex);
+    }
+
+    /**
+     * Sets the bit at given index to {@code false}.
+     * @return this
+     */
+    public BitArray clear(final long bitIndex) {
+        Objects.checkIndex(bitIndex, bitSize);
+        final long wordIndex = bitIndex >>> ADDRESS_BITS_PER_WORD;
+        putWord(wordIndex, word(wordIndex) & ~(1L << bitIndex));
+        return this;
+    }
+
+    /**
+     * Sets all bits to {@code false}.
+     * @return this
+     */
+    public BitArray clear() {
+        memorySegment.fill((byte)0);
+        return this;
+    }
+
+    // -- BULK
+
+    /**
+     * Bitwise AND with given bit array of same size, in place.
+     * @return this
+     */
+    public BitArray and(final BitArray other) {
+        assertSameSize(other);
+        ArrayOps.and(asLongArray(), other.asLongArray(), asLongArray());
+        return this;
+    }
+
+    /**
+     * Bitwise OR with given bit array of same size, in place.
+     * @return this
+     */
+    public BitArray or(final BitArray other) {
+        assertSameSize(other);
+        ArrayOps.or(asLongArray(), other.asLongArray(), asLongArray());
+        return this;
+    }
+
+    /**
+     * Clears all bits, that are set in given bit array of same size, in place.
+     * @return this
+     */
+    public BitArray andNot(final BitArray other) {
+        assertSameSize(other);
+        ArrayOps.andNot(asLongArray(), other.asLongArray(), asLongArray());
+        return this;
+    }
+
+    /**
+     * Number of bits set to {@code true}.
+     */
+    public long cardinality() {
+        return ArrayOps.popCount(asLongArray());
+    }
+
+    /**
+     * Number of bits set to {@code true}, with words split into contiguous ranges,
+     * that are counted in parallel for {@link Parallelism#PARALLEL}.
+     */
+    public long cardinality(final Parallelism parallelism) {
+        if(!parallelism.isParallel()) return cardinality();
+        final LongArray words = asLongArray();
+        final LongAdder count = new LongAdder();
+        words.shape().forEachRange(parallelism, (offset, length)->
+            count.add(ArrayOps.popCount(words.slice(offset, length))));
+        return count.sum();
+    }
+
+    /**
+     * Index of the first bit set to {@code true}, that occurs on or after given index,
+     * or {@code -1} if there is no such bit.
+     */
+    public long nextSetBit(final long fromIndex) {
+        if(fromIndex<0) throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        if(fromIndex>=bitSize) return -1L;
+        final long wordCount = wordCount();
+        long wordIndex = fromIndex >>> ADDRESS_BITS_PER_WORD;
+        long word = word(wordIndex) & (WORD_MASK << fromIndex);
+        while(true) {
+            if(word!=0) {
+                return (wordIndex << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            }
+            if(++wordIndex==wordCount) return -1L;
+            word = word(wordIndex);
+        }
+    }
+
+    /**
+     * Index of the first bit set to {@code false}, that occurs on or after given index,
+     * or {@code -1} if there is no such bit.
+     */
+    public long nextClearBit(final long fromIndex) {
+        if(fromIndex<0) throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        if(fromIndex>=bitSize) return -1L;
+        final long wordCount = wordCount();
+        long wordIndex = fromIndex >>> ADDRESS_BITS_PER_WORD;
+        long word = ~word(wordIndex) & (WORD_MASK << fromIndex);
+        while(true) {
+            if(word!=0) {
+                final long bitIndex = (wordIndex << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+                return bitIndex<bitSize
+                        ? bitIndex
+                        : -1L;
+            }
+            if(++wordIndex==wordCount) return -1L;
+            word = ~word(wordIndex);
+        }
+    }
+
+    // -- IO
+
+    public static BitArray read(final Arena arena, final InputStream in) {
+        var bitShape = Shape.read(in);
+        var array = of(arena, bitShape.totalSize());
+        ByteUtils.readIntoBuffer(array.wordCount()<<3, in, array.memorySegment().asByteBuffer());
+        return array;
+    }
+
+    public BitArray write(final OutputStream out) {
+        Shape.of(bitSize).write(out);
+        ByteUtils.writeToBuffer(memorySegment.asByteBuffer(), out);
+        return this;
+    }
+
+    // -- VIEWS
+
+    /**
+     * Returns a view of the words backing this bit array (no copy).
+     */
+    public LongArray asLongArray() {
+        return new LongArray(shape(), memorySegment);
+    }
+
+    /**
+     * Returns a view of {@code length} words, starting at word index {@code offset} (no copy).
+     */
+    @Override
+    public BitArray slice(final long offset, final long length) {
+        Objects.checkFromIndexSize(offset, length, wordCount());
+        return new BitArray(
+                Math.max(0L, Math.min(length << ADDRESS_BITS_PER_WORD, bitSize - (offset << ADDRESS_BITS_PER_WORD))),
+                memorySegment.asSlice(offset<<3, length<<3));
+    }
+
+    /**
+     * Bit arrays are always 1D, hence only supports the identity.
+     */
+    @Override
+    public BitArray reshape(final Shape shape) {
+        if(!shape().equals(shape)) {
+            throw new IllegalArgumentException("Unexpected value: " + shape);
+        }
+        return this;
+    }
+
+    public LongBuffer toBuffer() {
+        return memorySegment.asByteBuffer().asLongBuffer();
+    }
+
+    // -- CONTRACT
+
+    @Override
+    public boolean equals(final Object obj) {
+        return (obj instanceof BitArray other)
+                && bitSize==other.bitSize()
+                && JComputeArray.equals(this, obj);
+    }
+
+    // -- HELPER
+
+    static long wordCount(final long bitSize) {
+        return (bitSize + 63) >>> ADDRESS_BITS_PER_WORD;
+    }
+
+    private void putWord(final long wordIndex, final long word) {
+        memorySegment.setAtIndex(ValueLayout.JAVA_LONG, wordIndex, word);
+    }
+
+    private void assertSameSize(final BitArray other) {
+        if(bitSize!=other.bitSize()) {
+            throw new IllegalArgumentException(String.format(
+                    "bit size mismatch: %d != %d", bitSize, other.bitSize()));
+        }
+    }
+
+}
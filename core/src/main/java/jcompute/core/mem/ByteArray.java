@@ -25,8 +25,16 @@ import java.lang.foreign.MemoryLayout;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 
+import jcompute.core.io.ArrayChannels;
+import jcompute.core.io.ArrayFile;
 import jcompute.core.shape.Shape;
+import jcompute.core.util.Parallelism;
 import jcompute.core.util.function.LongToByteFunction;
 import jcompute.core.util.primitive.ByteUtils;
 
@@ -41,11 +49,8 @@ public record ByteArray(
     }
 
     public static ByteArray wrap(final Arena arena, final byte[] values) {
-        var array = ByteArray.of(arena, Shape.of(values.length));
-        for (int i = 0; i < values.length; i++) {
-            array.memorySegment.setAtIndex(ValueLayout.JAVA_BYTE, i, values[i]);
-        }
-        return array;
+        return ByteArray.of(arena, Shape.of(values.length))
+                .copyFrom(values);
     }
 
     @Override
@@ -76,6 +81,126 @@ public record ByteArray(
         return this;
     }
 
+    /**
+     * Sets each element of the underlying buffer to the {@code byte} value the filler computes for its global index.
+     * For {@link Parallelism#PARALLEL} contiguous index ranges are filled concurrently,
+     * hence the filler must be thread-safe.
+     * @return this
+     */
+    public ByteArray fill(final Parallelism parallelism, final LongToByteFunction filler) {
+        shape().forEachRange(parallelism, (offset, length)->{
+            final long end = offset + length;
+            for(long gid = offset; gid<end; ++gid) {
+                memorySegment.setAtIndex(ValueLayout.JAVA_BYTE, gid, filler.applyAsByte(gid));
+            }
+        });
+        return this;
+    }
+
+    // -- BULK
+
+    /**
+     * Sets all elements of the underlying buffer to given {@code byte} value.
+     * @return this
+     */
+    public ByteArray fill(final byte value) {
+        return fill(Parallelism.SEQUENTIAL, 0L, shape.totalSize(), value);
+    }
+
+    /**
+     * Sets all elements of the underlying buffer to given {@code byte} value.
+     * @return this
+     */
+    public ByteArray fill(final Parallelism parallelism, final byte value) {
+        return fill(parallelism, 0L, shape.totalSize(), value);
+    }
+
+    /**
+     * Sets {@code length} elements of the underlying buffer, starting at global index {@code gid},
+     * to given {@code byte} value.
+     * @return this
+     */
+    public ByteArray fill(final long gid, final long length, final byte value) {
+        return fill(Parallelism.SEQUENTIAL, gid, length, value);
+    }
+
+    /**
+     * Sets {@code length} elements of the underlying buffer, starting at global index {@code gid},
+     * to given {@code byte} value.
+     * @return this
+     */
+    public ByteArray fill(final Parallelism parallelism, final long gid, final long length, final byte value) {
+        _Util.fill(parallelism, memorySegment, gid, length, 1, value);
+        return this;
+    }
+
+    /**
+     * Copies all values from given {@code byte[]} into the underlying buffer, starting at global index zero.
+     * @return this
+     */
+    public ByteArray copyFrom(final byte[] src) {
+        return copyFrom(src, 0, 0L, src.length);
+    }
+
+    /**
+     * Copies {@code length} values from given {@code byte[]} starting at {@code srcIndex}
+     * into the underlying buffer, starting at global index {@code gid}.
+     * @return this
+     */
+    public ByteArray copyFrom(final byte[] src, final int srcIndex, final long gid, final int length) {
+        MemorySegment.copy(src, srcIndex, memorySegment, ValueLayout.JAVA_BYTE, gid, length);
+        return this;
+    }
+
+    /**
+     * Copies the underlying buffer, starting at global index zero, into given {@code byte[]},
+     * as many values as it can hold.
+     * @return this
+     */
+    public ByteArray copyTo(final byte[] dst) {
+        return copyTo(0L, dst, 0, dst.length);
+    }
+
+    /**
+     * Copies {@code length} values of the underlying buffer, starting at global index {@code gid},
+     * into given {@code byte[]} starting at {@code dstIndex}.
+     * @return this
+     */
+    public ByteArray copyTo(final long gid, final byte[] dst, final int dstIndex, final int length) {
+        MemorySegment.copy(memorySegment, ValueLayout.JAVA_BYTE, gid, dst, dstIndex, length);
+        return this;
+    }
+
+    /**
+     * Copies all values from given {@link ByteArray} into the underlying buffer.
+     * Both must agree on {@link Shape#totalSize()}.
+     * @return this
+     */
+    public ByteArray copyFrom(final ByteArray src) {
+        return copyFrom(Parallelism.SEQUENTIAL, src);
+    }
+
+    /**
+     * Copies all values from given {@link ByteArray} into the underlying buffer.
+     * Both must agree on {@link Shape#totalSize()}.
+     * @return this
+     */
+    public ByteArray copyFrom(final Parallelism parallelism, final ByteArray src) {
+        _Util.assertCompatible(this, src);
+        return copyFrom(parallelism, src, 0L, 0L, shape.totalSize());
+    }
+
+    /**
+     * Copies {@code length} values from given {@link ByteArray} starting at {@code srcGid}
+     * into the underlying buffer, starting at global index {@code gid}.
+     * @return this
+     */
+    public ByteArray copyFrom(final Parallelism parallelism, final ByteArray src,
+            final long srcGid, final long gid, final long length) {
+        _Util.copy(parallelism, src.memorySegment(), srcGid, memorySegment, gid, length);
+        return this;
+    }
+
     // -- IO
 
     public static ByteArray read(final Arena arena, final InputStream in) {
@@ -91,6 +216,83 @@ public record ByteArray(
         return this;
     }
 
+    /**
+     * Reads an array in the jcompute array file format (see {@link ArrayChannels}),
+     * converting the payload to native byte order if required.
+     */
+    public static ByteArray read(final Arena arena, final ReadableByteChannel in) {
+        var header = ArrayChannels.readHeader(in).assertElementType(ValueLayout.JAVA_BYTE);
+        var array = of(arena, header.shape());
+        ArrayChannels.readPayload(header, in, array.memorySegment());
+        return array;
+    }
+
+    /**
+     * Writes this array in the jcompute array file format (see {@link ArrayChannels}),
+     * transferring the payload in native byte order without intermediate copies.
+     * @return this
+     */
+    public ByteArray write(final WritableByteChannel out) {
+        ArrayChannels.write(this, out);
+        return this;
+    }
+
+    /**
+     * Writes this array in the jcompute array file format, with the payload in given byte order.
+     * @return this
+     */
+    public ByteArray write(final WritableByteChannel out, final ByteOrder byteOrder) {
+        ArrayChannels.write(this, out, byteOrder);
+        return this;
+    }
+
+    // -- VIEWS
+
+    @Override
+    public ByteArray slice(final long offset, final long length) {
+        var sliceShape = shape.slice(offset, length);
+        return new ByteArray(sliceShape, memorySegment.asSlice(
+                offset * shape.strideX() * bytesPerElement(),
+                sliceShape.totalSize() * bytesPerElement()));
+    }
+
+    @Override
+    public ByteArray reshape(final Shape shape) {
+        return new ByteArray(this.shape.assertSameTotalSize(shape), memorySegment);
+    }
+
+    // -- MEMORY MAPPING
+
+    /**
+     * Maps an existing jcompute array file {@link MapMode#READ_WRITE},
+     * with the returned array's memory segment backed by the file.
+     * @see ArrayFile
+     */
+    public static ByteArray map(final Arena arena, final Path file) {
+        return map(arena, file, MapMode.READ_WRITE);
+    }
+
+    /**
+     * Maps an existing jcompute array file using given {@link MapMode},
+     * with the returned array's memory segment backed by the file.
+     * @see ArrayFile
+     */
+    public static ByteArray map(final Arena arena, final Path file, final MapMode mode) {
+        var arrayFile = ArrayFile.map(arena, file, mode)
+                .assertElementType(ValueLayout.JAVA_BYTE);
+        return new ByteArray(arrayFile.shape(), arrayFile.payload());
+    }
+
+    /**
+     * Creates (or overwrites) given file as jcompute array file of given shape (zero initialized),
+     * with the returned array's memory segment backed by the file.
+     * @see ArrayFile
+     */
+    public static ByteArray mapNew(final Arena arena, final Path file, final Shape shape) {
+        var arrayFile = ArrayFile.create(arena, file, ValueLayout.JAVA_BYTE, shape);
+        return new ByteArray(arrayFile.shape(), arrayFile.payload());
+    }
+
     @Override
     public int bytesPerElement() {
         return 1;
@@ -101,7 +303,9 @@ public record ByteArray(
     }
 
     public byte[] toArray() {
-        return toBuffer().array();
+        var values = new byte[Math.toIntExact(shape.totalSize())];
+        copyTo(values);
+        return values;
     }
 
     // -- CONTRACT
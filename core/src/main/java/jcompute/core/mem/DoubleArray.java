@@ -18,13 +18,26 @@
  */
 package jcompute.core.mem;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemoryLayout;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 
+import lombok.SneakyThrows;
+
+import jcompute.core.io.ArrayChannels;
+import jcompute.core.io.ArrayFile;
 import jcompute.core.shape.Shape;
+import jcompute.core.util.Parallelism;
+import jcompute.core.util.primitive.ValueExternalizer;
 
 public record DoubleArray(
         Shape shape,
@@ -37,11 +50,8 @@ public record DoubleArray(
     }
 
     public static DoubleArray wrap(final Arena arena, final double[] values) {
-        var array = DoubleArray.of(arena, Shape.of(values.length));
-        for (int i = 0; i < values.length; i++) {
-            array.memorySegment.setAtIndex(ValueLayout.JAVA_DOUBLE, i, values[i]);
-        }
-        return array;
+        return DoubleArray.of(arena, Shape.of(values.length))
+                .copyFrom(values);
     }
 
     @Override
@@ -68,6 +78,212 @@ public record DoubleArray(
         return this;
     }
 
+    // -- BULK
+
+    /**
+     * Sets all elements of the underlying buffer to given {@code double} value.
+     * @return this
+     */
+    public DoubleArray fill(final double value) {
+        return fill(Parallelism.SEQUENTIAL, 0L, shape.totalSize(), value);
+    }
+
+    /**
+     * Sets all elements of the underlying buffer to given {@code double} value.
+     * @return this
+     */
+    public DoubleArray fill(final Parallelism parallelism, final double value) {
+        return fill(parallelism, 0L, shape.totalSize(), value);
+    }
+
+    /**
+     * Sets {@code length} elements of the underlying buffer, starting at global index {@code gid},
+     * to given {@code double} value.
+     * @return this
+     */
+    public DoubleArray fill(final long gid, final long length, final double value) {
+        return fill(Parallelism.SEQUENTIAL, gid, length, value);
+    }
+
+    /**
+     * Sets {@code length} elements of the underlying buffer, starting at global index {@code gid},
+     * to given {@code double} value.
+     * @return this
+     */
+    public DoubleArray fill(final Parallelism parallelism, final long gid, final long length, final double value) {
+        _Util.fill(parallelism, memorySegment, gid<<3, length<<3, 8, Double.doubleToRawLongBits(value));
+        return this;
+    }
+
+    /**
+     * Copies all values from given {@code double[]} into the underlying buffer, starting at global index zero.
+     * @return this
+     */
+    public DoubleArray copyFrom(final double[] src) {
+        return copyFrom(src, 0, 0L, src.length);
+    }
+
+    /**
+     * Copies {@code length} values from given {@code double[]} starting at {@code srcIndex}
+     * into the underlying buffer, starting at global index {@code gid}.
+     * @return this
+     */
+    public DoubleArray copyFrom(final double[] src, final int srcIndex, final long gid, final int length) {
+        MemorySegment.copy(src, srcIndex, memorySegment, ValueLayout.JAVA_DOUBLE, gid<<3, length);
+        return this;
+    }
+
+    /**
+     * Copies the underlying buffer, starting at global index zero, into given {@code double[]},
+     * as many values as it can hold.
+     * @return this
+     */
+    public DoubleArray copyTo(final double[] dst) {
+        return copyTo(0L, dst, 0, dst.length);
+    }
+
+    /**
+     * Copies {@code length} values of the underlying buffer, starting at global index {@code gid},
+     * into given {@code double[]} starting at {@code dstIndex}.
+     * @return this
+     */
+    public DoubleArray copyTo(final long gid, final double[] dst, final int dstIndex, final int length) {
+        MemorySegment.copy(memorySegment, ValueLayout.JAVA_DOUBLE, gid<<3, dst, dstIndex, length);
+        return this;
+    }
+
+    /**
+     * Copies all values from given {@link DoubleArray} into the underlying buffer.
+     * Both must agree on {@link Shape#totalSize()}.
+     * @return this
+     */
+    public DoubleArray copyFrom(final DoubleArray src) {
+        return copyFrom(Parallelism.SEQUENTIAL, src);
+    }
+
+    /**
+     * Copies all values from given {@link DoubleArray} into the underlying buffer.
+     * Both must agree on {@link Shape#totalSize()}.
+     * @return this
+     */
+    public DoubleArray copyFrom(final Parallelism parallelism, final DoubleArray src) {
+        _Util.assertCompatible(this, src);
+        return copyFrom(parallelism, src, 0L, 0L, shape.totalSize());
+    }
+
+    /**
+     * Copies {@code length} values from given {@link DoubleArray} starting at {@code srcGid}
+     * into the underlying buffer, starting at global index {@code gid}.
+     * @return this
+     */
+    public DoubleArray copyFrom(final Parallelism parallelism, final DoubleArray src,
+            final long srcGid, final long gid, final long length) {
+        _Util.copy(parallelism, src.memorySegment(), srcGid<<3, memorySegment, gid<<3, length<<3);
+        return this;
+    }
+
+    // -- IO
+
+    /**
+     * Reads an array, as written by {@link #write(OutputStream)}.
+     */
+    public static DoubleArray read(final Arena arena, final InputStream in) {
+        var shape = Shape.read(in);
+        var array = of(arena, shape);
+        ValueExternalizer.nativeOrder(ValueLayout.JAVA_DOUBLE).read(in, array.memorySegment());
+        return array;
+    }
+
+    /**
+     * Writes the shape followed by the payload in native byte order, then closes given stream.
+     * @return this
+     */
+    @SneakyThrows
+    public DoubleArray write(final OutputStream out) {
+        try(out) {
+            shape.write(out);
+            ValueExternalizer.nativeOrder(ValueLayout.JAVA_DOUBLE).write(memorySegment, out);
+        }
+        return this;
+    }
+
+    /**
+     * Reads an array in the jcompute array file format (see {@link ArrayChannels}),
+     * converting the payload to native byte order if required.
+     */
+    public static DoubleArray read(final Arena arena, final ReadableByteChannel in) {
+        var header = ArrayChannels.readHeader(in).assertElementType(ValueLayout.JAVA_DOUBLE);
+        var array = of(arena, header.shape());
+        ArrayChannels.readPayload(header, in, array.memorySegment());
+        return array;
+    }
+
+    /**
+     * Writes this array in the jcompute array file format (see {@link ArrayChannels}),
+     * transferring the payload in native byte order without intermediate copies.
+     * @return this
+     */
+    public DoubleArray write(final WritableByteChannel out) {
+        ArrayChannels.write(this, out);
+        return this;
+    }
+
+    /**
+     * Writes this array in the jcompute array file format, with the payload in given byte order.
+     * @return this
+     */
+    public DoubleArray write(final WritableByteChannel out, final ByteOrder byteOrder) {
+        ArrayChannels.write(this, out, byteOrder);
+        return this;
+    }
+
+    // -- VIEWS
+
+    @Override
+    public DoubleArray slice(final long offset, final long length) {
+        var sliceShape = shape.slice(offset, length);
+        return new DoubleArray(sliceShape, memorySegment.asSlice(
+                offset * shape.strideX() * bytesPerElement(),
+                sliceShape.totalSize() * bytesPerElement()));
+    }
+
+    @Override
+    public DoubleArray reshape(final Shape shape) {
+        return new DoubleArray(this.shape.assertSameTotalSize(shape), memorySegment);
+    }
+
+    // -- MEMORY MAPPING
+
+    /**
+     * Maps an existing jcompute array file {@link MapMode#READ_WRITE},
+     * with the returned array's memory segment backed by the file.
+     * @see ArrayFile
+     */
+    public static DoubleArray map(final Arena arena, final Path file) {
+        return map(arena, file, MapMode.READ_WRITE);
+    }
+
+    /**
+     * Maps an existing jcompute array file using given {@link MapMode},
+     * with the returned array's memory segment backed by the file.
+     * @see ArrayFile
+     */
+    public static DoubleArray map(final Arena arena, final Path file, final MapMode mode) {
+        var arrayFile = ArrayFile.map(arena, file, mode)
+                .assertElementType(ValueLayout.JAVA_DOUBLE);
+        return new DoubleArray(arrayFile.shape(), arrayFile.payload());
+    }
+
+    /**
+     * Creates (or overwrites) given file as jcompute array file of given shape (zero initialized),
+     * with the returned array's memory segment backed by the file.
+     * @see ArrayFile
+     */
+    public static DoubleArray mapNew(final Arena arena, final Path file, final Shape shape) {
+        var arrayFile = ArrayFile.create(arena, file, ValueLayout.JAVA_DOUBLE, shape);
+        return new DoubleArray(arrayFile.shape(), arrayFile.payload());
+    }
+
     @Override
     public int bytesPerElement() {
         return 8;
@@ -78,7 +294,9 @@ public record DoubleArray(
     }
 
     public double[] toArray() {
-        return toBuffer().array();
+        var values = new double[Math.toIntExact(shape.totalSize())];
+        copyTo(values);
+        return values;
     }
 
     // -- CONTRACT
@@ -0,0 +1,309 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.mem;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+
+import lombok.SneakyThrows;
+
+import jcompute.core.io.ArrayChannels;
+import jcompute.core.io.ArrayFile;
+import jcompute.core.shape.Shape;
+import jcompute.core.util.Parallelism;
+import jcompute.core.util.primitive.ValueExternalizer;
+
+public record IntArray(
+        Shape shape,
+        MemorySegment memorySegment) implements JComputeArray {
+
+    public static IntArray of(final Arena arena, final Shape shape) {
+        var layout = MemoryLayout.sequenceLayout(shape.totalSize(), ValueLayout.JAVA_INT);
+        var memorySegment = arena.allocate(layout);
+        return new IntArray(shape, memorySegment);
+    }
+
+    public static IntArray wrap(final Arena arena, final int[] values) {
+        return IntArray.of(arena, Shape.of(values.length))
+                .copyFrom(values);
+    }
+
+    @Override
+    public ValueLayout valueLayout() {
+        return ValueLayout.JAVA_INT;
+    }
+
+    /**
+     * Returns the {@code int} value from the underlying buffer at global index {@code gid}.
+     * @param gid the global index into the underlying buffer
+     */
+    public int get(final long gid) {
+        return memorySegment.getAtIndex(ValueLayout.JAVA_INT, gid);
+    }
+
+    /**
+     * Sets the i-th element of the underlying buffer to given {@code int} value.
+     * @param gid the global index into the underlying buffer
+     * @param value the {@code int} value to copy
+     * @return this
+     */
+    public IntArray put(final long gid, final int value) {
+        memorySegment.setAtIndex(ValueLayout.JAVA_INT, gid, value);
+        return this;
+    }
+
+    // -- BULK
+
+    /**
+     * Sets all elements of the underlying buffer to given {@code int} value.
+     * @return this
+     */
+    public IntArray fill(final int value) {
+        return fill(Parallelism.SEQUENTIAL, 0L, shape.totalSize(), value);
+    }
+
+    /**
+     * Sets all elements of the underlying buffer to given {@code int} value.
+     * @return this
+     */
+    public IntArray fill(final Parallelism parallelism, final int value) {
+        return fill(parallelism, 0L, shape.totalSize(), value);
+    }
+
+    /**
+     * Sets {@code length} elements of the underlying buffer, starting at global index {@code gid},
+     * to given {@code int} value.
+     * @return this
+     */
+    public IntArray fill(final long gid, final long length, final int value) {
+        return fill(Parallelism.SEQUENTIAL, gid, length, value);
+    }
+
+    /**
+     * Sets {@code length} elements of the underlying buffer, starting at global index {@code gid},
+     * to given {@code int} value.
+     * @return this
+     */
+    public IntArray fill(final Parallelism parallelism, final long gid, final long length, final int value) {
+        _Util.fill(parallelism, memorySegment, gid<<2, length<<2, 4, value);
+        return this;
+    }
+
+    /**
+     * Copies all values from given {@code int[]} into the underlying buffer, starting at global index zero.
+     * @return this
+     */
+    public IntArray copyFrom(final int[] src) {
+        return copyFrom(src, 0, 0L, src.length);
+    }
+
+    /**
+     * Copies {@code length} values from given {@code int[]} starting at {@code srcIndex}
+     * into the underlying buffer, starting at global index {@code gid}.
+     * @return this
+     */
+    public IntArray copyFrom(final int[] src, final int srcIndex, final long gid, final int length) {
+        MemorySegment.copy(src, srcIndex, memorySegment, ValueLayout.JAVA_INT, gid<<2, length);
+        return this;
+    }
+
+    /**
+     * Copies the underlying buffer, starting at global index zero, into given {@code int[]},
+     * as many values as it can hold.
+     * @return this
+     */
+    public IntArray copyTo(final int[] dst) {
+        return copyTo(0L, dst, 0, dst.length);
+    }
+
+    /**
+     * Copies {@code length} values of the underlying buffer, starting at global index {@code gid},
+     * into given {@code int[]} starting at {@code dstIndex}.
+     * @return this
+     */
+    public IntArray copyTo(final long gid, final int[] dst, final int dstIndex, final int length) {
+        MemorySegment.copy(memorySegment, ValueLayout.JAVA_INT, gid<<2, dst, dstIndex, length);
+        return this;
+    }
+
+    /**
+     * Copies all values from given {@link IntArray} into the underlying buffer.
+     * Both must agree on {@link Shape#totalSize()}.
+     * @return this
+     */
+    public IntArray copyFrom(final IntArray src) {
+        return copyFrom(Parallelism.SEQUENTIAL, src);
+    }
+
+    /**
+     * Copies all values from given {@link IntArray} into the underlying buffer.
+     * Both must agree on {@link Shape#totalSize()}.
+     * @return this
+     */
+    public IntArray copyFrom(final Parallelism parallelism, final IntArray src) {
+        _Util.assertCompatible(this, src);
+        return copyFrom(parallelism, src, 0L, 0L, shape.totalSize());
+    }
+
+    /**
+     * Copies {@code length} values from given {@link IntArray} starting at {@code srcGid}
+     * into the underlying buffer, starting at global index {@code gid}.
+     * @return this
+     */
+    public IntArray copyFrom(final Parallelism parallelism, final IntArray src,
+            final long srcGid, final long gid, final long length) {
+        _Util.copy(parallelism, src.memorySegment(), srcGid<<2, memorySegment, gid<<2, length<<2);
+        return this;
+    }
+
+    // -- IO
+
+    /**
+     * Reads an array, as written by {@link #write(OutputStream)}.
+     */
+    public static IntArray read(final Arena arena, final InputStream in) {
+        var shape = Shape.read(in);
+        var array = of(arena, shape);
+        ValueExternalizer.nativeOrder(ValueLayout.JAVA_INT).read(in, array.memorySegment());
+        return array;
+    }
+
+    /**
+     * Writes the shape followed by the payload in native byte order, then closes given stream.
+     * @return this
+     */
+    @SneakyThrows
+    public IntArray write(final OutputStream out) {
+        try(out) {
+            shape.write(out);
+            ValueExternalizer.nativeOrder(ValueLayout.JAVA_INT).write(memorySegment, out);
+        }
+        return this;
+    }
+
+    /**
+     * Reads an array in the jcompute array file format (see {@link ArrayChannels}),
+     * converting the payload to native byte order if required.
+     */
+    public static IntArray read(final Arena arena, final ReadableByteChannel in) {
+        var header = ArrayChannels.readHeader(in).assertElementType(ValueLayout.JAVA_INT);
+        var array = of(arena, header.shape());
+        ArrayChannels.readPayload(header, in, array.memorySegment());
+        return array;
+    }
+
+    /**
+     * Writes this array in the jcompute array file format (see {@link ArrayChannels}),
+     * transferring the payload in native byte order without intermediate copies.
+     * @return this
+     */
+    public IntArray write(final WritableByteChannel out) {
+        ArrayChannels.write(this, out);
+        return this;
+    }
+
+    /**
+     * Writes this array in the jcompute array file format, with the payload in given byte order.
+     * @return this
+     */
+    public IntArray write(final WritableByteChannel out, final ByteOrder byteOrder) {
+        ArrayChannels.write(this, out, byteOrder);
+        return this;
+    }
+
+    // -- VIEWS
+
+    @Override
+    public IntArray slice(final long offset, final long length) {
+        var sliceShape = shape.slice(offset, length);
+        return new IntArray(sliceShape, memorySegment.asSlice(
+                offset * shape.strideX() * bytesPerElement(),
+                sliceShape.totalSize() * bytesPerElement()));
+    }
+
+    @Override
+    public IntArray reshape(final Shape shape) {
+        return new IntArray(this.shape.assertSameTotalSize(shape), memorySegment);
+    }
+
+    // -- MEMORY MAPPING
+
+    /**
+     * Maps an existing jcompute array file {@link MapMode#READ_WRITE},
+     * with the returned array's memory segment backed by the file.
+     * @see ArrayFile
+     */
+    public static IntArray map(final Arena arena, final Path file) {
+        return map(arena, file, MapMode.READ_WRITE);
+    }
+
+    /**
+     * Maps an existing jcompute array file using given {@link MapMode},
+     * with the returned array's memory segment backed by the file.
+     * @see ArrayFile
+     */
+    public static IntArray map(final Arena arena, final Path file, final MapMode mode) {
+        var arrayFile = ArrayFile.map(arena, file, mode)
+                .assertElementType(ValueLayout.JAVA_INT);
+        return new IntArray(arrayFile.shape(), arrayFile.payload());
+    }
+
+    /**
+     * Creates (or overwrites) given file as jcompute array file of given shape (zero initialized),
+     * with the returned array's memory segment backed by the file.
+     * @see ArrayFile
+     */
+    public static IntArray mapNew(final Arena arena, final Path file, final Shape shape) {
+        var arrayFile = ArrayFile.create(arena, file, ValueLayout.JAVA_INT, shape);
+        return new IntArray(arrayFile.shape(), arrayFile.payload());
+    }
+
+    @Override
+    public int bytesPerElement() {
+        return 4;
+    }
+
+    public IntBuffer toBuffer() {
+        return memorySegment.asByteBuffer().asIntBuffer();
+    }
+
+    public int[] toArray() {
+        var values = new int[Math.toIntExact(shape.totalSize())];
+        copyTo(values);
+        return values;
+    }
+
+    // -- CONTRACT
+
+    @Override
+    public boolean equals(final Object obj) {
+        return JComputeArray.equals(this, obj);
+    }
+
+}
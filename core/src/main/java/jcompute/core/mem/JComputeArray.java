@@ -22,7 +22,9 @@ import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
 import java.util.Objects;
 
+import jcompute.core.io.ArrayDigests;
 import jcompute.core.shape.Shape;
+import jcompute.core.util.Parallelism;
 
 public interface JComputeArray {
 
@@ -31,6 +33,51 @@ public interface JComputeArray {
     MemorySegment memorySegment();
     int bytesPerElement();
 
+    // -- VIEWS
+
+    /**
+     * Returns a view of {@code length} indices along the first dimension (x), starting at {@code offset},
+     * that shares this array's memory (no copy).
+     * For 2D and 3D arrays each index spans a whole row or plane respectively.
+     * @see Shape#slice(long, long)
+     */
+    JComputeArray slice(long offset, long length);
+
+    /**
+     * Returns a view with given shape, that shares this array's memory (no copy).
+     * Both shapes must agree on {@link Shape#totalSize()}.
+     */
+    JComputeArray reshape(Shape shape);
+
+    // -- DIGESTS
+
+    /**
+     * Fast, non-cryptographic 64-bit hash of element type, shape and payload, computed in parallel,
+     * unless this array's memory is thread-confined.
+     * @see ArrayDigests#hash(JComputeArray, Parallelism)
+     */
+    default long hash() {
+        return ArrayDigests.hash(this, Parallelism.PARALLEL);
+    }
+
+    default long hash(final Parallelism parallelism) {
+        return ArrayDigests.hash(this, parallelism);
+    }
+
+    /**
+     * SHA-256 based digest of element type, shape and payload (hex string), computed in parallel,
+     * such that arrays can be compared across nodes without shipping their data;
+     * sequential if this array's memory is thread-confined.
+     * @see ArrayDigests#fingerprint(JComputeArray, Parallelism)
+     */
+    default String fingerprint() {
+        return ArrayDigests.fingerprint(this, Parallelism.PARALLEL);
+    }
+
+    default String fingerprint(final Parallelism parallelism) {
+        return ArrayDigests.fingerprint(this, parallelism);
+    }
+
     // -- EQUALITY
 
     default boolean isEqualTo(final JComputeArray other) {
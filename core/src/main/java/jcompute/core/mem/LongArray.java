@@ -24,11 +24,21 @@ import java.lang.foreign.Arena;
 import java.lang.foreign.MemoryLayout;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
 import java.nio.LongBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.util.function.LongUnaryOperator;
 
+import lombok.SneakyThrows;
+
+import jcompute.core.io.ArrayChannels;
+import jcompute.core.io.ArrayFile;
 import jcompute.core.shape.Shape;
-import jcompute.core.util.primitive.LongUtils.LongExternalizer;
+import jcompute.core.util.Parallelism;
+import jcompute.core.util.primitive.ValueExternalizer;
 
 public record LongArray(
         Shape shape,
@@ -41,11 +51,8 @@ public record LongArray(
     }
 
     public static LongArray wrap(final Arena arena, final long[] values) {
-        var array = LongArray.of(arena, Shape.of(values.length));
-        for (int i = 0; i < values.length; i++) {
-            array.memorySegment.setAtIndex(ValueLayout.JAVA_LONG, i, values[i]);
-        }
-        return array;
+        return LongArray.of(arena, Shape.of(values.length))
+                .copyFrom(values);
     }
 
     @Override
@@ -77,21 +84,228 @@ public record LongArray(
         return this;
     }
 
+    /**
+     * Sets each element of the underlying buffer to the {@code long} value the filler computes for its global index.
+     * For {@link Parallelism#PARALLEL} contiguous index ranges are filled concurrently,
+     * hence the filler must be thread-safe.
+     * @return this
+     */
+    public LongArray fill(final Parallelism parallelism, final LongUnaryOperator filler) {
+        shape().forEachRange(parallelism, (offset, length)->{
+            final long end = offset + length;
+            for(long gid = offset; gid<end; ++gid) {
+                memorySegment.setAtIndex(ValueLayout.JAVA_LONG, gid, filler.applyAsLong(gid));
+            }
+        });
+        return this;
+    }
+
+    // -- BULK
+
+    /**
+     * Sets all elements of the underlying buffer to given {@code long} value.
+     * @return this
+     */
+    public LongArray fill(final long value) {
+        return fill(Parallelism.SEQUENTIAL, 0L, shape.totalSize(), value);
+    }
+
+    /**
+     * Sets all elements of the underlying buffer to given {@code long} value.
+     * @return this
+     */
+    public LongArray fill(final Parallelism parallelism, final long value) {
+        return fill(parallelism, 0L, shape.totalSize(), value);
+    }
+
+    /**
+     * Sets {@code length} elements of the underlying buffer, starting at global index {@code gid},
+     * to given {@code long} value.
+     * @return this
+     */
+    public LongArray fill(final long gid, final long length, final long value) {
+        return fill(Parallelism.SEQUENTIAL, gid, length, value);
+    }
+
+    /**
+     * Sets {@code length} elements of the underlying buffer, starting at global index {@code gid},
+     * to given {@code long} value.
+     * @return this
+     */
+    public LongArray fill(final Parallelism parallelism, final long gid, final long length, final long value) {
+        _Util.fill(parallelism, memorySegment, gid<<3, length<<3, 8, value);
+        return this;
+    }
+
+    /**
+     * Copies all values from given {@code long[]} into the underlying buffer, starting at global index zero.
+     * @return this
+     */
+    public LongArray copyFrom(final long[] src) {
+        return copyFrom(src, 0, 0L, src.length);
+    }
+
+    /**
+     * Copies {@code length} values from given {@code long[]} starting at {@code srcIndex}
+     * into the underlying buffer, starting at global index {@code gid}.
+     * @return this
+     */
+    public LongArray copyFrom(final long[] src, final int srcIndex, final long gid, final int length) {
+        MemorySegment.copy(src, srcIndex, memorySegment, ValueLayout.JAVA_LONG, gid<<3, length);
+        return this;
+    }
+
+    /**
+     * Copies the underlying buffer, starting at global index zero, into given {@code long[]},
+     * as many values as it can hold.
+     * @return this
+     */
+    public LongArray copyTo(final long[] dst) {
+        return copyTo(0L, dst, 0, dst.length);
+    }
+
+    /**
+     * Copies {@code length} values of the underlying buffer, starting at global index {@code gid},
+     * into given {@code long[]} starting at {@code dstIndex}.
+     * @return this
+     */
+    public LongArray copyTo(final long gid, final long[] dst, final int dstIndex, final int length) {
+        MemorySegment.copy(memorySegment, ValueLayout.JAVA_LONG, gid<<3, dst, dstIndex, length);
+        return this;
+    }
+
+    /**
+     * Copies all values from given {@link LongArray} into the underlying buffer.
+     * Both must agree on {@link Shape#totalSize()}.
+     * @return this
+     */
+    public LongArray copyFrom(final LongArray src) {
+        return copyFrom(Parallelism.SEQUENTIAL, src);
+    }
+
+    /**
+     * Copies all values from given {@link LongArray} into the underlying buffer.
+     * Both must agree on {@link Shape#totalSize()}.
+     * @return this
+     */
+    public LongArray copyFrom(final Parallelism parallelism, final LongArray src) {
+        _Util.assertCompatible(this, src);
+        return copyFrom(parallelism, src, 0L, 0L, shape.totalSize());
+    }
+
+    /**
+     * Copies {@code length} values from given {@link LongArray} starting at {@code srcGid}
+     * into the underlying buffer, starting at global index {@code gid}.
+     * @return this
+     */
+    public LongArray copyFrom(final Parallelism parallelism, final LongArray src,
+            final long srcGid, final long gid, final long length) {
+        _Util.copy(parallelism, src.memorySegment(), srcGid<<3, memorySegment, gid<<3, length<<3);
+        return this;
+    }
+
     // -- IO
 
+    /**
+     * Reads an array, as written by {@link #write(OutputStream)}.
+     */
     public static LongArray read(final Arena arena, final InputStream in) {
         var shape = Shape.read(in);
         var array = of(arena, shape);
-        new LongExternalizer().readSegment(shape.totalSize(), in, array.memorySegment());
+        ValueExternalizer.nativeOrder(ValueLayout.JAVA_LONG).read(in, array.memorySegment());
         return array;
     }
 
+    /**
+     * Writes the shape followed by the payload in native byte order, then closes given stream.
+     * @return this
+     */
+    @SneakyThrows
     public LongArray write(final OutputStream out) {
-        shape.write(out);
-        new LongExternalizer().writeSegment(memorySegment, out);
+        try(out) {
+            shape.write(out);
+            ValueExternalizer.nativeOrder(ValueLayout.JAVA_LONG).write(memorySegment, out);
+        }
+        return this;
+    }
+
+    /**
+     * Reads an array in the jcompute array file format (see {@link ArrayChannels}),
+     * converting the payload to native byte order if required.
+     */
+    public static LongArray read(final Arena arena, final ReadableByteChannel in) {
+        var header = ArrayChannels.readHeader(in).assertElementType(ValueLayout.JAVA_LONG);
+        var array = of(arena, header.shape());
+        ArrayChannels.readPayload(header, in, array.memorySegment());
+        return array;
+    }
+
+    /**
+     * Writes this array in the jcompute array file format (see {@link ArrayChannels}),
+     * transferring the payload in native byte order without intermediate copies.
+     * @return this
+     */
+    public LongArray write(final WritableByteChannel out) {
+        ArrayChannels.write(this, out);
+        return this;
+    }
+
+    /**
+     * Writes this array in the jcompute array file format, with the payload in given byte order.
+     * @return this
+     */
+    public LongArray write(final WritableByteChannel out, final ByteOrder byteOrder) {
+        ArrayChannels.write(this, out, byteOrder);
         return this;
     }
 
+    // -- VIEWS
+
+    @Override
+    public LongArray slice(final long offset, final long length) {
+        var sliceShape = shape.slice(offset, length);
+        return new LongArray(sliceShape, memorySegment.asSlice(
+                offset * shape.strideX() * bytesPerElement(),
+                sliceShape.totalSize() * bytesPerElement()));
+    }
+
+    @Override
+    public LongArray reshape(final Shape shape) {
+        return new LongArray(this.shape.assertSameTotalSize(shape), memorySegment);
+    }
+
+    // -- MEMORY MAPPING
+
+    /**
+     * Maps an existing jcompute array file {@link MapMode#READ_WRITE},
+     * with the returned array's memory segment backed by the file.
+     * @see ArrayFile
+     */
+    public static LongArray map(final Arena arena, final Path file) {
+        return map(arena, file, MapMode.READ_WRITE);
+    }
+
+    /**
+     * Maps an existing jcompute array file using given {@link MapMode},
+     * with the returned array's memory segment backed by the file.
+     * @see ArrayFile
+     */
+    public static LongArray map(final Arena arena, final Path file, final MapMode mode) {
+        var arrayFile = ArrayFile.map(arena, file, mode)
+                .assertElementType(ValueLayout.JAVA_LONG);
+        return new LongArray(arrayFile.shape(), arrayFile.payload());
+    }
+
+    /**
+     * Creates (or overwrites) given file as jcompute array file of given shape (zero initialized),
+     * with the returned array's memory segment backed by the file.
+     * @see ArrayFile
+     */
+    public static LongArray mapNew(final Arena arena, final Path file, final Shape shape) {
+        var arrayFile = ArrayFile.create(arena, file, ValueLayout.JAVA_LONG, shape);
+        return new LongArray(arrayFile.shape(), arrayFile.payload());
+    }
+
     @Override
     public int bytesPerElement() {
         return 8;
@@ -102,7 +316,9 @@ public record LongArray(
     }
 
     public long[] toArray() {
-        return toBuffer().array();
+        var values = new long[Math.toIntExact(shape.totalSize())];
+        copyTo(values);
+        return values;
     }
 
     // -- CONTRACT
@@ -18,14 +18,27 @@
  */
 package jcompute.core.mem;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemoryLayout;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
 import java.lang.foreign.ValueLayout.OfShort;
+import java.nio.ByteOrder;
 import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 
+import lombok.SneakyThrows;
+
+import jcompute.core.io.ArrayChannels;
+import jcompute.core.io.ArrayFile;
 import jcompute.core.shape.Shape;
+import jcompute.core.util.Parallelism;
+import jcompute.core.util.primitive.ValueExternalizer;
 
 public record ShortArray(
         Shape shape,
@@ -40,11 +53,8 @@ public record ShortArray(
     }
 
     public static ShortArray wrap(final Arena arena, final short[] values) {
-        var array = ShortArray.of(arena, Shape.of(values.length));
-        for (int i = 0; i < values.length; i++) {
-            array.memorySegment.setAtIndex(VALUE_LAYOUT, i, values[i]);
-        }
-        return array;
+        return ShortArray.of(arena, Shape.of(values.length))
+                .copyFrom(values);
     }
 
     @Override
@@ -76,20 +86,211 @@ public record ShortArray(
 //        return this;
 //    }
 
+    // -- BULK
+
+    /**
+     * Sets all elements of the underlying buffer to given {@code short} value.
+     * @return this
+     */
+    public ShortArray fill(final short value) {
+        return fill(Parallelism.SEQUENTIAL, 0L, shape.totalSize(), value);
+    }
+
+    /**
+     * Sets all elements of the underlying buffer to given {@code short} value.
+     * @return this
+     */
+    public ShortArray fill(final Parallelism parallelism, final short value) {
+        return fill(parallelism, 0L, shape.totalSize(), value);
+    }
+
+    /**
+     * Sets {@code length} elements of the underlying buffer, starting at global index {@code gid},
+     * to given {@code short} value.
+     * @return this
+     */
+    public ShortArray fill(final long gid, final long length, final short value) {
+        return fill(Parallelism.SEQUENTIAL, gid, length, value);
+    }
+
+    /**
+     * Sets {@code length} elements of the underlying buffer, starting at global index {@code gid},
+     * to given {@code short} value.
+     * @return this
+     */
+    public ShortArray fill(final Parallelism parallelism, final long gid, final long length, final short value) {
+        _Util.fill(parallelism, memorySegment, gid<<1, length<<1, 2, value);
+        return this;
+    }
+
+    /**
+     * Copies all values from given {@code short[]} into the underlying buffer, starting at global index zero.
+     * @return this
+     */
+    public ShortArray copyFrom(final short[] src) {
+        return copyFrom(src, 0, 0L, src.length);
+    }
+
+    /**
+     * Copies {@code length} values from given {@code short[]} starting at {@code srcIndex}
+     * into the underlying buffer, starting at global index {@code gid}.
+     * @return this
+     */
+    public ShortArray copyFrom(final short[] src, final int srcIndex, final long gid, final int length) {
+        MemorySegment.copy(src, srcIndex, memorySegment, VALUE_LAYOUT, gid<<1, length);
+        return this;
+    }
+
+    /**
+     * Copies the underlying buffer, starting at global index zero, into given {@code short[]},
+     * as many values as it can hold.
+     * @return this
+     */
+    public ShortArray copyTo(final short[] dst) {
+        return copyTo(0L, dst, 0, dst.length);
+    }
+
+    /**
+     * Copies {@code length} values of the underlying buffer, starting at global index {@code gid},
+     * into given {@code short[]} starting at {@code dstIndex}.
+     * @return this
+     */
+    public ShortArray copyTo(final long gid, final short[] dst, final int dstIndex, final int length) {
+        MemorySegment.copy(memorySegment, VALUE_LAYOUT, gid<<1, dst, dstIndex, length);
+        return this;
+    }
+
+    /**
+     * Copies all values from given {@link ShortArray} into the underlying buffer.
+     * Both must agree on {@link Shape#totalSize()}.
+     * @return this
+     */
+    public ShortArray copyFrom(final ShortArray src) {
+        return copyFrom(Parallelism.SEQUENTIAL, src);
+    }
+
+    /**
+     * Copies all values from given {@link ShortArray} into the underlying buffer.
+     * Both must agree on {@link Shape#totalSize()}.
+     * @return this
+     */
+    public ShortArray copyFrom(final Parallelism parallelism, final ShortArray src) {
+        _Util.assertCompatible(this, src);
+        return copyFrom(parallelism, src, 0L, 0L, shape.totalSize());
+    }
+
+    /**
+     * Copies {@code length} values from given {@link ShortArray} starting at {@code srcGid}
+     * into the underlying buffer, starting at global index {@code gid}.
+     * @return this
+     */
+    public ShortArray copyFrom(final Parallelism parallelism, final ShortArray src,
+            final long srcGid, final long gid, final long length) {
+        _Util.copy(parallelism, src.memorySegment(), srcGid<<1, memorySegment, gid<<1, length<<1);
+        return this;
+    }
+
     // -- IO
 
-//    public static ShortArray read(final Arena arena, final InputStream in) {
-//        var shape = Shape.read(in);
-//        var array = of(arena, shape);
-//        new LongExternalizer().readSegment(shape.totalSize(), in, array.memorySegment());
-//        return array;
-//    }
-//
-//    public ShortArray write(final OutputStream out) {
-//        shape.write(out);
-//        new LongExternalizer().writeSegment(memorySegment, out);
-//        return this;
-//    }
+    /**
+     * Reads an array, as written by {@link #write(OutputStream)}.
+     */
+    public static ShortArray read(final Arena arena, final InputStream in) {
+        var shape = Shape.read(in);
+        var array = of(arena, shape);
+        ValueExternalizer.nativeOrder(VALUE_LAYOUT).read(in, array.memorySegment());
+        return array;
+    }
+
+    /**
+     * Writes the shape followed by the payload in native byte order, then closes given stream.
+     * @return this
+     */
+    @SneakyThrows
+    public ShortArray write(final OutputStream out) {
+        try(out) {
+            shape.write(out);
+            ValueExternalizer.nativeOrder(VALUE_LAYOUT).write(memorySegment, out);
+        }
+        return this;
+    }
+
+    /**
+     * Reads an array in the jcompute array file format (see {@link ArrayChannels}),
+     * converting the payload to native byte order if required.
+     */
+    public static ShortArray read(final Arena arena, final ReadableByteChannel in) {
+        var header = ArrayChannels.readHeader(in).assertElementType(ValueLayout.JAVA_SHORT);
+        var array = of(arena, header.shape());
+        ArrayChannels.readPayload(header, in, array.memorySegment());
+        return array;
+    }
+
+    /**
+     * Writes this array in the jcompute array file format (see {@link ArrayChannels}),
+     * transferring the payload in native byte order without intermediate copies.
+     * @return this
+     */
+    public ShortArray write(final WritableByteChannel out) {
+        ArrayChannels.write(this, out);
+        return this;
+    }
+
+    /**
+     * Writes this array in the jcompute array file format, with the payload in given byte order.
+     * @return this
+     */
+    public ShortArray write(final WritableByteChannel out, final ByteOrder byteOrder) {
+        ArrayChannels.write(this, out, byteOrder);
+        return this;
+    }
+
+    // -- VIEWS
+
+    @Override
+    public ShortArray slice(final long offset, final long length) {
+        var sliceShape = shape.slice(offset, length);
+        return new ShortArray(sliceShape, memorySegment.asSlice(
+                offset * shape.strideX() * bytesPerElement(),
+                sliceShape.totalSize() * bytesPerElement()));
+    }
+
+    @Override
+    public ShortArray reshape(final Shape shape) {
+        return new ShortArray(this.shape.assertSameTotalSize(shape), memorySegment);
+    }
+
+    // -- MEMORY MAPPING
+
+    /**
+     * Maps an existing jcompute array file {@link MapMode#READ_WRITE},
+     * with the returned array's memory segment backed by the file.
+     * @see ArrayFile
+     */
+    public static ShortArray map(final Arena arena, final Path file) {
+        return map(arena, file, MapMode.READ_WRITE);
+    }
+
+    /**
+     * Maps an existing jcompute array file using given {@link MapMode},
+     * with the returned array's memory segment backed by the file.
+     * @see ArrayFile
+     */
+    public static ShortArray map(final Arena arena, final Path file, final MapMode mode) {
+        var arrayFile = ArrayFile.map(arena, file, mode)
+                .assertElementType(VALUE_LAYOUT);
+        return new ShortArray(arrayFile.shape(), arrayFile.payload());
+    }
+
+    /**
+     * Creates (or overwrites) given file as jcompute array file of given shape (zero initialized),
+     * with the returned array's memory segment backed by the file.
+     * @see ArrayFile
+     */
+    public static ShortArray mapNew(final Arena arena, final Path file, final Shape shape) {
+        var arrayFile = ArrayFile.create(arena, file, VALUE_LAYOUT, shape);
+        return new ShortArray(arrayFile.shape(), arrayFile.payload());
+    }
 
     @Override
     public int bytesPerElement() {
@@ -100,9 +301,11 @@ public record ShortArray(
         return memorySegment.asByteBuffer().asShortBuffer();
     }
 
-//    public short[] toArray() {
-//        return memorySegment().toArray(ValueLayout.JAVA_SHORT);
-//    }
+    public short[] toArray() {
+        var values = new short[Math.toIntExact(shape.totalSize())];
+        copyTo(values);
+        return values;
+    }
 
     // -- CONTRACT
 
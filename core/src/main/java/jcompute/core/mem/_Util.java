@@ -0,0 +1,169 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.mem;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+import lombok.experimental.UtilityClass;
+
+import jcompute.core.util.Parallelism;
+import jcompute.core.util.function.BiLongConsumer;
+
+@UtilityClass
+class _Util {
+
+    /**
+     * Bulk operations are split into chunks of this size (in bytes), when run in parallel.
+     * (multiple of any supported element size)
+     */
+    final long CHUNK_BYTES = 1L << 22;
+
+    /**
+     * Size (in bytes) of the seed block, that repeated fills copy from.
+     * Small enough to stay in cache, large enough to amortize the copy call overhead.
+     */
+    final long SEED_BLOCK_BYTES = 1L << 16;
+
+    // -- FILL
+
+    /**
+     * Fills {@code byteSize} bytes of given segment starting at {@code byteOffset}
+     * with the repeated {@code elementBytes} least significant bytes of {@code bits}.
+     * @implNote uses {@link MemorySegment#fill(byte)}, if all bytes of the pattern are equal,
+     *      otherwise seeds a block and replicates it via {@link MemorySegment#copy(MemorySegment, long, MemorySegment, long, long)}
+     */
+    void fill(
+            final Parallelism parallelism,
+            final MemorySegment segment,
+            final long byteOffset,
+            final long byteSize,
+            final int elementBytes,
+            final long bits) {
+        if(byteSize==0L) return;
+        final MemorySegment target = segment.asSlice(byteOffset, byteSize);
+        if(isByteUniform(bits, elementBytes)) {
+            final byte value = (byte)bits;
+            forEachChunk(parallelism, byteSize, (offset, size)->
+                target.asSlice(offset, size).fill(value));
+            return;
+        }
+        forEachChunk(parallelism, byteSize, (offset, size)->
+            fillRepeating(target.asSlice(offset, size), elementBytes, bits));
+    }
+
+    // -- COPY
+
+    /**
+     * Copies {@code byteSize} bytes from source to destination segment.
+     */
+    void copy(
+            final Parallelism parallelism,
+            final MemorySegment src,
+            final long srcByteOffset,
+            final MemorySegment dst,
+            final long dstByteOffset,
+            final long byteSize) {
+        if(byteSize==0L) return;
+        if(!parallelism.isParallel()
+                || byteSize<=CHUNK_BYTES) {
+            MemorySegment.copy(src, srcByteOffset, dst, dstByteOffset, byteSize);
+            return;
+        }
+        // overlapping regions are not supported when run in parallel
+        final MemorySegment from = src.asSlice(srcByteOffset, byteSize);
+        final MemorySegment to = dst.asSlice(dstByteOffset, byteSize);
+        forEachChunk(parallelism, byteSize, (offset, size)->
+            MemorySegment.copy(from, offset, to, offset, size));
+    }
+
+    /**
+     * Throws if given arrays differ in value layout or total size.
+     */
+    void assertCompatible(final JComputeArray a, final JComputeArray b) {
+        if(!a.valueLayout().equals(b.valueLayout())) {
+            throw new IllegalArgumentException(String.format(
+                    "value layout mismatch %s != %s", a.valueLayout(), b.valueLayout()));
+        }
+        if(a.shape().totalSize()!=b.shape().totalSize()) {
+            throw new IllegalArgumentException(String.format(
+                    "shape total size mismatch %d != %d", a.shape().totalSize(), b.shape().totalSize()));
+        }
+    }
+
+    // -- HELPER
+
+    /**
+     * Splits {@code [0, byteSize)} into chunks of {@link #CHUNK_BYTES} when run in parallel,
+     * otherwise reports the entire range as a single chunk.
+     */
+    private void forEachChunk(
+            final Parallelism parallelism,
+            final long byteSize,
+            final BiLongConsumer onChunk) {
+        if(!parallelism.isParallel()
+                || byteSize<=CHUNK_BYTES) {
+            onChunk.accept(0L, byteSize);
+            return;
+        }
+        final long chunkCount = (byteSize + CHUNK_BYTES - 1) / CHUNK_BYTES;
+        parallelism.range(chunkCount).forEach(chunkIndex->{
+            final long offset = chunkIndex * CHUNK_BYTES;
+            onChunk.accept(offset, Math.min(CHUNK_BYTES, byteSize - offset));
+        });
+    }
+
+    private void fillRepeating(final MemorySegment target, final int elementBytes, final long bits) {
+        final long size = target.byteSize();
+        writeBits(target, elementBytes, bits);
+        long filled = elementBytes;
+        // grow the seed block by doubling
+        final long blockSize = Math.min(size, SEED_BLOCK_BYTES);
+        while(filled<blockSize) {
+            final long n = Math.min(filled, blockSize - filled);
+            MemorySegment.copy(target, 0L, target, filled, n);
+            filled+=n;
+        }
+        // replicate the seed block
+        while(filled<size) {
+            final long n = Math.min(blockSize, size - filled);
+            MemorySegment.copy(target, 0L, target, filled, n);
+            filled+=n;
+        }
+    }
+
+    private void writeBits(final MemorySegment target, final int elementBytes, final long bits) {
+        switch (elementBytes) {
+        case 1 -> target.set(ValueLayout.JAVA_BYTE, 0L, (byte)bits);
+        case 2 -> target.set(ValueLayout.JAVA_SHORT_UNALIGNED, 0L, (short)bits);
+        case 4 -> target.set(ValueLayout.JAVA_INT_UNALIGNED, 0L, (int)bits);
+        case 8 -> target.set(ValueLayout.JAVA_LONG_UNALIGNED, 0L, bits);
+        default -> throw new IllegalArgumentException("Unexpected value: " + elementBytes);
+        }
+    }
+
+    private boolean isByteUniform(final long bits, final int elementBytes) {
+        final byte first = (byte)bits;
+        for (int i = 1; i < elementBytes; i++) {
+            if((byte)(bits >>> (i<<3)) != first) return false;
+        }
+        return true;
+    }
+
+}
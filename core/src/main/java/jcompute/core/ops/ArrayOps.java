@@ -0,0 +1,470 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.ops;
+
+import lombok.SneakyThrows;
+import lombok.experimental.UtilityClass;
+
+import jcompute.core.mem.ByteArray;
+import jcompute.core.mem.DoubleArray;
+import jcompute.core.mem.JComputeArray;
+import jcompute.core.mem.LongArray;
+import jcompute.core.mem.ShortArray;
+import jcompute.core.shape.Shape;
+
+/**
+ * CPU reductions and element-wise operations over {@link JComputeArray}s.
+ * <p>
+ * Uses the Vector API ({@code jdk.incubator.vector}) on the arrays' memory segments,
+ * if that module is present (e.g. {@code --add-modules jdk.incubator.vector}),
+ * otherwise falls back to scalar implementations.
+ */
+@UtilityClass
+public class ArrayOps {
+
+    private final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && !Boolean.getBoolean("jcompute.ops.scalar");
+
+    /**
+     * The Vector API backend is loaded reflectively, as it is compiled separately against the incubating module.
+     */
+    private final _Ops OPS = VECTORIZED
+            ? vectorOps()
+            : new _ScalarOps();
+
+    /**
+     * Whether the Vector API backed implementations are in use.
+     * Can be disabled via system property {@code jcompute.ops.scalar=true}.
+     */
+    public boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    // -- LONG
+
+    /**
+     * Sum of all elements, overflowing silently.
+     */
+    public long sum(final LongArray array) {
+        return OPS.sum(array);
+    }
+
+    /**
+     * Minimum of all elements or {@code Long.MAX_VALUE} if empty.
+     */
+    public long min(final LongArray array) {
+        return OPS.min(array);
+    }
+
+    /**
+     * Maximum of all elements or {@code Long.MIN_VALUE} if empty.
+     */
+    public long max(final LongArray array) {
+        return OPS.max(array);
+    }
+
+    /**
+     * Number of elements not equal to zero.
+     */
+    public long countNonZero(final LongArray array) {
+        return OPS.countNonZero(array);
+    }
+
+    /**
+     * Number of elements {@code e}, for which {@code e <comparison> value} holds.
+     */
+    public long count(final LongArray array, final Comparison comparison, final long value) {
+        return OPS.count(array, comparison, value);
+    }
+
+    /**
+     * Total number of one-bits over all elements.
+     */
+    public long popCount(final LongArray array) {
+        return OPS.popCount(array);
+    }
+
+    /**
+     * Element-wise sum of {@code a} and {@code b}, written to {@code dst} (which may be one of the operands).
+     * All must agree on {@link Shape#totalSize()}.
+     * @return dst
+     */
+    public LongArray add(final LongArray a, final LongArray b, final LongArray dst) {
+        assertCompatible(a, b, dst);
+        OPS.add(a, b, dst);
+        return dst;
+    }
+
+    /**
+     * Element-wise bitwise AND of {@code a} and {@code b}, written to {@code dst} (which may be one of the operands).
+     * All must agree on {@link Shape#totalSize()}.
+     * @return dst
+     */
+    public LongArray and(final LongArray a, final LongArray b, final LongArray dst) {
+        assertCompatible(a, b, dst);
+        OPS.and(a, b, dst);
+        return dst;
+    }
+
+    /**
+     * Element-wise bitwise AND of {@code a} and the complement of {@code b}, that is {@code a & ~b}, written to {@code dst} (which may be one of the operands).
+     * All must agree on {@link Shape#totalSize()}.
+     * @return dst
+     */
+    public LongArray andNot(final LongArray a, final LongArray b, final LongArray dst) {
+        assertCompatible(a, b, dst);
+        OPS.andNot(a, b, dst);
+        return dst;
+    }
+
+    /**
+     * Element-wise bitwise OR of {@code a} and {@code b}, written to {@code dst} (which may be one of the operands).
+     * All must agree on {@link Shape#totalSize()}.
+     * @return dst
+     */
+    public LongArray or(final LongArray a, final LongArray b, final LongArray dst) {
+        assertCompatible(a, b, dst);
+        OPS.or(a, b, dst);
+        return dst;
+    }
+
+    /**
+     * Element-wise bitwise XOR of {@code a} and {@code b}, written to {@code dst} (which may be one of the operands).
+     * All must agree on {@link Shape#totalSize()}.
+     * @return dst
+     */
+    public LongArray xor(final LongArray a, final LongArray b, final LongArray dst) {
+        assertCompatible(a, b, dst);
+        OPS.xor(a, b, dst);
+        return dst;
+    }
+
+    /**
+     * Sets each element of {@code mask} to {@code 1}, if {@code e <comparison> value} holds
+     * for the corresponding element {@code e} of given array, otherwise to {@code 0}.
+     * Both must agree on {@link Shape#totalSize()}.
+     * @return mask
+     */
+    public ByteArray compare(final LongArray array, final Comparison comparison, final long value, final ByteArray mask) {
+        assertCompatible(array, mask);
+        OPS.compare(array, comparison, value, mask);
+        return mask;
+    }
+
+    // -- BYTE
+
+    /**
+     * Sum of all elements (widened to {@code long}).
+     */
+    public long sum(final ByteArray array) {
+        return OPS.sum(array);
+    }
+
+    /**
+     * Minimum of all elements or {@code Byte.MAX_VALUE} if empty.
+     */
+    public byte min(final ByteArray array) {
+        return OPS.min(array);
+    }
+
+    /**
+     * Maximum of all elements or {@code Byte.MIN_VALUE} if empty.
+     */
+    public byte max(final ByteArray array) {
+        return OPS.max(array);
+    }
+
+    /**
+     * Number of elements not equal to zero.
+     */
+    public long countNonZero(final ByteArray array) {
+        return OPS.countNonZero(array);
+    }
+
+    /**
+     * Number of elements {@code e}, for which {@code e <comparison> value} holds.
+     */
+    public long count(final ByteArray array, final Comparison comparison, final byte value) {
+        return OPS.count(array, comparison, value);
+    }
+
+    /**
+     * Total number of one-bits over all elements.
+     */
+    public long popCount(final ByteArray array) {
+        return OPS.popCount(array);
+    }
+
+    /**
+     * Element-wise sum of {@code a} and {@code b}, written to {@code dst} (which may be one of the operands).
+     * All must agree on {@link Shape#totalSize()}.
+     * @return dst
+     */
+    public ByteArray add(final ByteArray a, final ByteArray b, final ByteArray dst) {
+        assertCompatible(a, b, dst);
+        OPS.add(a, b, dst);
+        return dst;
+    }
+
+    /**
+     * Element-wise bitwise AND of {@code a} and {@code b}, written to {@code dst} (which may be one of the operands).
+     * All must agree on {@link Shape#totalSize()}.
+     * @return dst
+     */
+    public ByteArray and(final ByteArray a, final ByteArray b, final ByteArray dst) {
+        assertCompatible(a, b, dst);
+        OPS.and(a, b, dst);
+        return dst;
+    }
+
+    /**
+     * Element-wise bitwise AND of {@code a} and the complement of {@code b}, that is {@code a & ~b}, written to {@code dst} (which may be one of the operands).
+     * All must agree on {@link Shape#totalSize()}.
+     * @return dst
+     */
+    public ByteArray andNot(final ByteArray a, final ByteArray b, final ByteArray dst) {
+        assertCompatible(a, b, dst);
+        OPS.andNot(a, b, dst);
+        return dst;
+    }
+
+    /**
+     * Element-wise bitwise OR of {@code a} and {@code b}, written to {@code dst} (which may be one of the operands).
+     * All must agree on {@link Shape#totalSize()}.
+     * @return dst
+     */
+    public ByteArray or(final ByteArray a, final ByteArray b, final ByteArray dst) {
+        assertCompatible(a, b, dst);
+        OPS.or(a, b, dst);
+        return dst;
+    }
+
+    /**
+     * Element-wise bitwise XOR of {@code a} and {@code b}, written to {@code dst} (which may be one of the operands).
+     * All must agree on {@link Shape#totalSize()}.
+     * @return dst
+     */
+    public ByteArray xor(final ByteArray a, final ByteArray b, final ByteArray dst) {
+        assertCompatible(a, b, dst);
+        OPS.xor(a, b, dst);
+        return dst;
+    }
+
+    /**
+     * Sets each element of {@code mask} to {@code 1}, if {@code e <comparison> value} holds
+     * for the corresponding element {@code e} of given array, otherwise to {@code 0}.
+     * Both must agree on {@link Shape#totalSize()}.
+     * @return mask
+     */
+    public ByteArray compare(final ByteArray array, final Comparison comparison, final byte value, final ByteArray mask) {
+        assertCompatible(array, mask);
+        OPS.compare(array, comparison, value, mask);
+        return mask;
+    }
+
+    // -- SHORT
+
+    /**
+     * Sum of all elements (widened to {@code long}).
+     */
+    public long sum(final ShortArray array) {
+        return OPS.sum(array);
+    }
+
+    /**
+     * Minimum of all elements or {@code Short.MAX_VALUE} if empty.
+     */
+    public short min(final ShortArray array) {
+        return OPS.min(array);
+    }
+
+    /**
+     * Maximum of all elements or {@code Short.MIN_VALUE} if empty.
+     */
+    public short max(final ShortArray array) {
+        return OPS.max(array);
+    }
+
+    /**
+     * Number of elements not equal to zero.
+     */
+    public long countNonZero(final ShortArray array) {
+        return OPS.countNonZero(array);
+    }
+
+    /**
+     * Number of elements {@code e}, for which {@code e <comparison> value} holds.
+     */
+    public long count(final ShortArray array, final Comparison comparison, final short value) {
+        return OPS.count(array, comparison, value);
+    }
+
+    /**
+     * Total number of one-bits over all elements.
+     */
+    public long popCount(final ShortArray array) {
+        return OPS.popCount(array);
+    }
+
+    /**
+     * Element-wise sum of {@code a} and {@code b}, written to {@code dst} (which may be one of the operands).
+     * All must agree on {@link Shape#totalSize()}.
+     * @return dst
+     */
+    public ShortArray add(final ShortArray a, final ShortArray b, final ShortArray dst) {
+        assertCompatible(a, b, dst);
+        OPS.add(a, b, dst);
+        return dst;
+    }
+
+    /**
+     * Element-wise bitwise AND of {@code a} and {@code b}, written to {@code dst} (which may be one of the operands).
+     * All must agree on {@link Shape#totalSize()}.
+     * @return dst
+     */
+    public ShortArray and(final ShortArray a, final ShortArray b, final ShortArray dst) {
+        assertCompatible(a, b, dst);
+        OPS.and(a, b, dst);
+        return dst;
+    }
+
+    /**
+     * Element-wise bitwise AND of {@code a} and the complement of {@code b}, that is {@code a & ~b}, written to {@code dst} (which may be one of the operands).
+     * All must agree on {@link Shape#totalSize()}.
+     * @return dst
+     */
+    public ShortArray andNot(final ShortArray a, final ShortArray b, final ShortArray dst) {
+        assertCompatible(a, b, dst);
+        OPS.andNot(a, b, dst);
+        return dst;
+    }
+
+    /**
+     * Element-wise bitwise OR of {@code a} and {@code b}, written to {@code dst} (which may be one of the operands).
+     * All must agree on {@link Shape#totalSize()}.
+     * @return dst
+     */
+    public ShortArray or(final ShortArray a, final ShortArray b, final ShortArray dst) {
+        assertCompatible(a, b, dst);
+        OPS.or(a, b, dst);
+        return dst;
+    }
+
+    /**
+     * Element-wise bitwise XOR of {@code a} and {@code b}, written to {@code dst} (which may be one of the operands).
+     * All must agree on {@link Shape#totalSize()}.
+     * @return dst
+     */
+    public ShortArray xor(final ShortArray a, final ShortArray b, final ShortArray dst) {
+        assertCompatible(a, b, dst);
+        OPS.xor(a, b, dst);
+        return dst;
+    }
+
+    /**
+     * Sets each element of {@code mask} to {@code 1}, if {@code e <comparison> value} holds
+     * for the corresponding element {@code e} of given array, otherwise to {@code 0}.
+     * Both must agree on {@link Shape#totalSize()}.
+     * @return mask
+     */
+    public ByteArray compare(final ShortArray array, final Comparison comparison, final short value, final ByteArray mask) {
+        assertCompatible(array, mask);
+        OPS.compare(array, comparison, value, mask);
+        return mask;
+    }
+
+    // -- DOUBLE
+
+    /**
+     * Sum of all elements. Summation order is unspecified, hence rounding may vary.
+     */
+    public double sum(final DoubleArray array) {
+        return OPS.sum(array);
+    }
+
+    /**
+     * Minimum of all elements or {@code Double.POSITIVE_INFINITY} if empty.
+     */
+    public double min(final DoubleArray array) {
+        return OPS.min(array);
+    }
+
+    /**
+     * Maximum of all elements or {@code Double.NEGATIVE_INFINITY} if empty.
+     */
+    public double max(final DoubleArray array) {
+        return OPS.max(array);
+    }
+
+    /**
+     * Number of elements not equal to zero.
+     */
+    public long countNonZero(final DoubleArray array) {
+        return OPS.countNonZero(array);
+    }
+
+    /**
+     * Number of elements {@code e}, for which {@code e <comparison> value} holds.
+     */
+    public long count(final DoubleArray array, final Comparison comparison, final double value) {
+        return OPS.count(array, comparison, value);
+    }
+
+    /**
+     * Element-wise sum of {@code a} and {@code b}, written to {@code dst} (which may be one of the operands).
+     * All must agree on {@link Shape#totalSize()}.
+     * @return dst
+     */
+    public DoubleArray add(final DoubleArray a, final DoubleArray b, final DoubleArray dst) {
+        assertCompatible(a, b, dst);
+        OPS.add(a, b, dst);
+        return dst;
+    }
+
+    /**
+     * Sets each element of {@code mask} to {@code 1}, if {@code e <comparison> value} holds
+     * for the corresponding element {@code e} of given array, otherwise to {@code 0}.
+     * Both must agree on {@link Shape#totalSize()}.
+     * @return mask
+     */
+    public ByteArray compare(final DoubleArray array, final Comparison comparison, final double value, final ByteArray mask) {
+        assertCompatible(array, mask);
+        OPS.compare(array, comparison, value, mask);
+        return mask;
+    }
+
+    // -- HELPER
+
+    private void assertCompatible(final JComputeArray a, final JComputeArray... others) {
+        for(var other : others) {
+            if(a.shape().totalSize()!=other.shape().totalSize()) {
+                throw new IllegalArgumentException(String.format(
+                        "size mismatch: %d != %d", a.shape().totalSize(), other.shape().totalSize()));
+            }
+        }
+    }
+
+    @SneakyThrows
+    private _Ops vectorOps() {
+        return (_Ops)Class.forName("jcompute.core.ops._VectorOps")
+                .getDeclaredConstructor()
+                .newInstance();
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.ops;
+
+import jcompute.core.mem.ByteArray;
+import jcompute.core.mem.DoubleArray;
+import jcompute.core.mem.LongArray;
+import jcompute.core.mem.ShortArray;
+
+/**
+ * Backend of {@link ArrayOps}, such that the Vector API backed implementation can be loaded reflectively,
+ * hence {@code _VectorOps} is the only class compiled against the incubating {@code jdk.incubator.vector} module.
+ */
+interface _Ops {
+
+    // -- LONG
+
+    long sum(LongArray array);
+    long min(LongArray array);
+    long max(LongArray array);
+    long countNonZero(LongArray array);
+    long count(LongArray array, Comparison comparison, long value);
+    long popCount(LongArray array);
+    void add(LongArray a, LongArray b, LongArray dst);
+    void and(LongArray a, LongArray b, LongArray dst);
+    void andNot(LongArray a, LongArray b, LongArray dst);
+    void or(LongArray a, LongArray b, LongArray dst);
+    void xor(LongArray a, LongArray b, LongArray dst);
+    void compare(LongArray array, Comparison comparison, long value, ByteArray mask);
+
+    // -- BYTE
+
+    long sum(ByteArray array);
+    byte min(ByteArray array);
+    byte max(ByteArray array);
+    long countNonZero(ByteArray array);
+    long count(ByteArray array, Comparison comparison, byte value);
+    long popCount(ByteArray array);
+    void add(ByteArray a, ByteArray b, ByteArray dst);
+    void and(ByteArray a, ByteArray b, ByteArray dst);
+    void andNot(ByteArray a, ByteArray b, ByteArray dst);
+    void or(ByteArray a, ByteArray b, ByteArray dst);
+    void xor(ByteArray a, ByteArray b, ByteArray dst);
+    void compare(ByteArray array, Comparison comparison, byte value, ByteArray mask);
+
+    // -- SHORT
+
+    long sum(ShortArray array);
+    short min(ShortArray array);
+    short max(ShortArray array);
+    long countNonZero(ShortArray array);
+    long count(ShortArray array, Comparison comparison, short value);
+    long popCount(ShortArray array);
+    void add(ShortArray a, ShortArray b, ShortArray dst);
+    void and(ShortArray a, ShortArray b, ShortArray dst);
+    void andNot(ShortArray a, ShortArray b, ShortArray dst);
+    void or(ShortArray a, ShortArray b, ShortArray dst);
+    void xor(ShortArray a, ShortArray b, ShortArray dst);
+    void compare(ShortArray array, Comparison comparison, short value, ByteArray mask);
+
+    // -- DOUBLE
+
+    double sum(DoubleArray array);
+    double min(DoubleArray array);
+    double max(DoubleArray array);
+    long countNonZero(DoubleArray array);
+    long count(DoubleArray array, Comparison comparison, double value);
+    void add(DoubleArray a, DoubleArray b, DoubleArray dst);
+    void compare(DoubleArray array, Comparison comparison, double value, ByteArray mask);
+
+}
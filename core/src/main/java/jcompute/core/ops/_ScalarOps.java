@@ -0,0 +1,532 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.ops;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+import jcompute.core.mem.ByteArray;
+import jcompute.core.mem.DoubleArray;
+import jcompute.core.mem.LongArray;
+import jcompute.core.mem.ShortArray;
+
+/**
+ * Scalar (one element at a time) implementations of {@link ArrayOps},
+ * used when the Vector API is not available.
+ */
+final class _ScalarOps implements _Ops {
+
+    // -- LONG
+
+    @Override
+    public long sum(final LongArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        long sum = 0;
+        for (long gid = 0; gid < n; gid++) {
+            sum+=seg.getAtIndex(ValueLayout.JAVA_LONG, gid);
+        }
+        return sum;
+    }
+
+    @Override
+    public long min(final LongArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        long min = Long.MAX_VALUE;
+        for (long gid = 0; gid < n; gid++) {
+            min = Math.min(min, seg.getAtIndex(ValueLayout.JAVA_LONG, gid));
+        }
+        return min;
+    }
+
+    @Override
+    public long max(final LongArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        long max = Long.MIN_VALUE;
+        for (long gid = 0; gid < n; gid++) {
+            max = Math.max(max, seg.getAtIndex(ValueLayout.JAVA_LONG, gid));
+        }
+        return max;
+    }
+
+    @Override
+    public long countNonZero(final LongArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        long count = 0L;
+        for (long gid = 0; gid < n; gid++) {
+            if(seg.getAtIndex(ValueLayout.JAVA_LONG, gid)!=0) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public long count(final LongArray array, final Comparison comparison, final long value) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        long count = 0L;
+        for (long gid = 0; gid < n; gid++) {
+            if(comparison.test(seg.getAtIndex(ValueLayout.JAVA_LONG, gid), value)) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public long popCount(final LongArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        long count = 0L;
+        for (long gid = 0; gid < n; gid++) {
+            count+=Long.bitCount(seg.getAtIndex(ValueLayout.JAVA_LONG, gid));
+        }
+        return count;
+    }
+
+    @Override
+    public void add(final LongArray a, final LongArray b, final LongArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        for (long gid = 0; gid < n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_LONG, gid,
+                    segA.getAtIndex(ValueLayout.JAVA_LONG, gid) + segB.getAtIndex(ValueLayout.JAVA_LONG, gid));
+        }
+    }
+
+    @Override
+    public void and(final LongArray a, final LongArray b, final LongArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        for (long gid = 0; gid < n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_LONG, gid,
+                    segA.getAtIndex(ValueLayout.JAVA_LONG, gid) & segB.getAtIndex(ValueLayout.JAVA_LONG, gid));
+        }
+    }
+
+    @Override
+    public void andNot(final LongArray a, final LongArray b, final LongArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        for (long gid = 0; gid < n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_LONG, gid,
+                    segA.getAtIndex(ValueLayout.JAVA_LONG, gid) & ~segB.getAtIndex(ValueLayout.JAVA_LONG, gid));
+        }
+    }
+
+    @Override
+    public void or(final LongArray a, final LongArray b, final LongArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        for (long gid = 0; gid < n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_LONG, gid,
+                    segA.getAtIndex(ValueLayout.JAVA_LONG, gid) | segB.getAtIndex(ValueLayout.JAVA_LONG, gid));
+        }
+    }
+
+    @Override
+    public void xor(final LongArray a, final LongArray b, final LongArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        for (long gid = 0; gid < n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_LONG, gid,
+                    segA.getAtIndex(ValueLayout.JAVA_LONG, gid) ^ segB.getAtIndex(ValueLayout.JAVA_LONG, gid));
+        }
+    }
+
+    @Override
+    public void compare(final LongArray array, final Comparison comparison, final long value, final ByteArray mask) {
+        final MemorySegment seg = array.memorySegment();
+        final MemorySegment segMask = mask.memorySegment();
+        final long n = array.shape().totalSize();
+        for (long gid = 0; gid < n; gid++) {
+            segMask.set(ValueLayout.JAVA_BYTE, gid,
+                    comparison.test(seg.getAtIndex(ValueLayout.JAVA_LONG, gid), value) ? (byte)1 : (byte)0);
+        }
+    }
+
+    // -- BYTE
+
+    @Override
+    public long sum(final ByteArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        long sum = 0;
+        for (long gid = 0; gid < n; gid++) {
+            sum+=seg.getAtIndex(ValueLayout.JAVA_BYTE, gid);
+        }
+        return sum;
+    }
+
+    @Override
+    public byte min(final ByteArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        byte min = Byte.MAX_VALUE;
+        for (long gid = 0; gid < n; gid++) {
+            min = (byte)(Math.min(min, seg.getAtIndex(ValueLayout.JAVA_BYTE, gid)));
+        }
+        return min;
+    }
+
+    @Override
+    public byte max(final ByteArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        byte max = Byte.MIN_VALUE;
+        for (long gid = 0; gid < n; gid++) {
+            max = (byte)(Math.max(max, seg.getAtIndex(ValueLayout.JAVA_BYTE, gid)));
+        }
+        return max;
+    }
+
+    @Override
+    public long countNonZero(final ByteArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        long count = 0L;
+        for (long gid = 0; gid < n; gid++) {
+            if(seg.getAtIndex(ValueLayout.JAVA_BYTE, gid)!=0) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public long count(final ByteArray array, final Comparison comparison, final byte value) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        long count = 0L;
+        for (long gid = 0; gid < n; gid++) {
+            if(comparison.test(seg.getAtIndex(ValueLayout.JAVA_BYTE, gid), value)) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public long popCount(final ByteArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        long count = 0L;
+        for (long gid = 0; gid < n; gid++) {
+            count+=Integer.bitCount(seg.getAtIndex(ValueLayout.JAVA_BYTE, gid) & 0xFF);
+        }
+        return count;
+    }
+
+    @Override
+    public void add(final ByteArray a, final ByteArray b, final ByteArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        for (long gid = 0; gid < n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_BYTE, gid,
+                    (byte)(segA.getAtIndex(ValueLayout.JAVA_BYTE, gid) + segB.getAtIndex(ValueLayout.JAVA_BYTE, gid)));
+        }
+    }
+
+    @Override
+    public void and(final ByteArray a, final ByteArray b, final ByteArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        for (long gid = 0; gid < n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_BYTE, gid,
+                    (byte)(segA.getAtIndex(ValueLayout.JAVA_BYTE, gid) & segB.getAtIndex(ValueLayout.JAVA_BYTE, gid)));
+        }
+    }
+
+    @Override
+    public void andNot(final ByteArray a, final ByteArray b, final ByteArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        for (long gid = 0; gid < n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_BYTE, gid,
+                    (byte)(segA.getAtIndex(ValueLayout.JAVA_BYTE, gid) & ~segB.getAtIndex(ValueLayout.JAVA_BYTE, gid)));
+        }
+    }
+
+    @Override
+    public void or(final ByteArray a, final ByteArray b, final ByteArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        for (long gid = 0; gid < n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_BYTE, gid,
+                    (byte)(segA.getAtIndex(ValueLayout.JAVA_BYTE, gid) | segB.getAtIndex(ValueLayout.JAVA_BYTE, gid)));
+        }
+    }
+
+    @Override
+    public void xor(final ByteArray a, final ByteArray b, final ByteArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        for (long gid = 0; gid < n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_BYTE, gid,
+                    (byte)(segA.getAtIndex(ValueLayout.JAVA_BYTE, gid) ^ segB.getAtIndex(ValueLayout.JAVA_BYTE, gid)));
+        }
+    }
+
+    @Override
+    public void compare(final ByteArray array, final Comparison comparison, final byte value, final ByteArray mask) {
+        final MemorySegment seg = array.memorySegment();
+        final MemorySegment segMask = mask.memorySegment();
+        final long n = array.shape().totalSize();
+        for (long gid = 0; gid < n; gid++) {
+            segMask.set(ValueLayout.JAVA_BYTE, gid,
+                    comparison.test(seg.getAtIndex(ValueLayout.JAVA_BYTE, gid), value) ? (byte)1 : (byte)0);
+        }
+    }
+
+    // -- SHORT
+
+    @Override
+    public long sum(final ShortArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        long sum = 0;
+        for (long gid = 0; gid < n; gid++) {
+            sum+=seg.getAtIndex(ValueLayout.JAVA_SHORT, gid);
+        }
+        return sum;
+    }
+
+    @Override
+    public short min(final ShortArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        short min = Short.MAX_VALUE;
+        for (long gid = 0; gid < n; gid++) {
+            min = (short)(Math.min(min, seg.getAtIndex(ValueLayout.JAVA_SHORT, gid)));
+        }
+        return min;
+    }
+
+    @Override
+    public short max(final ShortArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        short max = Short.MIN_VALUE;
+        for (long gid = 0; gid < n; gid++) {
+            max = (short)(Math.max(max, seg.getAtIndex(ValueLayout.JAVA_SHORT, gid)));
+        }
+        return max;
+    }
+
+    @Override
+    public long countNonZero(final ShortArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        long count = 0L;
+        for (long gid = 0; gid < n; gid++) {
+            if(seg.getAtIndex(ValueLayout.JAVA_SHORT, gid)!=0) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public long count(final ShortArray array, final Comparison comparison, final short value) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        long count = 0L;
+        for (long gid = 0; gid < n; gid++) {
+            if(comparison.test(seg.getAtIndex(ValueLayout.JAVA_SHORT, gid), value)) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public long popCount(final ShortArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        long count = 0L;
+        for (long gid = 0; gid < n; gid++) {
+            count+=Integer.bitCount(seg.getAtIndex(ValueLayout.JAVA_SHORT, gid) & 0xFFFF);
+        }
+        return count;
+    }
+
+    @Override
+    public void add(final ShortArray a, final ShortArray b, final ShortArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        for (long gid = 0; gid < n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_SHORT, gid,
+                    (short)(segA.getAtIndex(ValueLayout.JAVA_SHORT, gid) + segB.getAtIndex(ValueLayout.JAVA_SHORT, gid)));
+        }
+    }
+
+    @Override
+    public void and(final ShortArray a, final ShortArray b, final ShortArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        for (long gid = 0; gid < n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_SHORT, gid,
+                    (short)(segA.getAtIndex(ValueLayout.JAVA_SHORT, gid) & segB.getAtIndex(ValueLayout.JAVA_SHORT, gid)));
+        }
+    }
+
+    @Override
+    public void andNot(final ShortArray a, final ShortArray b, final ShortArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        for (long gid = 0; gid < n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_SHORT, gid,
+                    (short)(segA.getAtIndex(ValueLayout.JAVA_SHORT, gid) & ~segB.getAtIndex(ValueLayout.JAVA_SHORT, gid)));
+        }
+    }
+
+    @Override
+    public void or(final ShortArray a, final ShortArray b, final ShortArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        for (long gid = 0; gid < n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_SHORT, gid,
+                    (short)(segA.getAtIndex(ValueLayout.JAVA_SHORT, gid) | segB.getAtIndex(ValueLayout.JAVA_SHORT, gid)));
+        }
+    }
+
+    @Override
+    public void xor(final ShortArray a, final ShortArray b, final ShortArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        for (long gid = 0; gid < n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_SHORT, gid,
+                    (short)(segA.getAtIndex(ValueLayout.JAVA_SHORT, gid) ^ segB.getAtIndex(ValueLayout.JAVA_SHORT, gid)));
+        }
+    }
+
+    @Override
+    public void compare(final ShortArray array, final Comparison comparison, final short value, final ByteArray mask) {
+        final MemorySegment seg = array.memorySegment();
+        final MemorySegment segMask = mask.memorySegment();
+        final long n = array.shape().totalSize();
+        for (long gid = 0; gid < n; gid++) {
+            segMask.set(ValueLayout.JAVA_BYTE, gid,
+                    comparison.test(seg.getAtIndex(ValueLayout.JAVA_SHORT, gid), value) ? (byte)1 : (byte)0);
+        }
+    }
+
+    // -- DOUBLE
+
+    @Override
+    public double sum(final DoubleArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        double sum = 0.0;
+        for (long gid = 0; gid < n; gid++) {
+            sum+=seg.getAtIndex(ValueLayout.JAVA_DOUBLE, gid);
+        }
+        return sum;
+    }
+
+    @Override
+    public double min(final DoubleArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        double min = Double.POSITIVE_INFINITY;
+        for (long gid = 0; gid < n; gid++) {
+            min = Math.min(min, seg.getAtIndex(ValueLayout.JAVA_DOUBLE, gid));
+        }
+        return min;
+    }
+
+    @Override
+    public double max(final DoubleArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        double max = Double.NEGATIVE_INFINITY;
+        for (long gid = 0; gid < n; gid++) {
+            max = Math.max(max, seg.getAtIndex(ValueLayout.JAVA_DOUBLE, gid));
+        }
+        return max;
+    }
+
+    @Override
+    public long countNonZero(final DoubleArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        long count = 0L;
+        for (long gid = 0; gid < n; gid++) {
+            if(seg.getAtIndex(ValueLayout.JAVA_DOUBLE, gid)!=0) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public long count(final DoubleArray array, final Comparison comparison, final double value) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        long count = 0L;
+        for (long gid = 0; gid < n; gid++) {
+            if(comparison.test(seg.getAtIndex(ValueLayout.JAVA_DOUBLE, gid), value)) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public void add(final DoubleArray a, final DoubleArray b, final DoubleArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        for (long gid = 0; gid < n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_DOUBLE, gid,
+                    segA.getAtIndex(ValueLayout.JAVA_DOUBLE, gid) + segB.getAtIndex(ValueLayout.JAVA_DOUBLE, gid));
+        }
+    }
+
+    @Override
+    public void compare(final DoubleArray array, final Comparison comparison, final double value, final ByteArray mask) {
+        final MemorySegment seg = array.memorySegment();
+        final MemorySegment segMask = mask.memorySegment();
+        final long n = array.shape().totalSize();
+        for (long gid = 0; gid < n; gid++) {
+            segMask.set(ValueLayout.JAVA_BYTE, gid,
+                    comparison.test(seg.getAtIndex(ValueLayout.JAVA_DOUBLE, gid), value) ? (byte)1 : (byte)0);
+        }
+    }
+
+}
@@ -0,0 +1,875 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.ops;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import jcompute.core.mem.ByteArray;
+import jcompute.core.mem.DoubleArray;
+import jcompute.core.mem.LongArray;
+import jcompute.core.mem.ShortArray;
+
+/**
+ * Vector API implementations of {@link ArrayOps}, operating directly on the arrays' memory segments.
+ * Tails not filling a whole vector are processed one element at a time.
+ * <p>
+ * Must only be loaded, when module {@code jdk.incubator.vector} is present, hence is instantiated reflectively by {@link ArrayOps}.
+ */
+final class _VectorOps implements _Ops {
+
+    private static final ByteOrder NATIVE = ByteOrder.nativeOrder();
+
+    private static final VectorSpecies<Long> LONG_SPECIES = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Short> SHORT_SPECIES = ShortVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTE_SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLE_SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /**
+     * Max vector iterations, before the int lane accumulator of byte sums must be flushed,
+     * such that even the sum over all its lanes cannot overflow (each iteration adds at most 4 x 128 per lane).
+     */
+    private static final long BYTE_SUM_FLUSH = Integer.MAX_VALUE / INT_SPECIES.length() / (4 * 128);
+    /**
+     * Max vector iterations, before the int lane accumulator of short sums must be flushed,
+     * such that even the sum over all its lanes cannot overflow (each iteration adds at most 2 x 32768 per lane).
+     */
+    private static final long SHORT_SUM_FLUSH = Integer.MAX_VALUE / INT_SPECIES.length() / (2 * 32768);
+
+    // -- LONG
+
+    @Override
+    public long sum(final LongArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, LONG_SPECIES);
+        long gid = 0L;
+        var acc = LongVector.zero(LONG_SPECIES);
+        for(; gid<bound; gid+=LONG_SPECIES.length()) {
+            acc = acc.add(LongVector.fromMemorySegment(LONG_SPECIES, seg, gid<<3, NATIVE));
+        }
+        long sum = acc.reduceLanes(VectorOperators.ADD);
+        for(; gid<n; gid++) {
+            sum+=seg.getAtIndex(ValueLayout.JAVA_LONG, gid);
+        }
+        return sum;
+    }
+
+    @Override
+    public long min(final LongArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, LONG_SPECIES);
+        long gid = 0L;
+        var acc = LongVector.broadcast(LONG_SPECIES, Long.MAX_VALUE);
+        for(; gid<bound; gid+=LONG_SPECIES.length()) {
+            acc = acc.min(LongVector.fromMemorySegment(LONG_SPECIES, seg, gid<<3, NATIVE));
+        }
+        long min = acc.reduceLanes(VectorOperators.MIN);
+        for(; gid<n; gid++) {
+            min = Math.min(min, seg.getAtIndex(ValueLayout.JAVA_LONG, gid));
+        }
+        return min;
+    }
+
+    @Override
+    public long max(final LongArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, LONG_SPECIES);
+        long gid = 0L;
+        var acc = LongVector.broadcast(LONG_SPECIES, Long.MIN_VALUE);
+        for(; gid<bound; gid+=LONG_SPECIES.length()) {
+            acc = acc.max(LongVector.fromMemorySegment(LONG_SPECIES, seg, gid<<3, NATIVE));
+        }
+        long max = acc.reduceLanes(VectorOperators.MAX);
+        for(; gid<n; gid++) {
+            max = Math.max(max, seg.getAtIndex(ValueLayout.JAVA_LONG, gid));
+        }
+        return max;
+    }
+
+    @Override
+    public long countNonZero(final LongArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, LONG_SPECIES);
+        long gid = 0L;
+        long count = 0L;
+        for(; gid<bound; gid+=LONG_SPECIES.length()) {
+            count+=LongVector.fromMemorySegment(LONG_SPECIES, seg, gid<<3, NATIVE).compare(VectorOperators.NE, 0).trueCount();
+        }
+        for(; gid<n; gid++) {
+            if(seg.getAtIndex(ValueLayout.JAVA_LONG, gid)!=0) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public long count(final LongArray array, final Comparison comparison, final long value) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, LONG_SPECIES);
+        long gid = 0L;
+        final VectorOperators.Comparison op = operator(comparison);
+        long count = 0L;
+        for(; gid<bound; gid+=LONG_SPECIES.length()) {
+            count+=LongVector.fromMemorySegment(LONG_SPECIES, seg, gid<<3, NATIVE).compare(op, value).trueCount();
+        }
+        for(; gid<n; gid++) {
+            if(comparison.test(seg.getAtIndex(ValueLayout.JAVA_LONG, gid), value)) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public long popCount(final LongArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, LONG_SPECIES);
+        long gid = 0L;
+        var acc = LongVector.zero(LONG_SPECIES);
+        for(; gid<bound; gid+=LONG_SPECIES.length()) {
+            acc = acc.add(LongVector.fromMemorySegment(LONG_SPECIES, seg, gid<<3, NATIVE).lanewise(VectorOperators.BIT_COUNT));
+        }
+        long count = acc.reduceLanes(VectorOperators.ADD);
+        for(; gid<n; gid++) {
+            count+=Long.bitCount(seg.getAtIndex(ValueLayout.JAVA_LONG, gid));
+        }
+        return count;
+    }
+
+    @Override
+    public void add(final LongArray a, final LongArray b, final LongArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        final long bound = loopBound(n, LONG_SPECIES);
+        long gid = 0L;
+        for(; gid<bound; gid+=LONG_SPECIES.length()) {
+            LongVector.fromMemorySegment(LONG_SPECIES, segA, gid<<3, NATIVE)
+                .lanewise(VectorOperators.ADD, LongVector.fromMemorySegment(LONG_SPECIES, segB, gid<<3, NATIVE))
+                .intoMemorySegment(segDst, gid<<3, NATIVE);
+        }
+        for(; gid<n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_LONG, gid,
+                    segA.getAtIndex(ValueLayout.JAVA_LONG, gid) + segB.getAtIndex(ValueLayout.JAVA_LONG, gid));
+        }
+    }
+
+    @Override
+    public void and(final LongArray a, final LongArray b, final LongArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        final long bound = loopBound(n, LONG_SPECIES);
+        long gid = 0L;
+        for(; gid<bound; gid+=LONG_SPECIES.length()) {
+            LongVector.fromMemorySegment(LONG_SPECIES, segA, gid<<3, NATIVE)
+                .lanewise(VectorOperators.AND, LongVector.fromMemorySegment(LONG_SPECIES, segB, gid<<3, NATIVE))
+                .intoMemorySegment(segDst, gid<<3, NATIVE);
+        }
+        for(; gid<n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_LONG, gid,
+                    segA.getAtIndex(ValueLayout.JAVA_LONG, gid) & segB.getAtIndex(ValueLayout.JAVA_LONG, gid));
+        }
+    }
+
+    @Override
+    public void andNot(final LongArray a, final LongArray b, final LongArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        final long bound = loopBound(n, LONG_SPECIES);
+        long gid = 0L;
+        for(; gid<bound; gid+=LONG_SPECIES.length()) {
+            LongVector.fromMemorySegment(LONG_SPECIES, segA, gid<<3, NATIVE)
+                .lanewise(VectorOperators.AND_NOT, LongVector.fromMemorySegment(LONG_SPECIES, segB, gid<<3, NATIVE))
+                .intoMemorySegment(segDst, gid<<3, NATIVE);
+        }
+        for(; gid<n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_LONG, gid,
+                    segA.getAtIndex(ValueLayout.JAVA_LONG, gid) & ~segB.getAtIndex(ValueLayout.JAVA_LONG, gid));
+        }
+    }
+
+    @Override
+    public void or(final LongArray a, final LongArray b, final LongArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        final long bound = loopBound(n, LONG_SPECIES);
+        long gid = 0L;
+        for(; gid<bound; gid+=LONG_SPECIES.length()) {
+            LongVector.fromMemorySegment(LONG_SPECIES, segA, gid<<3, NATIVE)
+                .lanewise(VectorOperators.OR, LongVector.fromMemorySegment(LONG_SPECIES, segB, gid<<3, NATIVE))
+                .intoMemorySegment(segDst, gid<<3, NATIVE);
+        }
+        for(; gid<n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_LONG, gid,
+                    segA.getAtIndex(ValueLayout.JAVA_LONG, gid) | segB.getAtIndex(ValueLayout.JAVA_LONG, gid));
+        }
+    }
+
+    @Override
+    public void xor(final LongArray a, final LongArray b, final LongArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        final long bound = loopBound(n, LONG_SPECIES);
+        long gid = 0L;
+        for(; gid<bound; gid+=LONG_SPECIES.length()) {
+            LongVector.fromMemorySegment(LONG_SPECIES, segA, gid<<3, NATIVE)
+                .lanewise(VectorOperators.XOR, LongVector.fromMemorySegment(LONG_SPECIES, segB, gid<<3, NATIVE))
+                .intoMemorySegment(segDst, gid<<3, NATIVE);
+        }
+        for(; gid<n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_LONG, gid,
+                    segA.getAtIndex(ValueLayout.JAVA_LONG, gid) ^ segB.getAtIndex(ValueLayout.JAVA_LONG, gid));
+        }
+    }
+
+    @Override
+    public void compare(final LongArray array, final Comparison comparison, final long value, final ByteArray mask) {
+        final MemorySegment segMask = mask.memorySegment();
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, LONG_SPECIES);
+        long gid = 0L;
+        final VectorOperators.Comparison op = operator(comparison);
+        for(; gid<bound; gid+=LONG_SPECIES.length()) {
+            final long bits = LongVector.fromMemorySegment(LONG_SPECIES, seg, gid<<3, NATIVE).compare(op, value).toLong();
+            for (int lane = 0; lane < LONG_SPECIES.length(); lane++) {
+                segMask.set(ValueLayout.JAVA_BYTE, gid + lane, (byte)((bits>>>lane) & 1L));
+            }
+        }
+        for(; gid<n; gid++) {
+            segMask.set(ValueLayout.JAVA_BYTE, gid,
+                    comparison.test(seg.getAtIndex(ValueLayout.JAVA_LONG, gid), value) ? (byte)1 : (byte)0);
+        }
+    }
+
+    // -- BYTE
+
+    @Override
+    public long sum(final ByteArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, BYTE_SPECIES);
+        long gid = 0L;
+        long sum = 0L;
+        while(gid<bound) {
+            // widen to int lanes, flushing the accumulator before it could overflow
+            final long blockBound = Math.min(bound, gid + BYTE_SUM_FLUSH * BYTE_SPECIES.length());
+            var acc = IntVector.zero(INT_SPECIES);
+            for(; gid<blockBound; gid+=BYTE_SPECIES.length()) {
+                final ByteVector v = ByteVector.fromMemorySegment(BYTE_SPECIES, seg, gid, NATIVE);
+                for (int part = 0; part < 4; part++) {
+                    acc = acc.add((IntVector)v.castShape(INT_SPECIES, part));
+                }
+            }
+            sum+=acc.reduceLanesToLong(VectorOperators.ADD);
+        }
+        for(; gid<n; gid++) {
+            sum+=seg.getAtIndex(ValueLayout.JAVA_BYTE, gid);
+        }
+        return sum;
+    }
+
+    @Override
+    public byte min(final ByteArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, BYTE_SPECIES);
+        long gid = 0L;
+        var acc = ByteVector.broadcast(BYTE_SPECIES, Byte.MAX_VALUE);
+        for(; gid<bound; gid+=BYTE_SPECIES.length()) {
+            acc = acc.min(ByteVector.fromMemorySegment(BYTE_SPECIES, seg, gid, NATIVE));
+        }
+        byte min = acc.reduceLanes(VectorOperators.MIN);
+        for(; gid<n; gid++) {
+            min = (byte)(Math.min(min, seg.getAtIndex(ValueLayout.JAVA_BYTE, gid)));
+        }
+        return min;
+    }
+
+    @Override
+    public byte max(final ByteArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, BYTE_SPECIES);
+        long gid = 0L;
+        var acc = ByteVector.broadcast(BYTE_SPECIES, Byte.MIN_VALUE);
+        for(; gid<bound; gid+=BYTE_SPECIES.length()) {
+            acc = acc.max(ByteVector.fromMemorySegment(BYTE_SPECIES, seg, gid, NATIVE));
+        }
+        byte max = acc.reduceLanes(VectorOperators.MAX);
+        for(; gid<n; gid++) {
+            max = (byte)(Math.max(max, seg.getAtIndex(ValueLayout.JAVA_BYTE, gid)));
+        }
+        return max;
+    }
+
+    @Override
+    public long countNonZero(final ByteArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, BYTE_SPECIES);
+        long gid = 0L;
+        long count = 0L;
+        for(; gid<bound; gid+=BYTE_SPECIES.length()) {
+            count+=ByteVector.fromMemorySegment(BYTE_SPECIES, seg, gid, NATIVE).compare(VectorOperators.NE, 0).trueCount();
+        }
+        for(; gid<n; gid++) {
+            if(seg.getAtIndex(ValueLayout.JAVA_BYTE, gid)!=0) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public long count(final ByteArray array, final Comparison comparison, final byte value) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, BYTE_SPECIES);
+        long gid = 0L;
+        final VectorOperators.Comparison op = operator(comparison);
+        long count = 0L;
+        for(; gid<bound; gid+=BYTE_SPECIES.length()) {
+            count+=ByteVector.fromMemorySegment(BYTE_SPECIES, seg, gid, NATIVE).compare(op, value).trueCount();
+        }
+        for(; gid<n; gid++) {
+            if(comparison.test(seg.getAtIndex(ValueLayout.JAVA_BYTE, gid), value)) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public long popCount(final ByteArray array) {
+        return popCount(array.memorySegment(), array.shape().totalSize());
+    }
+
+    @Override
+    public void add(final ByteArray a, final ByteArray b, final ByteArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        final long bound = loopBound(n, BYTE_SPECIES);
+        long gid = 0L;
+        for(; gid<bound; gid+=BYTE_SPECIES.length()) {
+            ByteVector.fromMemorySegment(BYTE_SPECIES, segA, gid, NATIVE)
+                .lanewise(VectorOperators.ADD, ByteVector.fromMemorySegment(BYTE_SPECIES, segB, gid, NATIVE))
+                .intoMemorySegment(segDst, gid, NATIVE);
+        }
+        for(; gid<n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_BYTE, gid,
+                    (byte)(segA.getAtIndex(ValueLayout.JAVA_BYTE, gid) + segB.getAtIndex(ValueLayout.JAVA_BYTE, gid)));
+        }
+    }
+
+    @Override
+    public void and(final ByteArray a, final ByteArray b, final ByteArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        final long bound = loopBound(n, BYTE_SPECIES);
+        long gid = 0L;
+        for(; gid<bound; gid+=BYTE_SPECIES.length()) {
+            ByteVector.fromMemorySegment(BYTE_SPECIES, segA, gid, NATIVE)
+                .lanewise(VectorOperators.AND, ByteVector.fromMemorySegment(BYTE_SPECIES, segB, gid, NATIVE))
+                .intoMemorySegment(segDst, gid, NATIVE);
+        }
+        for(; gid<n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_BYTE, gid,
+                    (byte)(segA.getAtIndex(ValueLayout.JAVA_BYTE, gid) & segB.getAtIndex(ValueLayout.JAVA_BYTE, gid)));
+        }
+    }
+
+    @Override
+    public void andNot(final ByteArray a, final ByteArray b, final ByteArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        final long bound = loopBound(n, BYTE_SPECIES);
+        long gid = 0L;
+        for(; gid<bound; gid+=BYTE_SPECIES.length()) {
+            ByteVector.fromMemorySegment(BYTE_SPECIES, segA, gid, NATIVE)
+                .lanewise(VectorOperators.AND_NOT, ByteVector.fromMemorySegment(BYTE_SPECIES, segB, gid, NATIVE))
+                .intoMemorySegment(segDst, gid, NATIVE);
+        }
+        for(; gid<n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_BYTE, gid,
+                    (byte)(segA.getAtIndex(ValueLayout.JAVA_BYTE, gid) & ~segB.getAtIndex(ValueLayout.JAVA_BYTE, gid)));
+        }
+    }
+
+    @Override
+    public void or(final ByteArray a, final ByteArray b, final ByteArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        final long bound = loopBound(n, BYTE_SPECIES);
+        long gid = 0L;
+        for(; gid<bound; gid+=BYTE_SPECIES.length()) {
+            ByteVector.fromMemorySegment(BYTE_SPECIES, segA, gid, NATIVE)
+                .lanewise(VectorOperators.OR, ByteVector.fromMemorySegment(BYTE_SPECIES, segB, gid, NATIVE))
+                .intoMemorySegment(segDst, gid, NATIVE);
+        }
+        for(; gid<n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_BYTE, gid,
+                    (byte)(segA.getAtIndex(ValueLayout.JAVA_BYTE, gid) | segB.getAtIndex(ValueLayout.JAVA_BYTE, gid)));
+        }
+    }
+
+    @Override
+    public void xor(final ByteArray a, final ByteArray b, final ByteArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        final long bound = loopBound(n, BYTE_SPECIES);
+        long gid = 0L;
+        for(; gid<bound; gid+=BYTE_SPECIES.length()) {
+            ByteVector.fromMemorySegment(BYTE_SPECIES, segA, gid, NATIVE)
+                .lanewise(VectorOperators.XOR, ByteVector.fromMemorySegment(BYTE_SPECIES, segB, gid, NATIVE))
+                .intoMemorySegment(segDst, gid, NATIVE);
+        }
+        for(; gid<n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_BYTE, gid,
+                    (byte)(segA.getAtIndex(ValueLayout.JAVA_BYTE, gid) ^ segB.getAtIndex(ValueLayout.JAVA_BYTE, gid)));
+        }
+    }
+
+    @Override
+    public void compare(final ByteArray array, final Comparison comparison, final byte value, final ByteArray mask) {
+        final MemorySegment segMask = mask.memorySegment();
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, BYTE_SPECIES);
+        long gid = 0L;
+        final VectorOperators.Comparison op = operator(comparison);
+        final ByteVector ones = ByteVector.broadcast(BYTE_SPECIES, (byte)1);
+        final ByteVector zeros = ByteVector.zero(BYTE_SPECIES);
+        for(; gid<bound; gid+=BYTE_SPECIES.length()) {
+            zeros.blend(ones, ByteVector.fromMemorySegment(BYTE_SPECIES, seg, gid, NATIVE).compare(op, value))
+                .intoMemorySegment(segMask, gid, NATIVE);
+        }
+        for(; gid<n; gid++) {
+            segMask.set(ValueLayout.JAVA_BYTE, gid,
+                    comparison.test(seg.getAtIndex(ValueLayout.JAVA_BYTE, gid), value) ? (byte)1 : (byte)0);
+        }
+    }
+
+    // -- SHORT
+
+    @Override
+    public long sum(final ShortArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, SHORT_SPECIES);
+        long gid = 0L;
+        long sum = 0L;
+        while(gid<bound) {
+            // widen to int lanes, flushing the accumulator before it could overflow
+            final long blockBound = Math.min(bound, gid + SHORT_SUM_FLUSH * SHORT_SPECIES.length());
+            var acc = IntVector.zero(INT_SPECIES);
+            for(; gid<blockBound; gid+=SHORT_SPECIES.length()) {
+                final ShortVector v = ShortVector.fromMemorySegment(SHORT_SPECIES, seg, gid<<1, NATIVE);
+                for (int part = 0; part < 2; part++) {
+                    acc = acc.add((IntVector)v.castShape(INT_SPECIES, part));
+                }
+            }
+            sum+=acc.reduceLanesToLong(VectorOperators.ADD);
+        }
+        for(; gid<n; gid++) {
+            sum+=seg.getAtIndex(ValueLayout.JAVA_SHORT, gid);
+        }
+        return sum;
+    }
+
+    @Override
+    public short min(final ShortArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, SHORT_SPECIES);
+        long gid = 0L;
+        var acc = ShortVector.broadcast(SHORT_SPECIES, Short.MAX_VALUE);
+        for(; gid<bound; gid+=SHORT_SPECIES.length()) {
+            acc = acc.min(ShortVector.fromMemorySegment(SHORT_SPECIES, seg, gid<<1, NATIVE));
+        }
+        short min = acc.reduceLanes(VectorOperators.MIN);
+        for(; gid<n; gid++) {
+            min = (short)(Math.min(min, seg.getAtIndex(ValueLayout.JAVA_SHORT, gid)));
+        }
+        return min;
+    }
+
+    @Override
+    public short max(final ShortArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, SHORT_SPECIES);
+        long gid = 0L;
+        var acc = ShortVector.broadcast(SHORT_SPECIES, Short.MIN_VALUE);
+        for(; gid<bound; gid+=SHORT_SPECIES.length()) {
+            acc = acc.max(ShortVector.fromMemorySegment(SHORT_SPECIES, seg, gid<<1, NATIVE));
+        }
+        short max = acc.reduceLanes(VectorOperators.MAX);
+        for(; gid<n; gid++) {
+            max = (short)(Math.max(max, seg.getAtIndex(ValueLayout.JAVA_SHORT, gid)));
+        }
+        return max;
+    }
+
+    @Override
+    public long countNonZero(final ShortArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, SHORT_SPECIES);
+        long gid = 0L;
+        long count = 0L;
+        for(; gid<bound; gid+=SHORT_SPECIES.length()) {
+            count+=ShortVector.fromMemorySegment(SHORT_SPECIES, seg, gid<<1, NATIVE).compare(VectorOperators.NE, 0).trueCount();
+        }
+        for(; gid<n; gid++) {
+            if(seg.getAtIndex(ValueLayout.JAVA_SHORT, gid)!=0) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public long count(final ShortArray array, final Comparison comparison, final short value) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, SHORT_SPECIES);
+        long gid = 0L;
+        final VectorOperators.Comparison op = operator(comparison);
+        long count = 0L;
+        for(; gid<bound; gid+=SHORT_SPECIES.length()) {
+            count+=ShortVector.fromMemorySegment(SHORT_SPECIES, seg, gid<<1, NATIVE).compare(op, value).trueCount();
+        }
+        for(; gid<n; gid++) {
+            if(comparison.test(seg.getAtIndex(ValueLayout.JAVA_SHORT, gid), value)) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public long popCount(final ShortArray array) {
+        return popCount(array.memorySegment(), array.shape().totalSize() << 1);
+    }
+
+    @Override
+    public void add(final ShortArray a, final ShortArray b, final ShortArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        final long bound = loopBound(n, SHORT_SPECIES);
+        long gid = 0L;
+        for(; gid<bound; gid+=SHORT_SPECIES.length()) {
+            ShortVector.fromMemorySegment(SHORT_SPECIES, segA, gid<<1, NATIVE)
+                .lanewise(VectorOperators.ADD, ShortVector.fromMemorySegment(SHORT_SPECIES, segB, gid<<1, NATIVE))
+                .intoMemorySegment(segDst, gid<<1, NATIVE);
+        }
+        for(; gid<n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_SHORT, gid,
+                    (short)(segA.getAtIndex(ValueLayout.JAVA_SHORT, gid) + segB.getAtIndex(ValueLayout.JAVA_SHORT, gid)));
+        }
+    }
+
+    @Override
+    public void and(final ShortArray a, final ShortArray b, final ShortArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        final long bound = loopBound(n, SHORT_SPECIES);
+        long gid = 0L;
+        for(; gid<bound; gid+=SHORT_SPECIES.length()) {
+            ShortVector.fromMemorySegment(SHORT_SPECIES, segA, gid<<1, NATIVE)
+                .lanewise(VectorOperators.AND, ShortVector.fromMemorySegment(SHORT_SPECIES, segB, gid<<1, NATIVE))
+                .intoMemorySegment(segDst, gid<<1, NATIVE);
+        }
+        for(; gid<n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_SHORT, gid,
+                    (short)(segA.getAtIndex(ValueLayout.JAVA_SHORT, gid) & segB.getAtIndex(ValueLayout.JAVA_SHORT, gid)));
+        }
+    }
+
+    @Override
+    public void andNot(final ShortArray a, final ShortArray b, final ShortArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        final long bound = loopBound(n, SHORT_SPECIES);
+        long gid = 0L;
+        for(; gid<bound; gid+=SHORT_SPECIES.length()) {
+            ShortVector.fromMemorySegment(SHORT_SPECIES, segA, gid<<1, NATIVE)
+                .lanewise(VectorOperators.AND_NOT, ShortVector.fromMemorySegment(SHORT_SPECIES, segB, gid<<1, NATIVE))
+                .intoMemorySegment(segDst, gid<<1, NATIVE);
+        }
+        for(; gid<n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_SHORT, gid,
+                    (short)(segA.getAtIndex(ValueLayout.JAVA_SHORT, gid) & ~segB.getAtIndex(ValueLayout.JAVA_SHORT, gid)));
+        }
+    }
+
+    @Override
+    public void or(final ShortArray a, final ShortArray b, final ShortArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        final long bound = loopBound(n, SHORT_SPECIES);
+        long gid = 0L;
+        for(; gid<bound; gid+=SHORT_SPECIES.length()) {
+            ShortVector.fromMemorySegment(SHORT_SPECIES, segA, gid<<1, NATIVE)
+                .lanewise(VectorOperators.OR, ShortVector.fromMemorySegment(SHORT_SPECIES, segB, gid<<1, NATIVE))
+                .intoMemorySegment(segDst, gid<<1, NATIVE);
+        }
+        for(; gid<n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_SHORT, gid,
+                    (short)(segA.getAtIndex(ValueLayout.JAVA_SHORT, gid) | segB.getAtIndex(ValueLayout.JAVA_SHORT, gid)));
+        }
+    }
+
+    @Override
+    public void xor(final ShortArray a, final ShortArray b, final ShortArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        final long bound = loopBound(n, SHORT_SPECIES);
+        long gid = 0L;
+        for(; gid<bound; gid+=SHORT_SPECIES.length()) {
+            ShortVector.fromMemorySegment(SHORT_SPECIES, segA, gid<<1, NATIVE)
+                .lanewise(VectorOperators.XOR, ShortVector.fromMemorySegment(SHORT_SPECIES, segB, gid<<1, NATIVE))
+                .intoMemorySegment(segDst, gid<<1, NATIVE);
+        }
+        for(; gid<n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_SHORT, gid,
+                    (short)(segA.getAtIndex(ValueLayout.JAVA_SHORT, gid) ^ segB.getAtIndex(ValueLayout.JAVA_SHORT, gid)));
+        }
+    }
+
+    @Override
+    public void compare(final ShortArray array, final Comparison comparison, final short value, final ByteArray mask) {
+        final MemorySegment segMask = mask.memorySegment();
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, SHORT_SPECIES);
+        long gid = 0L;
+        final VectorOperators.Comparison op = operator(comparison);
+        for(; gid<bound; gid+=SHORT_SPECIES.length()) {
+            final long bits = ShortVector.fromMemorySegment(SHORT_SPECIES, seg, gid<<1, NATIVE).compare(op, value).toLong();
+            for (int lane = 0; lane < SHORT_SPECIES.length(); lane++) {
+                segMask.set(ValueLayout.JAVA_BYTE, gid + lane, (byte)((bits>>>lane) & 1L));
+            }
+        }
+        for(; gid<n; gid++) {
+            segMask.set(ValueLayout.JAVA_BYTE, gid,
+                    comparison.test(seg.getAtIndex(ValueLayout.JAVA_SHORT, gid), value) ? (byte)1 : (byte)0);
+        }
+    }
+
+    // -- DOUBLE
+
+    @Override
+    public double sum(final DoubleArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, DOUBLE_SPECIES);
+        long gid = 0L;
+        var acc = DoubleVector.zero(DOUBLE_SPECIES);
+        for(; gid<bound; gid+=DOUBLE_SPECIES.length()) {
+            acc = acc.add(DoubleVector.fromMemorySegment(DOUBLE_SPECIES, seg, gid<<3, NATIVE));
+        }
+        double sum = acc.reduceLanes(VectorOperators.ADD);
+        for(; gid<n; gid++) {
+            sum+=seg.getAtIndex(ValueLayout.JAVA_DOUBLE, gid);
+        }
+        return sum;
+    }
+
+    @Override
+    public double min(final DoubleArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, DOUBLE_SPECIES);
+        long gid = 0L;
+        var acc = DoubleVector.broadcast(DOUBLE_SPECIES, Double.POSITIVE_INFINITY);
+        for(; gid<bound; gid+=DOUBLE_SPECIES.length()) {
+            acc = acc.min(DoubleVector.fromMemorySegment(DOUBLE_SPECIES, seg, gid<<3, NATIVE));
+        }
+        double min = acc.reduceLanes(VectorOperators.MIN);
+        for(; gid<n; gid++) {
+            min = Math.min(min, seg.getAtIndex(ValueLayout.JAVA_DOUBLE, gid));
+        }
+        return min;
+    }
+
+    @Override
+    public double max(final DoubleArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, DOUBLE_SPECIES);
+        long gid = 0L;
+        var acc = DoubleVector.broadcast(DOUBLE_SPECIES, Double.NEGATIVE_INFINITY);
+        for(; gid<bound; gid+=DOUBLE_SPECIES.length()) {
+            acc = acc.max(DoubleVector.fromMemorySegment(DOUBLE_SPECIES, seg, gid<<3, NATIVE));
+        }
+        double max = acc.reduceLanes(VectorOperators.MAX);
+        for(; gid<n; gid++) {
+            max = Math.max(max, seg.getAtIndex(ValueLayout.JAVA_DOUBLE, gid));
+        }
+        return max;
+    }
+
+    @Override
+    public long countNonZero(final DoubleArray array) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, DOUBLE_SPECIES);
+        long gid = 0L;
+        long count = 0L;
+        for(; gid<bound; gid+=DOUBLE_SPECIES.length()) {
+            count+=DoubleVector.fromMemorySegment(DOUBLE_SPECIES, seg, gid<<3, NATIVE).compare(VectorOperators.NE, 0).trueCount();
+        }
+        for(; gid<n; gid++) {
+            if(seg.getAtIndex(ValueLayout.JAVA_DOUBLE, gid)!=0) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public long count(final DoubleArray array, final Comparison comparison, final double value) {
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, DOUBLE_SPECIES);
+        long gid = 0L;
+        final VectorOperators.Comparison op = operator(comparison);
+        long count = 0L;
+        for(; gid<bound; gid+=DOUBLE_SPECIES.length()) {
+            count+=DoubleVector.fromMemorySegment(DOUBLE_SPECIES, seg, gid<<3, NATIVE).compare(op, value).trueCount();
+        }
+        for(; gid<n; gid++) {
+            if(comparison.test(seg.getAtIndex(ValueLayout.JAVA_DOUBLE, gid), value)) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public void add(final DoubleArray a, final DoubleArray b, final DoubleArray dst) {
+        final MemorySegment segA = a.memorySegment();
+        final MemorySegment segB = b.memorySegment();
+        final MemorySegment segDst = dst.memorySegment();
+        final long n = dst.shape().totalSize();
+        final long bound = loopBound(n, DOUBLE_SPECIES);
+        long gid = 0L;
+        for(; gid<bound; gid+=DOUBLE_SPECIES.length()) {
+            DoubleVector.fromMemorySegment(DOUBLE_SPECIES, segA, gid<<3, NATIVE)
+                .lanewise(VectorOperators.ADD, DoubleVector.fromMemorySegment(DOUBLE_SPECIES, segB, gid<<3, NATIVE))
+                .intoMemorySegment(segDst, gid<<3, NATIVE);
+        }
+        for(; gid<n; gid++) {
+            segDst.setAtIndex(ValueLayout.JAVA_DOUBLE, gid,
+                    segA.getAtIndex(ValueLayout.JAVA_DOUBLE, gid) + segB.getAtIndex(ValueLayout.JAVA_DOUBLE, gid));
+        }
+    }
+
+    @Override
+    public void compare(final DoubleArray array, final Comparison comparison, final double value, final ByteArray mask) {
+        final MemorySegment segMask = mask.memorySegment();
+        final MemorySegment seg = array.memorySegment();
+        final long n = array.shape().totalSize();
+        final long bound = loopBound(n, DOUBLE_SPECIES);
+        long gid = 0L;
+        final VectorOperators.Comparison op = operator(comparison);
+        for(; gid<bound; gid+=DOUBLE_SPECIES.length()) {
+            final long bits = DoubleVector.fromMemorySegment(DOUBLE_SPECIES, seg, gid<<3, NATIVE).compare(op, value).toLong();
+            for (int lane = 0; lane < DOUBLE_SPECIES.length(); lane++) {
+                segMask.set(ValueLayout.JAVA_BYTE, gid + lane, (byte)((bits>>>lane) & 1L));
+            }
+        }
+        for(; gid<n; gid++) {
+            segMask.set(ValueLayout.JAVA_BYTE, gid,
+                    comparison.test(seg.getAtIndex(ValueLayout.JAVA_DOUBLE, gid), value) ? (byte)1 : (byte)0);
+        }
+    }
+
+    // -- HELPER
+
+    /**
+     * Number of one-bits over the first {@code byteCount} bytes of given segment,
+     * counted a long at a time, as bit counts do not depend on element width or byte order.
+     */
+    private long popCount(final MemorySegment seg, final long byteCount) {
+        final long n = byteCount >>> 3;
+        final long bound = loopBound(n, LONG_SPECIES);
+        long gid = 0L;
+        var acc = LongVector.zero(LONG_SPECIES);
+        for(; gid<bound; gid+=LONG_SPECIES.length()) {
+            acc = acc.add(LongVector.fromMemorySegment(LONG_SPECIES, seg, gid<<3, NATIVE).lanewise(VectorOperators.BIT_COUNT));
+        }
+        long count = acc.reduceLanes(VectorOperators.ADD);
+        for(; gid<n; gid++) {
+            count+=Long.bitCount(seg.get(ValueLayout.JAVA_LONG_UNALIGNED, gid<<3));
+        }
+        for(long offset = n<<3; offset<byteCount; offset++) {
+            count+=Integer.bitCount(seg.get(ValueLayout.JAVA_BYTE, offset) & 0xFF);
+        }
+        return count;
+    }
+
+    private long loopBound(final long length, final VectorSpecies<?> species) {
+        return length - length % species.length();
+    }
+
+    private VectorOperators.Comparison operator(final Comparison comparison) {
+        return switch (comparison) {
+            case EQ -> VectorOperators.EQ;
+            case NE -> VectorOperators.NE;
+            case LT -> VectorOperators.LT;
+            case LE -> VectorOperators.LE;
+            case GT -> VectorOperators.GT;
+            case GE -> VectorOperators.GE;
+        };
+    }
+
+}
@@ -0,0 +1,446 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.shape;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.LongConsumer;
+
+import lombok.SneakyThrows;
+
+import jcompute.core.util.primitive.LongUtils.LongExternalizer;
+
+/**
+ * N-dimensional counterpart of {@link Shape}, mapping an N-dimensional index {@code (i0, i1, ..., iN-1)}
+ * to a global (storage) index {@code offset + i0*stride0 + i1*stride1 + ... }.
+ * <p>
+ * Strides allow for row-major (C), column-major (Fortran) and permuted or transposed layouts,
+ * where permutations and slices are views, that share the storage (no copy).
+ * <p>
+ * Serialization is compatible with {@link Shape#write(OutputStream)} and {@link Shape#read(InputStream)}
+ * (for up to 3 dimensions); only the sizes are written, not the layout.
+ */
+public record NdShape(long[] sizes, long[] strides, long offset, long totalSize)
+implements Serializable {
+
+    @FunctionalInterface
+    public static interface IndexConsumer {
+        /**
+         * @param index N-dimensional index (reused between calls, must not be modified)
+         * @param gid the corresponding global (storage) index
+         */
+        void accept(long[] index, long gid);
+    }
+
+    public NdShape {
+        Objects.requireNonNull(sizes);
+        Objects.requireNonNull(strides);
+        if(sizes.length!=strides.length) {
+            throw new IllegalArgumentException(String.format(
+                    "rank mismatch: %d sizes vs %d strides", sizes.length, strides.length));
+        }
+        if(sizes.length>Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Unexpected value: " + sizes.length);
+        }
+        sizes = sizes.clone();
+        strides = strides.clone();
+        long product = sizes.length>0 ? 1L : 0L;
+        for(long size : sizes) {
+            if(size<0) throw new IllegalArgumentException("Unexpected value: " + size);
+            product = Math.multiplyExact(product, size);
+        }
+        if(totalSize!=product) {
+            throw new IllegalArgumentException(String.format(
+                    "total size mismatch: %d != %d", totalSize, product));
+        }
+    }
+
+    public static NdShape empty() {
+        return new NdShape(new long[0], new long[0], 0L, 0L);
+    }
+
+    /**
+     * Row-major (C order) shape with given sizes, where the last index varies fastest.
+     */
+    public static NdShape of(final long... sizes) {
+        return new NdShape(sizes, rowMajorStrides(sizes), 0L, totalSize(sizes));
+    }
+
+    /**
+     * Column-major (Fortran order) shape with given sizes, where the first index varies fastest.
+     */
+    public static NdShape columnMajor(final long... sizes) {
+        return new NdShape(sizes, columnMajorStrides(sizes), 0L, totalSize(sizes));
+    }
+
+    /**
+     * Row-major shape with same sizes as given {@link Shape}.
+     * This is the layout {@link Shape#gid2d(long, long)} and {@link Shape#gid3d(long, long, long)} assume.
+     */
+    public static NdShape of(final Shape shape) {
+        return switch (shape.dimensionCount()) {
+            case 0 -> empty();
+            case 1 -> of(shape.sizeX());
+            case 2 -> of(shape.sizeX(), shape.sizeY());
+            case 3 -> of(shape.sizeX(), shape.sizeY(), shape.sizeZ());
+            default -> throw new IllegalArgumentException("Unexpected value: " + shape.dimensionCount());
+        };
+    }
+
+    public int rank() {
+        return sizes.length;
+    }
+
+    public long size(final int dimension) {
+        return sizes[dimension];
+    }
+
+    public long stride(final int dimension) {
+        return strides[dimension];
+    }
+
+    @Override
+    public long[] sizes() {
+        return sizes.clone();
+    }
+
+    @Override
+    public long[] strides() {
+        return strides.clone();
+    }
+
+    /**
+     * Whether the global indices are {@code offset + 0 .. offset + totalSize - 1} in row-major order.
+     */
+    public boolean isRowMajor() {
+        return Arrays.equals(strides, rowMajorStrides(sizes));
+    }
+
+    /**
+     * Whether the global indices are {@code offset + 0 .. offset + totalSize - 1} in column-major order.
+     */
+    public boolean isColumnMajor() {
+        return Arrays.equals(strides, columnMajorStrides(sizes));
+    }
+
+    /**
+     * Converts to a (row-major) {@link Shape}, e.g. for use as OpenCL NDRange.
+     * @throws IllegalArgumentException if rank exceeds 3
+     */
+    public Shape toShape() {
+        return switch (rank()) {
+            case 0 -> Shape.empty();
+            case 1 -> Shape.of(sizes[0]);
+            case 2 -> Shape.of(sizes[0], sizes[1]);
+            case 3 -> Shape.of(sizes[0], sizes[1], sizes[2]);
+            default -> throw new IllegalArgumentException("Unexpected value: " + rank());
+        };
+    }
+
+    // -- INDEX
+
+    /**
+     * Return the global index for given N-dimensional index.
+     */
+    public long gid(final long... index) {
+        checkRank(index.length);
+        long gid = offset;
+        for (int d = 0; d < index.length; d++) {
+            gid+=Objects.checkIndex(index[d], sizes[d]) * strides[d];
+        }
+        return gid;
+    }
+
+    /**
+     * Return the global index for given 2d index (i,j), without varargs allocation.
+     * @see #gid(long...)
+     */
+    public long gid(final long i, final long j) {
+        checkRank(2);
+        return offset
+                + Objects.checkIndex(i, sizes[0]) * strides[0]
+                + Objects.checkIndex(j, sizes[1]) * strides[1];
+    }
+
+    /**
+     * Return the global index for given 3d index (i,j,k), without varargs allocation.
+     * @see #gid(long...)
+     */
+    public long gid(final long i, final long j, final long k) {
+        checkRank(3);
+        return offset
+                + Objects.checkIndex(i, sizes[0]) * strides[0]
+                + Objects.checkIndex(j, sizes[1]) * strides[1]
+                + Objects.checkIndex(k, sizes[2]) * strides[2];
+    }
+
+    private void checkRank(final int indexCount) {
+        if(indexCount!=rank()) {
+            throw new IllegalArgumentException(String.format(
+                    "rank mismatch: expected %d indices, but got %d", rank(), indexCount));
+        }
+    }
+
+    // -- VIEWS
+
+    /**
+     * Returns a view with dimensions reordered, such that dimension {@code d} of the view
+     * is dimension {@code axes[d]} of this.
+     * @param axes a permutation of {@code 0 .. rank-1}
+     */
+    public NdShape permute(final int... axes) {
+        if(axes.length!=rank()) {
+            throw new IllegalArgumentException(String.format(
+                    "rank mismatch: expected %d axes, but got %d", rank(), axes.length));
+        }
+        var seen = new boolean[rank()];
+        var permutedSizes = new long[rank()];
+        var permutedStrides = new long[rank()];
+        for (int d = 0; d < axes.length; d++) {
+            final int axis = Objects.checkIndex(axes[d], rank());
+            if(seen[axis]) {
+                throw new IllegalArgumentException(String.format("not a permutation: %s", Arrays.toString(axes)));
+            }
+            seen[axis] = true;
+            permutedSizes[d] = sizes[axis];
+            permutedStrides[d] = strides[axis];
+        }
+        return new NdShape(permutedSizes, permutedStrides, offset, totalSize);
+    }
+
+    /**
+     * Returns a view with the order of dimensions reversed (for rank 2 the matrix transpose).
+     */
+    public NdShape transpose() {
+        var axes = new int[rank()];
+        for (int d = 0; d < axes.length; d++) {
+            axes[d] = axes.length - 1 - d;
+        }
+        return permute(axes);
+    }
+
+    /**
+     * Returns a view of the sub-range of {@code length} indices along given dimension, starting at {@code start}.
+     */
+    public NdShape slice(final int dimension, final long start, final long length) {
+        Objects.checkFromIndexSize(start, length, sizes[Objects.checkIndex(dimension, rank())]);
+        var slicedSizes = sizes.clone();
+        slicedSizes[dimension] = length;
+        return new NdShape(slicedSizes, strides, offset + start * strides[dimension], totalSize(slicedSizes));
+    }
+
+    /**
+     * Sizes of the trailing {@code innerRank} dimensions as {@link Shape},
+     * e.g. to be used as OpenCL NDRange, while the leading dimensions are iterated on the host
+     * via {@link #forEachOuter(int, IndexConsumer)}.
+     */
+    public Shape innerShape(final int innerRank) {
+        Objects.checkIndex(innerRank, rank() + 1);
+        return of(Arrays.copyOfRange(sizes, rank() - innerRank, rank()))
+                .toShape();
+    }
+
+    // -- TRAVERSAL
+
+    /**
+     * Visits the global indices in (logical) row-major order of the N-dimensional indices,
+     * with specialized loops for ranks up to 4.
+     * @return this
+     */
+    public NdShape forEach(final LongConsumer onGid) {
+        if(totalSize==0) return this;
+        switch (rank()) {
+        case 1 -> {
+            final long n0 = sizes[0], s0 = strides[0];
+            for(long i = 0L, gid = offset; i<n0; ++i, gid+=s0) {
+                onGid.accept(gid);
+            }
+        }
+        case 2 -> {
+            final long n0 = sizes[0], s0 = strides[0];
+            final long n1 = sizes[1], s1 = strides[1];
+            for(long i = 0L, gid0 = offset; i<n0; ++i, gid0+=s0) {
+                for(long j = 0L, gid = gid0; j<n1; ++j, gid+=s1) {
+                    onGid.accept(gid);
+                }
+            }
+        }
+        case 3 -> {
+            final long n0 = sizes[0], s0 = strides[0];
+            final long n1 = sizes[1], s1 = strides[1];
+            final long n2 = sizes[2], s2 = strides[2];
+            for(long i = 0L, gid0 = offset; i<n0; ++i, gid0+=s0) {
+                for(long j = 0L, gid1 = gid0; j<n1; ++j, gid1+=s1) {
+                    for(long k = 0L, gid = gid1; k<n2; ++k, gid+=s2) {
+                        onGid.accept(gid);
+                    }
+                }
+            }
+        }
+        case 4 -> {
+            final long n0 = sizes[0], s0 = strides[0];
+            final long n1 = sizes[1], s1 = strides[1];
+            final long n2 = sizes[2], s2 = strides[2];
+            final long n3 = sizes[3], s3 = strides[3];
+            for(long i = 0L, gid0 = offset; i<n0; ++i, gid0+=s0) {
+                for(long j = 0L, gid1 = gid0; j<n1; ++j, gid1+=s1) {
+                    for(long k = 0L, gid2 = gid1; k<n2; ++k, gid2+=s2) {
+                        for(long l = 0L, gid = gid2; l<n3; ++l, gid+=s3) {
+                            onGid.accept(gid);
+                        }
+                    }
+                }
+            }
+        }
+        default -> forEachIndex((_, gid)->onGid.accept(gid));
+        }
+        return this;
+    }
+
+    /**
+     * Visits the N-dimensional indices in row-major order, together with their global indices.
+     * @return this
+     */
+    public NdShape forEachIndex(final IndexConsumer onIndex) {
+        if(totalSize==0) return this;
+        odometer(rank(), onIndex);
+        return this;
+    }
+
+    /**
+     * Visits the indices of the leading {@code rank - innerRank} dimensions in row-major order,
+     * together with the global index of the first element of the corresponding inner block.
+     * @see #innerShape(int)
+     * @return this
+     */
+    public NdShape forEachOuter(final int innerRank, final IndexConsumer onOuterIndex) {
+        Objects.checkIndex(innerRank, rank() + 1);
+        if(totalSize==0) return this;
+        odometer(rank() - innerRank, onOuterIndex);
+        return this;
+    }
+
+    // -- IO
+
+    /**
+     * Writes the sizes, compatible with {@link Shape#write(OutputStream)}.
+     */
+    @SneakyThrows
+    public void write(final OutputStream out) {
+        out.write(rank());
+        var externalizer = new LongExternalizer(1);
+        for(long size : sizes) {
+            externalizer.write(size, out);
+        }
+    }
+
+    /**
+     * Reads a (row-major) shape, compatible with {@link Shape#read(InputStream)}.
+     */
+    @SneakyThrows
+    public static NdShape read(final InputStream in) {
+        final int rank = in.read();
+        if(rank<0) {
+            throw new IllegalArgumentException("Unexpected value: " + rank);
+        }
+        if(rank==0) return empty();
+        var externalizer = new LongExternalizer(1);
+        var sizes = new long[rank];
+        for (int d = 0; d < rank; d++) {
+            sizes[d] = externalizer.read(in);
+        }
+        return of(sizes);
+    }
+
+    // -- CONTRACT
+
+    @Override
+    public boolean equals(final Object obj) {
+        return (obj instanceof NdShape other)
+                && offset==other.offset
+                && Arrays.equals(sizes, other.sizes)
+                && Arrays.equals(strides, other.strides);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(sizes), Arrays.hashCode(strides), offset);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("NdShape[sizes=%s, strides=%s, offset=%d]",
+                Arrays.toString(sizes), Arrays.toString(strides), offset);
+    }
+
+    // -- HELPER
+
+    private void odometer(final int outerRank, final IndexConsumer onIndex) {
+        final long[] index = new long[outerRank];
+        long gid = offset;
+        if(outerRank==0) {
+            onIndex.accept(index, gid);
+            return;
+        }
+        while(true) {
+            onIndex.accept(index, gid);
+            int d = outerRank - 1;
+            // increment the last index, carrying over to preceding ones
+            while(++index[d]==sizes[d]) {
+                gid-=(sizes[d] - 1) * strides[d];
+                index[d] = 0L;
+                if(--d<0) return;
+            }
+            gid+=strides[d];
+        }
+    }
+
+    static long totalSize(final long[] sizes) {
+        if(sizes.length==0) return 0L;
+        long product = 1L;
+        for(long size : sizes) {
+            product = Math.multiplyExact(product, size);
+        }
+        return product;
+    }
+
+    static long[] rowMajorStrides(final long[] sizes) {
+        var strides = new long[sizes.length];
+        long stride = 1L;
+        for (int d = sizes.length - 1; d >= 0; d--) {
+            strides[d] = stride;
+            stride*=sizes[d];
+        }
+        return strides;
+    }
+
+    static long[] columnMajorStrides(final long[] sizes) {
+        var strides = new long[sizes.length];
+        long stride = 1L;
+        for (int d = 0; d < sizes.length; d++) {
+            strides[d] = stride;
+            stride*=sizes[d];
+        }
+        return strides;
+    }
+
+}
@@ -21,17 +21,22 @@ package jcompute.core.shape;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.function.LongConsumer;
 import java.util.stream.LongStream;
 
 import lombok.SneakyThrows;
 
+import jcompute.core.util.Parallelism;
 import jcompute.core.util.function.BiLongConsumer;
+import jcompute.core.util.function.LongRangeConsumer;
 import jcompute.core.util.function.TriLongConsumer;
 import jcompute.core.util.primitive.LongUtils.LongExternalizer;
 
 /**
  * Tuple of long, where the elements give the lengths of the corresponding array dimensions.
+ * @see NdShape for more than 3 dimensions and non row-major layouts
  */
 public record Shape(int dimensionCount, long totalSize, long sizeX, long sizeY, long sizeZ)
 implements Serializable {
@@ -85,6 +90,59 @@ implements Serializable {
         return this;
     }
 
+    /**
+     * Visits the global indices from zero up to ({@link #totalSize} - 1),
+     * split into contiguous ranges, when run in parallel.
+     * <p>
+     * Order of visits is only guaranteed for {@link Parallelism#SEQUENTIAL}.
+     * @return this
+     */
+    public Shape forEach(final Parallelism parallelism, final LongConsumer onIndex) {
+        return forEachRange(parallelism, (offset, length)->forEach(offset, length, onIndex));
+    }
+
+    /**
+     * Visits the global indices from zero up to ({@link #totalSize} - 1),
+     * split into contiguous ranges, that are visited on given {@link Executor}.
+     * Blocks until all indices are visited.
+     * @return this
+     */
+    public Shape forEach(final Executor executor, final LongConsumer onIndex) {
+        return forEachRange(executor, _Util.RANGE_SIZE, (offset, length)->forEach(offset, length, onIndex));
+    }
+
+    /**
+     * Reports the global indices from zero up to ({@link #totalSize} - 1) as contiguous ranges
+     * of default size, allowing callers to run tight inner loops.
+     * @return this
+     */
+    public Shape forEachRange(final Parallelism parallelism, final LongRangeConsumer onRange) {
+        return forEachRange(parallelism, _Util.RANGE_SIZE, onRange);
+    }
+
+    /**
+     * Reports the global indices from zero up to ({@link #totalSize} - 1) as contiguous ranges
+     * of (at most) {@code rangeSize} indices, allowing callers to run tight inner loops.
+     * <p>
+     * Order of reports is only guaranteed for {@link Parallelism#SEQUENTIAL}.
+     * @return this
+     */
+    public Shape forEachRange(final Parallelism parallelism, final long rangeSize, final LongRangeConsumer onRange) {
+        _Util.forEachRange(parallelism, totalSize(), rangeSize, onRange);
+        return this;
+    }
+
+    /**
+     * Reports the global indices from zero up to ({@link #totalSize} - 1) as contiguous ranges
+     * of (at most) {@code rangeSize} indices, that are processed on given {@link Executor}.
+     * Blocks until all ranges are processed.
+     * @return this
+     */
+    public Shape forEachRange(final Executor executor, final long rangeSize, final LongRangeConsumer onRange) {
+        _Util.forEachRange(executor, totalSize(), rangeSize, onRange);
+        return this;
+    }
+
     public void forEach(final BiLongConsumer onIndex) {
         switch (dimensionCount) {
         case 1: {
@@ -106,6 +164,25 @@ implements Serializable {
         }
     }
 
+    /**
+     * Visits the (i,j) indices tile by tile, where tiles are visited in parallel for {@link Parallelism#PARALLEL}.
+     * For 1D shapes {@code j} is always zero.
+     */
+    public void forEach(final Parallelism parallelism, final BiLongConsumer onIndex) {
+        var tiling = tiling2d();
+        _Util.forEachBlock(parallelism, tiling.tileCount(), tileIndex->tiling.visitTile(tileIndex, onIndex));
+    }
+
+    /**
+     * Visits the (i,j) indices tile by tile, where tiles are visited on given {@link Executor}.
+     * Blocks until all indices are visited.
+     * For 1D shapes {@code j} is always zero.
+     */
+    public void forEach(final Executor executor, final BiLongConsumer onIndex) {
+        var tiling = tiling2d();
+        _Util.forEachBlock(executor, tiling.tileCount(), tileIndex->tiling.visitTile(tileIndex, onIndex));
+    }
+
     /**
      * Return the global index for given 2d index (i,j).
      */
@@ -144,6 +221,25 @@ implements Serializable {
         }
     }
 
+    /**
+     * Visits the (i,j,k) indices tile by tile, where tiles are visited in parallel for {@link Parallelism#PARALLEL}.
+     * For 1D and 2D shapes the trailing indices are always zero.
+     */
+    public void forEach(final Parallelism parallelism, final TriLongConsumer onIndex) {
+        var tiling = tiling3d();
+        _Util.forEachBlock(parallelism, tiling.tileCount(), tileIndex->tiling.visitTile(tileIndex, onIndex));
+    }
+
+    /**
+     * Visits the (i,j,k) indices tile by tile, where tiles are visited on given {@link Executor}.
+     * Blocks until all indices are visited.
+     * For 1D and 2D shapes the trailing indices are always zero.
+     */
+    public void forEach(final Executor executor, final TriLongConsumer onIndex) {
+        var tiling = tiling3d();
+        _Util.forEachBlock(executor, tiling.tileCount(), tileIndex->tiling.visitTile(tileIndex, onIndex));
+    }
+
     /**
      * Return the global index for given 3d index (i,j,k).
      */
@@ -151,6 +247,67 @@ implements Serializable {
         return ( i * sizeY() + j ) * sizeZ() + k;
     }
 
+    // -- SLICING
+
+    /**
+     * Number of elements spanned by a single index along the first dimension (x),
+     * that is 1 for 1D, {@code sizeY} for 2D and {@code sizeY * sizeZ} for 3D shapes.
+     */
+    public long strideX() {
+        return switch (dimensionCount) {
+            case 0, 1 -> 1L;
+            case 2 -> sizeY;
+            case 3 -> sizeY * sizeZ;
+            default -> throw new IllegalArgumentException("Unexpected value: " + dimensionCount);
+        };
+    }
+
+    /**
+     * Shape of the contiguous sub-range of {@code length} indices along the first dimension (x),
+     * starting at {@code offset}; other dimensions are retained.
+     * @throws IndexOutOfBoundsException if the sub-range is not within {@code [0, sizeX)}
+     */
+    public Shape slice(final long offset, final long length) {
+        Objects.checkFromIndexSize(offset, length, sizeX);
+        return switch (dimensionCount) {
+            case 1 -> Shape.of(length);
+            case 2 -> Shape.of(length, sizeY);
+            case 3 -> Shape.of(length, sizeY, sizeZ);
+            default -> throw new IllegalArgumentException("Unexpected value: " + dimensionCount);
+        };
+    }
+
+    /**
+     * Throws if given shape does not agree with this on {@link #totalSize()}.
+     * @return other
+     */
+    public Shape assertSameTotalSize(final Shape other) {
+        if(totalSize!=other.totalSize()) {
+            throw new IllegalArgumentException(String.format(
+                    "total size mismatch: %d != %d (%s vs %s)", totalSize, other.totalSize(), this, other));
+        }
+        return other;
+    }
+
+    // -- TILING
+
+    private _Util.Tiling2d tiling2d() {
+        return switch (dimensionCount) {
+            case 1 -> _Util.Tiling2d.of(sizeX, 1L);
+            case 2 -> _Util.Tiling2d.of(sizeX, sizeY);
+            default -> throw new IllegalArgumentException("Unexpected value: " + dimensionCount);
+        };
+    }
+
+    private _Util.Tiling3d tiling3d() {
+        return switch (dimensionCount) {
+            case 1 -> _Util.Tiling3d.of(sizeX, 1L, 1L);
+            case 2 -> _Util.Tiling3d.of(sizeX, sizeY, 1L);
+            case 3 -> _Util.Tiling3d.of(sizeX, sizeY, sizeZ);
+            default -> throw new IllegalArgumentException("Unexpected value: " + dimensionCount);
+        };
+    }
+
     // -- IO
 
     @SneakyThrows
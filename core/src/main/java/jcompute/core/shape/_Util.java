@@ -0,0 +1,179 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.shape;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+import lombok.experimental.UtilityClass;
+
+import jcompute.core.util.Parallelism;
+import jcompute.core.util.function.BiLongConsumer;
+import jcompute.core.util.function.LongRangeConsumer;
+import jcompute.core.util.function.TriLongConsumer;
+
+@UtilityClass
+class _Util {
+
+    /**
+     * Default number of indices per range, when splitting 1D index spaces.
+     */
+    final long RANGE_SIZE = 1L << 16;
+
+    /**
+     * Targeted number of indices per 2D or 3D tile,
+     * e.g. 32k bytes of {@code long} values, which fits into the L1 data cache of most CPUs.
+     */
+    final long TILE_SIZE = 1L << 12;
+
+    // -- 1D
+
+    void forEachRange(final Parallelism parallelism, final long size, final long rangeSize, final LongRangeConsumer onRange) {
+        final long rangeCount = blockCount(size, rangeSize);
+        forEachBlock(parallelism, rangeCount, rangeIndex->
+            acceptRange(size, rangeSize, rangeIndex, onRange));
+    }
+
+    void forEachRange(final Executor executor, final long size, final long rangeSize, final LongRangeConsumer onRange) {
+        final long rangeCount = blockCount(size, rangeSize);
+        forEachBlock(executor, rangeCount, rangeIndex->
+            acceptRange(size, rangeSize, rangeIndex, onRange));
+    }
+
+    // -- 2D
+
+    /**
+     * Splits a 2D index space into tiles of about {@link #TILE_SIZE} indices,
+     * each visited in row-major order.
+     */
+    record Tiling2d(long sizeX, long sizeY, long tileX, long tileY, long countX, long countY) {
+        static Tiling2d of(final long sizeX, final long sizeY) {
+            final long tileY = Math.max(1L, Math.min(sizeY, TILE_SIZE));
+            final long tileX = Math.max(1L, Math.min(sizeX, TILE_SIZE / tileY));
+            return new Tiling2d(sizeX, sizeY, tileX, tileY, blockCount(sizeX, tileX), blockCount(sizeY, tileY));
+        }
+        long tileCount() {
+            return countX * countY;
+        }
+        void visitTile(final long tileIndex, final BiLongConsumer onIndex) {
+            final long x0 = (tileIndex / countY) * tileX;
+            final long y0 = (tileIndex % countY) * tileY;
+            final long x1 = Math.min(sizeX, x0 + tileX);
+            final long y1 = Math.min(sizeY, y0 + tileY);
+            for(long i = x0; i<x1; ++i) {
+                for(long j = y0; j<y1; ++j) {
+                    onIndex.accept(i, j);
+                }
+            }
+        }
+    }
+
+    // -- 3D
+
+    /**
+     * Splits a 3D index space into tiles of about {@link #TILE_SIZE} indices,
+     * each visited in row-major order.
+     */
+    record Tiling3d(long sizeX, long sizeY, long sizeZ, long tileX, long tileY, long tileZ,
+            long countX, long countY, long countZ) {
+        static Tiling3d of(final long sizeX, final long sizeY, final long sizeZ) {
+            final long tileZ = Math.max(1L, Math.min(sizeZ, TILE_SIZE));
+            final long tileY = Math.max(1L, Math.min(sizeY, TILE_SIZE / tileZ));
+            final long tileX = Math.max(1L, Math.min(sizeX, TILE_SIZE / (tileZ * tileY)));
+            return new Tiling3d(sizeX, sizeY, sizeZ, tileX, tileY, tileZ,
+                    blockCount(sizeX, tileX), blockCount(sizeY, tileY), blockCount(sizeZ, tileZ));
+        }
+        long tileCount() {
+            return countX * countY * countZ;
+        }
+        void visitTile(final long tileIndex, final TriLongConsumer onIndex) {
+            final long x0 = (tileIndex / (countY * countZ)) * tileX;
+            final long y0 = ((tileIndex / countZ) % countY) * tileY;
+            final long z0 = (tileIndex % countZ) * tileZ;
+            final long x1 = Math.min(sizeX, x0 + tileX);
+            final long y1 = Math.min(sizeY, y0 + tileY);
+            final long z1 = Math.min(sizeZ, z0 + tileZ);
+            for(long i = x0; i<x1; ++i) {
+                for(long j = y0; j<y1; ++j) {
+                    for(long k = z0; k<z1; ++k) {
+                        onIndex.accept(i, j, k);
+                    }
+                }
+            }
+        }
+    }
+
+    // -- BLOCK SCHEDULING
+
+    void forEachBlock(final Parallelism parallelism, final long blockCount, final LongConsumer onBlock) {
+        parallelism.range(blockCount).forEach(onBlock);
+    }
+
+    /**
+     * Runs up to {@link Runtime#availableProcessors()} workers on given {@link Executor},
+     * each pulling the next block index from a shared counter until all blocks are visited.
+     * Blocks until all workers are done.
+     * Any exception thrown by the block consumer cancels pending blocks and is rethrown.
+     */
+    void forEachBlock(final Executor executor, final long blockCount, final LongConsumer onBlock) {
+        if(blockCount<=0L) return;
+        final int workerCount = (int)Math.min(blockCount, Runtime.getRuntime().availableProcessors());
+        final AtomicLong nextBlock = new AtomicLong();
+        final Runnable worker = ()->{
+            try {
+                long blockIndex;
+                while((blockIndex = nextBlock.getAndIncrement())<blockCount) {
+                    onBlock.accept(blockIndex);
+                }
+            } catch (Throwable e) {
+                nextBlock.set(blockCount); // cancel pending blocks
+                throw e;
+            }
+        };
+        final var workers = new CompletableFuture<?>[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = CompletableFuture.runAsync(worker, executor);
+        }
+        try {
+            CompletableFuture.allOf(workers).join();
+        } catch (CompletionException e) {
+            if(e.getCause() instanceof RuntimeException cause) throw cause;
+            if(e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+
+    // -- HELPER
+
+    long blockCount(final long size, final long blockSize) {
+        if(blockSize<1L) {
+            throw new IllegalArgumentException(String.format("invalid block size %d", blockSize));
+        }
+        return (size + blockSize - 1L) / blockSize;
+    }
+
+    private void acceptRange(final long size, final long rangeSize, final long rangeIndex, final LongRangeConsumer onRange) {
+        final long offset = rangeIndex * rangeSize;
+        onRange.accept(offset, Math.min(rangeSize, size - offset));
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.timing;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative {@code long} values (e.g. latencies in nanoseconds),
+ * with HDR-style log-linear buckets: values below {@link #SUB_BUCKETS} are counted exactly,
+ * larger values with a relative error of at most {@code 1/SUB_BUCKETS} (about 3%).
+ * <p>
+ * {@link #record(long)} is thread-safe and does not allocate.
+ * {@link #snapshot()} and {@link #reset()} are not atomic with respect to concurrent recording.
+ */
+public final class Histogram {
+
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    public record Snapshot(
+            long count,
+            double mean,
+            long p50,
+            long p90,
+            long p99,
+            long p999,
+            long max) {
+        public static Snapshot empty() {
+            return new Snapshot(0L, 0., 0L, 0L, 0L, 0L, 0L);
+        }
+    }
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Negative values are recorded as zero.
+     */
+    public void record(final long value) {
+        final long v = Math.max(0L, value);
+        counts.incrementAndGet(bucketIndex(v));
+        count.increment();
+        sum.add(v);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public double mean() {
+        final long n = count.sum();
+        return n>0
+                ? (double)sum.sum() / n
+                : 0.;
+    }
+
+    /**
+     * Smallest recorded value (within bucket precision), such that {@code percentile} percent
+     * of all recorded values are less than or equal to it.
+     * @param percentile within {@code [0, 100]}
+     */
+    public long valueAtPercentile(final double percentile) {
+        final long total = count.sum();
+        if(total==0L) return 0L;
+        final long target = Math.max(1L, (long)Math.ceil(Math.min(100., Math.max(0., percentile)) * total / 100.));
+        long cumulative = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulative+=counts.get(i);
+            if(cumulative>=target) {
+                return Math.min(highestEquivalentValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(count(), mean(),
+                valueAtPercentile(50.), valueAtPercentile(90.), valueAtPercentile(99.), valueAtPercentile(99.9),
+                max());
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0L);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0L);
+    }
+
+    // -- HELPER
+
+    static int bucketIndex(final long value) {
+        if(value<SUB_BUCKETS) return (int)value;
+        final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        final int subBucket = (int)(value >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long lowestEquivalentValue(final int bucketIndex) {
+        if(bucketIndex<SUB_BUCKETS) return bucketIndex;
+        final int shift = bucketIndex / SUB_BUCKETS - 1;
+        final long subBucket = bucketIndex % SUB_BUCKETS;
+        return (SUB_BUCKETS + subBucket) << shift;
+    }
+
+    static long highestEquivalentValue(final int bucketIndex) {
+        if(bucketIndex<SUB_BUCKETS) return bucketIndex;
+        final int shift = bucketIndex / SUB_BUCKETS - 1;
+        return lowestEquivalentValue(bucketIndex) + ((1L << shift) - 1);
+    }
+
+}
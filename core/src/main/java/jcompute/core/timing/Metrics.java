@@ -0,0 +1,256 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.timing;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Registry of named metrics: {@link Timer}s recording latencies into {@link Histogram}s,
+ * {@link Counter}s (e.g. processed items or transferred bytes) and {@link Gauge}s (current values).
+ * <p>
+ * Metrics are looked up (or created) by name once, typically into static fields, while recording on the
+ * hot path is lock-free and does not allocate, e.g.
+ * <pre>
+ * static final Metrics.Timer KERNEL = Metrics.global().timer("opencl.queue.enqueueKernel");
+ * ...
+ * final long t0 = System.nanoTime();
+ * enqueue(...);
+ * KERNEL.recordSince(t0);
+ * </pre>
+ * @see #reportEvery(Duration, Consumer)
+ */
+public final class Metrics {
+
+    private static final Metrics GLOBAL = new Metrics();
+
+    private volatile long sinceNanos = System.nanoTime();
+    private final Map<String, Metric> metrics = new ConcurrentHashMap<>();
+
+    private Metrics() {}
+
+    /**
+     * The JVM wide registry, as used by jcompute's own instrumentation.
+     */
+    public static Metrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * A new (isolated) registry.
+     */
+    public static Metrics create() {
+        return new Metrics();
+    }
+
+    // -- METRIC TYPES
+
+    public static sealed interface Metric permits Timer, Counter, Gauge {
+        String name();
+        void reset();
+    }
+
+    /**
+     * Records elapsed nanoseconds into a {@link Histogram}.
+     */
+    public static final class Timer implements Metric {
+        private final String name;
+        private final Histogram histogram = new Histogram();
+        private Timer(final String name) { this.name = name; }
+        @Override public String name() { return name; }
+        @Override public void reset() { histogram.reset(); }
+
+        public void record(final long nanos) {
+            histogram.record(nanos);
+        }
+        /**
+         * Records the time elapsed since given {@link System#nanoTime()}.
+         */
+        public void recordSince(final long startNanos) {
+            histogram.record(System.nanoTime() - startNanos);
+        }
+        public void time(final Runnable runnable) {
+            final long t0 = System.nanoTime();
+            try {
+                runnable.run();
+            } finally {
+                recordSince(t0);
+            }
+        }
+        public <T> T time(final Supplier<T> supplier) {
+            final long t0 = System.nanoTime();
+            try {
+                return supplier.get();
+            } finally {
+                recordSince(t0);
+            }
+        }
+        public Histogram.Snapshot snapshot() {
+            return histogram.snapshot();
+        }
+    }
+
+    /**
+     * Monotonic sum, e.g. of processed items or transferred bytes.
+     */
+    public static final class Counter implements Metric {
+        private final String name;
+        private final LongAdder sum = new LongAdder();
+        private Counter(final String name) { this.name = name; }
+        @Override public String name() { return name; }
+        @Override public void reset() { sum.reset(); }
+
+        public void increment() {
+            sum.increment();
+        }
+        public void add(final long delta) {
+            sum.add(delta);
+        }
+        public long sum() {
+            return sum.sum();
+        }
+    }
+
+    /**
+     * Current value, e.g. of bytes in use.
+     */
+    public static final class Gauge implements Metric {
+        private final String name;
+        private final AtomicLong value = new AtomicLong();
+        private Gauge(final String name) { this.name = name; }
+        @Override public String name() { return name; }
+        @Override public void reset() { value.set(0L); }
+
+        public void set(final long newValue) {
+            value.set(newValue);
+        }
+        public void add(final long delta) {
+            value.addAndGet(delta);
+        }
+        public long value() {
+            return value.get();
+        }
+    }
+
+    // -- LOOKUP
+
+    public Timer timer(final String name) {
+        return lookup(name, Timer.class, Timer::new);
+    }
+
+    public Counter counter(final String name) {
+        return lookup(name, Counter.class, Counter::new);
+    }
+
+    public Gauge gauge(final String name) {
+        return lookup(name, Gauge.class, Gauge::new);
+    }
+
+    // -- REPORTING
+
+    /**
+     * Point in time values of all metrics, sorted by name.
+     * @param uptime time since the registry was created (or last reset)
+     */
+    public record Report(
+            Duration uptime,
+            SortedMap<String, Histogram.Snapshot> timers,
+            SortedMap<String, Long> counters,
+            SortedMap<String, Long> gauges) {
+
+        /**
+         * Average rate per second of given counter over the {@link #uptime()}.
+         */
+        public double rate(final String counterName) {
+            final double seconds = uptime.toNanos() * 1e-9;
+            return seconds>0
+                    ? counters.getOrDefault(counterName, 0L) / seconds
+                    : 0.;
+        }
+
+        @Override
+        public String toString() {
+            var sb = new StringBuilder(String.format(Locale.US, "metrics after %.3f s%n", uptime.toNanos() * 1e-9));
+            timers.forEach((name, s)->sb.append(String.format(Locale.US,
+                    "  %-40s count=%d mean=%.3f ms p50=%.3f ms p99=%.3f ms max=%.3f ms%n",
+                    name, s.count(), s.mean() * 1e-6, s.p50() * 1e-6, s.p99() * 1e-6, s.max() * 1e-6)));
+            counters.forEach((name, v)->sb.append(String.format(Locale.US,
+                    "  %-40s %d (%.1f/s)%n", name, v, rate(name))));
+            gauges.forEach((name, v)->sb.append(String.format(Locale.US,
+                    "  %-40s %d%n", name, v)));
+            return sb.toString();
+        }
+    }
+
+    public Report snapshot() {
+        var timers = new TreeMap<String, Histogram.Snapshot>();
+        var counters = new TreeMap<String, Long>();
+        var gauges = new TreeMap<String, Long>();
+        metrics.values().forEach(metric->{
+            switch (metric) {
+                case Timer timer -> timers.put(timer.name(), timer.snapshot());
+                case Counter counter -> counters.put(counter.name(), counter.sum());
+                case Gauge gauge -> gauges.put(gauge.name(), gauge.value());
+            }
+        });
+        return new Report(Duration.ofNanos(System.nanoTime() - sinceNanos), timers, counters, gauges);
+    }
+
+    /**
+     * Reports a {@link #snapshot()} periodically on a background (daemon) thread, until closed.
+     */
+    public AutoCloseable reportEvery(final Duration period, final Consumer<Report> onReport) {
+        var scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("jcompute-metrics").daemon().factory());
+        scheduler.scheduleAtFixedRate(()->onReport.accept(snapshot()),
+                period.toNanos(), period.toNanos(), TimeUnit.NANOSECONDS);
+        return scheduler::shutdownNow;
+    }
+
+    /**
+     * Resets all metrics (not atomic with respect to concurrent recording).
+     */
+    public void reset() {
+        metrics.values().forEach(Metric::reset);
+        sinceNanos = System.nanoTime();
+    }
+
+    // -- HELPER
+
+    private <T extends Metric> T lookup(final String name, final Class<T> type, final Function<String, T> factory) {
+        var metric = metrics.computeIfAbsent(name, factory);
+        if(!type.isInstance(metric)) {
+            throw new IllegalArgumentException(String.format(
+                    "metric '%s' is a %s, not a %s", name, metric.getClass().getSimpleName(), type.getSimpleName()));
+        }
+        return type.cast(metric);
+    }
+
+}
@@ -121,27 +121,49 @@ public class Timing {
     }
 
     public StopWatch run(final Runnable runnable) {
-        final StopWatch watch = now();
-        runnable.run();
-        return watch.stop();
+        return timed(null, runnable);
     }
 
     public void run(final String named, final Runnable runnable) {
-        final StopWatch watch = now();
-        runnable.run();
-        watch.stop();
+        final StopWatch watch = timed(named, runnable);
         System.out.println(String.format("%s took %s", named, watch));
     }
 
     public void runVerbose(final Logger log, final String label, final Runnable runnable) {
-        run(runnable).stop().log(log, label);
+        timed(label, runnable).log(log, label);
     }
 
     public <T> T callVerbose(final Logger log, final String label, final Supplier<T> callable) {
+        final TimingEvent event = new TimingEvent();
+        event.begin();
         final StopWatch watch = now();
         T result = callable.get();
-        watch.stop().log(log, label);
+        watch.stop();
+        commit(event, label);
+        watch.log(log, label);
         return result;
     }
 
+    // -- HELPER
+
+    /**
+     * Also emits a {@link TimingEvent}, if enabled.
+     */
+    private StopWatch timed(final String label, final Runnable runnable) {
+        final TimingEvent event = new TimingEvent();
+        event.begin();
+        final StopWatch watch = now();
+        runnable.run();
+        watch.stop();
+        commit(event, label);
+        return watch;
+    }
+
+    private void commit(final TimingEvent event, final String label) {
+        if(event.shouldCommit()) {
+            event.label = label;
+            event.commit();
+        }
+    }
+
 }
@@ -0,0 +1,45 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.util;
+
+import java.util.stream.LongStream;
+
+/**
+ * Whether bulk operations run on the calling thread only or are split into chunks,
+ * that are then processed on the common {@link java.util.concurrent.ForkJoinPool}.
+ * <p>
+ * @apiNote {@link #PARALLEL} requires any involved {@link java.lang.foreign.MemorySegment}
+ *      to be accessible from multiple threads, e.g. allocated via {@link java.lang.foreign.Arena#ofShared()}
+ */
+public enum Parallelism {
+    SEQUENTIAL{
+        @Override
+        public LongStream range(final long upperExclusive) {
+            return LongStream.range(0L, upperExclusive);
+        }
+    },
+    PARALLEL{
+        @Override
+        public LongStream range(final long upperExclusive) {
+            return LongStream.range(0L, upperExclusive).parallel();
+        }
+    };
+    public abstract LongStream range(long upperExclusive);
+    public boolean isParallel() { return this == PARALLEL; }
+}
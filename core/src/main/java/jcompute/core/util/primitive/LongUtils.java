@@ -18,7 +18,7 @@
  */
 package jcompute.core.util.primitive;
 
-import java.io.IOException;
+import java.io.EOFException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.foreign.MemorySegment;
@@ -58,7 +58,9 @@ public class LongUtils {
         }
         @SneakyThrows
         public long read(final InputStream in) {
-            in.read(byteArray, 0, Long.BYTES);
+            if(in.readNBytes(byteArray, 0, Long.BYTES)<Long.BYTES) {
+                throw new EOFException("unexpected end of stream, could not read a long value");
+            }
             return fromBytes(byteArray);
         }
 
@@ -78,9 +80,9 @@ public class LongUtils {
         public void transfer(final long size, final InputStream in, final LongBulkConsumer out) {
             transfer(size, (long[] values, int offset, int length)->{
                 int bytesToRead = length * Long.BYTES;
-                int bytesRead = in.read(byteArray, 0, bytesToRead);
+                int bytesRead = in.readNBytes(byteArray, 0, bytesToRead);
                 if(bytesRead<bytesToRead) {
-                    throw new IOException("could not read all bytes of a single block");
+                    throw new EOFException("could not read all bytes of a single block");
                 }
                 fromBytes(length, byteArray, longArray);
             }, out);
@@ -0,0 +1,272 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.util.primitive;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+import lombok.SneakyThrows;
+
+/**
+ * Transfers arbitrary-length runs of primitive values between a {@link MemorySegment} and streams or channels,
+ * converting to and from an explicit external byte order with bulk
+ * {@link MemorySegment#copy(MemorySegment, ValueLayout, long, MemorySegment, ValueLayout, long, long)} calls,
+ * rather than per value shifting.
+ * <p>
+ * Staging buffers are allocated once per instance and reused, hence transfers are allocation-free.
+ * Instances are not thread-safe.
+ * <p>
+ * Offsets and counts are in elements, not bytes.
+ */
+public final class ValueExternalizer {
+
+    public static final int DEFAULT_BUFFER_BYTES = 1 << 16;
+
+    private final ValueLayout valueLayout;
+    private final ByteOrder byteOrder;
+    private final ValueLayout internalLayout;
+    private final ValueLayout externalLayout;
+    private final int bufferElements;
+
+    // staging buffers, lazily allocated on first use
+    private byte[] heapBuffer;
+    private MemorySegment heapSegment;
+    private ByteBuffer directBuffer;
+    private MemorySegment directSegment;
+
+    private ValueExternalizer(final ValueLayout valueLayout, final ByteOrder byteOrder, final int bufferBytes) {
+        this.valueLayout = Objects.requireNonNull(valueLayout);
+        this.byteOrder = Objects.requireNonNull(byteOrder);
+        // staging buffers and array segments are not necessarily aligned to the element size
+        this.internalLayout = valueLayout.withOrder(ByteOrder.nativeOrder()).withByteAlignment(1);
+        this.externalLayout = valueLayout.withOrder(byteOrder).withByteAlignment(1);
+        this.bufferElements = Math.max(1, bufferBytes / (int)valueLayout.byteSize());
+    }
+
+    // -- FACTORIES
+
+    public static ValueExternalizer of(final ValueLayout valueLayout, final ByteOrder byteOrder) {
+        return of(valueLayout, byteOrder, DEFAULT_BUFFER_BYTES);
+    }
+
+    public static ValueExternalizer of(final ValueLayout valueLayout, final ByteOrder byteOrder, final int bufferBytes) {
+        if(bufferBytes<1) {
+            throw new IllegalArgumentException(String.format("invalid buffer size %d", bufferBytes));
+        }
+        return new ValueExternalizer(valueLayout, byteOrder, bufferBytes);
+    }
+
+    /**
+     * Externalizer that transfers the payload as is, in native byte order.
+     */
+    public static ValueExternalizer nativeOrder(final ValueLayout valueLayout) {
+        return of(valueLayout, ByteOrder.nativeOrder());
+    }
+
+    public ValueLayout valueLayout() {
+        return valueLayout;
+    }
+
+    public ByteOrder byteOrder() {
+        return byteOrder;
+    }
+
+    /**
+     * Whether the external byte order differs from the native one, requiring byte swapping.
+     */
+    public boolean isSwapping() {
+        return valueLayout.byteSize()>1
+                && !ByteOrder.nativeOrder().equals(byteOrder);
+    }
+
+    // -- STREAMS
+
+    /**
+     * Writes all elements of given segment.
+     */
+    public void write(final MemorySegment src, final OutputStream out) {
+        write(src, 0L, elementCount(src), out);
+    }
+
+    /**
+     * Writes {@code count} elements of given segment, starting at element {@code offset}.
+     */
+    @SneakyThrows
+    public void write(final MemorySegment src, final long offset, final long count, final OutputStream out) {
+        final var staging = heapSegment();
+        final long elementSize = valueLayout.byteSize();
+        for(long done = 0L; done<count;) {
+            final int n = (int)Math.min(bufferElements, count - done);
+            MemorySegment.copy(src, internalLayout, (offset + done) * elementSize,
+                    staging, externalLayout, 0L, n);
+            out.write(heapBuffer, 0, n * (int)elementSize);
+            done+=n;
+        }
+    }
+
+    /**
+     * Fills given segment with elements read from given stream.
+     * @throws EOFException if the stream ends prematurely
+     */
+    public void read(final InputStream in, final MemorySegment dst) {
+        read(in, dst, 0L, elementCount(dst));
+    }
+
+    /**
+     * Reads {@code count} elements into given segment, starting at element {@code offset}.
+     * @throws EOFException if the stream ends prematurely
+     */
+    @SneakyThrows
+    public void read(final InputStream in, final MemorySegment dst, final long offset, final long count) {
+        final var staging = heapSegment();
+        final long elementSize = valueLayout.byteSize();
+        for(long done = 0L; done<count;) {
+            final int n = (int)Math.min(bufferElements, count - done);
+            final int bytes = n * (int)elementSize;
+            final int read = in.readNBytes(heapBuffer, 0, bytes);
+            if(read<bytes) {
+                throw new EOFException(String.format(
+                        "unexpected end of stream, %d of %d elements read", done + read / elementSize, count));
+            }
+            MemorySegment.copy(staging, externalLayout, 0L,
+                    dst, internalLayout, (offset + done) * elementSize, n);
+            done+=n;
+        }
+    }
+
+    // -- CHANNELS
+
+    /**
+     * Writes all elements of given segment.
+     */
+    public void write(final MemorySegment src, final WritableByteChannel out) {
+        write(src, 0L, elementCount(src), out);
+    }
+
+    /**
+     * Writes {@code count} elements of given segment, starting at element {@code offset}.
+     * Native segments in native byte order are written without staging copies.
+     */
+    @SneakyThrows
+    public void write(final MemorySegment src, final long offset, final long count, final WritableByteChannel out) {
+        final long elementSize = valueLayout.byteSize();
+        if(!isSwapping()
+                && src.isNative()) {
+            // ByteBuffer views are limited to 2GB, we transfer slices of at most 1GB
+            final long step = (1L << 30) / elementSize;
+            for(long done = 0L; done<count;) {
+                final long n = Math.min(step, count - done);
+                writeFully(src.asSlice((offset + done) * elementSize, n * elementSize).asByteBuffer(), out);
+                done+=n;
+            }
+            return;
+        }
+        final var staging = directSegment();
+        for(long done = 0L; done<count;) {
+            final int n = (int)Math.min(bufferElements, count - done);
+            MemorySegment.copy(src, internalLayout, (offset + done) * elementSize,
+                    staging, externalLayout, 0L, n);
+            writeFully(directBuffer.clear().limit(n * (int)elementSize), out);
+            done+=n;
+        }
+    }
+
+    /**
+     * Fills given segment with elements read from given channel.
+     * @throws EOFException if the channel ends prematurely
+     */
+    public void read(final ReadableByteChannel in, final MemorySegment dst) {
+        read(in, dst, 0L, elementCount(dst));
+    }
+
+    /**
+     * Reads {@code count} elements into given segment, starting at element {@code offset}.
+     * Native segments in native byte order are read into without staging copies.
+     * @throws EOFException if the channel ends prematurely
+     */
+    @SneakyThrows
+    public void read(final ReadableByteChannel in, final MemorySegment dst, final long offset, final long count) {
+        final long elementSize = valueLayout.byteSize();
+        if(!isSwapping()
+                && dst.isNative()) {
+            final long step = (1L << 30) / elementSize;
+            for(long done = 0L; done<count;) {
+                final long n = Math.min(step, count - done);
+                readFully(in, dst.asSlice((offset + done) * elementSize, n * elementSize).asByteBuffer());
+                done+=n;
+            }
+            return;
+        }
+        final var staging = directSegment();
+        for(long done = 0L; done<count;) {
+            final int n = (int)Math.min(bufferElements, count - done);
+            readFully(in, directBuffer.clear().limit(n * (int)elementSize));
+            MemorySegment.copy(staging, externalLayout, 0L,
+                    dst, internalLayout, (offset + done) * elementSize, n);
+            done+=n;
+        }
+    }
+
+    // -- HELPER
+
+    private long elementCount(final MemorySegment segment) {
+        return segment.byteSize() / valueLayout.byteSize();
+    }
+
+    private MemorySegment heapSegment() {
+        if(heapSegment==null) {
+            heapBuffer = new byte[bufferElements * (int)valueLayout.byteSize()];
+            heapSegment = MemorySegment.ofArray(heapBuffer);
+        }
+        return heapSegment;
+    }
+
+    private MemorySegment directSegment() {
+        if(directSegment==null) {
+            directBuffer = ByteBuffer.allocateDirect(bufferElements * (int)valueLayout.byteSize());
+            directSegment = MemorySegment.ofBuffer(directBuffer);
+        }
+        return directSegment;
+    }
+
+    private static void writeFully(final ByteBuffer buffer, final WritableByteChannel out) throws IOException {
+        while(buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static void readFully(final ReadableByteChannel in, final ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()) {
+            if(in.read(buffer)==-1) {
+                throw new EOFException(String.format(
+                        "unexpected end of stream, %d bytes missing", buffer.remaining()));
+            }
+        }
+    }
+
+}
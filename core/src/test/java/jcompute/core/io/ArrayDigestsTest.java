@@ -0,0 +1,93 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.io;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import jcompute.core.mem.DoubleArray;
+import jcompute.core.mem.LongArray;
+import jcompute.core.shape.Shape;
+import jcompute.core.util.Parallelism;
+
+class ArrayDigestsTest {
+
+    @Test
+    void digestsAgreeOnEqualArrays() {
+        try(var arena = Arena.ofShared()){
+            // spans multiple digest blocks, the last one partial
+            final long size = 3 * ArrayDigests.BLOCK_BYTES / 8 + 123;
+            var a = LongArray.of(arena, Shape.of(size)).fill(i->i * 31);
+            var b = LongArray.of(arena, Shape.of(size)).fill(i->i * 31);
+
+            assertEquals(a.hash(Parallelism.SEQUENTIAL), b.hash(Parallelism.PARALLEL));
+            assertEquals(a.fingerprint(Parallelism.SEQUENTIAL), b.fingerprint(Parallelism.PARALLEL));
+            assertEquals(64, a.fingerprint().length());
+
+            // single element changed, in the last block
+            b.put(size - 1, 0L);
+            assertNotEquals(a.hash(), b.hash());
+            assertNotEquals(a.fingerprint(), b.fingerprint());
+
+            // same payload, but different shape or element type
+            var c = a.reshape(Shape.of(size / 3, 3));
+            var d = new DoubleArray(a.shape(), a.memorySegment());
+            assertNotEquals(a.hash(), c.hash());
+            assertNotEquals(a.fingerprint(), c.fingerprint());
+            assertNotEquals(a.hash(), d.hash());
+            assertNotEquals(a.fingerprint(), d.fingerprint());
+        }
+    }
+
+    @Test
+    void xxh64MatchesReferenceVectors() {
+        assertEquals(0xEF46DB3751D8E999L, ArrayDigests.xxh64(MemorySegment.ofArray(new byte[0]), 0L));
+        assertEquals(0xD24EC4F1A98C6E5BL, ArrayDigests.xxh64(ascii("a"), 0L));
+        assertEquals(0x44BC2CF5AD770999L, ArrayDigests.xxh64(ascii("abc"), 0L));
+        assertEquals(0xFBCEA83C8A378BF1L, ArrayDigests.xxh64(ascii("Nobody inspects the spammish repetition"), 0L));
+    }
+
+    @Test
+    void digestsOfConfinedArraysFallBackToSequential() {
+        final long size = 2 * ArrayDigests.BLOCK_BYTES / 8 + 7;
+        try(var shared = Arena.ofShared();
+                var confined = Arena.ofConfined()){
+            var a = LongArray.of(shared, Shape.of(size)).fill(i->i * 31);
+            var b = LongArray.of(confined, Shape.of(size)).fill(i->i * 31);
+
+            assertEquals(a.hash(), b.hash());
+            assertEquals(a.fingerprint(), b.fingerprint());
+            assertEquals(a.hash(), b.hash(Parallelism.PARALLEL));
+            assertEquals(a.fingerprint(), b.fingerprint(Parallelism.PARALLEL));
+        }
+    }
+
+    // -- HELPER
+
+    private static MemorySegment ascii(final String s) {
+        return MemorySegment.ofArray(s.getBytes(StandardCharsets.US_ASCII));
+    }
+
+}
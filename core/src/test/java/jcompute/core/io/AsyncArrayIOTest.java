@@ -0,0 +1,119 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.io;
+
+import java.io.EOFException;
+import java.lang.foreign.Arena;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import jcompute.core.TempFileProvider;
+import jcompute.core.mem.DoubleArray;
+import jcompute.core.mem.LongArray;
+import jcompute.core.shape.Shape;
+
+class AsyncArrayIOTest {
+
+    @Test
+    void concurrentCheckpoint() throws Exception {
+        final int arrayCount = 6;
+        var rand = new Random(1234);
+
+        try(var arena = Arena.ofShared();
+            // small requests, so each file is transferred with multiple requests in flight
+            var io = AsyncArrayIO.of(4096, 4)) {
+
+            var arrays = new ArrayList<LongArray>();
+            var tempFiles = new ArrayList<TempFileProvider>();
+            var writes = new ArrayList<CompletableFuture<LongArray>>();
+            for (int i = 0; i < arrayCount; i++) {
+                var array = LongArray.of(arena, Shape.of(100 + i * 1_000, 7));
+                array.fill(_->rand.nextInt(64));
+                arrays.add(array);
+                var tempFile = new TempFileProvider(this.getClass());
+                tempFiles.add(tempFile);
+                // every other file compressed
+                writes.add(i%2==0
+                        ? io.write(array, tempFile.get().toPath())
+                        : io.write(array, tempFile.get().toPath(), Compressor.forName(CompressorStreamFactory.GZIP)));
+            }
+            CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).join();
+
+            var reads = new ArrayList<CompletableFuture<LongArray>>();
+            for (int i = 0; i < arrayCount; i++) {
+                var file = tempFiles.get(i).get().toPath();
+                reads.add(i%2==0
+                        ? io.read(file, arena, LongArray::new)
+                        : io.read(file, Compressor.forName(CompressorStreamFactory.GZIP), arena, LongArray::new));
+            }
+            for (int i = 0; i < arrayCount; i++) {
+                assertEquals(arrays.get(i), reads.get(i).join());
+            }
+
+            // uncompressed files are compatible with the blocking channel API
+            try(var channel = FileChannel.open(tempFiles.get(0).get().toPath(), StandardOpenOption.READ)) {
+                assertEquals(arrays.get(0), LongArray.read(arena, channel));
+            }
+
+            // reading into an existing array
+            var target = LongArray.of(arena, arrays.get(2).shape());
+            assertEquals(arrays.get(2), io.readInto(tempFiles.get(2).get().toPath(), target).join());
+
+            tempFiles.forEach(TempFileProvider::close);
+        }
+    }
+
+    @Test
+    void failures() throws Exception {
+        try(var arena = Arena.ofShared();
+            var io = AsyncArrayIO.create();
+            var tempFile = new TempFileProvider(this.getClass())) {
+
+            var file = tempFile.get().toPath();
+            var array = LongArray.of(arena, Shape.of(10_000)).fill(42L);
+            io.write(array, file).join();
+
+            // element type mismatch
+            var mismatch = assertThrows(CompletionException.class, ()->
+                io.read(file, arena, DoubleArray::new).join());
+            assertInstanceOf(IllegalArgumentException.class, mismatch.getCause());
+
+            // truncated payload
+            try(var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(Files.size(file) - 8);
+            }
+            var truncated = assertThrows(CompletionException.class, ()->
+                io.read(file, arena, LongArray::new).join());
+            assertInstanceOf(EOFException.class, truncated.getCause());
+        }
+    }
+
+}
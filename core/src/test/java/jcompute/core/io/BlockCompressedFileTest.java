@@ -0,0 +1,136 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.io;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jcompute.core.TempFileProvider;
+import jcompute.core.mem.ByteArray;
+import jcompute.core.mem.LongArray;
+import jcompute.core.shape.Shape;
+import jcompute.core.util.Parallelism;
+
+class BlockCompressedFileTest {
+
+    static Stream<Arguments> compressors() {
+        return Stream.of(
+                Arguments.of(Named.of("PassThrough", Compressor.passThrough())),
+                Arguments.of(Named.of("GZIP", Compressor.forName(CompressorStreamFactory.GZIP))),
+                Arguments.of(Named.of("LZMA", Compressor.forName(CompressorStreamFactory.LZMA)))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("compressors")
+    void roundtripWithRandomAccess(final Compressor compressor) {
+
+        var expected = new long[1_031 * 97];
+        var rand = new Random(1234);
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = rand.nextInt(64); // limit the domain, so compression can have an effect
+        }
+
+        try(var arena = Arena.ofShared();
+            var tempFile = new TempFileProvider(this.getClass())){
+
+            var file = tempFile.get().toPath();
+            var mem = LongArray.wrap(arena, expected).reshape(Shape.of(1_031, 97));
+            BlockCompressedFile.write(mem, file, compressor, 1000, Parallelism.PARALLEL);
+
+            try(var blockFile = BlockCompressedFile.open(file, compressor)){
+                assertEquals(Shape.of(1_031, 97), blockFile.shape());
+                assertEquals(101, blockFile.blockCount());
+
+                for(var parallelism : Parallelism.values()) {
+                    var mem2 = blockFile.readInto(LongArray.of(arena, blockFile.shape()), parallelism);
+                    assertEquals(mem, mem2);
+                }
+
+                // ranges within a block, spanning blocks, whole blocks and the partial last block
+                long[][] ranges = {{0, 1}, {10, 500}, {999, 2}, {1500, 3000}, {2000, 1000}, {99_990, 13}};
+                for(var range : ranges) {
+                    var actual = new long[(int)range[1]];
+                    blockFile.readRange(range[0], range[1], MemorySegment.ofArray(actual));
+                    var expectedRange = new long[(int)range[1]];
+                    System.arraycopy(expected, (int)range[0], expectedRange, 0, expectedRange.length);
+                    assertArrayEquals(expectedRange, actual);
+                }
+
+                assertThrows(IllegalArgumentException.class, ()->
+                    blockFile.readInto(ByteArray.of(arena, blockFile.shape()), Parallelism.SEQUENTIAL));
+                assertThrows(IndexOutOfBoundsException.class, ()->
+                    blockFile.readRange(100_005, 4, MemorySegment.ofArray(new long[4])));
+            }
+        }
+    }
+
+    @Test
+    void corruptedBlockIsDetected() throws IOException {
+        try(var arena = Arena.ofShared();
+            var tempFile = new TempFileProvider(this.getClass())){
+
+            var file = tempFile.get().toPath();
+            var mem = LongArray.of(arena, Shape.of(10_000)).fill(i->i);
+            BlockCompressedFile.write(mem, file, Compressor.passThrough(), 1000, Parallelism.SEQUENTIAL);
+
+            // flip a payload byte within block 3 (blocks are stored as is, when passed through)
+            try(var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                final long position = BlockCompressedFile.INDEX_OFFSET
+                        + 10 * BlockCompressedFile.INDEX_ENTRY_SIZE
+                        + 3 * 8_000 + 17;
+                var b = ByteBuffer.allocate(1);
+                channel.read(b, position);
+                channel.write(b.put(0, (byte)~b.get(0)).rewind(), position);
+            }
+
+            try(var blockFile = BlockCompressedFile.open(file, Compressor.passThrough())){
+                // blocks other than 3 are still readable
+                var range = new long[1000];
+                blockFile.readRange(4000, 1000, MemorySegment.ofArray(range));
+                assertEquals(4000L, range[0]);
+
+                var e = assertThrows(IOException.class, ()->
+                    blockFile.readRange(3500, 10, MemorySegment.ofArray(new long[10])));
+                assertTrue(e.getMessage().contains("block 3 checksum mismatch"));
+                assertThrows(IOException.class, ()->
+                    blockFile.readInto(LongArray.of(arena, blockFile.shape()), Parallelism.PARALLEL));
+            }
+        }
+    }
+
+}
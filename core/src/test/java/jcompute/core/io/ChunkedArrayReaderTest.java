@@ -0,0 +1,159 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.ValueLayout;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import jcompute.core.TempFileProvider;
+import jcompute.core.mem.FloatArray;
+import jcompute.core.mem.IntArray;
+import jcompute.core.mem.LongArray;
+import jcompute.core.shape.Shape;
+
+class ChunkedArrayReaderTest {
+
+    static Stream<Arguments> compressors() {
+        return Stream.of(
+                Arguments.of(Named.of("PassThrough", Compressor.passThrough())),
+                Arguments.of(Named.of("GZIP", Compressor.forName(CompressorStreamFactory.GZIP))),
+                Arguments.of(Named.of("LongCodec", IntegerCodec.longs()))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("compressors")
+    void chunkedRoundtrip(final Compressor compressor) {
+
+        var shape = Shape.of(1_031, 97);
+
+        try(var arena = Arena.ofShared();
+            var tempFile = new TempFileProvider(this.getClass())){
+
+            var mem = LongArray.of(arena, shape);
+            var rand = new Random(1234);
+            mem.fill(_->rand.nextInt(64));
+
+            // write chunk by chunk, each spanning 10 rows
+            tempFile.write(os->{
+                var out = compressor.out(os);
+                try(var writer = ChunkedArrayWriter.of(out, shape, ValueLayout.JAVA_LONG)) {
+                    for(long row = 0; row < shape.sizeX(); row+=10) {
+                        writer.write(mem.slice(row, Math.min(10, shape.sizeX() - row)));
+                    }
+                }
+                out.close();
+            });
+
+            // read back, the whole array at once
+            LongArray mem2 = tempFile.read(is->
+                LongArray.read(arena, compressor.in(is)));
+            assertEquals(mem, mem2);
+
+            // read back in chunks of whole rows, using a ring of 3 buffers
+            var mem3 = LongArray.of(arena, shape);
+            var chunkShapes = new ArrayList<Shape>();
+            tempFile.read(is->{
+                try(var reader = ChunkedArrayReader.longs(compressor.in(is), 1000, 3)) {
+                    assertEquals(shape, reader.shape());
+                    reader.forEachChunk((offset, chunk)->{
+                        chunkShapes.add(chunk.shape());
+                        chunk.shape().forEach(gid->mem3.put(offset + gid, chunk.get(gid)));
+                    });
+                }
+                return null;
+            });
+            assertEquals(mem, mem3);
+            assertEquals(104, chunkShapes.size());
+            assertEquals(Shape.of(10, 97), chunkShapes.get(0));
+            assertEquals(Shape.of(1, 97), chunkShapes.get(103));
+        }
+    }
+
+    @Test
+    void truncatedStream() {
+        try(var arena = Arena.ofConfined()){
+            var mem = LongArray.of(arena, Shape.of(10_000));
+            var bytes = new ByteArrayOutputStream();
+            mem.write(bytes);
+            var truncated = new ByteArrayInputStream(bytes.toByteArray(), 0, bytes.size() - 8);
+
+            try(var reader = ChunkedArrayReader.longs(truncated, 1024, 2)) {
+                var count = new long[1];
+                assertThrows(EOFException.class, ()->
+                    reader.forEachChunk((_, chunk)->count[0]+=chunk.shape().totalSize()));
+                assertEquals(9 * 1024, count[0]);
+            }
+        }
+    }
+
+    @Test
+    void incompleteWrite() {
+        try(var arena = Arena.ofConfined()){
+            var mem = LongArray.of(arena, Shape.of(100));
+            var writer = ChunkedArrayWriter.of(new ByteArrayOutputStream(), mem.shape(), ValueLayout.JAVA_LONG);
+            writer.write(mem.slice(0, 50));
+            assertThrows(IOException.class, writer::close);
+        }
+    }
+
+    @Test
+    void floatChunks() {
+        try(var arena = Arena.ofConfined()){
+            var values = new float[1000];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = i * 0.5f;
+            }
+            var mem = FloatArray.wrap(arena, values);
+            var shape = mem.shape();
+            var bytes = new ByteArrayOutputStream();
+            try(var writer = ChunkedArrayWriter.of(bytes, shape, ValueLayout.JAVA_FLOAT)) {
+                // same element size, but other element type
+                assertThrows(IllegalArgumentException.class, ()->writer.write(IntArray.of(arena, Shape.of(10))));
+                writer.write(mem.slice(0, 600));
+                writer.write(mem.slice(600, 400));
+            }
+
+            var mem2 = FloatArray.of(arena, shape);
+            try(var reader = ChunkedArrayReader.floats(new ByteArrayInputStream(bytes.toByteArray()), 256, 2)) {
+                reader.forEachChunk((offset, chunk)->
+                    chunk.shape().forEach(gid->mem2.put(offset + gid, chunk.get(gid))));
+            }
+            assertEquals(mem, mem2);
+        }
+    }
+
+}
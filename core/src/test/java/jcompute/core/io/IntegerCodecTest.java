@@ -0,0 +1,144 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jcompute.core.TempFileProvider;
+import jcompute.core.mem.LongArray;
+import jcompute.core.mem.ShortArray;
+import jcompute.core.shape.Shape;
+import jcompute.core.util.Parallelism;
+
+class IntegerCodecTest {
+
+    static Stream<Arguments> codecs() {
+        return Stream.of(
+                Arguments.of(Named.of("longs", IntegerCodec.longs())),
+                Arguments.of(Named.of("ints", IntegerCodec.ints())),
+                Arguments.of(Named.of("shorts", IntegerCodec.shorts())),
+                Arguments.of(Named.of("longs+gzip", IntegerCodec.longs().then(Compressor.gzip())))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("codecs")
+    void losslessForAnyByteStream(final IntegerCodec codec) throws IOException {
+        var rand = new Random(1234);
+        for(int size : new int[] {0, 1, 7, 1024, 1025, 100_003}) {
+            var expected = new byte[size];
+            rand.nextBytes(expected);
+            assertArrayEquals(expected, roundtrip(codec, expected));
+        }
+    }
+
+    @Test
+    void sortedLongsCompressWell() {
+        var rand = new Random(1234);
+        try(var arena = Arena.ofShared();
+            var tempFile = new TempFileProvider(this.getClass())){
+
+            // sorted values with small deltas
+            var mem = LongArray.of(arena, Shape.of(1_000_000));
+            long value = 0x7_0000_0000L;
+            for (long gid = 0; gid < mem.shape().totalSize(); gid++) {
+                value+=1 + rand.nextInt(100);
+                mem.put(gid, value);
+            }
+
+            var file = tempFile.get().toPath();
+            BlockCompressedFile.write(mem, file, Compressor.gzip(), Parallelism.PARALLEL);
+            final long gzipSize = fileSize(file);
+
+            var codec = IntegerCodec.longs();
+            BlockCompressedFile.write(mem, file, codec, Parallelism.PARALLEL);
+            final long codecSize = fileSize(file);
+            final long rawSize = mem.shape().totalSize() * 8;
+            assertTrue(8 * codecSize < rawSize, ()->String.format("codec %d vs raw %d", codecSize, rawSize));
+            assertTrue(codecSize < gzipSize, ()->String.format("codec %d vs gzip %d", codecSize, gzipSize));
+
+            try(var blockFile = BlockCompressedFile.open(file, codec)){
+                assertEquals(mem, blockFile.readInto(LongArray.of(arena, blockFile.shape()), Parallelism.PARALLEL));
+            }
+        }
+    }
+
+    @Test
+    void shortArrayRoundtrip() throws IOException {
+        var rand = new Random(1234);
+        try(var arena = Arena.ofConfined()){
+            var values = new short[10_001];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = (short)(rand.nextInt(16) - 8 + (i==0 ? 0 : values[i - 1]));
+            }
+            var mem = ShortArray.of(arena, Shape.of(values.length)).copyFrom(values);
+            var bos = new ByteArrayOutputStream();
+            try(var out = IntegerCodec.shorts().out(bos)) {
+                Channels.newChannel(out).write(mem.memorySegment().asByteBuffer());
+            }
+            assertTrue(bos.size() < values.length, ()->"encoded size " + bos.size());
+
+            var decoded = ShortArray.of(arena, mem.shape());
+            try(var in = IntegerCodec.shorts().in(new ByteArrayInputStream(bos.toByteArray()))) {
+                decoded.memorySegment().copyFrom(MemorySegment.ofArray(in.readAllBytes()));
+            }
+            assertEquals(mem, decoded);
+        }
+    }
+
+    // -- HELPER
+
+    private static byte[] roundtrip(final Compressor codec, final byte[] bytes) throws IOException {
+        var bos = new ByteArrayOutputStream();
+        try(var out = codec.out(bos)) {
+            out.write(bytes);
+        }
+        try(var in = codec.in(new ByteArrayInputStream(bos.toByteArray()))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static long fileSize(final Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.job;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jcompute.core.shape.Shape;
+import jcompute.core.util.Parallelism;
+
+class JobControlTest {
+
+    @Test
+    void cancellation() {
+        var token = CancellationToken.create();
+        assertFalse(token.isCancelled());
+        token.throwIfCancelled();
+        token.cancel();
+        assertTrue(token.isCancelled());
+        assertThrows(CancellationException.class, token::throwIfCancelled);
+
+        assertTrue(CancellationToken.withTimeout(Duration.ZERO).isCancelled());
+        assertFalse(CancellationToken.withTimeout(Duration.ofHours(1)).isCancelled());
+        assertThrows(UnsupportedOperationException.class, CancellationToken.none()::cancel);
+    }
+
+    @Test
+    void progressIsRateLimited() {
+        var reports = Collections.synchronizedList(new ArrayList<ProgressSink.Progress>());
+
+        var everyCall = ProgressSink.of(10, Duration.ZERO, reports::add);
+        for (int i = 0; i < 10; i++) {
+            everyCall.advance(1);
+        }
+        assertEquals(10, reports.size());
+        assertEquals(10L, reports.getLast().done());
+        assertEquals(1., reports.getLast().fraction(), 1e-9);
+
+        reports.clear();
+        var hourly = ProgressSink.of(10, Duration.ofHours(1), reports::add);
+        for (int i = 0; i < 5; i++) {
+            hourly.advance(1);
+        }
+        assertTrue(reports.isEmpty());
+        hourly.report();
+        assertEquals(1, reports.size());
+        assertEquals(5L, reports.getFirst().done());
+        assertEquals(.5, reports.getFirst().fraction(), 1e-9);
+    }
+
+    @Test
+    void eta() {
+        var progress = new ProgressSink.Progress(25, 100, Duration.ofSeconds(10));
+        assertEquals(Duration.ofSeconds(30), progress.eta().orElseThrow());
+        assertTrue(new ProgressSink.Progress(0, 100, Duration.ofSeconds(10)).eta().isEmpty());
+        assertTrue(new ProgressSink.Progress(25, 0, Duration.ofSeconds(10)).eta().isEmpty());
+    }
+
+    @Test
+    void cancelRunningJob() {
+        var shape = Shape.of(1L << 20);
+        var token = CancellationToken.create();
+        var done = new AtomicLong();
+        var control = new JobControl(token, ProgressSink.of(shape.totalSize(), Duration.ZERO, _->{}));
+
+        assertThrows(CancellationException.class, ()->
+            shape.forEachRange(Parallelism.PARALLEL, 1024, (offset, length)->{
+                control.checkpoint();
+                if(done.addAndGet(length) >= 64 * 1024) {
+                    token.cancel();
+                }
+                control.advance(length);
+            }));
+        // not all ranges were processed
+        assertTrue(control.progress().progress().done() < shape.totalSize());
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.mem;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jcompute.core.shape.Shape;
+
+class ArrayPoolTest {
+
+    @Test
+    void sizeClasses() {
+        assertEquals(ArrayPool.MIN_BLOCK_BYTES, ArrayPool.sizeClass(1));
+        assertEquals(8192, ArrayPool.sizeClass(8192));
+        assertEquals(10240, ArrayPool.sizeClass(8193));
+        assertEquals(14336, ArrayPool.sizeClass(14000));
+        IntStream.range(4097, 100_000).forEach(size->{
+            var sizeClass = ArrayPool.sizeClass(size);
+            assertTrue(sizeClass>=size && sizeClass<=size * 1.25, ()->"size="+size);
+        });
+    }
+
+    @Test
+    void recycling() {
+        try(var pool = ArrayPool.withSoftCapacity(100_000)){
+
+            var longs = pool.longArray(Shape.of(100, 10)).fill(42L);
+            assertEquals(Shape.of(100, 10), longs.shape());
+            pool.release(longs);
+            assertThrows(IllegalArgumentException.class, ()->pool.release(longs));
+
+            // same size class, different type
+            var doubles = pool.doubleArray(Shape.of(999));
+            assertEquals(new ArrayPool.Stats(1, 1, 0, 0, 8192), pool.stats());
+
+            // exceeds the soft capacity, when released
+            var bytes = pool.byteArray(Shape.of(99_000));
+            pool.release(doubles);
+            pool.release(bytes);
+            var stats = pool.stats();
+            assertEquals(2, stats.misses());
+            assertEquals(1, stats.evictions());
+            assertEquals(8192, stats.idleBytes());
+            assertEquals(0, stats.leasedBytes());
+
+            pool.trim();
+            assertEquals(0, pool.stats().idleBytes());
+        }
+    }
+
+}
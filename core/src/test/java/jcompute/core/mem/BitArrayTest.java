@@ -0,0 +1,107 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.mem;
+
+import java.lang.foreign.Arena;
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import jcompute.core.TempFileProvider;
+import jcompute.core.util.Parallelism;
+
+class BitArrayTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 63, 64, 65, 1000, 1_000_003})
+    void agreesWithBitSet(final int bitSize) {
+        var rand = new Random(1234);
+        var expectedA = new BitSet(bitSize);
+        var expectedB = new BitSet(bitSize);
+
+        try(var arena = Arena.ofShared()){
+            var a = BitArray.of(arena, bitSize);
+            var b = BitArray.of(arena, bitSize);
+            for (int i = 0; i < bitSize; i++) {
+                if(rand.nextInt(3)==0) { a.set(i); expectedA.set(i); }
+                if(rand.nextInt(3)==0) { b.set(i); expectedB.set(i); }
+            }
+            a.clear(bitSize - 1);
+            expectedA.clear(bitSize - 1);
+
+            assertEquals(expectedA.cardinality(), a.cardinality());
+            assertEquals(expectedA.cardinality(), a.cardinality(Parallelism.PARALLEL));
+            assertNextBits(expectedA, a);
+
+            a.or(b);
+            expectedA.or(expectedB);
+            assertNextBits(expectedA, a);
+
+            a.andNot(b);
+            expectedA.andNot(expectedB);
+            assertNextBits(expectedA, a);
+
+            b.and(a);
+            expectedB.and(expectedA);
+            assertNextBits(expectedB, b);
+
+            // word slices, the last one partial
+            assertEquals(bitSize - 64L * (a.wordCount() - 1), a.slice(a.wordCount() - 1, 1).bitSize());
+            assertEquals(0L, a.slice(a.wordCount(), 0).bitSize());
+
+            // all set
+            a.clear();
+            for (int i = 0; i < bitSize; i++) {
+                a.set(i);
+            }
+            assertEquals(bitSize, a.cardinality());
+            assertEquals(-1L, a.nextClearBit(0));
+
+            try(var tempFile = new TempFileProvider(this.getClass())){
+                tempFile.write(a::write);
+                var a2 = tempFile.read(is->BitArray.read(arena, is));
+                assertEquals(a, a2);
+            }
+        }
+    }
+
+    private static void assertNextBits(final BitSet expected, final BitArray actual) {
+        assertEquals(expected.cardinality(), actual.cardinality());
+        for (long i = 0; i < actual.bitSize(); i++) {
+            assertEquals(expected.get((int)i), actual.get(i));
+        }
+        // walk all set bits
+        long actualIndex = actual.nextSetBit(0);
+        for (int i = expected.nextSetBit(0); i>=0; i = expected.nextSetBit(i + 1)) {
+            assertEquals(i, actualIndex);
+            actualIndex = actual.nextSetBit(actualIndex + 1);
+        }
+        assertEquals(-1L, actualIndex);
+        for (long i = 0; i < actual.bitSize(); i+=37) {
+            final int expectedClear = expected.nextClearBit((int)i);
+            assertEquals(expectedClear<actual.bitSize() ? expectedClear : -1L, actual.nextClearBit(i));
+            assertEquals(expected.nextSetBit((int)i), actual.nextSetBit(i));
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.mem;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import jcompute.core.TempFileProvider;
+import jcompute.core.io.Compressor;
+import jcompute.core.shape.Shape;
+
+class IntArrayTest {
+
+    static Stream<Arguments> compressors() {
+        return Stream.of(
+                Arguments.of(Named.of("PassThrough", Compressor.passThrough())),
+                Arguments.of(Named.of("GZIP", Compressor.forName(CompressorStreamFactory.GZIP)))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("compressors")
+    void roundtripOnExternalization(final Compressor compressor) throws IOException {
+
+        try(var arena = Arena.ofConfined()){
+            var values = new int[256 * 256];
+            var rand = new Random(1234);
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rand.nextInt();
+            }
+            var mem = IntArray.wrap(arena, values);
+
+            try(var tempFile = new TempFileProvider(this.getClass())){
+
+                tempFile.write(os->
+                    mem.write(compressor.out(os)));
+
+                IntArray mem2 = tempFile.read(is->
+                    IntArray.read(arena, compressor.in(is)));
+
+                assertEquals(mem, mem2);
+                assertArrayEquals(values, mem2.toArray());
+            }
+
+        }
+
+    }
+
+    @Test
+    void bulkFillAndCopy() {
+        try(var arena = Arena.ofConfined()){
+            var ints = IntArray.of(arena, Shape.of(1001));
+            ints.fill(0x1234_5678);
+            ints.fill(10L, 5L, -1);
+            assertEquals(0x1234_5678, ints.get(9));
+            assertEquals(-1, ints.get(10));
+            assertEquals(-1, ints.get(14));
+            assertEquals(0x1234_5678, ints.get(15));
+
+            var floats = FloatArray.of(arena, Shape.of(1001));
+            floats.fill(1.5f);
+            assertEquals(1.5f, floats.get(1000));
+            var copy = FloatArray.of(arena, Shape.of(1001)).copyFrom(floats);
+            assertEquals(floats, copy);
+            assertArrayEquals(floats.toArray(), copy.toArray());
+        }
+    }
+
+}
@@ -20,20 +20,30 @@ package jcompute.core.mem;
 
 import java.io.IOException;
 import java.lang.foreign.Arena;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
 import java.util.Random;
 import java.util.stream.Stream;
 
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
 import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import jcompute.core.TempFileProvider;
+import jcompute.core.io.ArrayHeader;
 import jcompute.core.io.Compressor;
 import jcompute.core.shape.Shape;
+import jcompute.core.util.Parallelism;
 
 class LongArrayTest {
 
@@ -72,4 +82,160 @@ class LongArrayTest {
 
     }
 
+    @Test
+    void bulkFillAndCopy() {
+
+        try(var arena = Arena.ofShared()){
+            final int n = 3_000_001; // spans multiple chunks, not a multiple of the chunk size
+            var mem = LongArray.of(arena, Shape.of(n));
+
+            mem.fill(Parallelism.PARALLEL, 0x0102_0304_0506_0708L);
+            mem.fill(7L, 3L, -1L);
+            for (long gid = 0; gid < n; gid++) {
+                assertEquals(gid>=7 && gid<10
+                        ? -1L
+                        : 0x0102_0304_0506_0708L, mem.get(gid), "at gid: " + gid);
+            }
+
+            var values = new long[n];
+            for (int i = 0; i < n; i++) {
+                values[i] = 31L * i;
+            }
+            mem.copyFrom(values);
+            assertArrayEquals(values, mem.toArray());
+
+            var mem2 = LongArray.of(arena, Shape.of(n));
+            mem2.copyFrom(Parallelism.PARALLEL, mem);
+            assertEquals(mem, mem2);
+
+            assertEquals(LongArray.wrap(arena, values), mem2);
+        }
+
+    }
+
+    @Test
+    void memoryMapping() {
+
+        try(var tempFile = new TempFileProvider(this.getClass())){
+
+            var expected = new long[256 * 256];
+            var rand = new Random(1234);
+            for (int i = 0; i < expected.length; i++) {
+                expected[i] = rand.nextLong();
+            }
+
+            try(var arena = Arena.ofConfined()){
+                var mem = LongArray.mapNew(arena, tempFile.get().toPath(), Shape.of(256, 256));
+                mem.copyFrom(expected);
+            }
+            assertEquals(ArrayHeader.SIZE + 8L * expected.length, tempFile.get().length());
+
+            try(var arena = Arena.ofConfined()){
+                var mem = LongArray.map(arena, tempFile.get().toPath(), MapMode.READ_ONLY);
+                assertEquals(Shape.of(256, 256), mem.shape());
+                assertEquals(-1L, LongArray.wrap(arena, expected).memorySegment().mismatch(mem.memorySegment()));
+                assertThrows(IllegalArgumentException.class, ()->
+                    ByteArray.map(arena, tempFile.get().toPath(), MapMode.READ_ONLY));
+            }
+        }
+
+    }
+
+    @ParameterizedTest
+    @MethodSource("byteOrders")
+    void channelRoundtrip(final ByteOrder byteOrder) throws IOException {
+
+        try(var tempFile = new TempFileProvider(this.getClass())){
+
+            var expected = new long[100_003];
+            var rand = new Random(1234);
+            for (int i = 0; i < expected.length; i++) {
+                expected[i] = rand.nextLong();
+            }
+
+            try(var arena = Arena.ofConfined();
+                var out = FileChannel.open(tempFile.get().toPath(), StandardOpenOption.WRITE)){
+                LongArray.wrap(arena, expected).write(out, byteOrder);
+            }
+            assertEquals(ArrayHeader.SIZE + 8L * expected.length, tempFile.get().length());
+
+            try(var arena = Arena.ofConfined();
+                var in = FileChannel.open(tempFile.get().toPath(), StandardOpenOption.READ)){
+                var mem = LongArray.read(arena, in);
+                assertEquals(Shape.of(expected.length), mem.shape());
+                assertArrayEquals(expected, mem.toArray());
+            }
+
+            // corrupt a single payload byte
+            try(var channel = FileChannel.open(tempFile.get().toPath(), StandardOpenOption.WRITE)){
+                channel.write(ByteBuffer.wrap(new byte[] {42}), ArrayHeader.SIZE + 8L * 1000);
+            }
+            try(var arena = Arena.ofConfined();
+                var in = FileChannel.open(tempFile.get().toPath(), StandardOpenOption.READ)){
+                assertThrows(IOException.class, ()->LongArray.read(arena, in));
+            }
+        }
+
+    }
+
+    @Test
+    void sliceAndReshapeViews() {
+        try(var arena = Arena.ofConfined()){
+            var mem = LongArray.of(arena, Shape.of(4, 3, 2));
+            mem.shape().forEach(gid->mem.put(gid, gid));
+
+            // 3D slice spans whole planes
+            var planes = mem.slice(1, 2);
+            assertEquals(Shape.of(2, 3, 2), planes.shape());
+            assertEquals(mem.shape().gid3d(1, 0, 0), planes.get(0));
+            assertEquals(mem.shape().gid3d(2, 2, 1), planes.get(planes.shape().gid3d(1, 2, 1)));
+
+            // 2D slice spans whole rows
+            var rows = mem.reshape(Shape.of(12, 2)).slice(5, 3);
+            assertEquals(Shape.of(3, 2), rows.shape());
+            assertEquals(10L, rows.get(0));
+
+            // 1D slice, writes through to the original
+            var range = mem.reshape(Shape.of(24)).slice(20, 4);
+            assertArrayEquals(new long[] {20, 21, 22, 23}, range.toArray());
+            range.fill(-1L);
+            assertEquals(-1L, mem.get(23));
+            assertEquals(19L, mem.get(19));
+
+            assertThrows(IndexOutOfBoundsException.class, ()->mem.slice(3, 2));
+            assertThrows(IllegalArgumentException.class, ()->mem.reshape(Shape.of(5, 5)));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("byteOrders")
+    void channelRoundtripOfSharedArena(final ByteOrder byteOrder) throws IOException {
+
+        try(var tempFile = new TempFileProvider(this.getClass())){
+
+            var expected = new long[100_003];
+            var rand = new Random(1234);
+            for (int i = 0; i < expected.length; i++) {
+                expected[i] = rand.nextLong();
+            }
+
+            try(var arena = Arena.ofShared();
+                var out = FileChannel.open(tempFile.get().toPath(), StandardOpenOption.WRITE)){
+                LongArray.wrap(arena, expected).write(out, byteOrder);
+            }
+
+            try(var arena = Arena.ofShared();
+                var in = FileChannel.open(tempFile.get().toPath(), StandardOpenOption.READ)){
+                var mem = LongArray.read(arena, in);
+                assertEquals(Shape.of(expected.length), mem.shape());
+                assertArrayEquals(expected, mem.toArray());
+            }
+        }
+
+    }
+
+    static Stream<ByteOrder> byteOrders() {
+        return Stream.of(ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN);
+    }
+
 }
@@ -0,0 +1,147 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.ops;
+
+import java.lang.foreign.Arena;
+import java.util.Random;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import jcompute.core.mem.ByteArray;
+import jcompute.core.mem.DoubleArray;
+import jcompute.core.mem.LongArray;
+import jcompute.core.mem.ShortArray;
+import jcompute.core.shape.Shape;
+
+class ArrayOpsTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 63, 1003, 100_003})
+    void vectorizedAgreesWithScalar(final int n) {
+        // nothing to compare, when running scalar (module not present or disabled via jcompute.ops.scalar)
+        assumeTrue(ArrayOps.isVectorized());
+
+        var scalar = new _ScalarOps();
+        var rand = new Random(1234);
+        var shape = Shape.of(n);
+        try(var arena = Arena.ofConfined()){
+            var longs = LongArray.of(arena, shape);
+            var bytes = ByteArray.of(arena, shape);
+            var shorts = ShortArray.of(arena, shape);
+            var doubles = DoubleArray.of(arena, shape);
+            for (long gid = 0; gid < n; gid++) {
+                longs.put(gid, rand.nextInt(8)==0 ? 0L : rand.nextLong());
+                bytes.put(gid, (byte)(rand.nextInt(8)==0 ? 0 : rand.nextInt()));
+                shorts.put(gid, (short)(rand.nextInt(8)==0 ? 0 : rand.nextInt()));
+                doubles.put(gid, rand.nextInt(8)==0 ? 0. : rand.nextGaussian());
+            }
+
+            // reductions
+            assertEquals(scalar.sum(longs), ArrayOps.sum(longs));
+            assertEquals(scalar.min(longs), ArrayOps.min(longs));
+            assertEquals(scalar.max(longs), ArrayOps.max(longs));
+            assertEquals(scalar.countNonZero(longs), ArrayOps.countNonZero(longs));
+            assertEquals(scalar.count(longs, Comparison.GT, 0L), ArrayOps.count(longs, Comparison.GT, 0L));
+            assertEquals(scalar.popCount(longs), ArrayOps.popCount(longs));
+
+            assertEquals(scalar.sum(bytes), ArrayOps.sum(bytes));
+            assertEquals(scalar.min(bytes), ArrayOps.min(bytes));
+            assertEquals(scalar.max(bytes), ArrayOps.max(bytes));
+            assertEquals(scalar.countNonZero(bytes), ArrayOps.countNonZero(bytes));
+            assertEquals(scalar.count(bytes, Comparison.LE, (byte)3), ArrayOps.count(bytes, Comparison.LE, (byte)3));
+            assertEquals(scalar.popCount(bytes), ArrayOps.popCount(bytes));
+
+            assertEquals(scalar.sum(shorts), ArrayOps.sum(shorts));
+            assertEquals(scalar.min(shorts), ArrayOps.min(shorts));
+            assertEquals(scalar.max(shorts), ArrayOps.max(shorts));
+            assertEquals(scalar.countNonZero(shorts), ArrayOps.countNonZero(shorts));
+            assertEquals(scalar.count(shorts, Comparison.NE, (short)0), ArrayOps.count(shorts, Comparison.NE, (short)0));
+            assertEquals(scalar.popCount(shorts), ArrayOps.popCount(shorts));
+
+            assertEquals(scalar.sum(doubles), ArrayOps.sum(doubles), 1e-9 * Math.max(1, n));
+            assertEquals(scalar.min(doubles), ArrayOps.min(doubles));
+            assertEquals(scalar.max(doubles), ArrayOps.max(doubles));
+            assertEquals(scalar.countNonZero(doubles), ArrayOps.countNonZero(doubles));
+            assertEquals(scalar.count(doubles, Comparison.LT, 0.5), ArrayOps.count(doubles, Comparison.LT, 0.5));
+
+            // element-wise
+            var expectedLongs = LongArray.of(arena, shape);
+            var actualLongs = LongArray.of(arena, shape);
+            scalar.xor(longs, longs.copyFrom(longs), expectedLongs);
+            scalar.add(longs, expectedLongs, expectedLongs);
+            ArrayOps.xor(longs, longs, actualLongs);
+            ArrayOps.add(longs, actualLongs, actualLongs);
+            assertEquals(expectedLongs, actualLongs);
+
+            var expectedBytes = ByteArray.of(arena, shape);
+            var actualBytes = ByteArray.of(arena, shape);
+            scalar.and(bytes, bytes, expectedBytes);
+            scalar.add(bytes, expectedBytes, expectedBytes);
+            ArrayOps.and(bytes, bytes, actualBytes);
+            ArrayOps.add(bytes, actualBytes, actualBytes);
+            assertEquals(expectedBytes, actualBytes);
+            scalar.andNot(bytes, expectedBytes, expectedBytes);
+            ArrayOps.andNot(bytes, actualBytes, actualBytes);
+            assertEquals(expectedBytes, actualBytes);
+
+            var expectedShorts = ShortArray.of(arena, shape);
+            var actualShorts = ShortArray.of(arena, shape);
+            scalar.or(shorts, shorts, expectedShorts);
+            ArrayOps.or(shorts, shorts, actualShorts);
+            assertEquals(expectedShorts, actualShorts);
+
+            var expectedDoubles = DoubleArray.of(arena, shape);
+            var actualDoubles = DoubleArray.of(arena, shape);
+            scalar.add(doubles, doubles, expectedDoubles);
+            ArrayOps.add(doubles, doubles, actualDoubles);
+            assertEquals(expectedDoubles, actualDoubles);
+
+            // compare to mask
+            var expectedMask = ByteArray.of(arena, shape);
+            var actualMask = ByteArray.of(arena, shape);
+            for(var comparison : Comparison.values()) {
+                scalar.compare(longs, comparison, 0L, expectedMask);
+                assertEquals(expectedMask, ArrayOps.compare(longs, comparison, 0L, actualMask));
+                scalar.compare(bytes, comparison, (byte)-3, expectedMask);
+                assertEquals(expectedMask, ArrayOps.compare(bytes, comparison, (byte)-3, actualMask));
+                scalar.compare(shorts, comparison, (short)0, expectedMask);
+                assertEquals(expectedMask, ArrayOps.compare(shorts, comparison, (short)0, actualMask));
+                scalar.compare(doubles, comparison, 0., expectedMask);
+                assertEquals(expectedMask, ArrayOps.compare(doubles, comparison, 0., actualMask));
+                assertEquals(scalar.count(doubles, comparison, 0.), ArrayOps.countNonZero(actualMask));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1003, 3_000_001})
+    void sumDoesNotOverflowLanes(final int n) {
+        try(var arena = Arena.ofConfined()){
+            var bytes = ByteArray.of(arena, Shape.of(n)).fill((byte)-128);
+            assertEquals(-128L * n, ArrayOps.sum(bytes));
+            var shorts = ShortArray.of(arena, Shape.of(n)).fill(Short.MAX_VALUE);
+            assertEquals((long)Short.MAX_VALUE * n, ArrayOps.sum(shorts));
+        }
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.shape;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NdShapeTest {
+
+    static Stream<Arguments> args() {
+        return Stream.of(
+                Arguments.of(Named.of("Shape.empty()", Shape.empty())),
+                Arguments.of(Named.of("Shape.of(7)", Shape.of(7))),
+                Arguments.of(Named.of("Shape.of(3,5)", Shape.of(3,5))),
+                Arguments.of(Named.of("Shape.of(3,5,7)", Shape.of(3,5,7)))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("args")
+    void externalizationIsCompatibleWithShape(final Shape shape) throws IOException {
+        var ndShape = NdShape.of(shape);
+        assertEquals(shape.totalSize(), ndShape.totalSize());
+        assertEquals(shape, ndShape.toShape());
+
+        // Shape -> NdShape
+        try(var bos = new ByteArrayOutputStream()) {
+            shape.write(bos);
+            assertEquals(ndShape, NdShape.read(new ByteArrayInputStream(bos.toByteArray())));
+        }
+        // NdShape -> Shape
+        try(var bos = new ByteArrayOutputStream()) {
+            ndShape.write(bos);
+            assertEquals(shape, Shape.read(new ByteArrayInputStream(bos.toByteArray())));
+        }
+    }
+
+    @Test
+    void roundtripOnExternalizationBeyond3d() throws IOException {
+        var ndShape = NdShape.of(2, 3, 4, 5, 6);
+        try(var bos = new ByteArrayOutputStream()) {
+            ndShape.write(bos);
+            assertEquals(ndShape, NdShape.read(new ByteArrayInputStream(bos.toByteArray())));
+        }
+    }
+
+    static Stream<Arguments> traversalArgs() {
+        return Stream.of(
+                Arguments.of(Named.of("NdShape.of(7)", NdShape.of(7))),
+                Arguments.of(Named.of("NdShape.of(3,5)", NdShape.of(3, 5))),
+                Arguments.of(Named.of("NdShape.of(3,5,7)", NdShape.of(3, 5, 7))),
+                Arguments.of(Named.of("NdShape.of(2,3,4,5)", NdShape.of(2, 3, 4, 5))),
+                Arguments.of(Named.of("NdShape.of(2,3,1,4,5,2)", NdShape.of(2, 3, 1, 4, 5, 2))),
+                Arguments.of(Named.of("NdShape.columnMajor(2,3,4,5,2)", NdShape.columnMajor(2, 3, 4, 5, 2)))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("traversalArgs")
+    void traversalAgreesWithGid(final NdShape shape) {
+        // specialized loops vs generic odometer
+        var gids = new ArrayList<Long>();
+        var expectedGids = new ArrayList<Long>();
+        shape.forEach(gids::add);
+        shape.forEachIndex((index, gid)->{
+            assertEquals(shape.gid(index), gid);
+            expectedGids.add(gid);
+        });
+        assertEquals(shape.totalSize(), gids.size());
+        assertEquals(expectedGids, gids);
+        assertEquals(shape.totalSize(), gids.stream().distinct().count());
+
+        // permuted view visits the same storage
+        var transposed = shape.transpose();
+        var transposedGids = new ArrayList<Long>();
+        transposed.forEach(transposedGids::add);
+        assertEquals(shape.totalSize(), transposedGids.stream().distinct().count());
+        transposedGids.sort(null);
+        gids.sort(null);
+        assertEquals(gids, transposedGids);
+
+        // host loops over outer dimensions plus inner blocks
+        if(shape.rank()>2 && shape.isRowMajor()) {
+            var inner = shape.innerShape(2);
+            var visited = new ArrayList<Long>();
+            shape.forEachOuter(2, (_, base)->
+                inner.forEach(gid->visited.add(base + gid)));
+            assertEquals(expectedGids, visited);
+        }
+    }
+
+    @Test
+    void views() {
+        var shape = NdShape.of(2, 3, 4);
+        assertTrue(shape.isRowMajor());
+
+        var permuted = shape.permute(2, 0, 1);
+        assertArrayEquals(new long[] {4, 2, 3}, permuted.sizes());
+        assertEquals(shape.gid(1, 2, 3), permuted.gid(3, 1, 2));
+
+        var transposed = NdShape.of(3, 5).transpose();
+        assertEquals(NdShape.columnMajor(5, 3), transposed);
+
+        var sliced = shape.slice(1, 1, 2);
+        assertArrayEquals(new long[] {2, 2, 4}, sliced.sizes());
+        assertEquals(shape.gid(1, 2, 3), sliced.gid(1, 1, 3));
+    }
+
+    @Test
+    void gidRejectsRankMismatch() {
+        assertThrows(IllegalArgumentException.class, ()->NdShape.of(5).gid(1, 2));
+        assertThrows(IllegalArgumentException.class, ()->NdShape.of(2, 3, 4, 5).gid(1, 2, 3));
+        assertThrows(IllegalArgumentException.class, ()->NdShape.of(2, 3).gid(1, 2, 0));
+        assertThrows(IndexOutOfBoundsException.class, ()->NdShape.of(2, 3).gid(1, 3));
+    }
+
+}
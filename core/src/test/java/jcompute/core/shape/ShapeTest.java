@@ -21,6 +21,8 @@ package jcompute.core.shape;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Named;
@@ -30,6 +32,8 @@ import org.junit.jupiter.params.provider.MethodSource;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import jcompute.core.util.Parallelism;
+
 class ShapeTest {
 
     Shape shape2;
@@ -63,4 +67,58 @@ class ShapeTest {
         assertEquals(shape, shape2);
     }
 
+    static Stream<Arguments> traversalArgs() {
+        return Stream.of(
+                Arguments.of(Named.of("Shape.of(100_003)", Shape.of(100_003))),
+                Arguments.of(Named.of("Shape.of(1001,67)", Shape.of(1001, 67))),
+                Arguments.of(Named.of("Shape.of(3,5000)", Shape.of(3, 5000))),
+                Arguments.of(Named.of("Shape.of(31,17,130)", Shape.of(31, 17, 130)))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("traversalArgs")
+    void parallelTraversalVisitsEachIndexOnce(final Shape shape) {
+
+        final long expectedSum = shape.totalSize() * (shape.totalSize() - 1) / 2;
+        var count = new LongAdder();
+        var sum = new LongAdder();
+
+        for(var parallelism : Parallelism.values()) {
+            count.reset(); sum.reset();
+            shape.forEachRange(parallelism, 1000, (offset, length)->{
+                count.add(length);
+                for(long gid = offset; gid<offset+length; ++gid) sum.add(gid);
+            });
+            assertEquals(shape.totalSize(), count.sum());
+            assertEquals(expectedSum, sum.sum());
+
+            count.reset(); sum.reset();
+            shape.forEach(parallelism, (i, j, k)->{
+                count.increment();
+                sum.add(shape.dimensionCount()==3
+                        ? shape.gid3d(i, j, k)
+                        : shape.dimensionCount()==2
+                            ? shape.gid2d(i, j)
+                            : i);
+            });
+            assertEquals(shape.totalSize(), count.sum());
+            assertEquals(expectedSum, sum.sum());
+        }
+
+        if(shape.dimensionCount()>2) return;
+
+        try(var executor = Executors.newFixedThreadPool(3)) {
+            count.reset(); sum.reset();
+            shape.forEach(executor, (i, j)->{
+                count.increment();
+                sum.add(shape.dimensionCount()==2
+                        ? shape.gid2d(i, j)
+                        : i);
+            });
+            assertEquals(shape.totalSize(), count.sum());
+            assertEquals(expectedSum, sum.sum());
+        }
+    }
+
 }
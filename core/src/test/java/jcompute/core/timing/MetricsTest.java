@@ -0,0 +1,94 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.timing;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsTest {
+
+    @Test
+    void histogramBuckets() {
+        // buckets are contiguous and each value maps to a bucket containing it
+        for (int i = 0; i < Histogram.BUCKET_COUNT - 1; i++) {
+            assertEquals(Histogram.highestEquivalentValue(i) + 1, Histogram.lowestEquivalentValue(i + 1));
+        }
+        var rand = new Random(1234);
+        for (int i = 0; i < 10_000; i++) {
+            final long v = rand.nextLong(Long.MAX_VALUE) >>> rand.nextInt(63);
+            final int bucket = Histogram.bucketIndex(v);
+            assertTrue(Histogram.lowestEquivalentValue(bucket) <= v);
+            assertTrue(Histogram.highestEquivalentValue(bucket) >= v);
+        }
+        assertEquals(Histogram.BUCKET_COUNT - 1, Histogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    void histogramPercentiles() {
+        var histogram = new Histogram();
+        // 1..100_000, recorded concurrently
+        IntStream.rangeClosed(1, 100_000).parallel().forEach(histogram::record);
+
+        var snapshot = histogram.snapshot();
+        assertEquals(100_000L, snapshot.count());
+        assertEquals(100_000L, snapshot.max());
+        assertEquals(50_000.5, snapshot.mean(), 1e-9);
+        assertEquals(50_000., snapshot.p50(), 50_000 / Histogram.SUB_BUCKETS);
+        assertEquals(99_000., snapshot.p99(), 99_000 / Histogram.SUB_BUCKETS);
+
+        histogram.reset();
+        assertEquals(Histogram.Snapshot.empty(), histogram.snapshot());
+    }
+
+    @Test
+    void registry() {
+        var metrics = Metrics.create();
+        var timer = metrics.timer("a.timer");
+        var counter = metrics.counter("a.counter");
+        var gauge = metrics.gauge("a.gauge");
+
+        // lookup by name yields the same instance
+        assertTrue(timer == metrics.timer("a.timer"));
+        assertThrows(IllegalArgumentException.class, ()->metrics.counter("a.timer"));
+
+        timer.record(2_000_000L);
+        timer.time(()->{});
+        counter.add(1024L);
+        counter.increment();
+        gauge.set(7L);
+
+        var report = metrics.snapshot();
+        assertEquals(2L, report.timers().get("a.timer").count());
+        assertEquals(2_000_000L, report.timers().get("a.timer").max());
+        assertEquals(1025L, report.counters().get("a.counter"));
+        assertEquals(7L, report.gauges().get("a.gauge"));
+        assertTrue(report.rate("a.counter") > 0.);
+        assertTrue(report.toString().contains("a.timer"));
+
+        metrics.reset();
+        assertEquals(0L, metrics.snapshot().counters().get("a.counter"));
+    }
+
+}
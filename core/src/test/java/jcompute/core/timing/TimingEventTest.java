@@ -0,0 +1,55 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.timing;
+
+import java.nio.file.Files;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+
+class TimingEventTest {
+
+    @Test
+    void timedRunsAreRecorded() throws Exception {
+        var file = Files.createTempFile(TimingEventTest.class.getName(), ".jfr");
+        try(var recording = new Recording()) {
+            recording.enable("jcompute.Timing").withThreshold(Duration.ZERO);
+            recording.start();
+            Timing.run(()->{});
+            Timing.run("fill", ()->{});
+            recording.stop();
+            recording.dump(file);
+
+            var events = RecordingFile.readAllEvents(file).stream()
+                    .filter(e->e.getEventType().getName().equals("jcompute.Timing"))
+                    .toList();
+            assertEquals(2, events.size());
+            assertTrue(events.stream().anyMatch(e->"fill".equals(e.getString("label"))));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.core.util.primitive;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ValueExternalizerTest {
+
+    static Stream<Arguments> layoutsAndOrders() {
+        return Stream.of(ValueLayout.JAVA_BYTE, ValueLayout.JAVA_SHORT, ValueLayout.JAVA_INT,
+                ValueLayout.JAVA_LONG, ValueLayout.JAVA_FLOAT, ValueLayout.JAVA_DOUBLE)
+            .flatMap(layout->Stream.of(
+                    Arguments.of(layout, ByteOrder.BIG_ENDIAN),
+                    Arguments.of(layout, ByteOrder.LITTLE_ENDIAN)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("layoutsAndOrders")
+    void roundtrip(final ValueLayout layout, final ByteOrder byteOrder) {
+        // small buffer, so transfers span multiple rounds
+        var externalizer = ValueExternalizer.of(layout, byteOrder, 100);
+        final long count = 1_000;
+        try(var arena = Arena.ofConfined()){
+            var src = arena.allocate(count * layout.byteSize());
+            var bytes = new byte[(int)src.byteSize()];
+            new Random(1234).nextBytes(bytes);
+            MemorySegment.copy(MemorySegment.ofArray(bytes), 0L, src, 0L, src.byteSize());
+
+            // stream
+            var out = new ByteArrayOutputStream();
+            externalizer.write(src, out);
+            assertExternalOrder(layout, byteOrder, src, out.toByteArray());
+            var dst = arena.allocate(src.byteSize());
+            externalizer.read(new ByteArrayInputStream(out.toByteArray()), dst);
+            assertEquals(-1L, src.mismatch(dst));
+
+            // channel
+            var out2 = new ByteArrayOutputStream();
+            externalizer.write(src, Channels.newChannel(out2));
+            assertArrayEquals(out.toByteArray(), out2.toByteArray());
+            var dst2 = arena.allocate(src.byteSize());
+            externalizer.read(Channels.newChannel(new ByteArrayInputStream(out2.toByteArray())), dst2);
+            assertEquals(-1L, src.mismatch(dst2));
+
+            // partial ranges, into a heap segment
+            var out3 = new ByteArrayOutputStream();
+            externalizer.write(src, 10, 321, out3);
+            var dst3 = MemorySegment.ofArray(new long[(int)count]);
+            externalizer.read(new ByteArrayInputStream(out3.toByteArray()), dst3, 10, 321);
+            assertEquals(-1L, src.asSlice(10 * layout.byteSize(), 321 * layout.byteSize())
+                    .mismatch(dst3.asSlice(10 * layout.byteSize(), 321 * layout.byteSize())));
+        }
+    }
+
+    @Test
+    void shortReads() {
+        var externalizer = ValueExternalizer.of(ValueLayout.JAVA_LONG, ByteOrder.BIG_ENDIAN);
+        var src = MemorySegment.ofArray(LongUtils.samples());
+        var out = new ByteArrayOutputStream();
+        externalizer.write(src, out);
+
+        var dst = MemorySegment.ofArray(new long[LongUtils.samples().length]);
+        externalizer.read(trickling(out.toByteArray()), dst);
+        assertEquals(-1L, src.mismatch(dst));
+
+        // the legacy externalizer must not be fooled by short reads either
+        var in = trickling(out.toByteArray());
+        var longExternalizer = new LongUtils.LongExternalizer(1);
+        for(long v : LongUtils.samples()) {
+            assertEquals(v, longExternalizer.read(in));
+        }
+        assertThrows(EOFException.class, ()->longExternalizer.read(in));
+        assertThrows(EOFException.class, ()->externalizer.read(trickling(new byte[12]), dst));
+    }
+
+    // -- HELPER
+
+    private static void assertExternalOrder(
+            final ValueLayout layout, final ByteOrder byteOrder, final MemorySegment src, final byte[] external) {
+        var expected = MemorySegment.ofArray(new byte[external.length]);
+        final long elementSize = layout.byteSize();
+        for(long i = 0; i < src.byteSize() / elementSize; i++) {
+            for(long b = 0; b < elementSize; b++) {
+                // byte order is reversed within each element, unless external order is native
+                long nativeByte = ByteOrder.nativeOrder().equals(byteOrder)
+                        ? b
+                        : elementSize - 1 - b;
+                expected.set(ValueLayout.JAVA_BYTE, i * elementSize + b,
+                        src.get(ValueLayout.JAVA_BYTE, i * elementSize + nativeByte));
+            }
+        }
+        assertArrayEquals(expected.toArray(ValueLayout.JAVA_BYTE), external);
+    }
+
+    /**
+     * Delivers at most 3 bytes per read call.
+     */
+    private static InputStream trickling(final byte[] bytes) {
+        return new FilterInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                return super.read(b, off, Math.min(3, len));
+            }
+        };
+    }
+
+}
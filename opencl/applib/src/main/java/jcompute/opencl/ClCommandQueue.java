@@ -23,10 +23,21 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 import jcompute.core.shape.Shape;
+import jcompute.core.timing.Metrics;
 
 @RequiredArgsConstructor(access = AccessLevel.PROTECTED)
 public abstract class ClCommandQueue implements ClResource {
 
+    // -- METRICS
+
+    private static final Metrics.Timer FLUSH = Metrics.global().timer("opencl.queue.flush");
+    private static final Metrics.Timer FINISH = Metrics.global().timer("opencl.queue.finish");
+    private static final Metrics.Timer WRITE_BUFFER = Metrics.global().timer("opencl.queue.writeBuffer");
+    private static final Metrics.Timer READ_BUFFER = Metrics.global().timer("opencl.queue.readBuffer");
+    private static final Metrics.Timer ENQUEUE_KERNEL = Metrics.global().timer("opencl.queue.enqueueKernel");
+    private static final Metrics.Counter BYTES_WRITTEN = Metrics.global().counter("opencl.queue.bytesWritten");
+    private static final Metrics.Counter BYTES_READ = Metrics.global().counter("opencl.queue.bytesRead");
+
     @Getter private final ClContext context;
 
     protected abstract int flushQueue();
@@ -56,27 +67,56 @@ public abstract class ClCommandQueue implements ClResource {
     }
 
     public final ClCommandQueue flush() {
+        final long t0 = System.nanoTime();
+        final int ret = flushQueue();
+        FLUSH.recordSince(t0);
         _Util.assertSuccess(
-                flushQueue(), ()->
+                ret, ()->
                     String.format("failed to flush command queue for context %s", context));
         return this;
     }
 
+    /**
+     * Blocks until all enqueued commands have completed, hence its timer reflects time spent waiting for the device.
+     */
     public final ClCommandQueue finish() {
+        var event = new _Events.QueueFinish();
+        event.begin();
+        final long t0 = System.nanoTime();
+        final int ret = finishQueue();
+        FINISH.recordSince(t0);
+        if(event.shouldCommit()) {
+            event.device = _Events.deviceNames(context);
+            event.commit();
+        }
         _Util.assertSuccess(
-                finishQueue(), ()->
+                ret, ()->
                     String.format("failed to finish command queue for context %s", context));
         return this;
     }
 
     public final ClCommandQueue enqueueWriteBuffer(final ClMem memObj) {
-        _Util.assertSuccess(enqueueWriteBuffer(memObj, true), ()->
+        var event = new _Events.BufferTransfer();
+        event.begin();
+        final long t0 = System.nanoTime();
+        final int ret = enqueueWriteBuffer(memObj, true);
+        WRITE_BUFFER.recordSince(t0);
+        BYTES_WRITTEN.add(memObj.size() * memObj.sizeOf());
+        commitTransfer(event, "host to device", memObj);
+        _Util.assertSuccess(ret, ()->
             String.format("failed to enqueue WriteBuffer for context %s", getContext()));
         return this;
     }
 
     public final ClCommandQueue enqueueReadBuffer(final ClMem memObj) {
-        _Util.assertSuccess(enqueueReadBuffer(memObj, true), ()->
+        var event = new _Events.BufferTransfer();
+        event.begin();
+        final long t0 = System.nanoTime();
+        final int ret = enqueueReadBuffer(memObj, true);
+        READ_BUFFER.recordSince(t0);
+        BYTES_READ.add(memObj.size() * memObj.sizeOf());
+        commitTransfer(event, "device to host", memObj);
+        _Util.assertSuccess(ret, ()->
             String.format("failed to enqueue ReadBuffer for context %s", getContext()));
         return this;
     }
@@ -94,10 +134,32 @@ public abstract class ClCommandQueue implements ClResource {
             final ClKernel kernel,
             final Shape globalSize,
             final Shape localSize) {
+        var event = new _Events.KernelEnqueue();
+        event.begin();
+        final long t0 = System.nanoTime();
         int ret = enqueueNDRangeKernel(kernel, globalSize.dimensionCount(), globalSize, localSize);
+        ENQUEUE_KERNEL.recordSince(t0);
+        if(event.shouldCommit()) {
+            event.device = _Events.deviceNames(context);
+            event.kernel = kernel.name();
+            event.globalSize = globalSize.toString();
+            event.workItems = globalSize.totalSize();
+            event.commit();
+        }
         _Util.assertSuccess(ret, ()->
             String.format("failed to enqueue Kernel for context %s", getContext()));
         return this;
     }
 
+    // -- HELPER
+
+    private void commitTransfer(final _Events.BufferTransfer event, final String direction, final ClMem memObj) {
+        if(event.shouldCommit()) {
+            event.direction = direction;
+            event.device = _Events.deviceNames(context);
+            event.bytes = memObj.size() * memObj.sizeOf();
+            event.commit();
+        }
+    }
+
 }
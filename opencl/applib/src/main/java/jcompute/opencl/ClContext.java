@@ -59,8 +59,19 @@ public abstract class ClContext implements AutoCloseable {
         return add(createQueueInternal());
     }
 
+    /**
+     * Creates and builds (compiles) a new program from given source.
+     */
     public final ClProgram createProgram(final String programSource) {
-        return add(createProgramInternal(programSource));
+        var event = new _Events.ProgramBuild();
+        event.begin();
+        var program = add(createProgramInternal(programSource));
+        if(event.shouldCommit()) {
+            event.device = _Events.deviceNames(this);
+            event.sourceLength = programSource.length();
+            event.commit();
+        }
+        return program;
     }
 
     public final ClMem createMemoryReadWrite(final JComputeArray array) {
@@ -0,0 +1,90 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package jcompute.opencl;
+
+import java.util.stream.Collectors;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Java Flight Recorder events of OpenCL command queues and contexts, e.g. recorded via
+ * {@code jcmd <pid> JFR.start} and inspected with JDK Mission Control.
+ * <p>
+ * Event fields are only populated if {@link Event#shouldCommit()}, hence disabled events cost
+ * (next to) nothing.
+ */
+@UtilityClass
+class _Events {
+
+    @Name("jcompute.opencl.BufferTransfer")
+    @Label("OpenCL Buffer Transfer")
+    @Description("Blocking transfer of a memory object between host and device")
+    @Category({"jcompute", "OpenCL"})
+    @StackTrace(false)
+    static final class BufferTransfer extends Event {
+        @Label("Direction") String direction;
+        @Label("Device") String device;
+        @Label("Size") @DataAmount long bytes;
+    }
+
+    @Name("jcompute.opencl.KernelEnqueue")
+    @Label("OpenCL Kernel Enqueue")
+    @Description("Enqueueing of an NDRange kernel (execution is asynchronous, see Queue Finish)")
+    @Category({"jcompute", "OpenCL"})
+    @StackTrace(false)
+    static final class KernelEnqueue extends Event {
+        @Label("Device") String device;
+        @Label("Kernel") String kernel;
+        @Label("Global Size") String globalSize;
+        @Label("Work Items") long workItems;
+    }
+
+    @Name("jcompute.opencl.QueueFinish")
+    @Label("OpenCL Queue Finish")
+    @Description("Waiting for all enqueued commands to complete on the device")
+    @Category({"jcompute", "OpenCL"})
+    @StackTrace(false)
+    static final class QueueFinish extends Event {
+        @Label("Device") String device;
+    }
+
+    @Name("jcompute.opencl.ProgramBuild")
+    @Label("OpenCL Program Build")
+    @Description("Creation and compilation of an OpenCL program from source")
+    @Category({"jcompute", "OpenCL"})
+    static final class ProgramBuild extends Event {
+        @Label("Device") String device;
+        @Label("Source Length") @DataAmount long sourceLength;
+    }
+
+    String deviceNames(final ClContext context) {
+        return context.devices().stream()
+                .map(ClDevice::getName)
+                .collect(Collectors.joining(", "));
+    }
+
+}
@@ -30,8 +30,11 @@ import static org.bytedeco.opencl.global.OpenCL.CL_TRUE;
 import lombok.Getter;
 import lombok.experimental.Accessors;
 
+import jcompute.core.mem.BitArray;
 import jcompute.core.mem.ByteArray;
 import jcompute.core.mem.DoubleArray;
+import jcompute.core.mem.FloatArray;
+import jcompute.core.mem.IntArray;
 import jcompute.core.mem.JComputeArray;
 import jcompute.core.mem.LongArray;
 import jcompute.core.mem.ShortArray;
@@ -110,7 +113,10 @@ public final class ClCommandQueueBd extends ClCommandQueue {
         final Pointer pointer = switch (jcomputeArray) {
             case ByteArray array -> PointerUtils.pointer(array);
             case ShortArray array -> PointerUtils.pointer(array);
+            case IntArray array -> PointerUtils.pointer(array);
             case LongArray array -> PointerUtils.pointer(array);
+            case FloatArray array -> PointerUtils.pointer(array);
+            case BitArray array -> PointerUtils.pointer(array);
             case DoubleArray array -> PointerUtils.pointer(array);
             default -> throw new IllegalArgumentException("Unexpected value: " + jcomputeArray.getClass());
         };
@@ -22,13 +22,18 @@ import java.lang.foreign.MemorySegment;
 
 import org.bytedeco.javacpp.BytePointer;
 import org.bytedeco.javacpp.DoublePointer;
+import org.bytedeco.javacpp.FloatPointer;
+import org.bytedeco.javacpp.IntPointer;
 import org.bytedeco.javacpp.LongPointer;
 import org.bytedeco.javacpp.ShortPointer;
 
 import lombok.experimental.UtilityClass;
 
+import jcompute.core.mem.BitArray;
 import jcompute.core.mem.ByteArray;
 import jcompute.core.mem.DoubleArray;
+import jcompute.core.mem.FloatArray;
+import jcompute.core.mem.IntArray;
 import jcompute.core.mem.LongArray;
 import jcompute.core.mem.ShortArray;
 import jcompute.core.util.primitive.LongUtils;
@@ -46,10 +51,22 @@ public class PointerUtils {
         return new ShortPointer(array.memorySegment().asByteBuffer().asShortBuffer());
     }
 
+    public IntPointer pointer(final IntArray array) {
+        return new IntPointer(array.memorySegment().asByteBuffer().asIntBuffer());
+    }
+
     public LongPointer pointer(final LongArray array) {
         return new LongPointer(array.memorySegment().asByteBuffer().asLongBuffer());
     }
 
+    public LongPointer pointer(final BitArray array) {
+        return new LongPointer(array.memorySegment().asByteBuffer().asLongBuffer());
+    }
+
+    public FloatPointer pointer(final FloatArray array) {
+        return new FloatPointer(array.memorySegment().asByteBuffer().asFloatBuffer());
+    }
+
     public DoublePointer pointer(final DoubleArray array) {
         return new DoublePointer(array.memorySegment().asByteBuffer().asDoubleBuffer());
     }
@@ -64,6 +81,14 @@ public class PointerUtils {
         return pointer;
     }
 
+    public IntPointer copy(final IntArray array, final IntPointer pointer) {
+        pointer.position(0);
+        for (long gid = 0; gid < array.shape().totalSize(); gid++) {
+            pointer.put(gid, array.get(gid));
+        }
+        return pointer;
+    }
+
     public LongPointer copy(final LongArray array, final LongPointer pointer) {
         pointer.position(0);
         for (long gid = 0; gid < array.shape().totalSize(); gid++) {
@@ -72,6 +97,14 @@ public class PointerUtils {
         return pointer;
     }
 
+    public FloatPointer copy(final FloatArray array, final FloatPointer pointer) {
+        pointer.position(0);
+        for (long gid = 0; gid < array.shape().totalSize(); gid++) {
+            pointer.put(gid, array.get(gid));
+        }
+        return pointer;
+    }
+
     public DoublePointer copy(final DoubleArray array, final DoublePointer pointer) {
         pointer.position(0);
         for (long gid = 0; gid < array.shape().totalSize(); gid++) {
@@ -90,6 +123,14 @@ public class PointerUtils {
         return array;
     }
 
+    public IntArray copy(final IntPointer pointer, final IntArray array) {
+        pointer.position(0);
+        for (long gid = 0; gid < array.shape().totalSize(); gid++) {
+            array.put(gid, pointer.get(gid));
+        }
+        return array;
+    }
+
     public LongArray copy(final LongPointer pointer, final LongArray array) {
         var size = array.shape().totalSize();
         var to = array.memorySegment();
@@ -110,6 +151,14 @@ public class PointerUtils {
         return array;
     }
 
+    public FloatArray copy(final FloatPointer pointer, final FloatArray array) {
+        pointer.position(0);
+        for (long gid = 0; gid < array.shape().totalSize(); gid++) {
+            array.put(gid, pointer.get(gid));
+        }
+        return array;
+    }
+
     public DoubleArray copy(final DoublePointer pointer, final DoubleArray array) {
         pointer.position(0);
         for (long gid = 0; gid < array.shape().totalSize(); gid++) {
@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemoryLayout;
 import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
 import java.util.stream.IntStream;
 
 import org.bytedeco.javacpp.LongPointer;
@@ -51,6 +52,28 @@ class MemoryTransferSpeedTest {
         }
     }
 
+    @Test
+    void bulk() throws IOException {
+        try (Arena arena = Arena.ofConfined()) {
+            var mem = LongArray.of(arena, Shape.of(N));
+            Timing.run("bulk-fill", ()->{
+                mem.fill(0x0102_0304_0506_0708L);
+            });
+            mem.shape().forEach(gid->{
+                assertEquals(0x0102_0304_0506_0708L, mem.get(gid));
+            });
+
+            var values = new long[N];
+            Arrays.setAll(values, i->i);
+            Timing.run("bulk-copy-from-heap", ()->{
+                mem.copyFrom(values);
+            });
+            mem.shape().forEach(gid->{
+                assertEquals(gid, mem.get(gid));
+            });
+        }
+    }
+
     @Test
     void javaArray() throws IOException {
         var mem = new long[N];
@@ -106,7 +129,7 @@ class MemoryTransferSpeedTest {
 
         try (Arena arena = Arena.ofConfined()) {
             var mem = LongArray.of(arena, Shape.of(N));
-            mem.fill(gid->0);
+            mem.fill(0L);
 
             //try(var cl = ClDevice.getDefault().createContext()) {
 
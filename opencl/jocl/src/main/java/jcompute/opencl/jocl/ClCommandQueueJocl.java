@@ -25,8 +25,11 @@ import org.jocl.cl_command_queue;
 import lombok.Getter;
 import lombok.experimental.Accessors;
 
+import jcompute.core.mem.BitArray;
 import jcompute.core.mem.ByteArray;
 import jcompute.core.mem.DoubleArray;
+import jcompute.core.mem.FloatArray;
+import jcompute.core.mem.IntArray;
 import jcompute.core.mem.JComputeArray;
 import jcompute.core.mem.LongArray;
 import jcompute.core.mem.ShortArray;
@@ -104,7 +107,10 @@ public final class ClCommandQueueJocl extends ClCommandQueue {
         final Pointer pointer = switch (jcomputeArray) {
             case ByteArray array -> Pointer.to(array.toBuffer());
             case ShortArray array -> Pointer.to(array.toBuffer());
+            case IntArray array -> Pointer.to(array.toBuffer());
             case LongArray array -> Pointer.to(array.toBuffer());
+            case FloatArray array -> Pointer.to(array.toBuffer());
+            case BitArray array -> Pointer.to(array.toBuffer());
             case DoubleArray array -> Pointer.to(array.toBuffer());
             default -> throw new IllegalArgumentException("Unexpected value: " + jcomputeArray.getClass());
         };